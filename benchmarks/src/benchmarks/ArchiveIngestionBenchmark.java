@@ -0,0 +1,89 @@
+package benchmarks;
+
+import file_handlers.ReportInputs;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import report_generation.ExtractionMode;
+import report_generation.XMLIngestionPipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the ingestion of archived reports (zip and tar.gz of 1k-test-case reports): parsed straight from
+ * the archive versus extracted to a temporary folder first and then parsed as files.
+ * Throughput in reports per second is {@code reportsCount / score}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ArchiveIngestionBenchmark {
+    @Param({"10", "100"})
+    public int reportsCount;
+
+    @Param({".zip", ".tar.gz"})
+    public String archiveType;
+
+    private String archivePath;
+    private XMLIngestionPipeline ingestionPipeline;
+
+    @Setup(Level.Trial)
+    public void createArchive() throws Exception {
+        archivePath = SyntheticReports.getReportArchive(reportsCount, archiveType);
+        ingestionPipeline = new XMLIngestionPipeline(Runtime.getRuntime().availableProcessors(), ExtractionMode.STREAMING);
+    }
+
+    @Benchmark
+    public void streamed(Blackhole blackhole) {
+        ingestionPipeline.ingest(List.of(archivePath), (xmlFilePath, tcList) -> blackhole.consume(tcList));
+    }
+
+    @Benchmark
+    public void extractThenParse(Blackhole blackhole) throws Exception {
+        Path extractFolder = Files.createTempDirectory("tsrg-benchmark-extract");
+        try {
+            List<String> extractedPaths = new ArrayList<>();
+            List<String> entryPaths = archiveType.equals(".zip") ? ReportInputs.listZipEntries(archivePath) : null;
+            if (entryPaths != null) {
+                for (String entryPath : entryPaths) {
+                    try (InputStream entryStream = ReportInputs.open(entryPath)) {
+                        extractedPaths.add(extract(entryPath, entryStream, extractFolder));
+                    }
+                }
+            } else {
+                ReportInputs.forEachTarEntry(archivePath, (entryPath, entryStream) -> extractedPaths.add(extract(entryPath, entryStream, extractFolder)));
+            }
+            ingestionPipeline.ingest(extractedPaths, (xmlFilePath, tcList) -> blackhole.consume(tcList));
+        } finally {
+            try (Stream<Path> extractedFiles = Files.walk(extractFolder)) {
+                extractedFiles.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Writes an archive entry to the extraction folder.
+     *
+     * @param entryPath     The path of the entry.
+     * @param entryStream   The content of the entry.
+     * @param extractFolder The extraction folder.
+     * @return The path of the extracted file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static String extract(String entryPath, InputStream entryStream, Path extractFolder) throws IOException {
+        Path extractedPath = extractFolder.resolve(Paths.get(entryPath.substring(entryPath.indexOf(ReportInputs.ENTRY_SEPARATOR) + 2)).getFileName());
+        Files.copy(entryStream, extractedPath);
+        return extractedPath.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import data_types.TestCase;
+import file_handlers.XMLFile;
+import file_handlers.XMLStreamFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extraction of test cases whose fields follow deeply nested test patterns and steps: the field
+ * mapping of the streaming and DOM readers, which visit each direct child of a test case once, versus the former
+ * descendant search, which scans the whole subtree of each test case per field (and picks the nested decoys).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DeepNestingExtractionBenchmark {
+    @Param({"1000", "10000"})
+    public int testCasesCount;
+
+    @Param({"1", "8", "32"})
+    public int nestingDepth;
+
+    private String reportPath;
+
+    @Setup(Level.Trial)
+    public void createReport() throws Exception {
+        reportPath = SyntheticReports.getDeepNestingReport(testCasesCount, nestingDepth);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws Exception {
+        new XMLStreamFile(reportPath).forEachTestCase(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dom(Blackhole blackhole) throws Exception {
+        for (TestCase testCase : new XMLFile(reportPath).getTestCases()) {
+            blackhole.consume(testCase);
+        }
+    }
+
+    @Benchmark
+    public void domDescendantSearch(Blackhole blackhole) throws Exception {
+        NodeList testCaseElements = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(reportPath))
+                .getElementsByTagName("testcase");
+        for (int i = 0; i < testCaseElements.getLength(); i++) {
+            Element element = (Element) testCaseElements.item(i);
+            Element verdictElement = (Element) element.getElementsByTagName("verdict").item(0);
+            blackhole.consume(new TestCase(element.getElementsByTagName("title").item(0).getTextContent(), verdictElement.getAttribute("time"),
+                    verdictElement.getAttribute("endtime"), verdictElement.getAttribute("result"), null,
+                    element.getElementsByTagName("testcaseid").item(0).getTextContent().trim(), element.getAttribute("tcnumber")));
+        }
+    }
+}
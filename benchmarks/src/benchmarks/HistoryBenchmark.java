@@ -0,0 +1,88 @@
+package benchmarks;
+
+import data_types.HistoryRun;
+import data_types.TestCaseStore;
+import file_handlers.VerdictHistoryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the VerdictHistoryStore queries on a history of 5000 test cases per run, with a few flaky tests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+    private static final int TESTS_PER_RUN = 5000;
+
+    @Param({"1000000", "10000000"})
+    public int verdictsCount;
+
+    private String historyFolder;
+    private VerdictHistoryStore verdictHistoryStore;
+    private HistoryRun lastRun;
+
+    @Setup(Level.Trial)
+    public void recordHistory() throws Exception {
+        historyFolder = Files.createTempDirectory("tsrg-benchmark-history").toString();
+        verdictHistoryStore = new VerdictHistoryStore(historyFolder);
+        Random random = new Random(42);
+        for (int runIndex = 0; runIndex < verdictsCount / TESTS_PER_RUN; runIndex++) {
+            TestCaseStore testCaseStore = new TestCaseStore();
+            for (int testIndex = 0; testIndex < TESTS_PER_RUN; testIndex++) {
+                // Every 100th test is flaky, the others fail rarely
+                boolean failing = testIndex % 100 == 0 ? random.nextBoolean() : random.nextInt(1000) == 0;
+                testCaseStore.add("Test case " + testIndex, "2024-01-01 00:00:00", "2024-01-01 00:00:01",
+                        failing ? "fail" : "pass", String.format("00000000-0000-0000-0000-%012d", testIndex));
+            }
+            lastRun = verdictHistoryStore.appendRun(testCaseStore);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteHistory() throws Exception {
+        verdictHistoryStore.close();
+        File[] historyFiles = new File(historyFolder).listFiles();
+        if (historyFiles != null) {
+            for (File historyFile : historyFiles) {
+                historyFile.delete();
+            }
+        }
+        new File(historyFolder).delete();
+    }
+
+    @Benchmark
+    public Object flakyTestsAllRuns() throws Exception {
+        return verdictHistoryStore.findFlakyTests(Integer.MAX_VALUE, 100);
+    }
+
+    @Benchmark
+    public Object flakyTestsLast20Runs() throws Exception {
+        return verdictHistoryStore.findFlakyTests(20, 100);
+    }
+
+    @Benchmark
+    public Object regressions() throws Exception {
+        return verdictHistoryStore.findRegressions(lastRun);
+    }
+
+    @Benchmark
+    public List<?> testHistory() throws Exception {
+        return verdictHistoryStore.getTestHistory("00000000-0000-0000-0000-000000004242", Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Object openHistory() throws Exception {
+        try (VerdictHistoryStore openedHistoryStore = new VerdictHistoryStore(historyFolder)) {
+            return openedHistoryStore.getTestsCount();
+        }
+    }
+}
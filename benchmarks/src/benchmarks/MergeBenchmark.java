@@ -0,0 +1,65 @@
+package benchmarks;
+
+import data_types.MergePolicy;
+import data_types.ReportBreakdown;
+import data_types.TestCase;
+import data_types.TestCaseMerger;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+import file_handlers.XMLStreamFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the merge stage over two runs of the same report, where every test case of the second run repeats
+ * one of the first: the plain concatenation versus each merge policy, all updating the tally and the breakdown.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+    @Param({"100000", "1000000"})
+    public int testCasesCount;
+
+    private ArrayList<TestCase> firstRun;
+    private ArrayList<TestCase> secondRun;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        firstRun = new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).getTestCases();
+        secondRun = new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).getTestCases();
+    }
+
+    @Benchmark
+    public TestCaseStore concatenate() {
+        return merge(MergePolicy.NONE);
+    }
+
+    @Benchmark
+    public TestCaseStore mergeLatest() {
+        return merge(MergePolicy.LATEST);
+    }
+
+    @Benchmark
+    public TestCaseStore mergeWorst() {
+        return merge(MergePolicy.WORST);
+    }
+
+    @Benchmark
+    public TestCaseStore keepAll() {
+        return merge(MergePolicy.KEEP_ALL);
+    }
+
+    private TestCaseStore merge(MergePolicy mergePolicy) {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        TestCaseMerger testCaseMerger = new TestCaseMerger(mergePolicy, testCaseStore, new VerdictCounts(), new ReportBreakdown());
+        testCaseMerger.addFile("first.xml", firstRun);
+        testCaseMerger.addFile("second.xml", secondRun);
+        return testCaseStore;
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import data_types.ReportBreakdown;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+import file_handlers.CsvReportSink;
+import file_handlers.HtmlReportSink;
+import file_handlers.JsonLinesReportSink;
+import file_handlers.ReportSink;
+import file_handlers.XMLStreamFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CSV, JSON Lines and HTML report sinks, each alone and all three fed from one pass over the test cases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReportSinkBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    @Param({"csv", "jsonl", "html", "csv,jsonl,html"})
+    public String outputs;
+
+    private TestCaseStore testCaseStore;
+    private VerdictCounts verdictCounts;
+    private ReportBreakdown reportBreakdown;
+    private String outputFolder;
+    private List<ReportSink> reportSinks;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        testCaseStore = new TestCaseStore();
+        new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).forEachTestCase(testCaseStore::add);
+        verdictCounts = new VerdictCounts();
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            verdictCounts.add(testCaseStore.getVerdict(tcIndex));
+        }
+        reportBreakdown = new ReportBreakdown();
+        outputFolder = SyntheticReports.createOutputFolder();
+    }
+
+    @Setup(Level.Invocation)
+    public void createReportSinks() throws Exception {
+        reportSinks = new ArrayList<>();
+        for (String output : outputs.split(",")) {
+            switch (output) {
+                case "csv":
+                    reportSinks.add(new CsvReportSink(outputFolder, "sink"));
+                    break;
+                case "jsonl":
+                    reportSinks.add(new JsonLinesReportSink(outputFolder, "sink"));
+                    break;
+                default:
+                    reportSinks.add(new HtmlReportSink(outputFolder, "sink"));
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void discardReportSinks() {
+        for (ReportSink reportSink : reportSinks) {
+            reportSink.discard();
+        }
+    }
+
+    @Benchmark
+    public List<ReportSink> writeSinks() throws Exception {
+        for (ReportSink reportSink : reportSinks) {
+            reportSink.begin(testCaseStore, verdictCounts, reportBreakdown, null);
+        }
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            for (ReportSink reportSink : reportSinks) {
+                reportSink.writeTestCase(tcIndex);
+            }
+        }
+        for (ReportSink reportSink : reportSinks) {
+            reportSink.finish();
+        }
+        return reportSinks;
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import data_types.TestCase;
+import data_types.TestCaseStore;
+import file_handlers.XMLStreamFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning extracted test cases into the table source of the workbook: the columnar
+ * TestCaseStore versus the former per-row ArrayList copies. With -prof gc, gc.alloc.rate.norm
+ * divided by testCasesCount gives the bytes allocated per test case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RowConversionBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    private ArrayList<TestCase> testCases;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        testCases = new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).getTestCases();
+    }
+
+    @Benchmark
+    public TestCaseStore testCaseStore() {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        testCaseStore.addAll(testCases);
+        return testCaseStore;
+    }
+
+    @Benchmark
+    public ArrayList<ArrayList<String>> rowLists() {
+        ArrayList<ArrayList<String>> rowDataList = new ArrayList<>();
+        for (TestCase testCase : testCases) {
+            ArrayList<String> rowData = new ArrayList<>();
+            rowData.add(testCase.getTitle());
+            rowData.add(testCase.getStartTime());
+            rowData.add(testCase.getResult());
+            rowDataList.add(rowData);
+        }
+        return rowDataList;
+    }
+}
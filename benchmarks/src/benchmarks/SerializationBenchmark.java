@@ -0,0 +1,58 @@
+package benchmarks;
+
+import data_types.TestCaseStore;
+import file_handlers.ExcelFile;
+import file_handlers.XMLStreamFile;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ExcelFile.createFile, the serialization of an already built workbook to disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    @Param({"0", "100"})
+    public int rowWindowSize;
+
+    private TestCaseStore testCaseStore;
+    private String outputFolder;
+    private ExcelFile excelFile;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        testCaseStore = new TestCaseStore();
+        new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).forEachTestCase(testCaseStore::add);
+        outputFolder = SyntheticReports.createOutputFolder();
+    }
+
+    @Setup(Level.Invocation)
+    public void buildWorkbook() throws Exception {
+        excelFile = new ExcelFile(outputFolder, "serialization", rowWindowSize);
+        Sheet sheet = excelFile.createSheet("Test Cases Table");
+        excelFile.createTable(sheet, "*Test Cases Table*", "A1", "C" + (testCaseStore.size() + 1),
+                new ArrayList<>(List.of("Title", "Time", "Result")), testCaseStore);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteWorkbook() {
+        new File(outputFolder, "serialization.xlsx").delete();
+    }
+
+    @Benchmark
+    public void createFile() throws Exception {
+        excelFile.createFile();
+    }
+}
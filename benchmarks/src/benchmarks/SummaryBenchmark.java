@@ -0,0 +1,103 @@
+package benchmarks;
+
+import data_types.TestCaseStore;
+import data_types.Verdict;
+import data_types.VerdictCounts;
+import file_handlers.ExcelFile;
+import file_handlers.XMLStreamFile;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the summary generation: the single-pass verdict tally versus the former COUNTIF formulas
+ * evaluated through a FormulaEvaluator, and the JFreeChart image versus the native Excel chart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class SummaryBenchmark {
+    private static final String[] COUNTED_RESULTS = {"pass", "fail", "inconclusive"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    private TestCaseStore testCaseStore;
+    private XSSFWorkbook formulaWorkbook;
+    private Sheet formulaSheet;
+    private String outputFolder;
+    private ExcelFile chartExcelFile;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        testCaseStore = new TestCaseStore();
+        new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).forEachTestCase(testCaseStore::add);
+
+        // The pre-tally layout: a result column and a summary sheet with COUNTIF formulas
+        formulaWorkbook = new XSSFWorkbook();
+        Sheet testCasesSheet = formulaWorkbook.createSheet("Test Cases Table");
+        for (int rowIndex = 0; rowIndex < testCaseStore.size(); rowIndex++) {
+            testCasesSheet.createRow(rowIndex + 1).createCell(2).setCellValue(testCaseStore.getResult(rowIndex));
+        }
+        formulaSheet = formulaWorkbook.createSheet("Summary");
+        for (int resultIndex = 0; resultIndex < COUNTED_RESULTS.length; resultIndex++) {
+            formulaSheet.createRow(resultIndex + 1).createCell(1)
+                    .setCellFormula("COUNTIF('Test Cases Table'!C:C, \"" + COUNTED_RESULTS[resultIndex] + "\")");
+        }
+        outputFolder = SyntheticReports.createOutputFolder();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWorkbook() throws Exception {
+        formulaWorkbook.close();
+    }
+
+    @Benchmark
+    public VerdictCounts verdictTally() {
+        VerdictCounts verdictCounts = new VerdictCounts();
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            verdictCounts.add(testCaseStore.getVerdict(tcIndex));
+        }
+        return verdictCounts;
+    }
+
+    @Benchmark
+    public double countifEvaluation() {
+        // A fresh evaluator per run, as createTCsChart used to create one per chart
+        FormulaEvaluator evaluator = formulaWorkbook.getCreationHelper().createFormulaEvaluator();
+        double total = 0;
+        for (int resultIndex = 0; resultIndex < COUNTED_RESULTS.length; resultIndex++) {
+            total += evaluator.evaluate(formulaSheet.getRow(resultIndex + 1).getCell(1)).getNumberValue();
+        }
+        return total;
+    }
+
+    @Setup(Level.Invocation)
+    public void createChartExcelFile() throws Exception {
+        chartExcelFile = new ExcelFile(outputFolder, "chart");
+    }
+
+    @TearDown(Level.Invocation)
+    public void discardChartExcelFile() {
+        chartExcelFile.discard();
+    }
+
+    @Benchmark
+    public void chartRendering() {
+        chartExcelFile.createTCsChart(chartExcelFile.createSheet("Summary"), verdictTally());
+    }
+
+    @Benchmark
+    public void nativeChart() {
+        chartExcelFile.createNativeTCsChart(chartExcelFile.createSheet("Summary"), ChartTypes.PIE,
+                List.of(Verdict.values()), verdictTally(), "A2");
+    }
+}
@@ -0,0 +1,202 @@
+package benchmarks;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates synthetic XML test reports in the format of test_reports/Report_Door_Control_Unit_Tests.xml.
+ * Reports are cached in the temporary folder, so each size is written only once per machine.
+ */
+public final class SyntheticReports {
+    private static final String[] RESULTS = {"pass", "pass", "pass", "fail", "inconclusive", "pass", "fail", "none", "pass", "error"};
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TEST_CASES_PER_FIXTURE = 50;
+
+    private SyntheticReports() {
+    }
+
+    /**
+     * Gets a synthetic report with the given number of test cases, generating it if needed.
+     *
+     * @param testCasesCount The number of test cases in the report.
+     * @return The path of the report file.
+     * @throws IOException If the report cannot be written.
+     */
+    public static synchronized String getReport(int testCasesCount) throws IOException {
+        return getReport("Report_Synthetic_" + testCasesCount + ".xml", testCasesCount, 0);
+    }
+
+    /**
+     * Gets a synthetic report whose test cases start with a chain of nested test patterns and steps, each with
+     * its own title and verdict, placed before the fields of the test case itself. Generates it if needed.
+     *
+     * @param testCasesCount The number of test cases in the report.
+     * @param nestingDepth   The number of nested elements in each chain.
+     * @return The path of the report file.
+     * @throws IOException If the report cannot be written.
+     */
+    public static synchronized String getDeepNestingReport(int testCasesCount, int nestingDepth) throws IOException {
+        return getReport("Report_Synthetic_Nested_" + nestingDepth + "_" + testCasesCount + ".xml", testCasesCount, nestingDepth);
+    }
+
+    /**
+     * Gets a cached synthetic report, generating it if needed.
+     *
+     * @param reportName     The file name of the report.
+     * @param testCasesCount The number of test cases in the report.
+     * @param nestingDepth   The number of nested elements before the fields of each test case.
+     * @return The path of the report file.
+     * @throws IOException If the report cannot be written.
+     */
+    private static String getReport(String reportName, int testCasesCount, int nestingDepth) throws IOException {
+        Path reportFolder = Paths.get(System.getProperty("java.io.tmpdir"), "tsrg-benchmarks");
+        Files.createDirectories(reportFolder);
+        Path reportPath = reportFolder.resolve(reportName);
+        if (!Files.exists(reportPath)) {
+            Path partialPath = reportFolder.resolve(reportPath.getFileName() + ".part");
+            writeReport(partialPath, testCasesCount, nestingDepth);
+            Files.move(partialPath, reportPath);
+        }
+        return reportPath.toString();
+    }
+
+    /**
+     * Gets an archive holding copies of a synthetic report with 1k test cases, generating it if needed.
+     *
+     * @param reportsCount The number of reports in the archive.
+     * @param extension    The archive type: ".zip" or ".tar.gz".
+     * @return The path of the archive.
+     * @throws IOException If the archive cannot be written.
+     */
+    public static synchronized String getReportArchive(int reportsCount, String extension) throws IOException {
+        Path reportFolder = Paths.get(System.getProperty("java.io.tmpdir"), "tsrg-benchmarks");
+        Path archivePath = reportFolder.resolve("Reports_Synthetic_" + reportsCount + extension);
+        if (!Files.exists(archivePath)) {
+            byte[] report = Files.readAllBytes(Paths.get(getReport(1000)));
+            Path partialPath = reportFolder.resolve(archivePath.getFileName() + ".part");
+            try (OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(partialPath), 1 << 16)) {
+                if (extension.equals(".zip")) {
+                    try (ZipOutputStream zipStream = new ZipOutputStream(fileStream)) {
+                        for (int reportIndex = 0; reportIndex < reportsCount; reportIndex++) {
+                            zipStream.putNextEntry(new ZipEntry("reports/Report_" + reportIndex + ".xml"));
+                            zipStream.write(report);
+                            zipStream.closeEntry();
+                        }
+                    }
+                } else {
+                    try (TarArchiveOutputStream tarStream = new TarArchiveOutputStream(new GZIPOutputStream(fileStream, 1 << 16))) {
+                        for (int reportIndex = 0; reportIndex < reportsCount; reportIndex++) {
+                            TarArchiveEntry entry = new TarArchiveEntry("reports/Report_" + reportIndex + ".xml");
+                            entry.setSize(report.length);
+                            tarStream.putArchiveEntry(entry);
+                            tarStream.write(report);
+                            tarStream.closeArchiveEntry();
+                        }
+                    }
+                }
+            }
+            Files.move(partialPath, archivePath);
+        }
+        return archivePath.toString();
+    }
+
+    /**
+     * Writes a synthetic report: test cases grouped in fixtures, each with a verdict, title, id,
+     * external reference and attributes block like the vTESTstudio sample.
+     *
+     * @param reportPath     The file to write.
+     * @param testCasesCount The number of test cases.
+     * @param nestingDepth   The number of nested test patterns and steps before the fields of each test case.
+     * @throws IOException If the report cannot be written.
+     */
+    private static void writeReport(Path reportPath, int testCasesCount, int nestingDepth) throws IOException {
+        LocalDateTime time = LocalDateTime.of(2023, 9, 17, 11, 3, 16);
+        try (BufferedWriter writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+            writer.write('﻿');
+            writer.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+            writer.write("<testreport starttime=\"" + TIME_FORMATTER.format(time) + "\" timestamp=\"45.430000\" verdicts=\"5_extended\" reportrunstate=\"TestComplete\">\n");
+            writer.write("    <testunit starttime=\"" + TIME_FORMATTER.format(time) + "\" timestamp=\"45.430000\">\n");
+            for (int tcIndex = 0; tcIndex < testCasesCount; tcIndex++) {
+                if (tcIndex % TEST_CASES_PER_FIXTURE == 0) {
+                    writer.write("        <testfixture>\n");
+                }
+                String startTime = TIME_FORMATTER.format(time);
+                time = time.plusSeconds(1 + tcIndex % 3);
+                String endTime = TIME_FORMATTER.format(time);
+                writer.write("            <testcase starttime=\"" + startTime + "\" timestamp=\"45.430000\" tcnumber=\"" + (tcIndex + 1) + "\">\n");
+                writeNestedSteps(writer, nestingDepth, startTime);
+                writer.write("                <verdict time=\"" + startTime + "\" timestamp=\"46.130000\" endtime=\"" + endTime
+                        + "\"\n                         endtimestamp=\"47.830000\" result=\"" + RESULTS[tcIndex % RESULTS.length] + "\"/>\n");
+                writer.write("                <title>Synthetic test case " + (tcIndex % 5000) + "</title>\n");
+                writer.write("                <testcaseid>00000000-0000-0000-0000-" + String.format("%012d", tcIndex) + "</testcaseid>\n");
+                writer.write("                <externalref type=\"PREEvision\" title=\"synthetic requirement\" owner=\"vTESTstudio Traceability\"\n"
+                        + "                             uniqueid=\"a31342c143aea0ddc86623\" readableid=\"3298790000\">\n"
+                        + "                    preevision://myServer/Ma31342c143aea0ddc86624XMa31342c143aea0ddc8662310Ma31342c143aea0ddc86623\n"
+                        + "                </externalref>\n");
+                writer.write("                <attributes>\n"
+                        + "                    <attribute>\n                        <name>Lifecycle</name>\n                        <value>finished</value>\n                    </attribute>\n"
+                        + "                    <attribute>\n                        <name>Note</name>\n                        <value/>\n                    </attribute>\n"
+                        + "                </attributes>\n");
+                writer.write("            </testcase>\n");
+                if (tcIndex % TEST_CASES_PER_FIXTURE == TEST_CASES_PER_FIXTURE - 1 || tcIndex == testCasesCount - 1) {
+                    writer.write("            <title>Synthetic fixture " + (tcIndex / TEST_CASES_PER_FIXTURE) + "</title>\n");
+                    writer.write("        </testfixture>\n");
+                }
+            }
+            writer.write("        <verdict time=\"" + TIME_FORMATTER.format(time) + "\" timestamp=\"0\" endtime=\"" + TIME_FORMATTER.format(time)
+                    + "\" endtimestamp=\"0\" result=\"fail\"/>\n");
+            writer.write("        <title>Synthetic Tester</title>\n");
+            writer.write("    </testunit>\n");
+            writer.write("    <title>Synthetic Test Report</title>\n");
+            writer.write("</testreport>\n");
+        }
+    }
+
+    /**
+     * Writes a chain of nested test patterns and steps, each with a decoy title and verdict.
+     *
+     * @param writer       The report writer.
+     * @param nestingDepth The number of nested elements.
+     * @param time         The time of the decoy verdicts.
+     * @throws IOException If the report cannot be written.
+     */
+    private static void writeNestedSteps(BufferedWriter writer, int nestingDepth, String time) throws IOException {
+        for (int level = 0; level < nestingDepth; level++) {
+            String elementName = level % 2 == 0 ? "testpattern" : "teststep";
+            writer.write("<" + elementName + " timestamp=\"45.5\"><title>Decoy step " + level + "</title>"
+                    + "<verdict time=\"" + time + "\" endtime=\"" + time + "\" result=\"fail\"/>"
+                    + "<testcaseid>decoy-" + level + "</testcaseid>");
+        }
+        for (int level = nestingDepth - 1; level >= 0; level--) {
+            writer.write(level % 2 == 0 ? "</testpattern>" : "</teststep>");
+        }
+        if (nestingDepth > 0) {
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Creates an empty temporary folder for benchmark output files.
+     *
+     * @return The folder path ending with a separator, as expected by ExcelFile.
+     * @throws IOException If the folder cannot be created.
+     */
+    public static String createOutputFolder() throws IOException {
+        return Files.createTempDirectory("tsrg-benchmark-output").toString() + File.separator;
+    }
+}
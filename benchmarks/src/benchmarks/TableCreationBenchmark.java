@@ -0,0 +1,90 @@
+package benchmarks;
+
+import data_types.TableData;
+import data_types.TestCaseStore;
+import file_handlers.ExcelFile;
+import file_handlers.XMLStreamFile;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ExcelFile.createTable for the test cases table, in memory (rowWindowSize 0) and streamed, with typed
+ * cells (real dates, verdict styles) and with every cell written as text. createTableFile also writes the workbook
+ * and prints its size at the end of the trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TableCreationBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    @Param({"0", "100"})
+    public int rowWindowSize;
+
+    @Param({"typed", "text"})
+    public String cells;
+
+    private TestCaseStore testCaseStore;
+    private String outputFolder;
+    private ExcelFile excelFile;
+    private boolean fileWritten;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void extractTestCases() throws Exception {
+        testCaseStore = new TestCaseStore();
+        new XMLStreamFile(SyntheticReports.getReport(testCasesCount)).forEachTestCase(testCaseStore::add);
+        outputFolder = SyntheticReports.createOutputFolder();
+    }
+
+    @TearDown(Level.Trial)
+    public void printOutputSize() {
+        if (outputBytes > 0) {
+            System.out.printf("%nWorkbook size (%s cells, rowWindowSize %d): %,d bytes%n", cells, rowWindowSize, outputBytes);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createExcelFile() throws Exception {
+        excelFile = new ExcelFile(outputFolder, "table", rowWindowSize);
+        fileWritten = false;
+    }
+
+    @TearDown(Level.Invocation)
+    public void discardExcelFile() {
+        if (fileWritten) {
+            excelFile.getOutputFile().delete();
+        } else {
+            excelFile.discard();
+        }
+    }
+
+    @Benchmark
+    public Sheet createTable() {
+        Sheet sheet = excelFile.createSheet("Test Cases Table");
+        ArrayList<String> columnNames = new ArrayList<>(List.of("Title", "Time", "Result"));
+        if (cells.equals("typed")) {
+            excelFile.createTable(sheet, "*Test Cases Table*", "A1", "C" + (testCaseStore.size() + 1), columnNames, testCaseStore);
+        } else {
+            // The untyped overload inspects and writes every cell as text
+            excelFile.createTable(sheet, "*Test Cases Table*", "A1", "C" + (testCaseStore.size() + 1), columnNames, (TableData) testCaseStore);
+        }
+        return sheet;
+    }
+
+    @Benchmark
+    public void createTableFile() throws Exception {
+        createTable();
+        excelFile.createFile();
+        fileWritten = true;
+        outputBytes = excelFile.getOutputFile().length();
+    }
+}
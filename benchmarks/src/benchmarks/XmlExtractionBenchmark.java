@@ -0,0 +1,58 @@
+package benchmarks;
+
+import data_types.TestCase;
+import file_handlers.MappedReportScanner;
+import file_handlers.XMLFile;
+import file_handlers.XMLStreamFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extraction of test cases from one XML report, streaming (StAX) versus DOM versus the
+ * memory-mapped byte scanner. The report size is printed so the scores convert to GB/s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class XmlExtractionBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int testCasesCount;
+
+    private String reportPath;
+
+    @Setup(Level.Trial)
+    public void createReport() throws Exception {
+        reportPath = SyntheticReports.getReport(testCasesCount);
+        System.out.printf("%nReport size (%d test cases): %,d bytes%n", testCasesCount, new File(reportPath).length());
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws Exception {
+        new XMLStreamFile(reportPath).forEachTestCase(blackhole::consume);
+    }
+
+    @Benchmark
+    public void dom(Blackhole blackhole) throws Exception {
+        for (TestCase testCase : new XMLFile(reportPath).getTestCases()) {
+            blackhole.consume(testCase);
+        }
+    }
+
+    @Benchmark
+    public void mapped(Blackhole blackhole) throws Exception {
+        ArrayList<TestCase> tcList = new MappedReportScanner(reportPath).getTestCases();
+        if (tcList == null) {
+            throw new IllegalStateException("The scanner fell back on " + reportPath);
+        }
+        for (TestCase testCase : tcList) {
+            blackhole.consume(testCase);
+        }
+    }
+}
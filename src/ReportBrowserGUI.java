@@ -2,17 +2,23 @@ import javax.swing.*;
 
 import com.formdev.flatlaf.FlatDarkLaf;
 import com.formdev.flatlaf.FlatLaf;
-import data_types.TestCase;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.w3c.dom.Element;
+import data_types.MergePolicy;
+import data_types.ReportProgress;
+import data_types.ReportResult;
+import data_types.TestCaseStore;
+import file_handlers.ParsedResultsCache;
+import report_generation.ReportGenerator;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 public class ReportBrowserGUI extends JFrame {
     // List to store selected XML file paths
@@ -21,81 +27,42 @@ public class ReportBrowserGUI extends JFrame {
     // Text field for specifying the output location
     private JTextField outputLocationField;
 
-    // Two-dimensional ArrayList to store test case data for tabular representation
-    ArrayList<ArrayList<String>> rowDataList = new ArrayList<>();
+    // Button starting the generation, or cancelling it while it runs
+    private JButton generateButton;
 
-    /**
-     * Retrieves test case data from an XML file.
-     *
-     * @param xmlFile The XMLFile object representing the XML file to extract test cases from.
-     * @return An ArrayList of TestCase objects containing extracted test case data.
-     */
-    private ArrayList<TestCase> getTestCasesFromXML(XMLFile xmlFile) {
-        ArrayList<TestCase> tcList = new ArrayList<>();
-        for (Element element : xmlFile.getNodeElementsListByTagName("testcase")) {
-            // Extract data and create a TestCase object
-            tcList.add(new TestCase(element.getElementsByTagName("title").item(0).getTextContent(), ((Element) element.getElementsByTagName("verdict").item(0)).getAttribute("time"), ((Element) element.getElementsByTagName("verdict").item(0)).getAttribute("result")));
-        }
-        return tcList;
-    }
+    // Progress bar and status line of the running generation
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
 
-    /**
-     * Prints the details of a list of test cases to the console.
-     *
-     * @param testCaseList An ArrayList of TestCase objects to be printed.
-     */
-    private void printTestCasesList(ArrayList<TestCase> testCaseList) {
-        for (TestCase testCase : testCaseList) {
-            // Print test case details
-            System.out.println("Title: " + testCase.getTitle() + "\nTime: " + testCase.getStartTime() + "\nResult: " + testCase.getResult() + "\n\n");
-        }
-    }
+    // Button opening the test cases of the last generation
+    private JButton viewTestCasesButton;
 
-    /**
-     * Converts a list of test cases into a two-dimensional ArrayList for tabular data.
-     *
-     * @param testCaseArrayLists An ArrayList of ArrayLists of TestCase objects.
-     * @return An ArrayList of ArrayLists of String, representing test case data suitable for tabular representation.
-     */
-    private ArrayList<ArrayList<String>> convertTCListToRowData(ArrayList<ArrayList<TestCase>> testCaseArrayLists) {
-        for (ArrayList<TestCase> tcList : testCaseArrayLists) {
-            for (TestCase testCase : tcList) {
-                // Convert test case data into rows for tabular representation
-                rowDataList.add(new ArrayList<>() {{
-                    add(testCase.getTitle());
-                    add(testCase.getStartTime());
-                    add(testCase.getResult());
-                }});
-            }
-        }
-        return rowDataList;
-    }
+    // The test cases of the last successful generation, or null
+    private TestCaseStore lastTestCaseStore;
 
-    /**
-     * Calculates the total number of inner lists (test cases) from a list of test case lists.
-     *
-     * @param allTCsLists An ArrayList of ArrayLists of TestCase objects.
-     * @return The total number of test cases across all inner lists.
-     */
-    private int getSizeInnerLists(ArrayList<ArrayList<TestCase>> allTCsLists) {
-        int innerLength = 0;
-        for (ArrayList<TestCase> tcList : allTCsLists) {
-            // Calculate the total number of test cases
-            innerLength += tcList.size();
-        }
-        return innerLength;
-    }
+    // The generation currently running in the background, or null
+    private ReportGenerationWorker activeWorker;
+
+    // Cache of parsed XML files, so regenerating only parses new or changed files (null if unavailable)
+    private ParsedResultsCache parsedResultsCache;
 
     public ReportBrowserGUI() {
         // Set the title, size, close operation, and location of the JFrame
         setTitle("XML File Browser");
-        setSize(650, 200);
+        setSize(650, 330);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
         // Initialize the list of XML file paths
         xmlFilePaths = new ArrayList<>();
 
+        // Open the parsed results cache shared by all generations
+        try {
+            parsedResultsCache = new ParsedResultsCache();
+        } catch (IOException e) {
+            System.err.println("Parsed results cache disabled: " + e.getMessage());
+        }
+
         // Set the Look and Feel to FlatLaf with the dark theme
         try {
             UIManager.setLookAndFeel(new FlatDarkLaf());
@@ -134,8 +101,8 @@ public class ReportBrowserGUI extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 JFileChooser fileChooser = new JFileChooser();
 
-                // Set the file filter to show only XML files
-                FileNameExtensionFilter xmlFilter = new FileNameExtensionFilter("XML Files", "xml");
+                // Set the file filter to show only XML files, compressed or in archives
+                FileNameExtensionFilter xmlFilter = new FileNameExtensionFilter("XML Files and Archives", "xml", "gz", "zip", "tar", "tgz");
                 fileChooser.setFileFilter(xmlFilter);
 
                 // Allow multiple file selection
@@ -187,69 +154,80 @@ public class ReportBrowserGUI extends JFrame {
             }
         });
 
+        // Check box for writing live COUNTIF formulas into the summary table instead of the tallied counts
+        JCheckBox countFormulasCheckBox = new JCheckBox("Summary formulas");
+        countFormulasCheckBox.setToolTipText("Write live COUNTIF formulas instead of counts (slower to open for large reports)");
+
+        // Combo box choosing how test cases found in several selected reports are merged, in MergePolicy order
+        JComboBox<String> mergePolicyComboBox = new JComboBox<>(new String[]{"Re-runs: all rows", "Re-runs: latest wins",
+                "Re-runs: worst wins", "Re-runs: numbered"});
+        mergePolicyComboBox.setToolTipText("How a test case read from several reports, by test case ID or title and group, is counted");
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        optionsPanel.add(countFormulasCheckBox);
+        optionsPanel.add(mergePolicyComboBox);
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.fill = GridBagConstraints.NONE;
+        panel.add(optionsPanel, gbc);
+
         // Button to generate reports
-        JButton generateButton = new JButton("Generate Reports");
+        generateButton = new JButton("Generate Reports");
         gbc.gridx = 1;
         gbc.gridy = 2;
         gbc.gridwidth = 2;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         panel.add(generateButton, gbc);
 
+        // Progress bar and status line of the running generation
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridwidth = 3;
+        panel.add(progressBar, gbc);
+
+        statusLabel = new JLabel(" ");
+        gbc.gridy = 4;
+        panel.add(statusLabel, gbc);
+
+        // Button opening the parsed test cases in a table, enabled once a generation succeeded
+        viewTestCasesButton = new JButton("View Test Cases");
+        viewTestCasesButton.setEnabled(false);
+        gbc.gridy = 5;
+        panel.add(viewTestCasesButton, gbc);
+
+        viewTestCasesButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (lastTestCaseStore != null) {
+                    new TestCaseViewer(lastTestCaseStore).setVisible(true);
+                }
+            }
+        });
+
         generateButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
+                if (activeWorker != null) {
+                    // A generation is running: the button cancels it
+                    activeWorker.cancelGeneration();
+                    generateButton.setEnabled(false);
+                    generateButton.setText("Cancelling...");
+                    return;
+                }
                 String outputLocationPath = outputLocationField.getText();
                 if (xmlFilePaths.size() > 0) {
-                    ReportBrowserGUI main = new ReportBrowserGUI();
-                    // You can now use xmlFilePaths (List of selected XML file paths) and outputLocationPath
                     System.out.println("Output Location: " + outputLocationPath);
-                    ArrayList<ArrayList<TestCase>> allTCsLists = new ArrayList<>();
-                    for (String xmlFilePath : xmlFilePaths) {
-                        allTCsLists.add(main.getTestCasesFromXML(new XMLFile(xmlFilePath)));
-                        System.out.println("XML File: " + xmlFilePath + "\n");
-                    }
-
-                    for (ArrayList<TestCase> list : allTCsLists) {
-                        main.printTestCasesList(list);
-                    }
-                    int innerListsSize = main.getSizeInnerLists(allTCsLists);
-                    ExcelFile reportExcelFile;
-                    if (outputLocationPath != null)
-                        reportExcelFile = new ExcelFile(outputLocationPath + "/", "Test Summary Report");
-                    else reportExcelFile = new ExcelFile("test_excel_reports/", "Test Summary Report");
-
-                    XSSFSheet testCasesTableSheet = reportExcelFile.createSheet("Test Cases Table");
-                    reportExcelFile.createTable(testCasesTableSheet, "*Test Cases Table*", "A1", "C" + innerListsSize, 3, new ArrayList<>() {{
-                        //Columns Data
-                        add("Title");
-                        add("Time");
-                        add("Result");
-                    }}, innerListsSize, main.convertTCListToRowData(allTCsLists));
-
-                    ArrayList<ArrayList<String>> chartTableData = new ArrayList<>();
-                    chartTableData.add(new ArrayList<>() {{
-                        add("Pass");
-                        add("formula=COUNTIF('" + testCasesTableSheet.getSheetName() + "'!C:C, \"pass\")");
-                    }});
-
-                    chartTableData.add(new ArrayList<>() {{
-                        add("Fail");
-                        add("formula=COUNTIF('" + testCasesTableSheet.getSheetName() + "'!C:C, \"fail\")");
-                    }});
-
-                    chartTableData.add(new ArrayList<>() {{
-                        add("Inconclusive");
-                        add("formula=COUNTIF('" + testCasesTableSheet.getSheetName() + "'!C:C, \"inconclusive\")");
-                    }});
-
-                    XSSFSheet chartSheet = reportExcelFile.createSheet("Summary");
-                    reportExcelFile.createTable(chartSheet, "*Test Summary Table*", "A1", "B3", 2, new ArrayList<>() {{
-                        add("Result");
-                        add("Count");
-                    }}, 3, chartTableData);
-
-                    reportExcelFile.createTCsChart(chartSheet);
-                    reportExcelFile.createFile();
-                    JOptionPane.showMessageDialog(null, "File created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    ReportGenerator reportGenerator = new ReportGenerator();
+                    reportGenerator.setUseCountFormulas(countFormulasCheckBox.isSelected());
+                    reportGenerator.setMergePolicy(MergePolicy.values()[mergePolicyComboBox.getSelectedIndex()]);
+                    reportGenerator.setParsedResultsCache(parsedResultsCache);
+                    // Run the generation off the event dispatch thread so the window stays responsive
+                    activeWorker = new ReportGenerationWorker(reportGenerator, new ArrayList<>(xmlFilePaths), outputLocationPath);
+                    generateButton.setText("Cancel");
+                    // Release the previous test cases before parsing the new ones
+                    lastTestCaseStore = null;
+                    viewTestCasesButton.setEnabled(false);
+                    activeWorker.execute();
                 }
             }
         });
@@ -258,6 +236,87 @@ public class ReportBrowserGUI extends JFrame {
         setContentPane(panel);
     }
 
+    /**
+     * Runs one report generation in the background, publishing its progress to the window.
+     */
+    private class ReportGenerationWorker extends SwingWorker<ReportResult, ReportProgress> {
+        private final ReportGenerator reportGenerator; // The configured generator
+        private final List<String> selectedFilePaths;  // The XML files to parse
+        private final String outputLocationPath;       // The output folder
+
+        /**
+         * Constructor for ReportGenerationWorker.
+         *
+         * @param reportGenerator    The configured generator.
+         * @param selectedFilePaths  The XML files to parse.
+         * @param outputLocationPath The output folder.
+         */
+        ReportGenerationWorker(ReportGenerator reportGenerator, List<String> selectedFilePaths, String outputLocationPath) {
+            this.reportGenerator = reportGenerator;
+            this.selectedFilePaths = selectedFilePaths;
+            this.outputLocationPath = outputLocationPath;
+            reportGenerator.setProgressListener(this::publish);
+            reportGenerator.setMessageListener(System.out::println);
+        }
+
+        /**
+         * Asks the generator to stop; the partially written workbook is deleted before the worker finishes.
+         */
+        void cancelGeneration() {
+            reportGenerator.cancel();
+        }
+
+        @Override
+        protected ReportResult doInBackground() throws IOException {
+            return reportGenerator.generate(selectedFilePaths, outputLocationPath, ReportGenerator.DEFAULT_REPORT_NAME);
+        }
+
+        @Override
+        protected void process(List<ReportProgress> progressUpdates) {
+            // Only the latest snapshot matters
+            ReportProgress progress = progressUpdates.get(progressUpdates.size() - 1);
+            double stageFraction = progress.getStageFraction();
+            progressBar.setIndeterminate(stageFraction < 0);
+            progressBar.setValue(stageFraction < 0 ? 0 : (int) (stageFraction * progressBar.getMaximum()));
+            progressBar.setString(progress.toString());
+            statusLabel.setText(String.format("Files parsed: %d/%d   Rows written: %d   Bytes written: %,d",
+                    progress.getFilesParsed(), selectedFilePaths.size(), progress.getRowsWritten(), progress.getBytesWritten()));
+        }
+
+        @Override
+        protected void done() {
+            activeWorker = null;
+            generateButton.setText("Generate Reports");
+            generateButton.setEnabled(true);
+            progressBar.setIndeterminate(false);
+            try {
+                ReportResult reportResult = get();
+                lastTestCaseStore = reportResult.getTestCaseStore();
+                viewTestCasesButton.setEnabled(true);
+                progressBar.setValue(progressBar.getMaximum());
+                progressBar.setString("Done");
+                if (reportResult.hasParseErrors()) {
+                    JOptionPane.showMessageDialog(ReportBrowserGUI.this, "File created, but these files could not be parsed:\n"
+                            + String.join("\n", reportResult.getIngestionStatistics().getFailedFilePaths()), "Warning", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(ReportBrowserGUI.this, "File created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                }
+            } catch (ExecutionException exception) {
+                progressBar.setValue(0);
+                if (exception.getCause() instanceof CancellationException) {
+                    progressBar.setString("Cancelled");
+                    statusLabel.setText("Generation cancelled, the partial report was removed.");
+                } else {
+                    progressBar.setString("Failed");
+                    JOptionPane.showMessageDialog(ReportBrowserGUI.this, "Cannot write report: " + exception.getCause().getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     // Main method to create and display the GUI
     public static void main(String[] args) {
         // Create and display the GUI on the Swing event dispatch thread
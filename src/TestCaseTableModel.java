@@ -0,0 +1,81 @@
+import data_types.TestCaseStore;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Represents a lazy table model over the parsed test cases. It holds no cell values: only the store indices
+ * of the shown rows, so the JTable asks for the values of the visible rows only, however many rows are loaded.
+ */
+public class TestCaseTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    // The names of the table columns
+    static final String[] COLUMN_NAMES = {"Title", "Start Time", "End Time", "Result", "Test Case ID"};
+    static final int TITLE_COLUMN = 0, START_TIME_COLUMN = 1, END_TIME_COLUMN = 2, RESULT_COLUMN = 3;
+
+    // The test cases shown in the table
+    private final TestCaseStore testCaseStore;
+
+    // The store index of each shown row, in display order
+    private int[] shownRows;
+
+    /**
+     * Constructor for TestCaseTableModel, showing every test case in store order.
+     *
+     * @param testCaseStore The test cases.
+     */
+    public TestCaseTableModel(TestCaseStore testCaseStore) {
+        this.testCaseStore = testCaseStore;
+        shownRows = new int[testCaseStore.size()];
+        for (int tcIndex = 0; tcIndex < shownRows.length; tcIndex++) {
+            shownRows[tcIndex] = tcIndex;
+        }
+    }
+
+    /**
+     * Replaces the shown rows. Must be called on the event dispatch thread.
+     *
+     * @param shownRows The store index of each shown row, in display order.
+     */
+    public void setShownRows(int[] shownRows) {
+        this.shownRows = shownRows;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return shownRows.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return COLUMN_NAMES[columnIndex];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int tcIndex = shownRows[rowIndex];
+        switch (columnIndex) {
+            case TITLE_COLUMN:
+                return testCaseStore.getTitle(tcIndex);
+            case START_TIME_COLUMN:
+                return testCaseStore.getStartTime(tcIndex);
+            case END_TIME_COLUMN:
+                return testCaseStore.getEndTime(tcIndex);
+            case RESULT_COLUMN:
+                return testCaseStore.getResult(tcIndex);
+            default:
+                return testCaseStore.getTestCaseId(tcIndex);
+        }
+    }
+}
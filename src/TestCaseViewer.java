@@ -0,0 +1,224 @@
+import data_types.TestCaseFilter;
+import data_types.TestCaseIndex;
+import data_types.TestCaseSortKey;
+import data_types.TestCaseStore;
+import data_types.Verdict;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Represents the window listing the parsed test cases. The table only renders the visible rows, and filtering
+ * and sorting run on a background thread through the precomputed TestCaseIndex, so the window stays responsive
+ * with millions of test cases loaded.
+ */
+public class TestCaseViewer extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    // Quiet time after the last key stroke before a text filter is applied
+    private static final int TYPING_DELAY_MILLIS = 250;
+
+    // The sort key of each table column, the test case ID column is not sortable
+    private static final TestCaseSortKey[] COLUMN_SORT_KEYS = {TestCaseSortKey.TITLE, TestCaseSortKey.START_TIME,
+            TestCaseSortKey.END_TIME, TestCaseSortKey.RESULT, null};
+
+    // The indexes used to filter and sort the test cases
+    private final TestCaseIndex testCaseIndex;
+
+    // The model of the table, holding the shown rows
+    private final TestCaseTableModel tableModel;
+
+    // The table listing the shown rows
+    private final JTable table;
+
+    // Filter inputs
+    private final Map<Verdict, JCheckBox> verdictCheckBoxes = new EnumMap<>(Verdict.class);
+    private final JTextField titleField = new JTextField(20);
+    private final JTextField fromTimeField = new JTextField(12);
+    private final JTextField toTimeField = new JTextField(12);
+
+    // Shows how many rows match and how long the selection took
+    private final JLabel statusLabel = new JLabel(" ");
+
+    // Applies the text filters once typing pauses
+    private final Timer typingTimer;
+
+    // The current order of the rows
+    private TestCaseSortKey sortKey = TestCaseSortKey.STORE_ORDER;
+    private boolean descending;
+
+    // Incremented by every selection, so the result of an outdated one is dropped
+    private int selectionNumber;
+
+    /**
+     * Constructor for TestCaseViewer.
+     *
+     * @param testCaseStore The parsed test cases.
+     */
+    public TestCaseViewer(TestCaseStore testCaseStore) {
+        setTitle("Test Cases (" + String.format("%,d", testCaseStore.size()) + ")");
+        setSize(1100, 700);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLocationRelativeTo(null);
+
+        testCaseIndex = new TestCaseIndex(testCaseStore);
+        tableModel = new TestCaseTableModel(testCaseStore);
+
+        // Filter bar: verdicts, title text and start time range
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        for (Verdict verdict : Verdict.values()) {
+            JCheckBox verdictCheckBox = new JCheckBox(verdict.getDisplayName() + " (" + String.format("%,d", testCaseIndex.getCount(verdict)) + ")", true);
+            verdictCheckBox.addActionListener(e -> applySelection());
+            verdictCheckBoxes.put(verdict, verdictCheckBox);
+            filterPanel.add(verdictCheckBox);
+        }
+        filterPanel.add(new JLabel("Title contains:"));
+        filterPanel.add(titleField);
+        filterPanel.add(new JLabel("Start from:"));
+        filterPanel.add(fromTimeField);
+        filterPanel.add(new JLabel("to:"));
+        filterPanel.add(toTimeField);
+        fromTimeField.setToolTipText("yyyy-MM-dd HH:mm:ss, empty for no bound");
+        toTimeField.setToolTipText("yyyy-MM-dd HH:mm:ss, empty for no bound");
+
+        typingTimer = new Timer(TYPING_DELAY_MILLIS, e -> applySelection());
+        typingTimer.setRepeats(false);
+        DocumentListener typingListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+        };
+        titleField.getDocument().addDocumentListener(typingListener);
+        fromTimeField.getDocument().addDocumentListener(typingListener);
+        toTimeField.getDocument().addDocumentListener(typingListener);
+
+        // A row sorter would hold one entry per row: sorting goes through the index instead
+        table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(false);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(TestCaseTableModel.TITLE_COLUMN).setPreferredWidth(450);
+        JTableHeader tableHeader = table.getTableHeader();
+        tableHeader.setReorderingAllowed(false);
+        tableHeader.setToolTipText("Click a column to sort, click again to reverse");
+        tableHeader.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columnIndex = table.convertColumnIndexToModel(tableHeader.columnAtPoint(e.getPoint()));
+                if (columnIndex >= 0 && COLUMN_SORT_KEYS[columnIndex] != null) {
+                    sortBy(COLUMN_SORT_KEYS[columnIndex]);
+                }
+            }
+        });
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.add(filterPanel, BorderLayout.NORTH);
+        contentPanel.add(new JScrollPane(table), BorderLayout.CENTER);
+        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+        setContentPane(contentPanel);
+        statusLabel.setText(String.format("%,d test cases", testCaseIndex.size()));
+    }
+
+    /**
+     * Sorts the rows by a column, or reverses the order if the rows are already sorted by it.
+     *
+     * @param columnSortKey The sort key of the clicked column.
+     */
+    private void sortBy(TestCaseSortKey columnSortKey) {
+        descending = columnSortKey == sortKey && !descending;
+        sortKey = columnSortKey;
+        for (int columnIndex = 0; columnIndex < COLUMN_SORT_KEYS.length; columnIndex++) {
+            String arrow = COLUMN_SORT_KEYS[columnIndex] == sortKey ? (descending ? " ▼" : " ▲") : "";
+            table.getColumnModel().getColumn(columnIndex).setHeaderValue(TestCaseTableModel.COLUMN_NAMES[columnIndex] + arrow);
+        }
+        table.getTableHeader().repaint();
+        applySelection();
+    }
+
+    /**
+     * Selects the rows matching the filter inputs in the background, and shows them once selected.
+     */
+    private void applySelection() {
+        typingTimer.stop();
+        long fromMillis, toMillis;
+        try {
+            fromMillis = parseTimeField(fromTimeField, Long.MIN_VALUE);
+            toMillis = parseTimeField(toTimeField, Long.MAX_VALUE);
+        } catch (DateTimeParseException e) {
+            statusLabel.setText("Invalid time \"" + e.getParsedString() + "\", expected yyyy-MM-dd HH:mm:ss");
+            return;
+        }
+        EnumSet<Verdict> shownVerdicts = EnumSet.noneOf(Verdict.class);
+        for (Map.Entry<Verdict, JCheckBox> verdictCheckBox : verdictCheckBoxes.entrySet()) {
+            if (verdictCheckBox.getValue().isSelected()) {
+                shownVerdicts.add(verdictCheckBox.getKey());
+            }
+        }
+        TestCaseFilter filter = new TestCaseFilter(shownVerdicts, titleField.getText().trim(), fromMillis, toMillis);
+        TestCaseSortKey selectedSortKey = sortKey;
+        boolean selectedDescending = descending;
+        int currentSelectionNumber = ++selectionNumber;
+        statusLabel.setText("Filtering...");
+        new SwingWorker<int[], Void>() {
+            private long selectionNanos; // How long the selection took
+
+            @Override
+            protected int[] doInBackground() {
+                long startNanos = System.nanoTime();
+                int[] shownRows = testCaseIndex.select(filter, selectedSortKey, selectedDescending);
+                selectionNanos = System.nanoTime() - startNanos;
+                return shownRows;
+            }
+
+            @Override
+            protected void done() {
+                if (currentSelectionNumber != selectionNumber) {
+                    return;
+                }
+                try {
+                    int[] shownRows = get();
+                    tableModel.setShownRows(shownRows);
+                    statusLabel.setText(String.format("%,d of %,d test cases (%.1f ms)", shownRows.length, testCaseIndex.size(),
+                            selectionNanos / 1e6));
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Cannot filter: " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Parses a time filter input.
+     *
+     * @param timeField  The input.
+     * @param emptyValue The value of an empty input.
+     * @return The time in epoch milliseconds.
+     * @throws DateTimeParseException If the input is not a report timestamp.
+     */
+    private static long parseTimeField(JTextField timeField, long emptyValue) {
+        String time = timeField.getText().trim();
+        return time.isEmpty() ? emptyValue : TestCaseStore.parseTimeMillis(time);
+    }
+}
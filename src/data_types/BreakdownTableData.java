@@ -0,0 +1,107 @@
+package data_types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a breakdown table: one row per file or group with its total, the count of each listed
+ * verdict, and the total and average durations in seconds. Every column but the name is a number column;
+ * getCellValue gives the numbers with the "number=" prefix of untyped tables.
+ */
+public class BreakdownTableData implements TypedTableData {
+   private final List<GroupStatistics> rowsStatistics; // One row per file or group
+   private final List<Verdict> verdicts;               // The verdicts with a count column
+
+   /**
+    * Constructor for BreakdownTableData.
+    *
+    * @param rowsStatistics The statistics of each row.
+    * @param verdicts       The verdicts with a count column, in column order.
+    */
+   public BreakdownTableData(List<GroupStatistics> rowsStatistics, List<Verdict> verdicts) {
+      this.rowsStatistics = rowsStatistics;
+      this.verdicts = verdicts;
+   }
+
+   /**
+    * Gets the column names of the table.
+    *
+    * @param nameColumn The name of the first column (e.g., "File").
+    * @return The column names.
+    */
+   public ArrayList<String> getColumnNames(String nameColumn) {
+      ArrayList<String> columnNames = new ArrayList<>();
+      columnNames.add(nameColumn);
+      columnNames.add("Total");
+      for (Verdict verdict : verdicts) {
+         columnNames.add(verdict.getDisplayName());
+      }
+      columnNames.add("Total Duration (s)");
+      columnNames.add("Average Duration (s)");
+      return columnNames;
+   }
+
+   /**
+    * Gets the index of the first verdict count column.
+    *
+    * @return The column index.
+    */
+   public int getFirstVerdictColumn() {
+      return 2;
+   }
+
+   @Override
+   public int getRowsCount() {
+      return rowsStatistics.size();
+   }
+
+   @Override
+   public int getColumnsCount() {
+      return verdicts.size() + 4;
+   }
+
+   @Override
+   public ColumnType getColumnType(int columnIndex) {
+      return columnIndex == 0 ? ColumnType.TEXT : ColumnType.NUMBER;
+   }
+
+   @Override
+   public double getNumber(int rowIndex, int columnIndex) {
+      GroupStatistics rowStatistics = rowsStatistics.get(rowIndex);
+      if (columnIndex == 0) {
+         throw new IllegalArgumentException("Column 0 is not a number column");
+      } else if (columnIndex == 1) {
+         return rowStatistics.getVerdictCounts().getTotal();
+      } else if (columnIndex < getFirstVerdictColumn() + verdicts.size()) {
+         return rowStatistics.getVerdictCounts().getCount(verdicts.get(columnIndex - getFirstVerdictColumn()));
+      } else if (columnIndex == getColumnsCount() - 2) {
+         return rowStatistics.getTotalDurationMillis() / 1000.0;
+      }
+      return rowStatistics.getAverageDurationMillis() / 1000.0;
+   }
+
+   @Override
+   public long getTimeMillis(int rowIndex, int columnIndex) {
+      throw new IllegalArgumentException("Column " + columnIndex + " is not a date-time column");
+   }
+
+   @Override
+   public Verdict getVerdict(int rowIndex, int columnIndex) {
+      throw new IllegalArgumentException("Column " + columnIndex + " is not a verdict column");
+   }
+
+   @Override
+   public String getCellValue(int rowIndex, int columnIndex) {
+      GroupStatistics rowStatistics = rowsStatistics.get(rowIndex);
+      if (columnIndex == 0) {
+         return rowStatistics.getName();
+      } else if (columnIndex == 1) {
+         return "number=" + rowStatistics.getVerdictCounts().getTotal();
+      } else if (columnIndex < getFirstVerdictColumn() + verdicts.size()) {
+         return "number=" + rowStatistics.getVerdictCounts().getCount(verdicts.get(columnIndex - getFirstVerdictColumn()));
+      } else if (columnIndex == getColumnsCount() - 2) {
+         return "number=" + rowStatistics.getTotalDurationMillis() / 1000.0;
+      }
+      return "number=" + rowStatistics.getAverageDurationMillis() / 1000.0;
+   }
+}
@@ -0,0 +1,114 @@
+package data_types;
+
+/**
+ * Represents the hit/miss figures of a parsed-results cache.
+ */
+public class CacheStatistics {
+   private final long hits;          // Lookups answered from the cache
+   private final long misses;        // Lookups of new or changed files
+   private final long stores;        // Entries written after a miss
+   private final long evictions;     // Entries deleted to stay under the size limit
+   private final int entriesCount;   // Entries currently in the cache folder
+   private final long cacheBytes;    // Total size of the entries in bytes
+   private final long maxCacheBytes; // The size limit in bytes
+
+   /**
+    * Constructor for CacheStatistics.
+    *
+    * @param hits          Lookups answered from the cache.
+    * @param misses        Lookups of new or changed files.
+    * @param stores        Entries written after a miss.
+    * @param evictions     Entries deleted to stay under the size limit.
+    * @param entriesCount  Entries currently in the cache folder.
+    * @param cacheBytes    Total size of the entries in bytes.
+    * @param maxCacheBytes The size limit in bytes.
+    */
+   public CacheStatistics(long hits, long misses, long stores, long evictions, int entriesCount, long cacheBytes, long maxCacheBytes) {
+      this.hits = hits;
+      this.misses = misses;
+      this.stores = stores;
+      this.evictions = evictions;
+      this.entriesCount = entriesCount;
+      this.cacheBytes = cacheBytes;
+      this.maxCacheBytes = maxCacheBytes;
+   }
+
+   /**
+    * Gets the number of lookups answered from the cache.
+    *
+    * @return The number of hits.
+    */
+   public long getHits() {
+      return hits;
+   }
+
+   /**
+    * Gets the number of lookups of new or changed files.
+    *
+    * @return The number of misses.
+    */
+   public long getMisses() {
+      return misses;
+   }
+
+   /**
+    * Gets the number of entries written after a miss.
+    *
+    * @return The number of stored entries.
+    */
+   public long getStores() {
+      return stores;
+   }
+
+   /**
+    * Gets the number of entries deleted to stay under the size limit.
+    *
+    * @return The number of evictions.
+    */
+   public long getEvictions() {
+      return evictions;
+   }
+
+   /**
+    * Gets the number of entries currently in the cache folder.
+    *
+    * @return The number of entries.
+    */
+   public int getEntriesCount() {
+      return entriesCount;
+   }
+
+   /**
+    * Gets the total size of the entries.
+    *
+    * @return The cache size in bytes.
+    */
+   public long getCacheBytes() {
+      return cacheBytes;
+   }
+
+   /**
+    * Gets the size limit of the cache.
+    *
+    * @return The size limit in bytes.
+    */
+   public long getMaxCacheBytes() {
+      return maxCacheBytes;
+   }
+
+   /**
+    * Gets the share of lookups answered from the cache.
+    *
+    * @return The hit ratio between 0 and 1, or 0 if nothing was looked up.
+    */
+   public double getHitRatio() {
+      long lookups = hits + misses;
+      return lookups > 0 ? (double) hits / lookups : 0;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("Cache: %d hits, %d misses (%.0f%% hit ratio), %d stored, %d evicted, %d entries using %.1f of %.1f MiB",
+              hits, misses, getHitRatio() * 100, stores, evictions, entriesCount, cacheBytes / 1048576.0, maxCacheBytes / 1048576.0);
+   }
+}
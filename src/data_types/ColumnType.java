@@ -0,0 +1,12 @@
+package data_types;
+
+/**
+ * Represents how the cells of a table column are written to the workbook.
+ */
+public enum ColumnType {
+   TEXT,      // A string cell
+   DATE_TIME, // A date cell with the shared date-time style, or the original text if the time is unknown
+   VERDICT,   // The result as a string cell, with the shared style of its verdict
+   NUMBER,    // A numeric cell
+   FORMULA    // A formula cell, evaluated by Excel
+}
@@ -0,0 +1,88 @@
+package data_types;
+
+/**
+ * Represents the measurements of one input file of an ingestion run: how long its test cases took to get,
+ * what it allocated, and why it failed if it did. Archive entries are measured like files.
+ */
+public class FileMetrics {
+   private final String filePath;       // The path of the file or archive entry
+   private final int testCasesCount;    // The number of extracted test cases
+   private final long elapsedNanos;     // The time spent parsing the file or loading it from the cache
+   private final long allocatedBytes;   // The bytes allocated meanwhile by the parsing thread, or -1 if not measured
+   private final boolean fromCache;     // Whether the test cases came from the parsed results cache
+   private final String errorMessage;   // Why the file failed, or null if it was parsed
+
+   /**
+    * Constructor for FileMetrics.
+    *
+    * @param filePath       The path of the file or archive entry.
+    * @param testCasesCount The number of extracted test cases.
+    * @param elapsedNanos   The time spent parsing the file or loading it from the cache.
+    * @param allocatedBytes The bytes allocated meanwhile by the parsing thread, or -1 if not measured.
+    * @param fromCache      Whether the test cases came from the parsed results cache.
+    * @param errorMessage   Why the file failed, or null if it was parsed.
+    */
+   public FileMetrics(String filePath, int testCasesCount, long elapsedNanos, long allocatedBytes, boolean fromCache,
+                      String errorMessage) {
+      this.filePath = filePath;
+      this.testCasesCount = testCasesCount;
+      this.elapsedNanos = elapsedNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.fromCache = fromCache;
+      this.errorMessage = errorMessage;
+   }
+
+   /**
+    * Gets the path of the file or archive entry.
+    *
+    * @return The file path.
+    */
+   public String getFilePath() {
+      return filePath;
+   }
+
+   /**
+    * Gets the number of extracted test cases.
+    *
+    * @return The test cases count, 0 if the file failed.
+    */
+   public int getTestCasesCount() {
+      return testCasesCount;
+   }
+
+   /**
+    * Gets the time spent parsing the file or loading it from the cache.
+    *
+    * @return The elapsed time in nanoseconds.
+    */
+   public long getElapsedNanos() {
+      return elapsedNanos;
+   }
+
+   /**
+    * Gets the bytes allocated by the parsing thread while the file was parsed or loaded.
+    *
+    * @return The allocated bytes, or -1 if the JVM does not measure allocations.
+    */
+   public long getAllocatedBytes() {
+      return allocatedBytes;
+   }
+
+   /**
+    * Checks whether the test cases came from the parsed results cache.
+    *
+    * @return True for a cache hit.
+    */
+   public boolean isFromCache() {
+      return fromCache;
+   }
+
+   /**
+    * Gets why the file failed.
+    *
+    * @return The error message, or null if the file was parsed.
+    */
+   public String getErrorMessage() {
+      return errorMessage;
+   }
+}
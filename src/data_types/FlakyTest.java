@@ -0,0 +1,83 @@
+package data_types;
+
+/**
+ * Represents how often a test case flipped between passing and failing over a window of recorded runs.
+ */
+public class FlakyTest {
+   private final String testCaseId;  // The test case GUID
+   private final String title;       // The title of the test case when it was first recorded
+   private final int runsCount;      // The runs of the window the test case ran in
+   private final int failuresCount;  // The runs in which it failed or had an error
+   private final int flipsCount;     // The changes between passing and failing from one run to the next
+
+   /**
+    * Constructor for FlakyTest.
+    *
+    * @param testCaseId    The test case GUID.
+    * @param title         The title of the test case when it was first recorded.
+    * @param runsCount     The runs of the window the test case ran in.
+    * @param failuresCount The runs in which it failed or had an error.
+    * @param flipsCount    The changes between passing and failing from one run to the next.
+    */
+   public FlakyTest(String testCaseId, String title, int runsCount, int failuresCount, int flipsCount) {
+      this.testCaseId = testCaseId;
+      this.title = title;
+      this.runsCount = runsCount;
+      this.failuresCount = failuresCount;
+      this.flipsCount = flipsCount;
+   }
+
+   /**
+    * Gets the test case GUID.
+    *
+    * @return The test case ID.
+    */
+   public String getTestCaseId() {
+      return testCaseId;
+   }
+
+   /**
+    * Gets the title of the test case.
+    *
+    * @return The title of the test case when it was first recorded.
+    */
+   public String getTitle() {
+      return title;
+   }
+
+   /**
+    * Gets the number of runs of the window the test case ran in.
+    *
+    * @return The runs count.
+    */
+   public int getRunsCount() {
+      return runsCount;
+   }
+
+   /**
+    * Gets the number of runs in which the test case failed or had an error.
+    *
+    * @return The failures count.
+    */
+   public int getFailuresCount() {
+      return failuresCount;
+   }
+
+   /**
+    * Gets the number of changes between passing and failing from one run to the next.
+    *
+    * @return The flips count.
+    */
+   public int getFlipsCount() {
+      return flipsCount;
+   }
+
+   /**
+    * Gets the share of consecutive runs in which the verdict flipped.
+    *
+    * @return The flip rate between 0 and 1.
+    */
+   public double getFlipRate() {
+      return runsCount > 1 ? (double) flipsCount / (runsCount - 1) : 0;
+   }
+}
@@ -0,0 +1,86 @@
+package data_types;
+
+/**
+ * Represents the verdict counts and durations of the test cases sharing a report file or a group path.
+ */
+public class GroupStatistics {
+   private final String name;                                 // The file path or group path
+   private final VerdictCounts verdictCounts = new VerdictCounts(); // The verdict tally of the test cases
+   private long totalDurationMillis;  // The summed verdict durations
+   private long timedTestCasesCount;  // The test cases with a known duration
+
+   /**
+    * Constructor for GroupStatistics.
+    *
+    * @param name The file path or group path.
+    */
+   public GroupStatistics(String name) {
+      this.name = name;
+   }
+
+   /**
+    * Adds a test case.
+    *
+    * @param verdict     The verdict of the test case.
+    * @param startMillis The verdict time in epoch milliseconds, or TestCaseStore.UNKNOWN_TIME.
+    * @param endMillis   The verdict end time in epoch milliseconds, or TestCaseStore.UNKNOWN_TIME.
+    */
+   public void add(Verdict verdict, long startMillis, long endMillis) {
+      verdictCounts.add(verdict);
+      if (startMillis != TestCaseStore.UNKNOWN_TIME && endMillis != TestCaseStore.UNKNOWN_TIME && endMillis >= startMillis) {
+         totalDurationMillis += endMillis - startMillis;
+         timedTestCasesCount++;
+      }
+   }
+
+   /**
+    * Removes a test case added before, e.g. when a later attempt of it replaces it.
+    *
+    * @param verdict     The verdict the test case was added with.
+    * @param startMillis The verdict time it was added with.
+    * @param endMillis   The verdict end time it was added with.
+    */
+   public void remove(Verdict verdict, long startMillis, long endMillis) {
+      verdictCounts.remove(verdict);
+      if (startMillis != TestCaseStore.UNKNOWN_TIME && endMillis != TestCaseStore.UNKNOWN_TIME && endMillis >= startMillis) {
+         totalDurationMillis -= endMillis - startMillis;
+         timedTestCasesCount--;
+      }
+   }
+
+   /**
+    * Gets the file path or group path.
+    *
+    * @return The name of the statistics.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * Gets the verdict tally of the test cases.
+    *
+    * @return The VerdictCounts.
+    */
+   public VerdictCounts getVerdictCounts() {
+      return verdictCounts;
+   }
+
+   /**
+    * Gets the summed durations of the test cases with a known duration.
+    *
+    * @return The total duration in milliseconds.
+    */
+   public long getTotalDurationMillis() {
+      return totalDurationMillis;
+   }
+
+   /**
+    * Gets the average duration of the test cases with a known duration.
+    *
+    * @return The average duration in milliseconds, or 0 if no duration is known.
+    */
+   public double getAverageDurationMillis() {
+      return timedTestCasesCount > 0 ? (double) totalDurationMillis / timedTestCasesCount : 0;
+   }
+}
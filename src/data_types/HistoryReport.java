@@ -0,0 +1,71 @@
+package data_types;
+
+import java.util.List;
+
+/**
+ * Represents the history section of a report: the tests that regressed in the recorded run and the
+ * flakiest tests over the latest runs.
+ */
+public class HistoryReport {
+   private final HistoryRun run;                       // The run recorded for the report
+   private final List<RegressedTest> regressedTests;   // Tests that passed before and fail in the run
+   private final List<FlakyTest> flakyTests;           // The flakiest tests, most flips first
+   private final int flakyRunsCount;                   // The number of runs the flakiness was measured over
+
+   /**
+    * Constructor for HistoryReport.
+    *
+    * @param run            The run recorded for the report.
+    * @param regressedTests The tests that passed before and fail in the run.
+    * @param flakyTests     The flakiest tests, most flips first.
+    * @param flakyRunsCount The number of runs the flakiness was measured over.
+    */
+   public HistoryReport(HistoryRun run, List<RegressedTest> regressedTests, List<FlakyTest> flakyTests, int flakyRunsCount) {
+      this.run = run;
+      this.regressedTests = regressedTests;
+      this.flakyTests = flakyTests;
+      this.flakyRunsCount = flakyRunsCount;
+   }
+
+   /**
+    * Gets the run recorded for the report.
+    *
+    * @return The HistoryRun.
+    */
+   public HistoryRun getRun() {
+      return run;
+   }
+
+   /**
+    * Gets the tests that passed the last time they ran and fail in the recorded run.
+    *
+    * @return The regressed tests.
+    */
+   public List<RegressedTest> getRegressedTests() {
+      return regressedTests;
+   }
+
+   /**
+    * Gets the flakiest tests, most flips first.
+    *
+    * @return The flaky tests.
+    */
+   public List<FlakyTest> getFlakyTests() {
+      return flakyTests;
+   }
+
+   /**
+    * Gets the number of runs the flakiness was measured over.
+    *
+    * @return The runs count, at most the requested window.
+    */
+   public int getFlakyRunsCount() {
+      return flakyRunsCount;
+   }
+
+   @Override
+   public String toString() {
+      return "History: run #" + (run.getRunIndex() + 1) + " (" + run.getVerdictsCount() + " test cases), "
+              + regressedTests.size() + " regressed, " + flakyTests.size() + " flaky over the last " + flakyRunsCount + " runs";
+   }
+}
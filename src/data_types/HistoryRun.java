@@ -0,0 +1,66 @@
+package data_types;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents one report generation run recorded in the verdict history.
+ */
+public class HistoryRun {
+   private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
+
+   private final int runIndex;         // The position of the run in the history, starting at 0
+   private final long startMillis;     // The earliest test case time of the run, in epoch milliseconds
+   private final int verdictsCount;    // The number of distinct test cases recorded for the run
+
+   /**
+    * Constructor for HistoryRun.
+    *
+    * @param runIndex      The position of the run in the history, starting at 0.
+    * @param startMillis   The earliest test case time of the run, in epoch milliseconds.
+    * @param verdictsCount The number of distinct test cases recorded for the run.
+    */
+   public HistoryRun(int runIndex, long startMillis, int verdictsCount) {
+      this.runIndex = runIndex;
+      this.startMillis = startMillis;
+      this.verdictsCount = verdictsCount;
+   }
+
+   /**
+    * Gets the position of the run in the history.
+    *
+    * @return The run index, starting at 0.
+    */
+   public int getRunIndex() {
+      return runIndex;
+   }
+
+   /**
+    * Gets the start of the run.
+    *
+    * @return The earliest test case time in epoch milliseconds.
+    */
+   public long getStartMillis() {
+      return startMillis;
+   }
+
+   /**
+    * Gets the start of the run formatted like the report timestamps.
+    *
+    * @return The start time text (e.g., "2023-09-17 11:03:16").
+    */
+   public String getStartTime() {
+      // Report timestamps are stored as if they were UTC, see TestCaseStore
+      return TIME_FORMATTER.format(LocalDateTime.ofEpochSecond(Math.floorDiv(startMillis, 1000), 0, ZoneOffset.UTC));
+   }
+
+   /**
+    * Gets the number of test cases recorded for the run.
+    *
+    * @return The number of distinct test case IDs of the run.
+    */
+   public int getVerdictsCount() {
+      return verdictsCount;
+   }
+}
@@ -0,0 +1,38 @@
+package data_types;
+
+/**
+ * Represents the verdict of one test case in one recorded run.
+ */
+public class HistoryVerdict {
+   private final HistoryRun run;    // The run the verdict was recorded in
+   private final Verdict verdict;   // The verdict of the test case in that run
+
+   /**
+    * Constructor for HistoryVerdict.
+    *
+    * @param run     The run the verdict was recorded in.
+    * @param verdict The verdict of the test case in that run.
+    */
+   public HistoryVerdict(HistoryRun run, Verdict verdict) {
+      this.run = run;
+      this.verdict = verdict;
+   }
+
+   /**
+    * Gets the run the verdict was recorded in.
+    *
+    * @return The HistoryRun.
+    */
+   public HistoryRun getRun() {
+      return run;
+   }
+
+   /**
+    * Gets the verdict of the test case in the run.
+    *
+    * @return The Verdict.
+    */
+   public Verdict getVerdict() {
+      return verdict;
+   }
+}
@@ -0,0 +1,146 @@
+package data_types;
+
+import java.util.List;
+
+/**
+ * Represents the throughput figures of one ingestion run over a set of XML files.
+ */
+public class IngestionStatistics {
+   private final int filesCount;       // The number of ingested files
+   private final long testCasesCount;  // The number of extracted test cases
+   private final long elapsedNanos;    // The wall time of the run in nanoseconds
+   private final int parallelism;      // The number of worker threads used
+   private final List<String> failedFilePaths; // The paths of the files that could not be parsed
+   private final List<FileMetrics> filesMetrics; // The measurements of every parsed or failed file
+
+   /**
+    * Constructor for IngestionStatistics.
+    *
+    * @param filesCount      The number of ingested files.
+    * @param testCasesCount  The number of extracted test cases.
+    * @param elapsedNanos    The wall time of the run in nanoseconds.
+    * @param parallelism     The number of worker threads used.
+    * @param failedFilePaths The paths of the files that could not be parsed.
+    * @param filesMetrics    The measurements of every parsed or failed file, in selection order.
+    */
+   public IngestionStatistics(int filesCount, long testCasesCount, long elapsedNanos, int parallelism, List<String> failedFilePaths,
+                              List<FileMetrics> filesMetrics) {
+      this.filesCount = filesCount;
+      this.testCasesCount = testCasesCount;
+      this.elapsedNanos = elapsedNanos;
+      this.parallelism = parallelism;
+      this.failedFilePaths = failedFilePaths;
+      this.filesMetrics = filesMetrics;
+   }
+
+   /**
+    * Gets the number of ingested files.
+    *
+    * @return The number of ingested files.
+    */
+   public int getFilesCount() {
+      return filesCount;
+   }
+
+   /**
+    * Gets the number of extracted test cases.
+    *
+    * @return The number of extracted test cases.
+    */
+   public long getTestCasesCount() {
+      return testCasesCount;
+   }
+
+   /**
+    * Gets the wall time of the run.
+    *
+    * @return The elapsed time in nanoseconds.
+    */
+   public long getElapsedNanos() {
+      return elapsedNanos;
+   }
+
+   /**
+    * Gets the number of worker threads used.
+    *
+    * @return The parallelism of the run.
+    */
+   public int getParallelism() {
+      return parallelism;
+   }
+
+   /**
+    * Gets the paths of the files that could not be parsed.
+    *
+    * @return The failed file paths, in selection order.
+    */
+   public List<String> getFailedFilePaths() {
+      return failedFilePaths;
+   }
+
+   /**
+    * Gets the measurements of every parsed or failed file.
+    *
+    * @return The FileMetrics, in selection order.
+    */
+   public List<FileMetrics> getFilesMetrics() {
+      return filesMetrics;
+   }
+
+   /**
+    * Gets the bytes allocated by the parsing threads over all files.
+    *
+    * @return The allocated bytes, or -1 if the JVM does not measure allocations.
+    */
+   public long getAllocatedBytes() {
+      long allocatedBytes = 0;
+      boolean measured = filesMetrics.isEmpty();
+      for (FileMetrics fileMetrics : filesMetrics) {
+         // Inputs that failed before being opened are not measured
+         if (fileMetrics.getAllocatedBytes() >= 0) {
+            allocatedBytes += fileMetrics.getAllocatedBytes();
+            measured = true;
+         }
+      }
+      return measured ? allocatedBytes : -1;
+   }
+
+   /**
+    * Gets the number of files whose test cases came from the parsed results cache.
+    *
+    * @return The number of cache hits of the run.
+    */
+   public int getFilesFromCacheCount() {
+      int filesFromCacheCount = 0;
+      for (FileMetrics fileMetrics : filesMetrics) {
+         if (fileMetrics.isFromCache()) {
+            filesFromCacheCount++;
+         }
+      }
+      return filesFromCacheCount;
+   }
+
+   /**
+    * Gets the ingestion throughput in files per second.
+    *
+    * @return The number of files parsed per second.
+    */
+   public double getFilesPerSecond() {
+      return elapsedNanos > 0 ? filesCount * 1e9 / elapsedNanos : 0;
+   }
+
+   /**
+    * Gets the ingestion throughput in test cases per second.
+    *
+    * @return The number of test cases extracted per second.
+    */
+   public double getTestCasesPerSecond() {
+      return elapsedNanos > 0 ? testCasesCount * 1e9 / elapsedNanos : 0;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("Parsed %d files (%d test cases, %d failed) in %.1f ms on %d threads: %.1f files/s, %.1f testcases/s",
+              filesCount, testCasesCount, failedFilePaths.size(), elapsedNanos / 1e6, parallelism, getFilesPerSecond(), getTestCasesPerSecond());
+   }
+}
@@ -0,0 +1,121 @@
+package data_types;
+
+import java.util.Arrays;
+
+/**
+ * Represents a hash index from long keys to store indices, used to find the earlier attempts of a test case.
+ * Keys and values live in two primitive arrays probed linearly, so a slot costs 12 bytes and no object,
+ * which keeps millions of keys affordable where a HashMap would box every key and value.
+ */
+final class MergeKeyIndex {
+   static final int NO_VALUE = -1; // Returned for a key that is not indexed
+
+   private static final long EMPTY_KEY = Long.MIN_VALUE; // Marks a free slot, never used as a key
+   private static final int INITIAL_CAPACITY = 1024;
+
+   private long[] keys;   // The key of each slot, or EMPTY_KEY
+   private int[] values;  // The value of each used slot
+   private int size;      // The number of used slots
+   private int resizeAt;  // The size above which the slots are doubled, three quarters of them
+
+   /**
+    * Constructor for MergeKeyIndex.
+    */
+   MergeKeyIndex() {
+      allocate(INITIAL_CAPACITY);
+   }
+
+   /**
+    * Gets the value of a key.
+    *
+    * @param key The key, any value but Long.MIN_VALUE.
+    * @return The value, or NO_VALUE if the key is not indexed.
+    */
+   int get(long key) {
+      int mask = keys.length - 1;
+      for (int slot = hash(key) & mask; keys[slot] != EMPTY_KEY; slot = (slot + 1) & mask) {
+         if (keys[slot] == key) {
+            return values[slot];
+         }
+      }
+      return NO_VALUE;
+   }
+
+   /**
+    * Sets the value of a key, replacing its previous value.
+    *
+    * @param key   The key, any value but Long.MIN_VALUE.
+    * @param value The value.
+    */
+   void put(long key, int value) {
+      int mask = keys.length - 1;
+      int slot = hash(key) & mask;
+      while (keys[slot] != EMPTY_KEY) {
+         if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+         }
+         slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+      if (++size > resizeAt) {
+         long[] oldKeys = keys;
+         int[] oldValues = values;
+         allocate(oldKeys.length * 2);
+         for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] != EMPTY_KEY) {
+               insertNew(oldKeys[oldSlot], oldValues[oldSlot]);
+            }
+         }
+      }
+   }
+
+   /**
+    * Gets the number of indexed keys.
+    *
+    * @return The index size.
+    */
+   int size() {
+      return size;
+   }
+
+   /**
+    * Replaces the slots by free ones.
+    *
+    * @param capacity The number of slots, a power of two.
+    */
+   private void allocate(int capacity) {
+      keys = new long[capacity];
+      Arrays.fill(keys, EMPTY_KEY);
+      values = new int[capacity];
+      resizeAt = capacity / 4 * 3;
+   }
+
+   /**
+    * Stores a key known to be absent, without counting it or resizing.
+    *
+    * @param key   The key.
+    * @param value The value.
+    */
+   private void insertNew(long key, int value) {
+      int mask = keys.length - 1;
+      int slot = hash(key) & mask;
+      while (keys[slot] != EMPTY_KEY) {
+         slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+   }
+
+   /**
+    * Spreads a key over the slots: the keys are packed pool ids, so their low bits alone would cluster.
+    *
+    * @param key The key.
+    * @return The hash of the key.
+    */
+   private static int hash(long key) {
+      long mixed = key * 0x9E3779B97F4A7C15L;
+      return (int) (mixed ^ (mixed >>> 32));
+   }
+}
@@ -0,0 +1,12 @@
+package data_types;
+
+/**
+ * Represents how test cases read more than once, e.g. retried in a later run, are merged. A test case is
+ * identified by its test case ID, or by its title and group path when the report has no IDs.
+ */
+public enum MergePolicy {
+   NONE,     // Every test case is a row of its own, nothing is merged (default)
+   LATEST,   // One row per test case, holding the attempt with the latest start time
+   WORST,    // One row per test case, holding the attempt with the worst verdict, the latest among equals
+   KEEP_ALL  // Every attempt is a row of its own, numbered per test case
+}
@@ -0,0 +1,62 @@
+package data_types;
+
+/**
+ * Represents a test case that passed the last time it ran before a run, and failed in that run.
+ */
+public class RegressedTest {
+   private final String testCaseId;     // The test case GUID
+   private final String title;          // The title of the test case when it was first recorded
+   private final HistoryRun passedRun;  // The latest earlier run in which the test case ran
+   private final Verdict verdict;       // The failing verdict of the test case
+
+   /**
+    * Constructor for RegressedTest.
+    *
+    * @param testCaseId The test case GUID.
+    * @param title      The title of the test case when it was first recorded.
+    * @param passedRun  The latest earlier run in which the test case ran, and passed.
+    * @param verdict    The failing verdict of the test case.
+    */
+   public RegressedTest(String testCaseId, String title, HistoryRun passedRun, Verdict verdict) {
+      this.testCaseId = testCaseId;
+      this.title = title;
+      this.passedRun = passedRun;
+      this.verdict = verdict;
+   }
+
+   /**
+    * Gets the test case GUID.
+    *
+    * @return The test case ID.
+    */
+   public String getTestCaseId() {
+      return testCaseId;
+   }
+
+   /**
+    * Gets the title of the test case.
+    *
+    * @return The title of the test case when it was first recorded.
+    */
+   public String getTitle() {
+      return title;
+   }
+
+   /**
+    * Gets the latest earlier run in which the test case ran and passed.
+    *
+    * @return The HistoryRun.
+    */
+   public HistoryRun getPassedRun() {
+      return passedRun;
+   }
+
+   /**
+    * Gets the failing verdict of the test case.
+    *
+    * @return The Verdict (fail or error).
+    */
+   public Verdict getVerdict() {
+      return verdict;
+   }
+}
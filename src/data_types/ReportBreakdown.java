@@ -0,0 +1,80 @@
+package data_types;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Represents the verdict counts and durations of the test cases per report file and per group path,
+ * aggregated in the same pass that stores the test cases. Each test case is visited once and looked up
+ * in a hash map, so the cost does not depend on the number of groups.
+ */
+public class ReportBreakdown {
+   public static final String NO_GROUP_NAME = "(no group)"; // Name of the test cases outside any group
+
+   private final LinkedHashMap<String, GroupStatistics> filesStatistics = new LinkedHashMap<>();  // By file path, in reading order
+   private final LinkedHashMap<String, GroupStatistics> groupsStatistics = new LinkedHashMap<>(); // By group path, in first-seen order
+
+   /**
+    * Adds the test cases of a report file that were just appended to a TestCaseStore.
+    * Their verdicts and parsed times are read back from the store instead of being parsed again.
+    *
+    * @param sourceFilePath  The path of the report file.
+    * @param tcList          The test cases of the file, giving their groups.
+    * @param testCaseStore   The store the test cases were appended to.
+    * @param firstStoreIndex The store index of the first test case of the file.
+    */
+   public void addFile(String sourceFilePath, List<TestCase> tcList, TestCaseStore testCaseStore, int firstStoreIndex) {
+      GroupStatistics fileStatistics = getFileStatistics(sourceFilePath);
+      // Consecutive test cases mostly share a group, so each group path is resolved once per file
+      HashMap<TestGroup, GroupStatistics> fileGroupsStatistics = new HashMap<>();
+      for (int tcIndex = 0; tcIndex < tcList.size(); tcIndex++) {
+         int storeIndex = firstStoreIndex + tcIndex;
+         Verdict verdict = testCaseStore.getVerdict(storeIndex);
+         long startMillis = testCaseStore.getStartTimeMillis(storeIndex), endMillis = testCaseStore.getEndTimeMillis(storeIndex);
+         fileStatistics.add(verdict, startMillis, endMillis);
+         fileGroupsStatistics.computeIfAbsent(tcList.get(tcIndex).getGroup(), this::getGroupStatistics)
+                 .add(verdict, startMillis, endMillis);
+      }
+   }
+
+   /**
+    * Gets the statistics of a report file, creating them on first use.
+    *
+    * @param sourceFilePath The path of the report file.
+    * @return The GroupStatistics of the file.
+    */
+   public GroupStatistics getFileStatistics(String sourceFilePath) {
+      return filesStatistics.computeIfAbsent(sourceFilePath, GroupStatistics::new);
+   }
+
+   /**
+    * Gets the statistics per report file.
+    *
+    * @return The statistics, in reading order.
+    */
+   public ArrayList<GroupStatistics> getFilesStatistics() {
+      return new ArrayList<>(filesStatistics.values());
+   }
+
+   /**
+    * Gets the statistics per group path. Groups with the same path in different files are merged.
+    *
+    * @return The statistics, in the order the groups were first seen.
+    */
+   public ArrayList<GroupStatistics> getGroupsStatistics() {
+      return new ArrayList<>(groupsStatistics.values());
+   }
+
+   /**
+    * Gets the statistics of a group path, creating them on first use.
+    *
+    * @param group The group, or null for test cases outside any group.
+    * @return The GroupStatistics of the group path.
+    */
+   public GroupStatistics getGroupStatistics(TestGroup group) {
+      String groupPath = group == null || group.getPath().isEmpty() ? NO_GROUP_NAME : group.getPath();
+      return groupsStatistics.computeIfAbsent(groupPath, GroupStatistics::new);
+   }
+}
@@ -0,0 +1,142 @@
+package data_types;
+
+/**
+ * Represents a snapshot of the progress of a report generation run.
+ */
+public class ReportProgress {
+   private final ReportStage stage;       // The current stage
+   private final long stageDone;          // Work items of the current stage already done
+   private final long stageTotal;         // Work items of the current stage, or -1 if unknown
+   private final long stageElapsedNanos;  // Time spent in the current stage
+   private final int filesParsed;         // Files parsed so far
+   private final long rowsWritten;        // Test case rows written so far
+   private final long bytesWritten;       // Workbook bytes written so far
+
+   /**
+    * Constructor for ReportProgress.
+    *
+    * @param stage             The current stage.
+    * @param stageDone         Work items of the current stage already done.
+    * @param stageTotal        Work items of the current stage, or -1 if unknown.
+    * @param stageElapsedNanos Time spent in the current stage in nanoseconds.
+    * @param filesParsed       Files parsed so far.
+    * @param rowsWritten       Test case rows written so far.
+    * @param bytesWritten      Workbook bytes written so far.
+    */
+   public ReportProgress(ReportStage stage, long stageDone, long stageTotal, long stageElapsedNanos,
+                         int filesParsed, long rowsWritten, long bytesWritten) {
+      this.stage = stage;
+      this.stageDone = stageDone;
+      this.stageTotal = stageTotal;
+      this.stageElapsedNanos = stageElapsedNanos;
+      this.filesParsed = filesParsed;
+      this.rowsWritten = rowsWritten;
+      this.bytesWritten = bytesWritten;
+   }
+
+   /**
+    * Gets the current stage.
+    *
+    * @return The ReportStage of this snapshot.
+    */
+   public ReportStage getStage() {
+      return stage;
+   }
+
+   /**
+    * Gets the work items of the current stage already done.
+    *
+    * @return The done count in the unit of the stage.
+    */
+   public long getStageDone() {
+      return stageDone;
+   }
+
+   /**
+    * Gets the work items of the current stage.
+    *
+    * @return The total count in the unit of the stage, or -1 if unknown.
+    */
+   public long getStageTotal() {
+      return stageTotal;
+   }
+
+   /**
+    * Gets the number of files parsed so far.
+    *
+    * @return The parsed files count.
+    */
+   public int getFilesParsed() {
+      return filesParsed;
+   }
+
+   /**
+    * Gets the number of test case rows written so far.
+    *
+    * @return The written rows count.
+    */
+   public long getRowsWritten() {
+      return rowsWritten;
+   }
+
+   /**
+    * Gets the number of workbook bytes written so far.
+    *
+    * @return The written bytes count.
+    */
+   public long getBytesWritten() {
+      return bytesWritten;
+   }
+
+   /**
+    * Gets the completed fraction of the current stage.
+    *
+    * @return A value between 0 and 1, or -1 if the stage total is unknown.
+    */
+   public double getStageFraction() {
+      if (stageTotal <= 0) {
+         return stageTotal == 0 ? 1 : -1;
+      }
+      return Math.min(1, (double) stageDone / stageTotal);
+   }
+
+   /**
+    * Gets the throughput of the current stage.
+    *
+    * @return The work items done per second in the unit of the stage.
+    */
+   public double getStageThroughput() {
+      return stageElapsedNanos > 0 ? stageDone * 1e9 / stageElapsedNanos : 0;
+   }
+
+   /**
+    * Gets the estimated time left in the current stage, based on its throughput so far.
+    *
+    * @return The estimated seconds left, or -1 if it cannot be estimated.
+    */
+   public double getStageEtaSeconds() {
+      double throughput = getStageThroughput();
+      if (stageTotal < 0 || throughput <= 0) {
+         return -1;
+      }
+      return Math.max(0, stageTotal - stageDone) / throughput;
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder progressText = new StringBuilder(stage.getDisplayName());
+      if (!stage.getUnit().isEmpty()) {
+         progressText.append(' ').append(stageDone);
+         if (stageTotal >= 0) {
+            progressText.append('/').append(stageTotal);
+         }
+         progressText.append(String.format(" (%.0f %s/s", getStageThroughput(), stage.getUnit()));
+         double etaSeconds = getStageEtaSeconds();
+         if (etaSeconds >= 0) {
+            progressText.append(String.format(", ETA %.0f s", etaSeconds));
+         }
+         progressText.append(')');
+      }
+      return progressText.toString();
+   }
+}
@@ -0,0 +1,101 @@
+package data_types;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of one report generation run.
+ */
+public class ReportResult {
+   private final List<String> outputFilePaths; // The paths of the written files, in output format order
+   private final String runSummaryFilePath;    // The path of the run summary file, or null if not written
+   private final TestCaseStore testCaseStore;  // The written test cases, kept for the results viewer
+   private final RunSummary runSummary;        // The measurements of the run
+
+   /**
+    * Constructor for ReportResult.
+    *
+    * @param outputFilePaths    The paths of the written files, in output format order.
+    * @param runSummaryFilePath The path of the run summary file, or null if not written.
+    * @param testCaseStore      The written test cases.
+    * @param runSummary         The measurements of the run.
+    */
+   public ReportResult(List<String> outputFilePaths, String runSummaryFilePath, TestCaseStore testCaseStore,
+                       RunSummary runSummary) {
+      this.outputFilePaths = outputFilePaths;
+      this.runSummaryFilePath = runSummaryFilePath;
+      this.testCaseStore = testCaseStore;
+      this.runSummary = runSummary;
+   }
+
+   /**
+    * Gets the path of the first written file, the workbook unless it was not requested.
+    *
+    * @return The output file path.
+    */
+   public String getOutputFilePath() {
+      return outputFilePaths.get(0);
+   }
+
+   /**
+    * Gets the paths of all written files.
+    *
+    * @return The output file paths, in output format order.
+    */
+   public List<String> getOutputFilePaths() {
+      return outputFilePaths;
+   }
+
+   /**
+    * Gets the path of the run summary file.
+    *
+    * @return The run summary file path, or null if it was not written.
+    */
+   public String getRunSummaryFilePath() {
+      return runSummaryFilePath;
+   }
+
+   /**
+    * Gets the measurements of the run.
+    *
+    * @return The RunSummary of the run.
+    */
+   public RunSummary getRunSummary() {
+      return runSummary;
+   }
+
+   /**
+    * Gets the written test cases.
+    *
+    * @return The TestCaseStore of the run.
+    */
+   public TestCaseStore getTestCaseStore() {
+      return testCaseStore;
+   }
+
+   /**
+    * Gets the verdict tally of all written test cases.
+    *
+    * @return The VerdictCounts of the run.
+    */
+   public VerdictCounts getVerdictCounts() {
+      return runSummary.getVerdictCounts();
+   }
+
+   /**
+    * Gets the parsing throughput and failures.
+    *
+    * @return The IngestionStatistics of the run.
+    */
+   public IngestionStatistics getIngestionStatistics() {
+      return runSummary.getIngestionStatistics();
+   }
+
+   /**
+    * Checks whether any input file could not be parsed.
+    *
+    * @return True if at least one file failed to parse.
+    */
+   public boolean hasParseErrors() {
+      return !runSummary.getIngestionStatistics().getFailedFilePaths().isEmpty();
+   }
+}
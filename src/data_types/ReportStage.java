@@ -0,0 +1,46 @@
+package data_types;
+
+/**
+ * Represents the stages of one report generation run, in the order they happen.
+ */
+public enum ReportStage {
+   PARSING_FILES("Parsing files", "files"),
+   RECORDING_HISTORY("Recording history", ""),
+   WRITING_ROWS("Writing rows", "rows"),
+   WRITING_SUMMARY("Writing summary sheets", ""),
+   RENDERING_CHART("Rendering chart", ""),
+   WRITING_FILE("Writing file", "bytes"),
+   DONE("Done", "");
+
+   private final String displayName; // The name shown in progress messages
+   private final String unit;        // The unit of the stage's work items, empty if not measurable
+
+   /**
+    * Constructor for ReportStage.
+    *
+    * @param displayName The name shown in progress messages.
+    * @param unit        The unit of the stage's work items, empty if not measurable.
+    */
+   ReportStage(String displayName, String unit) {
+      this.displayName = displayName;
+      this.unit = unit;
+   }
+
+   /**
+    * Gets the name shown in progress messages.
+    *
+    * @return The display name of the stage.
+    */
+   public String getDisplayName() {
+      return displayName;
+   }
+
+   /**
+    * Gets the unit of the stage's work items.
+    *
+    * @return The unit (e.g., "files"), or an empty string if the stage is not measurable.
+    */
+   public String getUnit() {
+      return unit;
+   }
+}
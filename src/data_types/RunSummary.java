@@ -0,0 +1,180 @@
+package data_types;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the measurements of one report generation run: the time spent in each stage, the bytes read and
+ * written, the rows and files processed, the allocations, and the measurements and errors of every input file.
+ * It is written next to the outputs as the run summary file and accumulated by the JMX metrics.
+ */
+public class RunSummary {
+   private final String reportName;                     // The name of the outputs without extension
+   private final long startMillis;                      // When the run started, in epoch milliseconds
+   private final long elapsedNanos;                     // The wall time of the run in nanoseconds
+   private final Map<ReportStage, Long> stagesNanos;    // The time spent in each stage that ran, in nanoseconds
+   private final long inputBytes;                       // The size of the input files and archives on disk
+   private final long outputBytes;                      // The size of the written output files
+   private final long rowsCount;                        // The test case rows written to each output
+   private final long allocatedBytes;                   // The bytes allocated by the run's threads, or -1 if not measured
+   private final IngestionStatistics ingestionStatistics; // The parsing throughput and the measurements of every file
+   private final CacheStatistics cacheStatistics;       // The parsed results cache figures, or null without cache
+   private final VerdictCounts verdictCounts;           // The verdict tally of all written test cases
+   private final List<String> outputFilePaths;          // The paths of the written files, in output format order
+
+   /**
+    * Constructor for RunSummary.
+    *
+    * @param reportName          The name of the outputs without extension.
+    * @param startMillis         When the run started, in epoch milliseconds.
+    * @param elapsedNanos        The wall time of the run in nanoseconds.
+    * @param stagesNanos         The time spent in each stage that ran, in nanoseconds.
+    * @param inputBytes          The size of the input files and archives on disk.
+    * @param outputBytes         The size of the written output files.
+    * @param rowsCount           The test case rows written to each output.
+    * @param allocatedBytes      The bytes allocated by the run's threads, or -1 if not measured.
+    * @param ingestionStatistics The parsing throughput and the measurements of every file.
+    * @param cacheStatistics     The parsed results cache figures, or null without cache.
+    * @param verdictCounts       The verdict tally of all written test cases.
+    * @param outputFilePaths     The paths of the written files, in output format order.
+    */
+   public RunSummary(String reportName, long startMillis, long elapsedNanos, Map<ReportStage, Long> stagesNanos,
+                     long inputBytes, long outputBytes, long rowsCount, long allocatedBytes,
+                     IngestionStatistics ingestionStatistics, CacheStatistics cacheStatistics,
+                     VerdictCounts verdictCounts, List<String> outputFilePaths) {
+      this.reportName = reportName;
+      this.startMillis = startMillis;
+      this.elapsedNanos = elapsedNanos;
+      this.stagesNanos = stagesNanos.isEmpty() ? new EnumMap<>(ReportStage.class) : new EnumMap<>(stagesNanos);
+      this.inputBytes = inputBytes;
+      this.outputBytes = outputBytes;
+      this.rowsCount = rowsCount;
+      this.allocatedBytes = allocatedBytes;
+      this.ingestionStatistics = ingestionStatistics;
+      this.cacheStatistics = cacheStatistics;
+      this.verdictCounts = verdictCounts;
+      this.outputFilePaths = outputFilePaths;
+   }
+
+   /**
+    * Gets the name of the outputs.
+    *
+    * @return The report name without extension.
+    */
+   public String getReportName() {
+      return reportName;
+   }
+
+   /**
+    * Gets when the run started.
+    *
+    * @return The start time in epoch milliseconds.
+    */
+   public long getStartMillis() {
+      return startMillis;
+   }
+
+   /**
+    * Gets the wall time of the run.
+    *
+    * @return The elapsed time in nanoseconds.
+    */
+   public long getElapsedNanos() {
+      return elapsedNanos;
+   }
+
+   /**
+    * Gets the time spent in each stage that ran. A stage entered more than once, such as the rows written
+    * to the streaming outputs and then to the workbook, holds the sum.
+    *
+    * @return The nanoseconds by stage, in stage order.
+    */
+   public Map<ReportStage, Long> getStagesNanos() {
+      return stagesNanos;
+   }
+
+   /**
+    * Gets the size of the input files and archives on disk.
+    *
+    * @return The bytes read.
+    */
+   public long getInputBytes() {
+      return inputBytes;
+   }
+
+   /**
+    * Gets the size of the written output files.
+    *
+    * @return The bytes written.
+    */
+   public long getOutputBytes() {
+      return outputBytes;
+   }
+
+   /**
+    * Gets the number of test case rows written to each output.
+    *
+    * @return The rows count.
+    */
+   public long getRowsCount() {
+      return rowsCount;
+   }
+
+   /**
+    * Gets the bytes allocated by the generating thread and the parsing threads during the run.
+    *
+    * @return The allocated bytes, or -1 if the JVM does not measure allocations.
+    */
+   public long getAllocatedBytes() {
+      return allocatedBytes;
+   }
+
+   /**
+    * Gets the parsing throughput and the measurements of every file.
+    *
+    * @return The IngestionStatistics of the run.
+    */
+   public IngestionStatistics getIngestionStatistics() {
+      return ingestionStatistics;
+   }
+
+   /**
+    * Gets the parsed results cache figures.
+    *
+    * @return The CacheStatistics, or null if no cache was used.
+    */
+   public CacheStatistics getCacheStatistics() {
+      return cacheStatistics;
+   }
+
+   /**
+    * Gets the verdict tally of all written test cases.
+    *
+    * @return The VerdictCounts of the run.
+    */
+   public VerdictCounts getVerdictCounts() {
+      return verdictCounts;
+   }
+
+   /**
+    * Gets the paths of the written files.
+    *
+    * @return The output file paths, in output format order.
+    */
+   public List<String> getOutputFilePaths() {
+      return outputFilePaths;
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder stages = new StringBuilder();
+      for (Map.Entry<ReportStage, Long> stageNanos : stagesNanos.entrySet()) {
+         stages.append(stages.length() > 0 ? ", " : "").append(stageNanos.getKey().getDisplayName())
+               .append(String.format(" %.1f ms", stageNanos.getValue() / 1e6));
+      }
+      return String.format("Run: %.1f ms (%s), read %.1f MiB, wrote %.1f MiB, %d rows, allocated %s",
+            elapsedNanos / 1e6, stages, inputBytes / 1048576.0, outputBytes / 1048576.0, rowsCount,
+            allocatedBytes < 0 ? "n/a" : String.format("%.1f MiB", allocatedBytes / 1048576.0));
+   }
+}
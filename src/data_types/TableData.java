@@ -0,0 +1,30 @@
+package data_types;
+
+/**
+ * Represents a read-only table of cell values that can be written row by row without copying it
+ * into row objects first.
+ */
+public interface TableData {
+   /**
+    * Gets the number of rows in the table.
+    *
+    * @return The rows count.
+    */
+   int getRowsCount();
+
+   /**
+    * Gets the number of columns in the table.
+    *
+    * @return The columns count.
+    */
+   int getColumnsCount();
+
+   /**
+    * Gets the value of a cell.
+    *
+    * @param rowIndex    The zero-based row index.
+    * @param columnIndex The zero-based column index.
+    * @return The cell value.
+    */
+   String getCellValue(int rowIndex, int columnIndex);
+}
@@ -1,12 +1,17 @@
 package data_types;
 
 /**
- * Represents a test case with a title, start time, and result.
+ * Represents a test case with a title, start time, end time, result, the group containing it, its test case ID,
+ * and its number in the report.
  */
 public class TestCase {
    private String title;       // The title of the test case
    private String startTime;   // The start time of the test case
+   private String endTime;     // The end time of the test case
    private String result;      // The result of the test case
+   private TestGroup group;    // The group containing the test case, or null
+   private String testCaseId;  // The GUID identifying the test case across runs, or null
+   private String tcNumber;    // The number of the test case in the report
 
    /**
     * Constructor for TestCase.
@@ -16,9 +21,68 @@ public class TestCase {
     * @param result    The result of the test case.
     */
    public TestCase(String title, String startTime, String result) {
+      this(title, startTime, "", result);
+   }
+
+   /**
+    * Constructor for TestCase.
+    *
+    * @param title     The title of the test case.
+    * @param startTime The start time of the test case.
+    * @param endTime   The end time of the test case.
+    * @param result    The result of the test case.
+    */
+   public TestCase(String title, String startTime, String endTime, String result) {
+      this(title, startTime, endTime, result, null);
+   }
+
+   /**
+    * Constructor for TestCase.
+    *
+    * @param title     The title of the test case.
+    * @param startTime The start time of the test case.
+    * @param endTime   The end time of the test case.
+    * @param result    The result of the test case.
+    * @param group     The group containing the test case, or null.
+    */
+   public TestCase(String title, String startTime, String endTime, String result, TestGroup group) {
+      this(title, startTime, endTime, result, group, null);
+   }
+
+   /**
+    * Constructor for TestCase.
+    *
+    * @param title      The title of the test case.
+    * @param startTime  The start time of the test case.
+    * @param endTime    The end time of the test case.
+    * @param result     The result of the test case.
+    * @param group      The group containing the test case, or null.
+    * @param testCaseId The GUID identifying the test case across runs, or null.
+    */
+   public TestCase(String title, String startTime, String endTime, String result, TestGroup group, String testCaseId) {
+      this(title, startTime, endTime, result, group, testCaseId, "");
+   }
+
+   /**
+    * Constructor for TestCase.
+    *
+    * @param title      The title of the test case.
+    * @param startTime  The start time of the test case.
+    * @param endTime    The end time of the test case.
+    * @param result     The result of the test case.
+    * @param group      The group containing the test case, or null.
+    * @param testCaseId The GUID identifying the test case across runs, or null.
+    * @param tcNumber   The number of the test case in the report.
+    */
+   public TestCase(String title, String startTime, String endTime, String result, TestGroup group, String testCaseId,
+                   String tcNumber) {
       this.title = title;
       this.startTime = startTime;
+      this.endTime = endTime;
       this.result = result;
+      this.group = group;
+      this.testCaseId = testCaseId;
+      this.tcNumber = tcNumber;
    }
 
    /**
@@ -39,6 +103,15 @@ public class TestCase {
       this.startTime = startTime;
    }
 
+   /**
+    * Sets a new end time for the test case.
+    *
+    * @param endTime The new end time for the test case.
+    */
+   public void editEndTime(String endTime) {
+      this.endTime = endTime;
+   }
+
    /**
     * Sets a new result value for the test case.
     *
@@ -48,6 +121,33 @@ public class TestCase {
       this.result = result;
    }
 
+   /**
+    * Sets a new group for the test case.
+    *
+    * @param group The new group containing the test case.
+    */
+   public void editGroup(TestGroup group) {
+      this.group = group;
+   }
+
+   /**
+    * Sets a new test case ID for the test case.
+    *
+    * @param testCaseId The new GUID identifying the test case across runs.
+    */
+   public void editTestCaseId(String testCaseId) {
+      this.testCaseId = testCaseId;
+   }
+
+   /**
+    * Sets a new number for the test case.
+    *
+    * @param tcNumber The new number of the test case in the report.
+    */
+   public void editTcNumber(String tcNumber) {
+      this.tcNumber = tcNumber;
+   }
+
    /**
     * Gets the title of the test case.
     *
@@ -66,6 +166,15 @@ public class TestCase {
       return startTime;
    }
 
+   /**
+    * Gets the end time of the test case.
+    *
+    * @return The end time of the test case.
+    */
+   public String getEndTime() {
+      return endTime;
+   }
+
    /**
     * Gets the result of the test case.
     *
@@ -74,5 +183,49 @@ public class TestCase {
    public String getResult() {
       return result;
    }
-}
 
+   /**
+    * Gets the group containing the test case.
+    *
+    * @return The group, or null if the test case is not in any group.
+    */
+   public TestGroup getGroup() {
+      return group;
+   }
+
+   /**
+    * Gets the path of the group containing the test case.
+    *
+    * @return The group path, or an empty string if the test case is not in any group.
+    */
+   public String getGroupPath() {
+      return group != null ? group.getPath() : "";
+   }
+
+   /**
+    * Gets the test case ID, which stays the same for a test case across report runs.
+    *
+    * @return The test case GUID, or null if the report has none.
+    */
+   public String getTestCaseId() {
+      return testCaseId;
+   }
+
+   /**
+    * Gets the number of the test case in the report (the tcnumber attribute).
+    *
+    * @return The test case number, or an empty string if the report has none.
+    */
+   public String getTcNumber() {
+      return tcNumber;
+   }
+
+   /**
+    * Gets the title of the fixture (or other group) directly containing the test case.
+    *
+    * @return The fixture title, or an empty string if the test case is not in a titled group.
+    */
+   public String getFixtureTitle() {
+      return group != null && group.getTitle() != null ? group.getTitle() : "";
+   }
+}
@@ -0,0 +1,77 @@
+package data_types;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Represents the conditions a test case must meet to be shown in the results viewer: one of the selected
+ * verdicts, a title containing a text (ignoring case), and a start time within a range.
+ */
+public class TestCaseFilter {
+   public static final TestCaseFilter ALL = new TestCaseFilter(EnumSet.allOf(Verdict.class), "", Long.MIN_VALUE, Long.MAX_VALUE);
+
+   private final EnumSet<Verdict> verdicts; // The verdicts shown
+   private final String titleText;          // The text the titles must contain, empty for any title
+   private final long fromMillis;           // The earliest start time shown, Long.MIN_VALUE for no lower bound
+   private final long toMillis;             // The latest start time shown, Long.MAX_VALUE for no upper bound
+
+   /**
+    * Constructor for TestCaseFilter.
+    *
+    * @param verdicts   The verdicts shown.
+    * @param titleText  The text the titles must contain, ignoring case; empty for any title.
+    * @param fromMillis The earliest start time shown in epoch milliseconds, Long.MIN_VALUE for no lower bound.
+    * @param toMillis   The latest start time shown in epoch milliseconds, Long.MAX_VALUE for no upper bound.
+    */
+   public TestCaseFilter(Set<Verdict> verdicts, String titleText, long fromMillis, long toMillis) {
+      this.verdicts = verdicts.isEmpty() ? EnumSet.noneOf(Verdict.class) : EnumSet.copyOf(verdicts);
+      this.titleText = titleText;
+      this.fromMillis = fromMillis;
+      this.toMillis = toMillis;
+   }
+
+   /**
+    * Gets the verdicts shown.
+    *
+    * @return The verdicts.
+    */
+   public Set<Verdict> getVerdicts() {
+      return verdicts;
+   }
+
+   /**
+    * Gets the text the titles must contain.
+    *
+    * @return The text, empty for any title.
+    */
+   public String getTitleText() {
+      return titleText;
+   }
+
+   /**
+    * Gets the earliest start time shown.
+    *
+    * @return The epoch milliseconds, Long.MIN_VALUE for no lower bound.
+    */
+   public long getFromMillis() {
+      return fromMillis;
+   }
+
+   /**
+    * Gets the latest start time shown.
+    *
+    * @return The epoch milliseconds, Long.MAX_VALUE for no upper bound.
+    */
+   public long getToMillis() {
+      return toMillis;
+   }
+
+   /**
+    * Checks whether the start time is restricted. Test cases whose start time could not be parsed are then hidden.
+    *
+    * @return True if a bound is set.
+    */
+   public boolean hasTimeRange() {
+      return fromMillis != Long.MIN_VALUE || toMillis != Long.MAX_VALUE;
+   }
+}
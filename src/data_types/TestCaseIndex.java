@@ -0,0 +1,294 @@
+package data_types;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Represents the indexes that let the results viewer filter and sort millions of test cases without touching
+ * their strings. The rows of each verdict are listed once when the index is created; the orders by title, start
+ * time and end time are built on first use and kept, so changing a filter never sorts again. A title filter is
+ * matched against the distinct titles of the store's pool, then looked up per row by title id.
+ * <p>
+ * Selecting is safe from any thread, as long as the store is no longer appended to.
+ */
+public class TestCaseIndex {
+   private static final Verdict[] VERDICTS = Verdict.values();
+
+   private final TestCaseStore testCaseStore; // The indexed test cases
+   private final int size;                    // The number of indexed test cases
+   private final int[][] verdictRows;         // The store indices of each verdict ordinal, ascending
+   private int[] titleOrder;                  // The store indices ordered by title, built on first use
+   private int[] startTimeOrder;              // The store indices ordered by start time, built on first use
+   private int[] endTimeOrder;                // The store indices ordered by end time, built on first use
+   private String[] lowerCaseTitles;          // The distinct titles in lower case, built on first use
+
+   /**
+    * Constructor for TestCaseIndex.
+    *
+    * @param testCaseStore The test cases to index.
+    */
+   public TestCaseIndex(TestCaseStore testCaseStore) {
+      this.testCaseStore = testCaseStore;
+      size = testCaseStore.size();
+      int[] verdictCounts = new int[VERDICTS.length];
+      for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+         verdictCounts[testCaseStore.getVerdict(tcIndex).ordinal()]++;
+      }
+      verdictRows = new int[VERDICTS.length][];
+      for (int verdictIndex = 0; verdictIndex < VERDICTS.length; verdictIndex++) {
+         verdictRows[verdictIndex] = new int[verdictCounts[verdictIndex]];
+      }
+      int[] filledCounts = new int[VERDICTS.length];
+      for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+         int verdictIndex = testCaseStore.getVerdict(tcIndex).ordinal();
+         verdictRows[verdictIndex][filledCounts[verdictIndex]++] = tcIndex;
+      }
+   }
+
+   /**
+    * Gets the number of indexed test cases.
+    *
+    * @return The index size.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Gets the number of test cases with a verdict.
+    *
+    * @param verdict The verdict.
+    * @return The count.
+    */
+   public int getCount(Verdict verdict) {
+      return verdictRows[verdict.ordinal()].length;
+   }
+
+   /**
+    * Selects the test cases matching a filter, in the requested order. Sorting by result only visits the rows
+    * of the selected verdicts, and sorting by start time only visits the rows within the time range.
+    *
+    * @param filter     The conditions the test cases must meet.
+    * @param sortKey    The order of the selected test cases.
+    * @param descending True to reverse the order.
+    * @return The store indices of the selected test cases.
+    */
+   public int[] select(TestCaseFilter filter, TestCaseSortKey sortKey, boolean descending) {
+      boolean[] shownVerdicts = new boolean[VERDICTS.length];
+      int shownCount = 0;
+      for (Verdict verdict : filter.getVerdicts()) {
+         shownVerdicts[verdict.ordinal()] = true;
+         shownCount += verdictRows[verdict.ordinal()].length;
+      }
+      boolean[] titleMatches = filter.getTitleText().isEmpty() ? null : matchTitles(filter.getTitleText());
+      int[] selectedRows = new int[shownCount];
+      int selectedCount = 0;
+
+      if (sortKey == TestCaseSortKey.RESULT) {
+         for (int verdictPosition = 0; verdictPosition < VERDICTS.length; verdictPosition++) {
+            int verdictIndex = descending ? VERDICTS.length - 1 - verdictPosition : verdictPosition;
+            if (!shownVerdicts[verdictIndex]) {
+               continue;
+            }
+            int[] rows = verdictRows[verdictIndex];
+            for (int rowPosition = 0; rowPosition < rows.length; rowPosition++) {
+               int tcIndex = rows[descending ? rows.length - 1 - rowPosition : rowPosition];
+               if (matches(tcIndex, titleMatches, filter)) {
+                  selectedRows[selectedCount++] = tcIndex;
+               }
+            }
+         }
+         return Arrays.copyOf(selectedRows, selectedCount);
+      }
+
+      int[] order = getOrder(sortKey);
+      int fromPosition = 0, toPosition = size;
+      if (sortKey == TestCaseSortKey.START_TIME && filter.hasTimeRange()) {
+         // The rows within the range are a contiguous run of the start time order, unknown times sort first
+         fromPosition = findFirstStartTime(order, Math.max(filter.getFromMillis(), TestCaseStore.UNKNOWN_TIME + 1));
+         toPosition = filter.getToMillis() == Long.MAX_VALUE ? size : findFirstStartTime(order, filter.getToMillis() + 1);
+      }
+      for (int position = 0; position < toPosition - fromPosition; position++) {
+         int orderPosition = descending ? toPosition - 1 - position : fromPosition + position;
+         int tcIndex = order != null ? order[orderPosition] : orderPosition;
+         if (shownVerdicts[testCaseStore.getVerdict(tcIndex).ordinal()] && matches(tcIndex, titleMatches, filter)) {
+            selectedRows[selectedCount++] = tcIndex;
+         }
+      }
+      return Arrays.copyOf(selectedRows, selectedCount);
+   }
+
+   /**
+    * Checks the title and time conditions of a filter; the verdict is checked by the caller.
+    *
+    * @param tcIndex      The store index of the test case.
+    * @param titleMatches Whether each distinct title contains the filter text, or null for any title.
+    * @param filter       The filter.
+    * @return True if the test case meets the conditions.
+    */
+   private boolean matches(int tcIndex, boolean[] titleMatches, TestCaseFilter filter) {
+      if (titleMatches != null && !titleMatches[testCaseStore.getTitleId(tcIndex)]) {
+         return false;
+      }
+      if (filter.hasTimeRange()) {
+         long startMillis = testCaseStore.getStartTimeMillis(tcIndex);
+         return startMillis != TestCaseStore.UNKNOWN_TIME && startMillis >= filter.getFromMillis() && startMillis <= filter.getToMillis();
+      }
+      return true;
+   }
+
+   /**
+    * Finds which distinct titles contain a text, ignoring case.
+    *
+    * @param titleText The text.
+    * @return Whether each title of the pool contains the text, by title id.
+    */
+   private boolean[] matchTitles(String titleText) {
+      String[] titles = getLowerCaseTitles();
+      String lowerCaseText = titleText.toLowerCase(Locale.ROOT);
+      boolean[] titleMatches = new boolean[titles.length];
+      for (int titleId = 0; titleId < titles.length; titleId++) {
+         titleMatches[titleId] = titles[titleId].contains(lowerCaseText);
+      }
+      return titleMatches;
+   }
+
+   /**
+    * Gets the distinct titles in lower case, building them on first use.
+    *
+    * @return The lower-case titles, by title id.
+    */
+   private synchronized String[] getLowerCaseTitles() {
+      if (lowerCaseTitles == null) {
+         lowerCaseTitles = new String[testCaseStore.getDistinctTitlesCount()];
+         for (int titleId = 0; titleId < lowerCaseTitles.length; titleId++) {
+            lowerCaseTitles[titleId] = testCaseStore.getDistinctTitle(titleId).toLowerCase(Locale.ROOT);
+         }
+      }
+      return lowerCaseTitles;
+   }
+
+   /**
+    * Gets the store indices in the order of a sort key, building the order on first use.
+    *
+    * @param sortKey The sort key, not RESULT.
+    * @return The ordered store indices, or null for the store order.
+    */
+   private synchronized int[] getOrder(TestCaseSortKey sortKey) {
+      switch (sortKey) {
+         case TITLE:
+            if (titleOrder == null) {
+               titleOrder = createTitleOrder();
+            }
+            return titleOrder;
+         case START_TIME:
+            if (startTimeOrder == null) {
+               long[] startTimes = new long[size];
+               for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+                  startTimes[tcIndex] = testCaseStore.getStartTimeMillis(tcIndex);
+               }
+               startTimeOrder = sortByKeys(startTimes);
+            }
+            return startTimeOrder;
+         case END_TIME:
+            if (endTimeOrder == null) {
+               long[] endTimes = new long[size];
+               for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+                  endTimes[tcIndex] = testCaseStore.getEndTimeMillis(tcIndex);
+               }
+               endTimeOrder = sortByKeys(endTimes);
+            }
+            return endTimeOrder;
+         default:
+            return null;
+      }
+   }
+
+   /**
+    * Orders the store indices by title. Only the distinct titles are compared; the rows are then placed
+    * by a counting sort over the title ranks, keeping the store order among equal titles.
+    *
+    * @return The store indices ordered by title.
+    */
+   private int[] createTitleOrder() {
+      int titlesCount = testCaseStore.getDistinctTitlesCount();
+      Integer[] sortedTitleIds = new Integer[titlesCount];
+      for (int titleId = 0; titleId < titlesCount; titleId++) {
+         sortedTitleIds[titleId] = titleId;
+      }
+      Arrays.sort(sortedTitleIds, Comparator.comparing(testCaseStore::getDistinctTitle,
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder())));
+      int[] titleRanks = new int[titlesCount];
+      for (int rank = 0; rank < titlesCount; rank++) {
+         titleRanks[sortedTitleIds[rank]] = rank;
+      }
+      // Start position of each rank in the order
+      int[] rankPositions = new int[titlesCount + 1];
+      for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+         rankPositions[titleRanks[testCaseStore.getTitleId(tcIndex)] + 1]++;
+      }
+      for (int rank = 0; rank < titlesCount; rank++) {
+         rankPositions[rank + 1] += rankPositions[rank];
+      }
+      int[] order = new int[size];
+      for (int tcIndex = 0; tcIndex < size; tcIndex++) {
+         order[rankPositions[titleRanks[testCaseStore.getTitleId(tcIndex)]]++] = tcIndex;
+      }
+      return order;
+   }
+
+   /**
+    * Orders indices by their keys with a stable bottom-up merge sort on primitive arrays, so no index is boxed.
+    *
+    * @param keys The key of each index.
+    * @return The indices ordered by key, equal keys in index order.
+    */
+   private static int[] sortByKeys(long[] keys) {
+      int[] order = new int[keys.length];
+      for (int index = 0; index < order.length; index++) {
+         order[index] = index;
+      }
+      int[] merged = new int[keys.length];
+      for (int width = 1; width < order.length; width *= 2) {
+         for (int low = 0; low < order.length; low += 2 * width) {
+            int middle = Math.min(low + width, order.length), high = Math.min(low + 2 * width, order.length);
+            if (middle == high || keys[order[middle - 1]] <= keys[order[middle]]) {
+               // Already in order, as the test cases of one report mostly are
+               System.arraycopy(order, low, merged, low, high - low);
+               continue;
+            }
+            int left = low, right = middle, target = low;
+            while (left < middle && right < high) {
+               merged[target++] = keys[order[right]] < keys[order[left]] ? order[right++] : order[left++];
+            }
+            System.arraycopy(order, left, merged, target, middle - left);
+            System.arraycopy(order, right, merged, target + middle - left, high - right);
+         }
+         int[] swapped = order;
+         order = merged;
+         merged = swapped;
+      }
+      return order;
+   }
+
+   /**
+    * Finds the first position of the start time order whose start time is at least a value.
+    *
+    * @param order      The store indices ordered by start time.
+    * @param fromMillis The value in epoch milliseconds.
+    * @return The position, or the order length if every start time is smaller.
+    */
+   private int findFirstStartTime(int[] order, long fromMillis) {
+      int low = 0, high = order.length;
+      while (low < high) {
+         int middle = (low + high) >>> 1;
+         if (testCaseStore.getStartTimeMillis(order[middle]) < fromMillis) {
+            low = middle + 1;
+         } else {
+            high = middle;
+         }
+      }
+      return low;
+   }
+}
@@ -0,0 +1,232 @@
+package data_types;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Represents the merge stage between the ingestion and the report: the test cases of each file are added to the
+ * TestCaseStore, the verdict tally and the breakdown as the file is consumed, and a test case read before, in an
+ * earlier file or earlier in the same one, is merged according to the MergePolicy instead of being counted twice.
+ * A merged row keeps the position of the first attempt and the values of the attempt the policy keeps; the tally
+ * and the breakdown count that attempt, in the file and group it was read from.
+ * <p>
+ * A test case is keyed by the pool id of its test case ID, or by the pool ids of its title and group path when the
+ * report has none. The keys are looked up in a primitive hash index, so merging millions of test cases costs
+ * some 20 to 40 bytes per test case beyond the store.
+ */
+public class TestCaseMerger {
+   private static final int[] VERDICT_SEVERITIES = createVerdictSeverities();
+
+   private final MergePolicy mergePolicy;          // How repeated test cases are merged
+   private final TestCaseStore testCaseStore;      // Receives one row per kept attempt
+   private final VerdictCounts verdictCounts;      // The verdict tally of the kept attempts
+   private final ReportBreakdown reportBreakdown;  // The statistics per file and per group of the kept attempts
+   private final MergeKeyIndex keyIndex = new MergeKeyIndex(); // The store index of the last kept attempt per key
+   private final HashMap<String, Integer> groupPathIds = new HashMap<>(); // Pool ids of the group paths used in keys
+   private GroupStatistics[] rowFileStatistics = new GroupStatistics[0];  // The file statistics counting each row
+   private GroupStatistics[] rowGroupStatistics = new GroupStatistics[0]; // The group statistics counting each row
+   private long repeatedCount;                     // The test cases read again after their first attempt
+
+   /**
+    * Constructor for TestCaseMerger.
+    *
+    * @param mergePolicy     How repeated test cases are merged.
+    * @param testCaseStore   The store receiving the test cases.
+    * @param verdictCounts   The verdict tally to keep up to date.
+    * @param reportBreakdown The statistics per file and per group to keep up to date.
+    */
+   public TestCaseMerger(MergePolicy mergePolicy, TestCaseStore testCaseStore, VerdictCounts verdictCounts,
+                         ReportBreakdown reportBreakdown) {
+      this.mergePolicy = mergePolicy;
+      this.testCaseStore = testCaseStore;
+      this.verdictCounts = verdictCounts;
+      this.reportBreakdown = reportBreakdown;
+      testCaseStore.setAttemptsNumbered(mergePolicy == MergePolicy.KEEP_ALL);
+   }
+
+   /**
+    * Adds the test cases of a report file, merging the ones read before.
+    *
+    * @param sourceFilePath The path of the report file.
+    * @param tcList         The test cases of the file, in report order.
+    */
+   public void addFile(String sourceFilePath, List<TestCase> tcList) {
+      if (mergePolicy == MergePolicy.NONE) {
+         int firstStoreIndex = testCaseStore.size();
+         testCaseStore.addAll(tcList);
+         verdictCounts.addAll(tcList);
+         reportBreakdown.addFile(sourceFilePath, tcList, testCaseStore, firstStoreIndex);
+         return;
+      }
+      GroupStatistics fileStatistics = reportBreakdown.getFileStatistics(sourceFilePath);
+      // Consecutive test cases mostly share a group, so each group is resolved once per file
+      HashMap<TestGroup, GroupStatistics> fileGroupsStatistics = new HashMap<>();
+      HashMap<TestGroup, Integer> fileGroupPathIds = new HashMap<>();
+      for (TestCase testCase : tcList) {
+         TestGroup group = testCase.getGroup();
+         GroupStatistics groupStatistics = fileGroupsStatistics.computeIfAbsent(group, reportBreakdown::getGroupStatistics);
+         long key;
+         if (testCase.getTestCaseId() != null) {
+            // Negative, apart from the title keys
+            key = -1L - testCaseStore.internTestCaseId(testCase.getTestCaseId());
+         } else {
+            int groupPathId = fileGroupPathIds.computeIfAbsent(group, this::getGroupPathId);
+            key = ((long) groupPathId << 32) | testCaseStore.internTitle(testCase.getTitle());
+         }
+
+         int keptIndex = keyIndex.get(key);
+         if (keptIndex == MergeKeyIndex.NO_VALUE) {
+            keyIndex.put(key, append(testCase, fileStatistics, groupStatistics));
+            continue;
+         }
+         repeatedCount++;
+         int attempts = testCaseStore.getAttempts(keptIndex) + 1;
+         if (mergePolicy == MergePolicy.KEEP_ALL) {
+            int storeIndex = append(testCase, fileStatistics, groupStatistics);
+            testCaseStore.setAttempts(storeIndex, attempts);
+            keyIndex.put(key, storeIndex);
+            continue;
+         }
+         long startMillis = TestCaseStore.toTimeMillis(testCase.getStartTime());
+         if (supersedes(testCase, startMillis, keptIndex)) {
+            replace(keptIndex, testCase, startMillis, fileStatistics, groupStatistics);
+         }
+         testCaseStore.setAttempts(keptIndex, attempts);
+      }
+   }
+
+   /**
+    * Gets the number of test cases read again after their first attempt, merged or kept as rows.
+    *
+    * @return The repeated attempts count.
+    */
+   public long getRepeatedCount() {
+      return repeatedCount;
+   }
+
+   /**
+    * Gets the number of distinct test cases read so far.
+    *
+    * @return The distinct test cases count.
+    */
+   public int getDistinctCount() {
+      return mergePolicy == MergePolicy.NONE ? testCaseStore.size() : keyIndex.size();
+   }
+
+   /**
+    * Gets the merge policy.
+    *
+    * @return The MergePolicy.
+    */
+   public MergePolicy getMergePolicy() {
+      return mergePolicy;
+   }
+
+   /**
+    * Appends a test case as a new row and counts it.
+    *
+    * @param testCase        The test case.
+    * @param fileStatistics  The statistics of its file.
+    * @param groupStatistics The statistics of its group.
+    * @return The store index of the row.
+    */
+   private int append(TestCase testCase, GroupStatistics fileStatistics, GroupStatistics groupStatistics) {
+      int storeIndex = testCaseStore.size();
+      testCaseStore.add(testCase);
+      if (storeIndex >= rowFileStatistics.length) {
+         int newCapacity = Math.max(1024, rowFileStatistics.length + (rowFileStatistics.length >> 1));
+         rowFileStatistics = Arrays.copyOf(rowFileStatistics, newCapacity);
+         rowGroupStatistics = Arrays.copyOf(rowGroupStatistics, newCapacity);
+      }
+      count(storeIndex, fileStatistics, groupStatistics);
+      return storeIndex;
+   }
+
+   /**
+    * Replaces the kept attempt of a test case by a later one, moving its counts to the file and group
+    * of the later attempt.
+    *
+    * @param storeIndex      The store index of the kept attempt.
+    * @param testCase        The later attempt.
+    * @param startMillis     The parsed start time of the later attempt.
+    * @param fileStatistics  The statistics of the file of the later attempt.
+    * @param groupStatistics The statistics of the group of the later attempt.
+    */
+   private void replace(int storeIndex, TestCase testCase, long startMillis, GroupStatistics fileStatistics,
+                        GroupStatistics groupStatistics) {
+      Verdict verdict = testCaseStore.getVerdict(storeIndex);
+      long keptStartMillis = testCaseStore.getStartTimeMillis(storeIndex), keptEndMillis = testCaseStore.getEndTimeMillis(storeIndex);
+      verdictCounts.remove(verdict);
+      rowFileStatistics[storeIndex].remove(verdict, keptStartMillis, keptEndMillis);
+      rowGroupStatistics[storeIndex].remove(verdict, keptStartMillis, keptEndMillis);
+      testCaseStore.set(storeIndex, testCase, startMillis);
+      count(storeIndex, fileStatistics, groupStatistics);
+   }
+
+   /**
+    * Counts a stored row in the tally and the statistics of its file and group.
+    *
+    * @param storeIndex      The store index of the row.
+    * @param fileStatistics  The statistics of its file.
+    * @param groupStatistics The statistics of its group.
+    */
+   private void count(int storeIndex, GroupStatistics fileStatistics, GroupStatistics groupStatistics) {
+      Verdict verdict = testCaseStore.getVerdict(storeIndex);
+      long startMillis = testCaseStore.getStartTimeMillis(storeIndex), endMillis = testCaseStore.getEndTimeMillis(storeIndex);
+      verdictCounts.add(verdict);
+      fileStatistics.add(verdict, startMillis, endMillis);
+      groupStatistics.add(verdict, startMillis, endMillis);
+      rowFileStatistics[storeIndex] = fileStatistics;
+      rowGroupStatistics[storeIndex] = groupStatistics;
+   }
+
+   /**
+    * Checks whether a new attempt of a test case replaces the kept one. The later start time wins; when a start
+    * time is unknown or both are equal, the attempt read last wins. The WORST policy first compares the verdicts.
+    *
+    * @param testCase    The new attempt.
+    * @param startMillis The parsed start time of the new attempt.
+    * @param keptIndex   The store index of the kept attempt.
+    * @return True if the new attempt replaces the kept one.
+    */
+   private boolean supersedes(TestCase testCase, long startMillis, int keptIndex) {
+      if (mergePolicy == MergePolicy.WORST) {
+         int severity = VERDICT_SEVERITIES[Verdict.fromResult(testCase.getResult()).ordinal()];
+         int keptSeverity = VERDICT_SEVERITIES[testCaseStore.getVerdict(keptIndex).ordinal()];
+         if (severity != keptSeverity) {
+            return severity > keptSeverity;
+         }
+      }
+      long keptStartMillis = testCaseStore.getStartTimeMillis(keptIndex);
+      if (startMillis == TestCaseStore.UNKNOWN_TIME || keptStartMillis == TestCaseStore.UNKNOWN_TIME) {
+         return true;
+      }
+      return startMillis >= keptStartMillis;
+   }
+
+   /**
+    * Gets the id of the group path of a group, used in the keys of test cases without a test case ID.
+    *
+    * @param group The group, or null for test cases outside any group.
+    * @return The id of the group path.
+    */
+   private int getGroupPathId(TestGroup group) {
+      String groupPath = group == null ? "" : group.getPath();
+      return groupPathIds.computeIfAbsent(groupPath, newGroupPath -> groupPathIds.size());
+   }
+
+   /**
+    * Ranks the verdicts from the best to the worst outcome for the WORST policy.
+    *
+    * @return The severity of each verdict ordinal, higher is worse.
+    */
+   private static int[] createVerdictSeverities() {
+      Verdict[] verdictsBySeverity = {Verdict.PASS, Verdict.NONE, Verdict.OTHER, Verdict.INCONCLUSIVE, Verdict.FAIL, Verdict.ERROR};
+      int[] severities = new int[Verdict.values().length];
+      for (int severity = 0; severity < verdictsBySeverity.length; severity++) {
+         severities[verdictsBySeverity[severity].ordinal()] = severity;
+      }
+      return severities;
+   }
+}
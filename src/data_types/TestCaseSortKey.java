@@ -0,0 +1,12 @@
+package data_types;
+
+/**
+ * Represents the orders in which the results viewer can list test cases.
+ */
+public enum TestCaseSortKey {
+   STORE_ORDER, // The order the test cases were read in (default)
+   TITLE,       // Title, ignoring case
+   START_TIME,  // Verdict time, unknown times first
+   END_TIME,    // Verdict end time, unknown times first
+   RESULT       // Verdict, in verdict set order
+}
@@ -0,0 +1,529 @@
+package data_types;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Represents a compact, column-oriented store of test cases.
+ * Instead of one object with three strings per test case, every field lives in a primitive array:
+ * titles are deduplicated in a string pool and referenced by id, verdicts are stored as one byte,
+ * start and end times are parsed once into epoch milliseconds, and test case IDs are pooled like titles.
+ * <p>
+ * Report timestamps carry no time zone, so they are stored as if they were UTC, which formats back
+ * to exactly the same text. An empty time, as reports without end times have on every test case, is a
+ * sentinel of its own. Values that do not round-trip (other unparseable times, results outside the
+ * verdict set or not in lower case) are kept verbatim in small side maps, so no information is lost.
+ * <p>
+ * As a table, the store has the title, start time and result columns, typed so the workbook gets real
+ * dates and verdict-styled results. Once a merged test case has more than one attempt, an attempts column follows.
+ */
+public class TestCaseStore implements TypedTableData {
+   public static final long UNKNOWN_TIME = Long.MIN_VALUE; // Stored when a time cannot be parsed
+   public static final int TITLE_COLUMN = 0, TIME_COLUMN = 1, RESULT_COLUMN = 2, ATTEMPTS_COLUMN = 3; // Table columns
+
+   private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss")
+           .withResolverStyle(ResolverStyle.STRICT);
+   private static final Verdict[] VERDICTS = Verdict.values();
+   private static final int INITIAL_CAPACITY = 1024;
+   private static final int NO_TEST_CASE_ID = -1; // Stored for test cases without a test case ID
+   private static final long EMPTY_TIME = Long.MIN_VALUE + 1; // Stored for an empty time, read as UNKNOWN_TIME
+
+   private int size;                 // The number of stored test cases
+   private int[] titleIds;           // Index into titlePool per test case
+   private byte[] verdictCodes;      // Verdict ordinal per test case
+   private long[] startTimes;        // Start time in epoch milliseconds per test case
+   private long[] endTimes;          // End time in epoch milliseconds per test case
+   private int[] testCaseIdIds;      // Index into testCaseIdPool per test case, or NO_TEST_CASE_ID
+   private int[] extraAttempts;      // Attempts beyond the first per test case, null while every test case has one
+   private boolean attemptsNumbered; // Whether the attempts number the kept rows rather than count the merged ones
+
+   private final ArrayList<String> titlePool = new ArrayList<>();            // Distinct titles
+   private final HashMap<String, Integer> titlePoolIds = new HashMap<>();    // Title to pool index
+   private final ArrayList<String> testCaseIdPool = new ArrayList<>();       // Distinct test case IDs
+   private final HashMap<String, Integer> testCaseIdPoolIds = new HashMap<>(); // Test case ID to pool index
+   private final HashMap<Integer, String> rawStartTimes = new HashMap<>();   // Start times that neither round-trip nor are empty
+   private final HashMap<Integer, String> rawEndTimes = new HashMap<>();     // End times that neither round-trip nor are empty
+   private final HashMap<Integer, String> rawResults = new HashMap<>();      // Results that do not round-trip
+
+   /**
+    * Constructor for TestCaseStore.
+    */
+   public TestCaseStore() {
+      titleIds = new int[INITIAL_CAPACITY];
+      verdictCodes = new byte[INITIAL_CAPACITY];
+      startTimes = new long[INITIAL_CAPACITY];
+      endTimes = new long[INITIAL_CAPACITY];
+      testCaseIdIds = new int[INITIAL_CAPACITY];
+   }
+
+   /**
+    * Appends a test case to the store.
+    *
+    * @param testCase The test case to append.
+    */
+   public void add(TestCase testCase) {
+      add(testCase.getTitle(), testCase.getStartTime(), testCase.getEndTime(), testCase.getResult(), testCase.getTestCaseId());
+   }
+
+   /**
+    * Appends all test cases of a collection to the store.
+    *
+    * @param testCases The test cases to append.
+    */
+   public void addAll(Collection<TestCase> testCases) {
+      ensureCapacity(size + testCases.size());
+      for (TestCase testCase : testCases) {
+         add(testCase);
+      }
+   }
+
+   /**
+    * Appends a test case to the store from its field values.
+    *
+    * @param title     The title of the test case.
+    * @param startTime The start time of the test case.
+    * @param endTime   The end time of the test case.
+    * @param result    The result of the test case.
+    */
+   public void add(String title, String startTime, String endTime, String result) {
+      add(title, startTime, endTime, result, null);
+   }
+
+   /**
+    * Appends a test case to the store from its field values.
+    *
+    * @param title      The title of the test case.
+    * @param startTime  The start time of the test case.
+    * @param endTime    The end time of the test case.
+    * @param result     The result of the test case.
+    * @param testCaseId The test case ID, or null.
+    */
+   public void add(String title, String startTime, String endTime, String result, String testCaseId) {
+      ensureCapacity(size + 1);
+      setValues(size++, title, startTime, toTimeMillis(startTime), endTime, result, testCaseId);
+   }
+
+   /**
+    * Replaces the values of a stored test case by another attempt of it. Its attempts are kept.
+    *
+    * @param index       The test case index.
+    * @param testCase    The other attempt.
+    * @param startMillis The start time of the other attempt, already parsed by toTimeMillis.
+    */
+   void set(int index, TestCase testCase, long startMillis) {
+      rawStartTimes.remove(index);
+      rawEndTimes.remove(index);
+      rawResults.remove(index);
+      setValues(index, testCase.getTitle(), testCase.getStartTime(), startMillis, testCase.getEndTime(), testCase.getResult(),
+            testCase.getTestCaseId());
+   }
+
+   /**
+    * Sets the number of attempts of a test case, e.g. after merging its attempts or numbering them.
+    *
+    * @param index    The test case index.
+    * @param attempts The attempts, at least 1.
+    */
+   void setAttempts(int index, int attempts) {
+      if (extraAttempts == null) {
+         if (attempts == 1) {
+            return;
+         }
+         extraAttempts = new int[titleIds.length];
+      }
+      extraAttempts[index] = attempts - 1;
+   }
+
+   /**
+    * Gets the number of attempts of a test case: how many attempts were merged into it, or which attempt it
+    * is when every attempt is kept.
+    *
+    * @param index The test case index.
+    * @return The attempts, 1 unless the test cases were merged.
+    */
+   public int getAttempts(int index) {
+      return extraAttempts != null ? extraAttempts[index] + 1 : 1;
+   }
+
+   /**
+    * Checks whether any test case has more than one attempt, which adds the attempts column to the table.
+    *
+    * @return True if the store has an attempts column.
+    */
+   public boolean hasAttempts() {
+      return extraAttempts != null;
+   }
+
+   /**
+    * Sets whether the attempts number the rows of a test case kept once per attempt, rather than count the
+    * attempts merged into one row.
+    *
+    * @param attemptsNumbered True if every attempt is kept as a row.
+    */
+   void setAttemptsNumbered(boolean attemptsNumbered) {
+      this.attemptsNumbered = attemptsNumbered;
+   }
+
+   /**
+    * Gets the name of the attempts column.
+    *
+    * @return "Attempt" if every attempt is kept as a numbered row, else "Attempts".
+    */
+   public String getAttemptsColumnName() {
+      return attemptsNumbered ? "Attempt" : "Attempts";
+   }
+
+   /**
+    * Gets the pool id of a title, adding it to the pool if it is new.
+    *
+    * @param title The title.
+    * @return The index of the title in the pool.
+    */
+   int internTitle(String title) {
+      return intern(title, titlePool, titlePoolIds);
+   }
+
+   /**
+    * Gets the pool id of a test case ID, adding it to the pool if it is new.
+    *
+    * @param testCaseId The test case ID.
+    * @return The index of the test case ID in the pool.
+    */
+   int internTestCaseId(String testCaseId) {
+      return intern(testCaseId, testCaseIdPool, testCaseIdPoolIds);
+   }
+
+   /**
+    * Parses a report timestamp as the store does, without keeping anything.
+    *
+    * @param time The timestamp text, or null.
+    * @return The epoch milliseconds, or UNKNOWN_TIME if the text does not round-trip.
+    */
+   static long toTimeMillis(String time) {
+      if (time != null && time.length() == 19) {
+         try {
+            return parseTimeMillis(time);
+         } catch (DateTimeParseException e) {
+            // Unknown below
+         }
+      }
+      return UNKNOWN_TIME;
+   }
+
+   /**
+    * Sets the values of a test case whose raw values were cleared.
+    *
+    * @param index       The test case index.
+    * @param title       The title of the test case.
+    * @param startTime   The start time of the test case.
+    * @param startMillis The start time parsed by toTimeMillis.
+    * @param endTime     The end time of the test case.
+    * @param result      The result of the test case.
+    * @param testCaseId  The test case ID, or null.
+    */
+   private void setValues(int index, String title, String startTime, long startMillis, String endTime, String result,
+                          String testCaseId) {
+      titleIds[index] = intern(title, titlePool, titlePoolIds);
+      startTimes[index] = storeTime(startTime, startMillis, index, rawStartTimes);
+      endTimes[index] = storeTime(endTime, toTimeMillis(endTime), index, rawEndTimes);
+      Verdict verdict = Verdict.fromResult(result);
+      verdictCodes[index] = (byte) verdict.ordinal();
+      if (!verdict.getResult().equals(result)) {
+         rawResults.put(index, result);
+      }
+      testCaseIdIds[index] = testCaseId != null ? intern(testCaseId, testCaseIdPool, testCaseIdPoolIds) : NO_TEST_CASE_ID;
+   }
+
+   /**
+    * Gets the number of stored test cases.
+    *
+    * @return The store size.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Gets the title of a test case.
+    *
+    * @param index The test case index.
+    * @return The title.
+    */
+   public String getTitle(int index) {
+      return titlePool.get(titleIds[index]);
+   }
+
+   /**
+    * Gets the test case ID of a test case.
+    *
+    * @param index The test case index.
+    * @return The test case ID, or null if the report has none.
+    */
+   public String getTestCaseId(int index) {
+      return testCaseIdIds[index] != NO_TEST_CASE_ID ? testCaseIdPool.get(testCaseIdIds[index]) : null;
+   }
+
+   /**
+    * Gets the verdict of a test case.
+    *
+    * @param index The test case index.
+    * @return The Verdict.
+    */
+   public Verdict getVerdict(int index) {
+      return VERDICTS[verdictCodes[index]];
+   }
+
+   /**
+    * Gets the result of a test case as written in the report.
+    *
+    * @param index The test case index.
+    * @return The result value.
+    */
+   public String getResult(int index) {
+      if (rawResults.containsKey(index)) {
+         return rawResults.get(index);
+      }
+      return VERDICTS[verdictCodes[index]].getResult();
+   }
+
+   /**
+    * Gets the start time of a test case in epoch milliseconds.
+    *
+    * @param index The test case index.
+    * @return The start time, or UNKNOWN_TIME if it is empty or could not be parsed.
+    */
+   public long getStartTimeMillis(int index) {
+      long startMillis = startTimes[index];
+      return startMillis != EMPTY_TIME ? startMillis : UNKNOWN_TIME;
+   }
+
+   /**
+    * Gets the end time of a test case in epoch milliseconds.
+    *
+    * @param index The test case index.
+    * @return The end time, or UNKNOWN_TIME if it is empty or could not be parsed.
+    */
+   public long getEndTimeMillis(int index) {
+      long endMillis = endTimes[index];
+      return endMillis != EMPTY_TIME ? endMillis : UNKNOWN_TIME;
+   }
+
+   /**
+    * Gets the start time of a test case as written in the report.
+    *
+    * @param index The test case index.
+    * @return The start time text.
+    */
+   public String getStartTime(int index) {
+      return formatTime(startTimes[index], index, rawStartTimes);
+   }
+
+   /**
+    * Gets the end time of a test case as written in the report.
+    *
+    * @param index The test case index.
+    * @return The end time text.
+    */
+   public String getEndTime(int index) {
+      return formatTime(endTimes[index], index, rawEndTimes);
+   }
+
+   /**
+    * Materializes a test case as a TestCase object.
+    *
+    * @param index The test case index.
+    * @return A new TestCase with the stored values.
+    */
+   public TestCase getTestCase(int index) {
+      return new TestCase(getTitle(index), getStartTime(index), getEndTime(index), getResult(index), null, getTestCaseId(index));
+   }
+
+   /**
+    * Gets the number of distinct titles in the string pool.
+    *
+    * @return The title pool size.
+    */
+   public int getDistinctTitlesCount() {
+      return titlePool.size();
+   }
+
+   /**
+    * Gets the title pool index of a test case. Test cases sharing a title share the index.
+    *
+    * @param index The test case index.
+    * @return The index of the title in the pool.
+    */
+   int getTitleId(int index) {
+      return titleIds[index];
+   }
+
+   /**
+    * Gets a title of the string pool.
+    *
+    * @param titleId The index of the title in the pool.
+    * @return The title.
+    */
+   String getDistinctTitle(int titleId) {
+      return titlePool.get(titleId);
+   }
+
+   /**
+    * Parses a report timestamp (e.g., "2023-09-17 11:03:17") into the epoch milliseconds the store uses.
+    *
+    * @param time The timestamp text.
+    * @return The epoch milliseconds.
+    * @throws DateTimeParseException If the text is not a report timestamp.
+    */
+   public static long parseTimeMillis(String time) {
+      return LocalDateTime.parse(time, TIME_FORMATTER).toInstant(ZoneOffset.UTC).toEpochMilli();
+   }
+
+   @Override
+   public int getRowsCount() {
+      return size;
+   }
+
+   @Override
+   public int getColumnsCount() {
+      return hasAttempts() ? 4 : 3;
+   }
+
+   @Override
+   public String getCellValue(int rowIndex, int columnIndex) {
+      switch (columnIndex) {
+         case TITLE_COLUMN:
+            return getTitle(rowIndex);
+         case TIME_COLUMN:
+            return getStartTime(rowIndex);
+         case RESULT_COLUMN:
+            return getResult(rowIndex);
+         case ATTEMPTS_COLUMN:
+            return String.valueOf(getAttempts(rowIndex));
+         default:
+            throw new IndexOutOfBoundsException("Column " + columnIndex);
+      }
+   }
+
+   @Override
+   public ColumnType getColumnType(int columnIndex) {
+      switch (columnIndex) {
+         case TITLE_COLUMN:
+            return ColumnType.TEXT;
+         case TIME_COLUMN:
+            return ColumnType.DATE_TIME;
+         case RESULT_COLUMN:
+            return ColumnType.VERDICT;
+         case ATTEMPTS_COLUMN:
+            return ColumnType.NUMBER;
+         default:
+            throw new IndexOutOfBoundsException("Column " + columnIndex);
+      }
+   }
+
+   @Override
+   public double getNumber(int rowIndex, int columnIndex) {
+      if (columnIndex != ATTEMPTS_COLUMN) {
+         throw new IllegalArgumentException("Column " + columnIndex + " is not a number column");
+      }
+      return getAttempts(rowIndex);
+   }
+
+   @Override
+   public long getTimeMillis(int rowIndex, int columnIndex) {
+      if (columnIndex != TIME_COLUMN) {
+         throw new IllegalArgumentException("Column " + columnIndex + " is not a date-time column");
+      }
+      return getStartTimeMillis(rowIndex);
+   }
+
+   @Override
+   public Verdict getVerdict(int rowIndex, int columnIndex) {
+      if (columnIndex != RESULT_COLUMN) {
+         throw new IllegalArgumentException("Column " + columnIndex + " is not a verdict column");
+      }
+      return getVerdict(rowIndex);
+   }
+
+   /**
+    * Grows the column arrays so they hold at least the given number of test cases.
+    *
+    * @param capacity The required capacity.
+    */
+   private void ensureCapacity(int capacity) {
+      if (capacity > titleIds.length) {
+         int newCapacity = Math.max(capacity, titleIds.length + (titleIds.length >> 1));
+         titleIds = Arrays.copyOf(titleIds, newCapacity);
+         verdictCodes = Arrays.copyOf(verdictCodes, newCapacity);
+         startTimes = Arrays.copyOf(startTimes, newCapacity);
+         endTimes = Arrays.copyOf(endTimes, newCapacity);
+         testCaseIdIds = Arrays.copyOf(testCaseIdIds, newCapacity);
+         if (extraAttempts != null) {
+            extraAttempts = Arrays.copyOf(extraAttempts, newCapacity);
+         }
+      }
+   }
+
+   /**
+    * Gets the pool id of a string, adding it to the pool if it is new.
+    *
+    * @param value   The string.
+    * @param pool    The distinct strings.
+    * @param poolIds The pool index of each distinct string.
+    * @return The pool index of the string.
+    */
+   private static int intern(String value, ArrayList<String> pool, HashMap<String, Integer> poolIds) {
+      Integer poolId = poolIds.get(value);
+      if (poolId == null) {
+         poolId = pool.size();
+         pool.add(value);
+         poolIds.put(value, poolId);
+      }
+      return poolId;
+   }
+
+   /**
+    * Gets the value to store for a parsed report timestamp, keeping the text verbatim if it neither round-trips
+    * nor is empty.
+    *
+    * @param time       The timestamp text.
+    * @param timeMillis The timestamp parsed by toTimeMillis.
+    * @param index      The test case index.
+    * @param rawTimes   The side map for verbatim values.
+    * @return The epoch milliseconds, EMPTY_TIME, or UNKNOWN_TIME if the text was kept verbatim.
+    */
+   private static long storeTime(String time, long timeMillis, int index, HashMap<Integer, String> rawTimes) {
+      if (timeMillis != UNKNOWN_TIME) {
+         return timeMillis;
+      }
+      if ("".equals(time)) {
+         return EMPTY_TIME;
+      }
+      rawTimes.put(index, time);
+      return UNKNOWN_TIME;
+   }
+
+   /**
+    * Formats stored epoch milliseconds back into the report timestamp text.
+    *
+    * @param timeMillis The stored epoch milliseconds.
+    * @param index      The test case index.
+    * @param rawTimes   The side map for verbatim values.
+    * @return The timestamp text.
+    */
+   private static String formatTime(long timeMillis, int index, HashMap<Integer, String> rawTimes) {
+      if (timeMillis == EMPTY_TIME) {
+         return "";
+      }
+      if (timeMillis == UNKNOWN_TIME) {
+         return rawTimes.get(index);
+      }
+      return TIME_FORMATTER.format(LocalDateTime.ofEpochSecond(Math.floorDiv(timeMillis, 1000), 0, ZoneOffset.UTC));
+   }
+}
@@ -0,0 +1,71 @@
+package data_types;
+
+/**
+ * Represents a container of test cases in a report hierarchy (test unit, test group, test fixture or
+ * test case list). In vTESTstudio reports the title of a container follows its test cases, so the
+ * title is filled in when the container is read completely and the path is only built on demand.
+ */
+public class TestGroup {
+   public static final String PATH_SEPARATOR = " / "; // Separates the titles of nested groups
+
+   private final TestGroup parent; // The enclosing group, or null for a top-level group
+   private String title;           // The title of the group, null while unknown
+   private String path;            // The full path, built on first use
+
+   /**
+    * Constructor for TestGroup.
+    *
+    * @param parent The enclosing group, or null for a top-level group.
+    * @param title  The title of the group, or null if it is not known yet.
+    */
+   public TestGroup(TestGroup parent, String title) {
+      this.parent = parent;
+      this.title = title;
+   }
+
+   /**
+    * Sets the title of the group once it has been read.
+    *
+    * @param title The title of the group.
+    */
+   public void editTitle(String title) {
+      this.title = title;
+      this.path = null;
+   }
+
+   /**
+    * Gets the title of the group.
+    *
+    * @return The title, or null if the group has none.
+    */
+   public String getTitle() {
+      return title;
+   }
+
+   /**
+    * Gets the enclosing group.
+    *
+    * @return The parent group, or null for a top-level group.
+    */
+   public TestGroup getParent() {
+      return parent;
+   }
+
+   /**
+    * Gets the titles of this group and its ancestors, outermost first. Untitled groups are skipped.
+    * The path is cached, so it should only be requested once the report has been read.
+    *
+    * @return The group path, e.g. "Central locking system test / Test static requirements".
+    */
+   public String getPath() {
+      if (path == null) {
+         String parentPath = parent != null ? parent.getPath() : "";
+         if (title == null || title.isEmpty()) {
+            path = parentPath;
+         } else {
+            path = parentPath.isEmpty() ? title : parentPath + PATH_SEPARATOR + title;
+         }
+      }
+      return path;
+   }
+}
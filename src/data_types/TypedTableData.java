@@ -0,0 +1,43 @@
+package data_types;
+
+/**
+ * Represents a table whose columns have a fixed type, so each cell is read in its own type and written
+ * without inspecting its text. getCellValue gives the text of TEXT and VERDICT cells, the formula of FORMULA
+ * cells without any prefix, and the original text of DATE_TIME cells whose time is unknown.
+ */
+public interface TypedTableData extends TableData {
+   /**
+    * Gets the type of a column.
+    *
+    * @param columnIndex The zero-based column index.
+    * @return The column type.
+    */
+   ColumnType getColumnType(int columnIndex);
+
+   /**
+    * Gets the value of a NUMBER cell.
+    *
+    * @param rowIndex    The zero-based row index.
+    * @param columnIndex The zero-based index of a NUMBER column.
+    * @return The number.
+    */
+   double getNumber(int rowIndex, int columnIndex);
+
+   /**
+    * Gets the time of a DATE_TIME cell. Times carry no time zone and are counted as UTC.
+    *
+    * @param rowIndex    The zero-based row index.
+    * @param columnIndex The zero-based index of a DATE_TIME column.
+    * @return The epoch milliseconds, or TestCaseStore.UNKNOWN_TIME if the time is unknown.
+    */
+   long getTimeMillis(int rowIndex, int columnIndex);
+
+   /**
+    * Gets the verdict of a VERDICT cell.
+    *
+    * @param rowIndex    The zero-based row index.
+    * @param columnIndex The zero-based index of a VERDICT column.
+    * @return The verdict.
+    */
+   Verdict getVerdict(int rowIndex, int columnIndex);
+}
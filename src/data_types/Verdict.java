@@ -0,0 +1,65 @@
+package data_types;
+
+/**
+ * Represents the verdicts of the "5_extended" verdict set used by the test reports,
+ * plus a catch-all for any other result value.
+ */
+public enum Verdict {
+   PASS("pass", "Pass"),
+   FAIL("fail", "Fail"),
+   INCONCLUSIVE("inconclusive", "Inconclusive"),
+   NONE("none", "None"),
+   ERROR("error", "Error"),
+   OTHER("", "Other");
+
+   private static final Verdict[] VALUES = values();
+
+   private final String result;      // The result attribute value in the XML report
+   private final String displayName; // The name shown in the summary table and chart
+
+   /**
+    * Constructor for Verdict.
+    *
+    * @param result      The result attribute value in the XML report.
+    * @param displayName The name shown in the summary table and chart.
+    */
+   Verdict(String result, String displayName) {
+      this.result = result;
+      this.displayName = displayName;
+   }
+
+   /**
+    * Gets the verdict matching a result attribute value, ignoring case.
+    *
+    * @param result The result attribute value (e.g., "pass").
+    * @return The matching Verdict, or OTHER if the value is not part of the verdict set.
+    */
+   public static Verdict fromResult(String result) {
+      if (result != null) {
+         for (Verdict verdict : VALUES) {
+            if (verdict != OTHER && verdict.result.equalsIgnoreCase(result)) {
+               return verdict;
+            }
+         }
+      }
+      return OTHER;
+   }
+
+   /**
+    * Gets the result attribute value of the verdict.
+    *
+    * @return The result value as written in the XML report.
+    */
+   public String getResult() {
+      return result;
+   }
+
+   /**
+    * Gets the display name of the verdict.
+    *
+    * @return The name shown in the summary table and chart.
+    */
+   public String getDisplayName() {
+      return displayName;
+   }
+}
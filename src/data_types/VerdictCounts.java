@@ -0,0 +1,83 @@
+package data_types;
+
+import java.util.Collection;
+
+/**
+ * Represents a tally of test case verdicts, filled in the same pass that reads the test cases
+ * so the summary table and chart never have to scan the test cases table again.
+ */
+public class VerdictCounts {
+   private final long[] counts = new long[Verdict.values().length]; // Count per verdict ordinal
+
+   /**
+    * Adds a test case to the tally.
+    *
+    * @param testCase The test case to count.
+    */
+   public void add(TestCase testCase) {
+      add(Verdict.fromResult(testCase.getResult()));
+   }
+
+   /**
+    * Adds a verdict to the tally.
+    *
+    * @param verdict The verdict to count.
+    */
+   public void add(Verdict verdict) {
+      counts[verdict.ordinal()]++;
+   }
+
+   /**
+    * Removes a verdict counted before, e.g. when a later attempt of its test case replaces it.
+    *
+    * @param verdict The verdict to uncount.
+    */
+   public void remove(Verdict verdict) {
+      counts[verdict.ordinal()]--;
+   }
+
+   /**
+    * Adds all test cases of a list to the tally.
+    *
+    * @param testCases The test cases to count.
+    */
+   public void addAll(Collection<TestCase> testCases) {
+      for (TestCase testCase : testCases) {
+         add(testCase);
+      }
+   }
+
+   /**
+    * Adds the counts of another tally to this one.
+    *
+    * @param other The tally to merge into this one.
+    */
+   public void merge(VerdictCounts other) {
+      for (int verdictIndex = 0; verdictIndex < counts.length; verdictIndex++) {
+         counts[verdictIndex] += other.counts[verdictIndex];
+      }
+   }
+
+   /**
+    * Gets the number of test cases with the given verdict.
+    *
+    * @param verdict The verdict to look up.
+    * @return The number of test cases with that verdict.
+    */
+   public long getCount(Verdict verdict) {
+      return counts[verdict.ordinal()];
+   }
+
+   /**
+    * Gets the total number of counted test cases.
+    *
+    * @return The sum of all verdict counts.
+    */
+   public long getTotal() {
+      long total = 0;
+      for (long count : counts) {
+         total += count;
+      }
+      return total;
+   }
+}
@@ -0,0 +1,100 @@
+package file_handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a text report sink written through a file channel. Text is encoded to UTF-8 straight into one
+ * fixed direct buffer, which is drained to the channel whenever it fills up, so the memory used does not
+ * grow with the number of test cases.
+ */
+public abstract class ChannelReportSink implements ReportSink {
+    private static final int BUFFER_SIZE = 64 * 1024; // Bytes encoded before they are written to the channel
+
+    private final File outputFile;            // The file being written
+    private final FileChannel outputChannel;  // The channel of the output file
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE); // Lone surrogates become '?' instead of failing
+    private final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE); // Encoded bytes not written yet
+
+    /**
+     * Constructor for ChannelReportSink.
+     *
+     * @param path      The folder path of the file to be created.
+     * @param name      The name of the file to be created, without extension.
+     * @param extension The extension of the file, including the dot.
+     * @throws IOException If the output file cannot be created.
+     */
+    protected ChannelReportSink(String path, String name, String extension) throws IOException {
+        outputFile = new File(path + name + extension);
+        outputChannel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends text to the output.
+     *
+     * @param text The text to append.
+     * @throws IOException If the output buffer cannot be drained to the file.
+     */
+    protected void write(String text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult coderResult = encoder.encode(chars, outputBuffer, false);
+            if (coderResult.isUnderflow()) {
+                return;
+            }
+            drainBuffer();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            encoder.encode(CharBuffer.allocate(0), outputBuffer, true);
+            encoder.flush(outputBuffer);
+            drainBuffer();
+        } finally {
+            outputChannel.close();
+        }
+    }
+
+    @Override
+    public void discard() {
+        try {
+            outputChannel.close();
+        } catch (IOException e) {
+            // The file is deleted anyway
+        }
+        if (outputFile.exists() && !outputFile.delete()) {
+            System.err.println("Cannot delete partial file " + outputFile);
+        }
+    }
+
+    @Override
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Writes the encoded bytes to the channel and empties the buffer.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    private void drainBuffer() throws IOException {
+        outputBuffer.flip();
+        while (outputBuffer.hasRemaining()) {
+            outputChannel.write(outputBuffer);
+        }
+        outputBuffer.clear();
+    }
+}
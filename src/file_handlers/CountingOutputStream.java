@@ -0,0 +1,65 @@
+package file_handlers;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Represents an output stream that counts the bytes passing through it and reports the count
+ * every time another chunk of the given size has been written.
+ */
+class CountingOutputStream extends FilterOutputStream {
+    private final long reportInterval;      // Bytes between two reports
+    private final LongConsumer bytesListener; // Receives the running byte count, may be null
+    private long bytesWritten;              // Bytes written so far
+    private long nextReport;                // Byte count at which the next report is due
+
+    /**
+     * Constructor for CountingOutputStream.
+     *
+     * @param out            The stream to write to.
+     * @param reportInterval The number of bytes between two reports.
+     * @param bytesListener  The listener receiving the running byte count, or null.
+     */
+    CountingOutputStream(OutputStream out, long reportInterval, LongConsumer bytesListener) {
+        super(out);
+        this.reportInterval = reportInterval;
+        this.bytesListener = bytesListener;
+        this.nextReport = reportInterval;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count(len);
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return The byte count.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Adds written bytes to the count and reports it when a chunk boundary is crossed.
+     *
+     * @param length The number of bytes just written.
+     */
+    private void count(int length) {
+        bytesWritten += length;
+        if (bytesListener != null && bytesWritten >= nextReport) {
+            nextReport = bytesWritten + reportInterval;
+            bytesListener.accept(bytesWritten);
+        }
+    }
+}
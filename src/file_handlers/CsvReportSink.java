@@ -0,0 +1,77 @@
+package file_handlers;
+
+import data_types.HistoryReport;
+import data_types.ReportBreakdown;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+
+import java.io.IOException;
+
+/**
+ * Represents a report sink writing one RFC 4180 CSV line per test case, under a header line.
+ * The tallies are not written: the file holds the test cases table only, ready for spreadsheets and scripts.
+ * Merged test cases get the attempts column of the workbook last.
+ */
+public class CsvReportSink extends ChannelReportSink {
+    public static final String FILE_EXTENSION = ".csv";
+
+    private static final String HEADER = "Title,Start Time,End Time,Result,Test Case ID"; // The first line, without attempts
+    private TestCaseStore testCaseStore; // The test cases being written
+    private boolean attemptsWritten;     // Whether the store has an attempts column
+
+    /**
+     * Constructor for CsvReportSink.
+     *
+     * @param path The folder path of the CSV file to be created.
+     * @param name The name of the CSV file to be created, without extension.
+     * @throws IOException If the output file cannot be created.
+     */
+    public CsvReportSink(String path, String name) throws IOException {
+        super(path, name, FILE_EXTENSION);
+    }
+
+    @Override
+    public void begin(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                      HistoryReport historyReport) throws IOException {
+        this.testCaseStore = testCaseStore;
+        attemptsWritten = testCaseStore.hasAttempts();
+        write(attemptsWritten ? HEADER + "," + testCaseStore.getAttemptsColumnName() + "\r\n" : HEADER + "\r\n");
+    }
+
+    @Override
+    public void writeTestCase(int tcIndex) throws IOException {
+        writeField(testCaseStore.getTitle(tcIndex));
+        write(",");
+        writeField(testCaseStore.getStartTime(tcIndex));
+        write(",");
+        writeField(testCaseStore.getEndTime(tcIndex));
+        write(",");
+        writeField(testCaseStore.getResult(tcIndex));
+        write(",");
+        writeField(testCaseStore.getTestCaseId(tcIndex));
+        if (attemptsWritten) {
+            write("," + testCaseStore.getAttempts(tcIndex));
+        }
+        write("\r\n");
+    }
+
+    /**
+     * Writes a field, quoted only if it holds a separator, a quote or a line break.
+     *
+     * @param value The field value, or null for an empty field.
+     * @throws IOException If the output cannot be written.
+     */
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        for (int charIndex = 0; charIndex < value.length(); charIndex++) {
+            char valueChar = value.charAt(charIndex);
+            if (valueChar == ',' || valueChar == '"' || valueChar == '\r' || valueChar == '\n') {
+                write("\"" + value.replace("\"", "\"\"") + "\"");
+                return;
+            }
+        }
+        write(value);
+    }
+}
@@ -0,0 +1,805 @@
+package file_handlers;
+
+import data_types.ColumnType;
+import data_types.TableData;
+import data_types.TypedTableData;
+import data_types.Verdict;
+import data_types.VerdictCounts;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xddf.usermodel.XDDFColor;
+import org.apache.poi.xddf.usermodel.XDDFSolidFillProperties;
+import org.apache.poi.xddf.usermodel.chart.AxisCrosses;
+import org.apache.poi.xddf.usermodel.chart.AxisPosition;
+import org.apache.poi.xddf.usermodel.chart.BarDirection;
+import org.apache.poi.xddf.usermodel.chart.BarGrouping;
+import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+import org.apache.poi.xddf.usermodel.chart.LegendPosition;
+import org.apache.poi.xddf.usermodel.chart.XDDFBarChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFCategoryAxis;
+import org.apache.poi.xddf.usermodel.chart.XDDFCategoryDataSource;
+import org.apache.poi.xddf.usermodel.chart.XDDFChartData;
+import org.apache.poi.xddf.usermodel.chart.XDDFDataSourcesFactory;
+import org.apache.poi.xddf.usermodel.chart.XDDFValueAxis;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.*;
+import org.apache.xmlbeans.XmlCursor;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PiePlot3D;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.RingPlot;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTBarChart;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTTable;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTTableColumn;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTTableColumns;
+
+import javax.swing.*;
+import javax.xml.namespace.QName;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.poi.ss.SpreadsheetVersion.EXCEL2007;
+
+//Add from libraries tab
+/* https://mvnrepository.com/artifact/org.apache.poi/poi-ooxml/5.2.4 */
+/* https://mvnrepository.com/artifact/org.apache.poi/ooxml-schemas/1.4 */
+/* https://mvnrepository.com/artifact/jfree/jfreechart */
+
+/**
+ * Represents a utility class for creating Excel files using Apache POI library.
+ * The workbook is either built fully in memory (XSSF) or streamed (SXSSF), in which case only a window
+ * of the most recent rows is kept in memory and older rows are flushed to temporary files.
+ */
+public class ExcelFile {
+    public static final int DEFAULT_ROW_WINDOW_SIZE = SXSSFWorkbook.DEFAULT_WINDOW_SIZE; // Rows kept in memory when streaming
+    public static final int MAX_SHEET_ROWS = EXCEL2007.getMaxRows(); // Rows of a worksheet, the header row included
+
+    private static final int ROWS_PROGRESS_INTERVAL = 4096; // Rows between two progress notifications
+    private static final long BYTES_PROGRESS_INTERVAL = 1 << 20; // Bytes between two progress notifications
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss"; // The format of date-time cells, as in the reports
+    private static final double EXCEL_EPOCH_DAY_OFFSET = 25569; // Excel serial number of 1970-01-01
+    // 1900-03-01: Excel counts a nonexistent 1900-02-29, so earlier serial numbers are off by a day
+    private static final long MIN_EXCEL_DATE_MILLIS = LocalDate.of(1900, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    private Workbook excelSourceFile; // The Excel workbook
+    private final File outputFile; // The Excel file being created
+    private CountingOutputStream fileOutput; // Output stream for writing the Excel file
+    private ExcelProgressListener progressListener; // Notified while rows and bytes are written, may be null
+    private CellStyle dateTimeStyle; // Shared by every date-time cell, created on first use
+    private CellStyle[] verdictStyles; // Shared by the result cells of each verdict, created on first use
+
+    /**
+     * Constructor for ExcelFile, building the whole workbook in memory.
+     *
+     * @param path The folder path of the Excel file to be created.
+     * @param name The name of the Excel file to be created.
+     * @throws IOException If the output file cannot be created.
+     */
+    public ExcelFile(String path, String name) throws IOException {
+        this(path, name, 0);
+    }
+
+    /**
+     * Constructor for ExcelFile.
+     *
+     * @param path          The folder path of the Excel file to be created.
+     * @param name          The name of the Excel file to be created.
+     * @param rowWindowSize The number of rows per sheet kept in memory before older rows are flushed to
+     *                      temporary files, or 0 to build the whole workbook in memory.
+     * @throws IOException If the output file cannot be created.
+     */
+    public ExcelFile(String path, String name, int rowWindowSize) throws IOException {
+        // Initialize the output stream and Excel workbook
+        outputFile = new File(path + name + ".xlsx");
+        fileOutput = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile), 64 * 1024),
+                BYTES_PROGRESS_INTERVAL, bytesWritten -> {
+            if (progressListener != null) {
+                progressListener.onBytesWritten(bytesWritten);
+            }
+        });
+        if (rowWindowSize > 0) {
+            SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(rowWindowSize);
+            streamingWorkbook.setCompressTempFiles(true);
+            // Streamed formula cells carry no cached values, so Excel must recalculate them on open
+            streamingWorkbook.setForceFormulaRecalculation(true);
+            excelSourceFile = streamingWorkbook;
+        } else {
+            excelSourceFile = new XSSFWorkbook();
+        }
+    }
+
+    /**
+     * Sets the listener notified while table rows and workbook bytes are written.
+     *
+     * @param progressListener The listener, or null to remove it.
+     */
+    public void setProgressListener(ExcelProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Checks whether the workbook is streamed with a row window instead of being built in memory.
+     *
+     * @return True if rows are flushed to temporary files as they are produced.
+     */
+    public boolean isStreaming() {
+        return excelSourceFile instanceof SXSSFWorkbook;
+    }
+
+    /**
+     * Creates a new sheet in the Excel workbook.
+     *
+     * @param name The name of the sheet.
+     * @return The created Sheet.
+     */
+    public Sheet createSheet(String name) {
+        return excelSourceFile.createSheet(name);
+    }
+
+    /**
+     * Gets the XSSFSheet holding the sheet's table and drawing parts.
+     * For a streamed workbook this is the backing sheet of the streamed one.
+     *
+     * @param sheet The Sheet created by this ExcelFile.
+     * @return The corresponding XSSFSheet.
+     */
+    private XSSFSheet getXSSFSheet(Sheet sheet) {
+        if (sheet instanceof XSSFSheet) {
+            return (XSSFSheet) sheet;
+        }
+        return ((SXSSFWorkbook) excelSourceFile).getXSSFWorkbook().getSheet(sheet.getSheetName());
+    }
+
+    /**
+     * Creates a table in the specified XSSFSheet with the given parameters.
+     *
+     * @param sheet        The Sheet in which to create the table.
+     * @param displayName  The display name of the table.
+     * @param startCell    The starting cell reference for the table (e.g., "A5").
+     * @param endCell      The ending cell reference for the table (e.g., "D6").
+     * @param columnsCount The number of columns in the table.
+     * @param columnsData  An ArrayList containing the names of the table's columns.
+     * @param rowsCount    The number of rows in the table.
+     * @param cellsData    An ArrayList of ArrayLists containing the data for the table cells.
+     *                     Values prefixed with "formula=" are written as formulas and values prefixed
+     *                     with "number=" as numeric cells.
+     */
+    public void createTable(Sheet sheet, String displayName, String startCell, String endCell,
+                            int columnsCount, ArrayList<String> columnsData, int rowsCount, ArrayList<ArrayList<String>> cellsData) {
+        createTable(sheet, displayName, startCell, endCell, columnsData, new TableData() {
+            @Override
+            public int getRowsCount() {
+                return rowsCount;
+            }
+
+            @Override
+            public int getColumnsCount() {
+                return columnsCount;
+            }
+
+            @Override
+            public String getCellValue(int rowIndex, int columnIndex) {
+                return cellsData.get(rowIndex).get(columnIndex);
+            }
+        });
+    }
+
+    /**
+     * Creates a table in the specified Sheet, reading the cell values straight from a TableData source
+     * so no per-row copies of the data are needed.
+     *
+     * @param sheet       The Sheet in which to create the table.
+     * @param displayName The display name of the table.
+     * @param startCell   The starting cell reference for the table (e.g., "A5").
+     * @param endCell     The ending cell reference for the table (e.g., "D6").
+     * @param columnsData An ArrayList containing the names of the table's columns.
+     * @param tableData   The source of the table cells. Values prefixed with "formula=" are written as
+     *                    formulas and values prefixed with "number=" as numeric cells.
+     */
+    public void createTable(Sheet sheet, String displayName, String startCell, String endCell,
+                            ArrayList<String> columnsData, TableData tableData) {
+        int columnsCount = tableData.getColumnsCount(), rowsCount = tableData.getRowsCount();
+        int startCellIndex = createTableHeader(sheet, displayName, startCell, endCell, columnsData, columnsCount);
+        String cellData;
+        for (int rowCounter = 0; rowCounter < rowsCount; rowCounter++) {
+            Row row = sheet.createRow(startCellIndex + rowCounter);
+            for (int cellCounter = 0; cellCounter < columnsCount; cellCounter++) {
+                Cell cell = row.createCell(cellCounter);
+                cellData = tableData.getCellValue(rowCounter, cellCounter);
+                if (cellData.startsWith("formula=")) {
+                    cell.setCellFormula(cellData.substring(8));
+                } else if (cellData.startsWith("number=")) {
+                    cell.setCellValue(Double.parseDouble(cellData.substring(7)));
+                } else {
+                    cell.setCellValue(cellData);
+                }
+            }
+            notifyRowsWritten(rowCounter + 1, rowsCount);
+        }
+    }
+
+    /**
+     * Creates a table in the specified Sheet from a typed source, see {@link #writeTypedRows}. All rows go to
+     * the one sheet: tables that may outgrow a worksheet are created with {@link #createSplitTable}.
+     *
+     * @param sheet       The Sheet in which to create the table.
+     * @param displayName The display name of the table.
+     * @param startCell   The starting cell reference for the table (e.g., "A5").
+     * @param endCell     The ending cell reference for the table (e.g., "D6").
+     * @param columnsData An ArrayList containing the names of the table's columns.
+     * @param tableData   The source of the table cells, with a type per column.
+     */
+    public void createTable(Sheet sheet, String displayName, String startCell, String endCell,
+                            ArrayList<String> columnsData, TypedTableData tableData) {
+        int rowsCount = tableData.getRowsCount();
+        int startCellIndex = createTableHeader(sheet, displayName, startCell, endCell, columnsData, tableData.getColumnsCount());
+        writeTypedRows(sheet, startCellIndex, tableData, 0, rowsCount, 0, rowsCount);
+    }
+
+    /**
+     * Creates a table of typed rows split over as many sheets as it needs, so it may hold more rows than a
+     * worksheet can. The first sheet and table get the given names, the next ones the same names numbered
+     * from 2 (e.g., "Test Cases Table 2"), and each sheet holds a table of its own rows starting at A1.
+     * Progress is notified over the rows of all sheets.
+     *
+     * @param sheetName    The name of the first sheet.
+     * @param displayName  The display name of the first table.
+     * @param columnsData  An ArrayList containing the names of the table's columns.
+     * @param tableData    The source of the table cells, with a type per column.
+     * @param fromRow      The first row of the source written, inclusive.
+     * @param toRow        The last row of the source written, exclusive.
+     * @param maxSheetRows The maximum number of rows per sheet besides the header, at most MAX_SHEET_ROWS - 1.
+     * @return The created sheets, in row order.
+     */
+    public List<Sheet> createSplitTable(String sheetName, String displayName, ArrayList<String> columnsData,
+                                        TypedTableData tableData, int fromRow, int toRow, int maxSheetRows) {
+        if (maxSheetRows < 1 || maxSheetRows > MAX_SHEET_ROWS - 1) {
+            throw new IllegalArgumentException("A sheet holds 1 to " + (MAX_SHEET_ROWS - 1) + " rows besides its header: " + maxSheetRows);
+        }
+        List<Sheet> sheets = new ArrayList<>();
+        int firstRow = fromRow;
+        do {
+            int lastRow = (int) Math.min((long) firstRow + maxSheetRows, toRow);
+            int sheetNumber = sheets.size() + 1;
+            Sheet sheet = createSheet(getNumberedName(sheetName, sheetNumber));
+            // The header takes row 1, so n rows end on row n + 1; an empty table keeps one empty row
+            String endCell = new CellReference(Math.max(lastRow - firstRow, 1), tableData.getColumnsCount() - 1).formatAsString();
+            int startCellIndex = createTableHeader(sheet, getNumberedName(displayName, sheetNumber), "A1", endCell, columnsData,
+                    tableData.getColumnsCount());
+            writeTypedRows(sheet, startCellIndex, tableData, firstRow, lastRow, firstRow - fromRow, toRow - fromRow);
+            sheets.add(sheet);
+            firstRow = lastRow;
+        } while (firstRow < toRow);
+        return sheets;
+    }
+
+    /**
+     * Numbers the name of a split sheet or table, keeping the "*" that encloses table names last.
+     *
+     * @param name   The name of the first sheet or table.
+     * @param number The number of the sheet, from 1.
+     * @return The name itself for the first sheet, else the name followed by the number.
+     */
+    private static String getNumberedName(String name, int number) {
+        if (number == 1) {
+            return name;
+        }
+        return name.endsWith("*") ? name.substring(0, name.length() - 1) + " " + number + "*" : name + " " + number;
+    }
+
+    /**
+     * Writes typed rows below a table header. Each cell is read in the type of its column and written without
+     * inspecting its text: times become real Excel dates, results get the style of their verdict, and the styles
+     * are created once per workbook and shared by every cell.
+     *
+     * @param sheet          The Sheet holding the table.
+     * @param startCellIndex The index of the first sheet row written.
+     * @param tableData      The source of the table cells, with a type per column.
+     * @param fromRow        The first row of the source written, inclusive.
+     * @param toRow          The last row of the source written, exclusive.
+     * @param rowsWritten    The rows of the same table already written to previous sheets.
+     * @param rowsCount      The rows of the whole table, over all its sheets.
+     */
+    private void writeTypedRows(Sheet sheet, int startCellIndex, TypedTableData tableData, int fromRow, int toRow,
+                                int rowsWritten, int rowsCount) {
+        int columnsCount = tableData.getColumnsCount();
+        ColumnType[] columnTypes = new ColumnType[columnsCount];
+        for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++) {
+            columnTypes[columnIndex] = tableData.getColumnType(columnIndex);
+        }
+        CellStyle dateTimeStyle = getDateTimeStyle();
+        CellStyle[] verdictStyles = getVerdictStyles();
+        for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++) {
+            Row row = sheet.createRow(startCellIndex + rowIndex - fromRow);
+            for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++) {
+                Cell cell = row.createCell(columnIndex);
+                switch (columnTypes[columnIndex]) {
+                    case DATE_TIME:
+                        long timeMillis = tableData.getTimeMillis(rowIndex, columnIndex);
+                        if (timeMillis >= MIN_EXCEL_DATE_MILLIS) {
+                            cell.setCellValue(toExcelDate(timeMillis));
+                            cell.setCellStyle(dateTimeStyle);
+                        } else {
+                            // Unknown times, and times Excel cannot show as dates, keep their text
+                            cell.setCellValue(tableData.getCellValue(rowIndex, columnIndex));
+                        }
+                        break;
+                    case VERDICT:
+                        cell.setCellValue(tableData.getCellValue(rowIndex, columnIndex));
+                        cell.setCellStyle(verdictStyles[tableData.getVerdict(rowIndex, columnIndex).ordinal()]);
+                        break;
+                    case NUMBER:
+                        cell.setCellValue(tableData.getNumber(rowIndex, columnIndex));
+                        break;
+                    case FORMULA:
+                        cell.setCellFormula(tableData.getCellValue(rowIndex, columnIndex));
+                        break;
+                    default:
+                        cell.setCellValue(tableData.getCellValue(rowIndex, columnIndex));
+                }
+            }
+            notifyRowsWritten(rowsWritten + rowIndex - fromRow + 1, rowsCount);
+        }
+    }
+
+    /**
+     * Declares a table with its columns and writes the header row and the column widths.
+     *
+     * @param sheet        The Sheet in which to create the table.
+     * @param displayName  The display name of the table.
+     * @param startCell    The starting cell reference for the table (e.g., "A5").
+     * @param endCell      The ending cell reference for the table (e.g., "D6").
+     * @param columnsData  An ArrayList containing the names of the table's columns.
+     * @param columnsCount The number of columns in the table.
+     * @return The index of the first data row.
+     */
+    private int createTableHeader(Sheet sheet, String displayName, String startCell, String endCell,
+                                  ArrayList<String> columnsData, int columnsCount) {
+        CTTable table = getXSSFSheet(sheet).createTable(null).getCTTable();
+
+        table.setDisplayName(displayName);
+        // Example A5:D6
+        table.setRef(startCell + ":" + endCell);
+
+        CTTableColumns columns = table.addNewTableColumns();
+        columns.setCount(columnsCount);
+        int startCellIndex = Integer.parseInt(startCell.substring(1));
+        Row headerRow = sheet.createRow(startCellIndex - 1);
+        for (int columnCounter = 0; columnCounter < columnsCount; columnCounter++) {
+            CTTableColumn column = columns.addNewTableColumn();
+            column.setId(columnCounter);
+            column.setName(columnsData.get(columnCounter));
+
+            // Set the column header cell value
+            headerRow.createCell(columnCounter).setCellValue(columnsData.get(columnCounter));
+        }
+        // Set the column widths (adjustment based on the column index)
+        for (int columnCounter = 0; columnCounter < columnsCount; columnCounter++) {
+            sheet.setColumnWidth(columnCounter, columnCounter > 0 ? 12000 / (columnCounter + 1) : 14000);
+        }
+        return startCellIndex;
+    }
+
+    /**
+     * Notifies the progress listener every ROWS_PROGRESS_INTERVAL rows and after the last row.
+     *
+     * @param rowsWritten The number of rows written so far.
+     * @param rowsCount   The number of rows in the table.
+     */
+    private void notifyRowsWritten(int rowsWritten, int rowsCount) {
+        if (progressListener != null && (rowsWritten % ROWS_PROGRESS_INTERVAL == 0 || rowsWritten == rowsCount)) {
+            progressListener.onRowsWritten(rowsWritten, rowsCount);
+        }
+    }
+
+    /**
+     * Gets the style of date-time cells, creating it on first use.
+     *
+     * @return The shared CellStyle.
+     */
+    private CellStyle getDateTimeStyle() {
+        if (dateTimeStyle == null) {
+            dateTimeStyle = excelSourceFile.createCellStyle();
+            dateTimeStyle.setDataFormat(excelSourceFile.createDataFormat().getFormat(DATE_TIME_FORMAT));
+        }
+        return dateTimeStyle;
+    }
+
+    /**
+     * Gets the style of each verdict's result cells, a font in the verdict's chart color, creating them on first use.
+     *
+     * @return The shared CellStyles, by verdict ordinal.
+     */
+    private CellStyle[] getVerdictStyles() {
+        if (verdictStyles == null) {
+            verdictStyles = new CellStyle[Verdict.values().length];
+            for (Verdict verdict : Verdict.values()) {
+                Color verdictColor = getVerdictColor(verdict);
+                XSSFFont verdictFont = (XSSFFont) excelSourceFile.createFont();
+                verdictFont.setColor(new XSSFColor(new byte[]{(byte) verdictColor.getRed(), (byte) verdictColor.getGreen(),
+                        (byte) verdictColor.getBlue()}, null));
+                CellStyle verdictStyle = excelSourceFile.createCellStyle();
+                verdictStyle.setFont(verdictFont);
+                verdictStyles[verdict.ordinal()] = verdictStyle;
+            }
+        }
+        return verdictStyles;
+    }
+
+    /**
+     * Converts a time to an Excel date serial number of the 1900 date system, without allocating.
+     *
+     * @param timeMillis The epoch milliseconds, counted as UTC, not before MIN_EXCEL_DATE_MILLIS.
+     * @return The days since 1899-12-30, with the time of day as fraction.
+     */
+    private static double toExcelDate(long timeMillis) {
+        return EXCEL_EPOCH_DAY_OFFSET + timeMillis / (double) TimeUnit.DAYS.toMillis(1);
+    }
+
+    /**
+     * Creates a pie chart image in the specified Sheet with the given results, rendered by JFreeChart.
+     *
+     * The counts come from the tally gathered while reading the test cases, so no formula is evaluated.
+     *
+     * @param chartSheet    The Sheet in which to create the pie chart.
+     * @param verdictCounts The verdict tally of all test cases.
+     */
+    public void createTCsChart(Sheet chartSheet, VerdictCounts verdictCounts) {
+        DefaultPieDataset dataset = new DefaultPieDataset();
+
+        JFreeChart chart = ChartFactory.createPieChart3D(
+                "Test Cases Chart",
+                dataset,
+                true,
+                true,
+                false
+        );
+        // Update the dataset with new data, showing the remaining verdicts only when they occur
+        for (Verdict verdict : Verdict.values()) {
+            long count = verdictCounts.getCount(verdict);
+            if (count > 0 || verdict.ordinal() <= Verdict.INCONCLUSIVE.ordinal()) {
+                dataset.setValue(verdict.getDisplayName(), count);
+            }
+        }
+
+        PiePlot3D chartPlot = (PiePlot3D) chart.getPlot();
+        chartPlot.setBackgroundPaint(Color.WHITE);
+        for (Verdict verdict : Verdict.values()) {
+            chartPlot.setSectionPaint(verdict.getDisplayName(), getVerdictColor(verdict));
+        }
+
+        addChartPicture(chartSheet, chart, 1000, 500, 6, 2);
+    }
+
+    /**
+     * Renders a JFreeChart chart as a PNG picture anchored in a sheet.
+     *
+     * @param chartSheet   The Sheet in which to add the picture.
+     * @param chart        The chart to render.
+     * @param width        The picture width in pixels.
+     * @param height       The picture height in pixels.
+     * @param anchorColumn The column of the top left corner.
+     * @param anchorRow    The row of the top left corner.
+     */
+    private void addChartPicture(Sheet chartSheet, JFreeChart chart, int width, int height, int anchorColumn, int anchorRow) {
+        try {
+            ByteArrayOutputStream chartImage = new ByteArrayOutputStream();
+            ChartUtilities.writeChartAsPNG(chartImage, chart, width, height);
+            int pictureIDx = getExcelSourceFile().addPicture(chartImage.toByteArray(), Workbook.PICTURE_TYPE_PNG);
+            chartImage.close();
+            ClientAnchor anchor = getExcelSourceFile().getCreationHelper().createClientAnchor();
+            anchor.setCol1(anchorColumn);
+            anchor.setRow1(anchorRow);
+            chartSheet.createDrawingPatriarch().createPicture(anchor, pictureIDx).resize();
+        } catch (IOException e) {
+            // Only an in-memory PNG is written, but a missing chart must not go unnoticed
+            throw new UncheckedIOException("Cannot render chart picture", e);
+        }
+    }
+
+    /**
+     * Creates a native Excel chart of the verdict counts in the specified Sheet. The chart series are bound
+     * to the cells of a summary table, so Excel renders the chart and keeps it live; the tallied counts are
+     * only stored as the cached values shown before the workbook is recalculated.
+     *
+     * @param chartSheet        The Sheet in which to create the chart.
+     * @param chartType         ChartTypes.PIE or ChartTypes.BAR.
+     * @param verdicts          The verdicts listed in the summary table, in row order.
+     * @param verdictCounts     The verdict tally of all test cases.
+     * @param firstCategoryCell The cell of the first verdict name (e.g., "A2"); the counts are in the column to its right.
+     */
+    public void createNativeTCsChart(Sheet chartSheet, ChartTypes chartType, List<Verdict> verdicts, VerdictCounts verdictCounts,
+                                     String firstCategoryCell) {
+        String[] verdictNames = new String[verdicts.size()];
+        Long[] counts = new Long[verdicts.size()];
+        for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+            verdictNames[verdictIndex] = verdicts.get(verdictIndex).getDisplayName();
+            counts[verdictIndex] = verdictCounts.getCount(verdicts.get(verdictIndex));
+        }
+        CellReference firstCategory = new CellReference(firstCategoryCell);
+        int lastRow = firstCategory.getRow() + verdicts.size() - 1;
+        String categoriesRange = new CellRangeAddress(firstCategory.getRow(), lastRow, firstCategory.getCol(), firstCategory.getCol())
+                .formatAsString(chartSheet.getSheetName(), true);
+        String valuesRange = new CellRangeAddress(firstCategory.getRow(), lastRow, firstCategory.getCol() + 1, firstCategory.getCol() + 1)
+                .formatAsString(chartSheet.getSheetName(), true);
+
+        // Drawings of a streamed sheet live on its backing XSSFSheet, like the tables
+        XSSFDrawing drawing = getXSSFSheet(chartSheet).createDrawingPatriarch();
+        XSSFChart chart = drawing.createChart(drawing.createAnchor(0, 0, 0, 0, 6, 2, 16, 24));
+        chart.setTitleText("Test Cases Chart");
+        chart.setTitleOverlay(false);
+
+        XDDFChartData chartData;
+        if (chartType == ChartTypes.BAR) {
+            XDDFCategoryAxis categoryAxis = chart.createCategoryAxis(AxisPosition.BOTTOM);
+            XDDFValueAxis valueAxis = chart.createValueAxis(AxisPosition.LEFT);
+            valueAxis.setCrosses(AxisCrosses.AUTO_ZERO);
+            chartData = chart.createData(ChartTypes.BAR, categoryAxis, valueAxis);
+            ((XDDFBarChartData) chartData).setBarDirection(BarDirection.COL);
+        } else {
+            chart.getOrAddLegend().setPosition(LegendPosition.RIGHT);
+            chartData = chart.createData(ChartTypes.PIE, null, null);
+        }
+        chartData.setVaryColors(true);
+        XDDFChartData.Series series = chartData.addSeries(XDDFDataSourcesFactory.fromArray(verdictNames, categoriesRange),
+                XDDFDataSourcesFactory.fromArray(counts, valuesRange));
+        series.setTitle("Count", null);
+        for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+            Color verdictColor = getVerdictColor(verdicts.get(verdictIndex));
+            series.getDataPoint(verdictIndex).setFillProperties(new XDDFSolidFillProperties(XDDFColor.from(
+                    new byte[]{(byte) verdictColor.getRed(), (byte) verdictColor.getGreen(), (byte) verdictColor.getBlue()})));
+        }
+        chart.plot(chartData);
+    }
+
+    /**
+     * Creates a native Excel stacked bar chart with one bar per category and one stacked segment per verdict.
+     * The series are bound to the cells of a breakdown table: the category names in one column and the
+     * count of each verdict in consecutive columns; the given counts are stored as cached values.
+     *
+     * @param chartSheet        The Sheet in which to create the chart.
+     * @param chartTitle        The title of the chart.
+     * @param categories        The category names, in row order.
+     * @param verdicts          The verdicts of the count columns, in column order.
+     * @param counts            The counts per verdict (first index) and category (second index).
+     * @param firstCategoryCell The cell of the first category name (e.g., "A2").
+     * @param firstCountCell    The cell of the first count of the first verdict (e.g., "C2").
+     * @param anchorColumn      The column where the chart starts.
+     */
+    public void createNativeStackedBarChart(Sheet chartSheet, String chartTitle, String[] categories, List<Verdict> verdicts,
+                                            long[][] counts, String firstCategoryCell, String firstCountCell, int anchorColumn) {
+        CellReference firstCategory = new CellReference(firstCategoryCell), firstCount = new CellReference(firstCountCell);
+        int lastRow = firstCategory.getRow() + categories.length - 1;
+        XDDFCategoryDataSource categoriesData = XDDFDataSourcesFactory.fromArray(categories,
+                new CellRangeAddress(firstCategory.getRow(), lastRow, firstCategory.getCol(), firstCategory.getCol())
+                        .formatAsString(chartSheet.getSheetName(), true));
+
+        XSSFDrawing drawing = getXSSFSheet(chartSheet).createDrawingPatriarch();
+        // Taller with more categories, so the bars stay readable
+        int chartRows = Math.min(120, Math.max(20, categories.length * 2));
+        XSSFChart chart = drawing.createChart(drawing.createAnchor(0, 0, 0, 0, anchorColumn, 1, anchorColumn + 12, 1 + chartRows));
+        chart.setTitleText(chartTitle);
+        chart.setTitleOverlay(false);
+        chart.getOrAddLegend().setPosition(LegendPosition.BOTTOM);
+
+        XDDFCategoryAxis categoryAxis = chart.createCategoryAxis(AxisPosition.LEFT);
+        XDDFValueAxis valueAxis = chart.createValueAxis(AxisPosition.BOTTOM);
+        valueAxis.setCrosses(AxisCrosses.AUTO_ZERO);
+        XDDFBarChartData chartData = (XDDFBarChartData) chart.createData(ChartTypes.BAR, categoryAxis, valueAxis);
+        chartData.setBarDirection(BarDirection.BAR);
+        chartData.setBarGrouping(BarGrouping.STACKED);
+        for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+            Long[] verdictCounts = new Long[categories.length];
+            for (int categoryIndex = 0; categoryIndex < categories.length; categoryIndex++) {
+                verdictCounts[categoryIndex] = counts[verdictIndex][categoryIndex];
+            }
+            int countColumn = firstCount.getCol() + verdictIndex;
+            XDDFChartData.Series series = chartData.addSeries(categoriesData, XDDFDataSourcesFactory.fromArray(verdictCounts,
+                    new CellRangeAddress(firstCount.getRow(), firstCount.getRow() + categories.length - 1, countColumn, countColumn)
+                            .formatAsString(chartSheet.getSheetName(), true)));
+            series.setTitle(verdicts.get(verdictIndex).getDisplayName(), null);
+            Color verdictColor = getVerdictColor(verdicts.get(verdictIndex));
+            series.setFillProperties(new XDDFSolidFillProperties(XDDFColor.from(
+                    new byte[]{(byte) verdictColor.getRed(), (byte) verdictColor.getGreen(), (byte) verdictColor.getBlue()})));
+        }
+        chart.plot(chartData);
+        setFullOverlap(chart);
+    }
+
+    /**
+     * Makes the stacked segments of a bar chart overlap fully, as Excel otherwise draws them side by side.
+     * The element is written untyped because its schema type is not part of the POI lite schemas.
+     *
+     * @param chart The plotted bar chart.
+     */
+    private static void setFullOverlap(XSSFChart chart) {
+        CTBarChart barChart = chart.getCTChart().getPlotArea().getBarChartArray(0);
+        // The overlap element must come right before the axis ids
+        try (XmlCursor cursor = barChart.getAxIdArray(0).newCursor()) {
+            cursor.beginElement(new QName(barChart.getDomNode().getNamespaceURI(), "overlap"));
+            cursor.insertAttributeWithValue("val", "100");
+        }
+    }
+
+    /**
+     * Creates a stacked bar chart image with one bar per category and one stacked segment per verdict,
+     * rendered by JFreeChart.
+     *
+     * @param chartSheet   The Sheet in which to create the chart.
+     * @param chartTitle   The title of the chart.
+     * @param categories   The category names, in row order.
+     * @param verdicts     The verdicts of the stacked segments.
+     * @param counts       The counts per verdict (first index) and category (second index).
+     * @param anchorColumn The column where the chart starts.
+     */
+    public void createStackedBarChartImage(Sheet chartSheet, String chartTitle, String[] categories, List<Verdict> verdicts,
+                                           long[][] counts, int anchorColumn) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+            for (int categoryIndex = 0; categoryIndex < categories.length; categoryIndex++) {
+                // Keyed by row as well, since two categories may share a name
+                dataset.addValue(counts[verdictIndex][categoryIndex], verdicts.get(verdictIndex).getDisplayName(),
+                        new CategoryKey(categoryIndex, categories[categoryIndex]));
+            }
+        }
+        JFreeChart chart = ChartFactory.createStackedBarChart(chartTitle, null, "Test cases", dataset,
+                PlotOrientation.HORIZONTAL, true, false, false);
+        chart.getCategoryPlot().setBackgroundPaint(Color.WHITE);
+        for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+            chart.getCategoryPlot().getRenderer().setSeriesPaint(verdictIndex, getVerdictColor(verdicts.get(verdictIndex)));
+        }
+        addChartPicture(chartSheet, chart, 1000, Math.min(4000, 150 + categories.length * 24), anchorColumn, 1);
+    }
+
+    /**
+     * Gets the chart color of a verdict.
+     *
+     * @param verdict The verdict.
+     * @return The color of its chart section.
+     */
+    static Color getVerdictColor(Verdict verdict) {
+        switch (verdict) {
+            case PASS:
+                return new Color(50, 182, 135);
+            case FAIL:
+                return new Color(220, 0, 0);
+            case INCONCLUSIVE:
+                return new Color(171, 115, 49);
+            case NONE:
+                return new Color(150, 150, 150);
+            case ERROR:
+                return new Color(128, 0, 96);
+            default:
+                return new Color(70, 110, 190);
+        }
+    }
+
+    /**
+     * Creates a new row in the specified sheet.
+     *
+     * @param sheet The Sheet to create the row in.
+     * @return The created Row.
+     */
+    public Row createRow(Sheet sheet) {
+        return sheet.createRow(sheet.getLastRowNum() + 1);
+    }
+
+    /**
+     * Gets the Excel workbook.
+     *
+     * @return The Workbook representing the Excel file.
+     */
+    public Workbook getExcelSourceFile() {
+        return excelSourceFile;
+    }
+
+    /**
+     * Writes the Excel workbook to the output file, flushes and closes the file streams.
+     * For a streamed workbook the temporary row files are deleted afterwards.
+     *
+     * @throws IOException If the workbook cannot be written.
+     */
+    public void createFile() throws IOException {
+        try {
+            excelSourceFile.write(fileOutput);
+            fileOutput.flush();
+            if (progressListener != null) {
+                progressListener.onBytesWritten(fileOutput.getBytesWritten());
+            }
+        } finally {
+            fileOutput.close();
+            excelSourceFile.close();
+            if (isStreaming()) {
+                ((SXSSFWorkbook) excelSourceFile).dispose();
+            }
+        }
+    }
+
+    /**
+     * Abandons the workbook: closes the file streams, deletes any temporary row files and removes the
+     * partially written output file. Used when generation fails or is cancelled.
+     */
+    public void discard() {
+        try {
+            fileOutput.close();
+            excelSourceFile.close();
+        } catch (IOException e) {
+            // The partial file is deleted anyway
+            System.err.println("Cannot close partial file " + outputFile + ": " + e.getMessage());
+        } finally {
+            if (isStreaming()) {
+                ((SXSSFWorkbook) excelSourceFile).dispose();
+            }
+            if (outputFile.exists() && !outputFile.delete()) {
+                System.err.println("Cannot delete partial file " + outputFile);
+            }
+        }
+    }
+
+    /**
+     * Gets the Excel file being created.
+     *
+     * @return The output File.
+     */
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Identifies a category of a JFreeChart dataset by its row, displaying only its name.
+     */
+    private static class CategoryKey implements Comparable<CategoryKey> {
+        private final int rowIndex; // The table row of the category
+        private final String name;  // The displayed category name
+
+        CategoryKey(int rowIndex, String name) {
+            this.rowIndex = rowIndex;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(CategoryKey other) {
+            return Integer.compare(rowIndex, other.rowIndex);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CategoryKey && ((CategoryKey) other).rowIndex == rowIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return rowIndex;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package file_handlers;
+
+/**
+ * Represents a listener notified while an ExcelFile writes table rows and workbook bytes.
+ * A listener may throw an unchecked exception (e.g., CancellationException) to abort the write.
+ */
+public interface ExcelProgressListener {
+    /**
+     * Called periodically while table rows are created.
+     *
+     * @param rowsWritten The rows of the current table created so far.
+     * @param rowsCount   The total rows of the current table.
+     */
+    void onRowsWritten(int rowsWritten, int rowsCount);
+
+    /**
+     * Called periodically while the workbook is written to the output file.
+     *
+     * @param bytesWritten The bytes written to the output file so far.
+     */
+    void onBytesWritten(long bytesWritten);
+}
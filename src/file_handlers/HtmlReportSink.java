@@ -0,0 +1,252 @@
+package file_handlers;
+
+import data_types.BreakdownTableData;
+import data_types.FlakyTest;
+import data_types.GroupStatistics;
+import data_types.HistoryReport;
+import data_types.RegressedTest;
+import data_types.ReportBreakdown;
+import data_types.TestCaseStore;
+import data_types.Verdict;
+import data_types.VerdictCounts;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a report sink writing a single self-contained HTML page: the summary table next to an inline
+ * SVG pie chart, the per-file and per-group tables, the history tables, and the test cases table, with the
+ * attempts column of the workbook when test cases are merged.
+ * The page needs no script, stylesheet or image file, so it can be attached to a CI build or mailed as it is.
+ */
+public class HtmlReportSink extends ChannelReportSink {
+    public static final String FILE_EXTENSION = ".html";
+
+    private static final String PAGE_TITLE = "Test Summary Report"; // The heading of the page
+    private static final int PIE_RADIUS = 110; // Radius of the pie chart in pixels
+    private static final String STYLE = "body{font-family:Segoe UI,Helvetica,Arial,sans-serif;margin:24px;color:#222}"
+            + "table{border-collapse:collapse;margin-bottom:24px}th,td{border:1px solid #ccc;padding:3px 8px;text-align:left}"
+            + "th{background:#4472c4;color:#fff}tr:nth-child(even) td{background:#f3f6fb}td.n{text-align:right}"
+            + ".summary{display:flex;gap:48px;align-items:flex-start}.swatch{display:inline-block;width:12px;height:12px;"
+            + "margin-right:6px}";
+
+    private TestCaseStore testCaseStore; // The test cases being written
+    private boolean attemptsWritten;     // Whether the store has an attempts column
+
+    /**
+     * Constructor for HtmlReportSink.
+     *
+     * @param path The folder path of the HTML file to be created.
+     * @param name The name of the HTML file to be created, without extension.
+     * @throws IOException If the output file cannot be created.
+     */
+    public HtmlReportSink(String path, String name) throws IOException {
+        super(path, name, FILE_EXTENSION);
+    }
+
+    @Override
+    public void begin(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                      HistoryReport historyReport) throws IOException {
+        this.testCaseStore = testCaseStore;
+        attemptsWritten = testCaseStore.hasAttempts();
+        write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n<title>" + PAGE_TITLE + "</title>\n<style>"
+                + STYLE + "</style>\n</head>\n<body>\n<h1>" + PAGE_TITLE + "</h1>\n");
+
+        List<Verdict> summaryVerdicts = new ArrayList<>();
+        for (Verdict verdict : Verdict.values()) {
+            if (verdict != Verdict.OTHER || verdictCounts.getCount(verdict) > 0) {
+                summaryVerdicts.add(verdict);
+            }
+        }
+        write("<h2>Summary</h2>\n<div class=\"summary\">\n<table>\n<tr><th>Result</th><th>Count</th></tr>\n");
+        for (Verdict verdict : summaryVerdicts) {
+            write("<tr><td><span class=\"swatch\" style=\"background:" + toHex(ExcelFile.getVerdictColor(verdict)) + "\"></span>"
+                    + verdict.getDisplayName() + "</td><td class=\"n\">" + verdictCounts.getCount(verdict) + "</td></tr>\n");
+        }
+        write("<tr><th>Total</th><th>" + verdictCounts.getTotal() + "</th></tr>\n</table>\n");
+        writePieChart(summaryVerdicts, verdictCounts);
+        write("</div>\n");
+
+        if (!reportBreakdown.getFilesStatistics().isEmpty()) {
+            writeBreakdownTable("Files", "File", reportBreakdown.getFilesStatistics(), summaryVerdicts);
+            writeBreakdownTable("Groups", "Group", reportBreakdown.getGroupsStatistics(), summaryVerdicts);
+        }
+        if (historyReport != null) {
+            writeHistoryTables(historyReport);
+        }
+
+        write("<h2>Test Cases</h2>\n<table>\n<tr><th>Title</th><th>Start Time</th><th>End Time</th><th>Result</th>"
+                + "<th>Test Case ID</th>" + (attemptsWritten ? "<th>" + testCaseStore.getAttemptsColumnName() + "</th>" : "") + "</tr>\n");
+    }
+
+    @Override
+    public void writeTestCase(int tcIndex) throws IOException {
+        String testCaseId = testCaseStore.getTestCaseId(tcIndex);
+        write("<tr><td>" + escape(testCaseStore.getTitle(tcIndex)) + "</td><td>" + escape(testCaseStore.getStartTime(tcIndex))
+                + "</td><td>" + escape(testCaseStore.getEndTime(tcIndex)) + "</td><td style=\"color:"
+                + toHex(ExcelFile.getVerdictColor(testCaseStore.getVerdict(tcIndex))) + "\">" + escape(testCaseStore.getResult(tcIndex))
+                + "</td><td>" + (testCaseId != null ? escape(testCaseId) : "") + "</td>"
+                + (attemptsWritten ? "<td class=\"n\">" + testCaseStore.getAttempts(tcIndex) + "</td>" : "") + "</tr>\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        write("</table>\n</body>\n</html>\n");
+        super.finish();
+    }
+
+    /**
+     * Writes the pie chart of the verdict tally as inline SVG, one path per verdict that occurs.
+     *
+     * @param verdicts      The verdicts of the summary table, in table order.
+     * @param verdictCounts The verdict tally of all test cases.
+     * @throws IOException If the output cannot be written.
+     */
+    private void writePieChart(List<Verdict> verdicts, VerdictCounts verdictCounts) throws IOException {
+        int size = 2 * PIE_RADIUS + 4, center = size / 2;
+        write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "\" height=\"" + size + "\" viewBox=\"0 0 "
+                + size + " " + size + "\" role=\"img\" aria-label=\"Test cases per result\">\n");
+        long total = verdictCounts.getTotal();
+        // Start at 12 o'clock and go clockwise, like the workbook chart
+        double startAngle = -Math.PI / 2;
+        for (Verdict verdict : verdicts) {
+            long count = verdictCounts.getCount(verdict);
+            if (count == 0) {
+                continue;
+            }
+            String fill = toHex(ExcelFile.getVerdictColor(verdict));
+            String title = "<title>" + verdict.getDisplayName() + ": " + count + "</title>";
+            if (count == total) {
+                // An arc cannot start and end at the same point
+                write("<circle cx=\"" + center + "\" cy=\"" + center + "\" r=\"" + PIE_RADIUS + "\" fill=\"" + fill + "\">"
+                        + title + "</circle>\n");
+                break;
+            }
+            double endAngle = startAngle + 2 * Math.PI * count / total;
+            write(String.format(Locale.ROOT, "<path d=\"M%d,%d L%.2f,%.2f A%d,%d 0 %d,1 %.2f,%.2f Z\" fill=\"%s\" "
+                            + "stroke=\"#fff\">%s</path>\n", center, center,
+                    center + PIE_RADIUS * Math.cos(startAngle), center + PIE_RADIUS * Math.sin(startAngle), PIE_RADIUS, PIE_RADIUS,
+                    endAngle - startAngle > Math.PI ? 1 : 0,
+                    center + PIE_RADIUS * Math.cos(endAngle), center + PIE_RADIUS * Math.sin(endAngle), fill, title));
+            startAngle = endAngle;
+        }
+        write("</svg>\n");
+    }
+
+    /**
+     * Writes a table holding one row per file or group, with the columns of the workbook breakdown sheets.
+     *
+     * @param heading        The heading above the table.
+     * @param nameColumn     The name of the first column.
+     * @param rowsStatistics The statistics of each row.
+     * @param verdicts       The verdicts with a count column.
+     * @throws IOException If the output cannot be written.
+     */
+    private void writeBreakdownTable(String heading, String nameColumn, List<GroupStatistics> rowsStatistics,
+                                     List<Verdict> verdicts) throws IOException {
+        BreakdownTableData breakdownTableData = new BreakdownTableData(rowsStatistics, verdicts);
+        write("<h2>" + heading + "</h2>\n<table>\n<tr>");
+        for (String columnName : breakdownTableData.getColumnNames(nameColumn)) {
+            write("<th>" + escape(columnName) + "</th>");
+        }
+        write("</tr>\n");
+        for (int rowIndex = 0; rowIndex < breakdownTableData.getRowsCount(); rowIndex++) {
+            write("<tr><td>" + escape(breakdownTableData.getCellValue(rowIndex, 0)) + "</td>");
+            for (int columnIndex = 1; columnIndex < breakdownTableData.getColumnsCount(); columnIndex++) {
+                // Every column but the name holds a "number=" cell value
+                write("<td class=\"n\">" + breakdownTableData.getCellValue(rowIndex, columnIndex).substring("number=".length()) + "</td>");
+            }
+            write("</tr>\n");
+        }
+        write("</table>\n");
+    }
+
+    /**
+     * Writes the regressed tests and flaky tests tables.
+     *
+     * @param historyReport The regressed and flaky tests.
+     * @throws IOException If the output cannot be written.
+     */
+    private void writeHistoryTables(HistoryReport historyReport) throws IOException {
+        write("<h2>Regressions</h2>\n");
+        if (historyReport.getRegressedTests().isEmpty()) {
+            write("<p>No test regressed since its previous run</p>\n");
+        } else {
+            write("<table>\n<tr><th>Test Case ID</th><th>Title</th><th>Last Passed Run</th><th>Result</th></tr>\n");
+            for (RegressedTest regressedTest : historyReport.getRegressedTests()) {
+                write("<tr><td>" + escape(regressedTest.getTestCaseId()) + "</td><td>" + escape(regressedTest.getTitle())
+                        + "</td><td>" + escape(regressedTest.getPassedRun().getStartTime()) + "</td><td>"
+                        + regressedTest.getVerdict().getDisplayName() + "</td></tr>\n");
+            }
+            write("</table>\n");
+        }
+        write("<h2>Flaky Tests</h2>\n");
+        if (historyReport.getFlakyTests().isEmpty()) {
+            write("<p>No test flipped between pass and fail over the last " + historyReport.getFlakyRunsCount() + " runs</p>\n");
+        } else {
+            write("<table>\n<tr><th>Test Case ID</th><th>Title</th><th>Runs</th><th>Failures</th><th>Flips</th>"
+                    + "<th>Flip Rate</th></tr>\n");
+            for (FlakyTest flakyTest : historyReport.getFlakyTests()) {
+                write("<tr><td>" + escape(flakyTest.getTestCaseId()) + "</td><td>" + escape(flakyTest.getTitle())
+                        + "</td><td class=\"n\">" + flakyTest.getRunsCount() + "</td><td class=\"n\">" + flakyTest.getFailuresCount()
+                        + "</td><td class=\"n\">" + flakyTest.getFlipsCount() + "</td><td class=\"n\">"
+                        + String.format(Locale.ROOT, "%.2f", flakyTest.getFlipRate()) + "</td></tr>\n");
+            }
+            write("</table>\n");
+        }
+    }
+
+    /**
+     * Formats a color as CSS hex color.
+     *
+     * @param color The color.
+     * @return The "#rrggbb" string.
+     */
+    private static String toHex(Color color) {
+        return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * Escapes the characters with a meaning in HTML text and attribute values.
+     *
+     * @param text The text to escape.
+     * @return The escaped text.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int charIndex = 0; charIndex < text.length(); charIndex++) {
+            String replacement;
+            switch (text.charAt(charIndex)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement != null && escaped == null) {
+                // Copy only texts that need escaping
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, charIndex);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(text.charAt(charIndex));
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
@@ -0,0 +1,96 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+import data_types.Verdict;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Represents the reader of JUnit XML reports, as written by Maven Surefire/Failsafe, Gradle, Ant and most CI tools.
+ * Each testsuite element is a group named after the suite. A test case passes unless it has a failure (fail),
+ * error (error) or skipped (none) child. JUnit only records the suite start and each test duration, so the
+ * test cases of a suite are assumed to run one after the other from the suite timestamp.
+ * The test case ID is "classname.name", which stays the same from one run to the next.
+ */
+public class JUnitReportReader extends StreamingReportReader {
+    /**
+     * Constructor for JUnitReportReader.
+     */
+    public JUnitReportReader() {
+        super("junit", "testsuites", "testsuite");
+    }
+
+    @Override
+    void read(XMLStreamReader reader, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        ArrayDeque<TestGroup> groups = new ArrayDeque<>(); // Open suites, innermost first
+        ArrayList<LocalDateTime> suiteTimes = new ArrayList<>(); // The start of the next test case of each open suite, innermost last
+        String title = null, testCaseId = null, duration = null;
+        Verdict verdict = null; // The verdict of the current test case, null outside test cases
+        int testCaseNumber = 0;
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    switch (reader.getLocalName()) {
+                        case "testsuites":
+                        case "testsuite":
+                            String suiteName = getAttributeValue(reader, "name");
+                            LocalDateTime suiteTime = parseTime(getAttributeValue(reader, "timestamp"));
+                            groups.push(new TestGroup(groups.peek(), suiteName.isEmpty() ? null : suiteName));
+                            // A nested suite without timestamp goes on from the time of its parent
+                            suiteTimes.add(suiteTime != null || suiteTimes.isEmpty() ? suiteTime : suiteTimes.get(suiteTimes.size() - 1));
+                            break;
+                        case "testcase":
+                            title = getAttributeValue(reader, "name");
+                            String className = getAttributeValue(reader, "classname");
+                            testCaseId = className.isEmpty() ? title : className + "." + title;
+                            duration = getAttributeValue(reader, "time");
+                            verdict = Verdict.PASS;
+                            break;
+                        case "failure":
+                            verdict = verdict == Verdict.PASS ? Verdict.FAIL : verdict;
+                            break;
+                        case "error":
+                            verdict = verdict != null ? Verdict.ERROR : null;
+                            break;
+                        case "skipped":
+                            verdict = verdict == Verdict.PASS ? Verdict.NONE : verdict;
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    switch (reader.getLocalName()) {
+                        case "testsuites":
+                        case "testsuite":
+                            groups.pop();
+                            suiteTimes.remove(suiteTimes.size() - 1);
+                            break;
+                        case "testcase":
+                            LocalDateTime startTime = suiteTimes.isEmpty() ? null : suiteTimes.get(suiteTimes.size() - 1);
+                            LocalDateTime endTime = plusSeconds(startTime, duration);
+                            if (!suiteTimes.isEmpty()) {
+                                suiteTimes.set(suiteTimes.size() - 1, endTime);
+                            }
+                            testCaseConsumer.accept(new TestCase(title, formatTime(startTime), formatTime(endTime), verdict.getResult(),
+                                    groups.peek(), testCaseId, String.valueOf(++testCaseNumber)));
+                            verdict = null;
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package file_handlers;
+
+import data_types.FlakyTest;
+import data_types.GroupStatistics;
+import data_types.HistoryReport;
+import data_types.RegressedTest;
+import data_types.ReportBreakdown;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a report sink writing one JSON object per line, told apart by its "type" member:
+ * the "summary" line first, then one "file" and one "group" line per breakdown row, the "regression" and
+ * "flaky" lines of the history, and finally one "testcase" line per test case. Consumers can stop reading
+ * after the lines they need without parsing the test cases. Merged test cases get the "attempt" member when
+ * every attempt is kept, else the "attempts" member.
+ */
+public class JsonLinesReportSink extends ChannelReportSink {
+    public static final String FILE_EXTENSION = ".jsonl";
+
+    private TestCaseStore testCaseStore; // The test cases being written
+    private String attemptsMember;       // The name of the attempts member, or null if the store has none
+
+    /**
+     * Constructor for JsonLinesReportSink.
+     *
+     * @param path The folder path of the JSON Lines file to be created.
+     * @param name The name of the JSON Lines file to be created, without extension.
+     * @throws IOException If the output file cannot be created.
+     */
+    public JsonLinesReportSink(String path, String name) throws IOException {
+        super(path, name, FILE_EXTENSION);
+    }
+
+    @Override
+    public void begin(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                      HistoryReport historyReport) throws IOException {
+        this.testCaseStore = testCaseStore;
+        attemptsMember = testCaseStore.hasAttempts() ? testCaseStore.getAttemptsColumnName().toLowerCase(Locale.ROOT) : null;
+        write("{\"type\":\"summary\",\"total\":" + verdictCounts.getTotal() + ",\"counts\":" + JsonText.toJson(verdictCounts) + "}\n");
+        writeStatistics("file", reportBreakdown.getFilesStatistics());
+        writeStatistics("group", reportBreakdown.getGroupsStatistics());
+        if (historyReport == null) {
+            return;
+        }
+        for (RegressedTest regressedTest : historyReport.getRegressedTests()) {
+            write("{\"type\":\"regression\",\"testCaseId\":" + JsonText.toJson(regressedTest.getTestCaseId())
+                    + ",\"title\":" + JsonText.toJson(regressedTest.getTitle())
+                    + ",\"lastPassedRun\":" + JsonText.toJson(regressedTest.getPassedRun().getStartTime())
+                    + ",\"verdict\":" + JsonText.toJson(JsonText.getVerdictName(regressedTest.getVerdict())) + "}\n");
+        }
+        for (FlakyTest flakyTest : historyReport.getFlakyTests()) {
+            write("{\"type\":\"flaky\",\"testCaseId\":" + JsonText.toJson(flakyTest.getTestCaseId())
+                    + ",\"title\":" + JsonText.toJson(flakyTest.getTitle())
+                    + ",\"runs\":" + flakyTest.getRunsCount() + ",\"failures\":" + flakyTest.getFailuresCount()
+                    + ",\"flips\":" + flakyTest.getFlipsCount() + ",\"flipRate\":" + flakyTest.getFlipRate() + "}\n");
+        }
+    }
+
+    @Override
+    public void writeTestCase(int tcIndex) throws IOException {
+        write("{\"type\":\"testcase\",\"title\":" + JsonText.toJson(testCaseStore.getTitle(tcIndex))
+                + ",\"startTime\":" + JsonText.toJson(testCaseStore.getStartTime(tcIndex))
+                + ",\"endTime\":" + JsonText.toJson(testCaseStore.getEndTime(tcIndex))
+                + ",\"result\":" + JsonText.toJson(testCaseStore.getResult(tcIndex))
+                + ",\"verdict\":" + JsonText.toJson(JsonText.getVerdictName(testCaseStore.getVerdict(tcIndex)))
+                + ",\"testCaseId\":" + JsonText.toJson(testCaseStore.getTestCaseId(tcIndex))
+                + (attemptsMember != null ? ",\"" + attemptsMember + "\":" + testCaseStore.getAttempts(tcIndex) : "") + "}\n");
+    }
+
+    /**
+     * Writes one line per file or group.
+     *
+     * @param type           The line type: "file" or "group".
+     * @param rowsStatistics The statistics of each file or group.
+     * @throws IOException If the output cannot be written.
+     */
+    private void writeStatistics(String type, List<GroupStatistics> rowsStatistics) throws IOException {
+        for (GroupStatistics rowStatistics : rowsStatistics) {
+            write("{\"type\":\"" + type + "\",\"name\":" + JsonText.toJson(rowStatistics.getName())
+                    + ",\"total\":" + rowStatistics.getVerdictCounts().getTotal()
+                    + ",\"counts\":" + JsonText.toJson(rowStatistics.getVerdictCounts())
+                    + ",\"totalDurationMillis\":" + rowStatistics.getTotalDurationMillis()
+                    + ",\"averageDurationMillis\":" + rowStatistics.getAverageDurationMillis() + "}\n");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package file_handlers;
+
+import data_types.Verdict;
+import data_types.VerdictCounts;
+
+import java.util.Locale;
+
+/**
+ * Represents the JSON encoding shared by the JSON Lines report, the run summary file and the responses of the
+ * report service. The documents are small and flat, so they are assembled as strings instead of through a JSON library.
+ */
+public final class JsonText {
+    /**
+     * Constructor for JsonText, not used: the class only has static methods.
+     */
+    private JsonText() {
+    }
+
+    /**
+     * Gets the name of a verdict used as JSON value and key.
+     *
+     * @param verdict The verdict.
+     * @return The lower-case verdict name (e.g., "pass" or "other").
+     */
+    static String getVerdictName(Verdict verdict) {
+        return verdict.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a verdict tally to a JSON object holding the count of every verdict.
+     *
+     * @param verdictCounts The verdict tally.
+     * @return The JSON object.
+     */
+    static String toJson(VerdictCounts verdictCounts) {
+        StringBuilder json = new StringBuilder("{");
+        for (Verdict verdict : Verdict.values()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(getVerdictName(verdict)).append("\":").append(verdictCounts.getCount(verdict));
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Converts a string to a JSON string literal.
+     *
+     * @param value The string, or null.
+     * @return The quoted and escaped string, or null as JSON literal.
+     */
+    public static String toJson(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int charIndex = 0; charIndex < value.length(); charIndex++) {
+            char valueChar = value.charAt(charIndex);
+            switch (valueChar) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (valueChar < 0x20) {
+                        json.append(String.format("\\u%04x", (int) valueChar));
+                    } else {
+                        json.append(valueChar);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }}
@@ -0,0 +1,726 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a fast path for plain native vTESTstudio reports: the file is memory-mapped and its UTF-8 bytes are
+ * scanned directly, without decoding the document into characters or building any event or node objects. Only
+ * the fields of {@link TestCaseField} and the group titles are decoded into strings; skipped elements, such as
+ * test steps, cost a scan for their tag ends and nothing else.
+ * <p>
+ * The scanner only knows the subset of XML the reports are written in. Whenever it meets anything else, such as
+ * CDATA sections, entity or character references in a read value, a DOCTYPE, namespace prefixes, line breaks in
+ * a read attribute value, an encoding other than UTF-8 or a malformed document, it gives up and returns null, so
+ * the caller reads the file again with {@link XMLStreamFile}. It yields exactly the test cases the streaming
+ * reader yields, and nothing is handed out before the whole file was scanned.
+ */
+public class MappedReportScanner {
+    private static final byte[] TEST_CASE_NAME = ascii(TestCaseField.TEST_CASE_ELEMENT_NAME);
+    private static final byte[] TITLE_NAME = ascii("title");
+    private static final byte[][] ROOT_NAMES = {ascii("testreport"), ascii("testmodule")};
+    private static final byte[][] GROUP_NAMES = asciiArray(XMLStreamFile.GROUP_ELEMENT_NAMES.toArray(new String[0]));
+    // The direct child elements of a testcase holding fields, and their fields at the same index
+    private static final byte[][] CHILD_NAMES = asciiArray(TestCaseField.getChildElementNames().toArray(new String[0]));
+    private static final List<List<TestCaseField>> CHILD_FIELDS = createChildFields();
+    private static final byte[][] ATTRIBUTE_NAMES = createAttributeNames(); // The attribute of each field, by field ordinal
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final int MAX_DEPTH = 4096; // Deeper documents are left to the standard parser
+    private static final boolean[] NAME_BYTES = createNameBytes(); // The bytes of unprefixed names, by unsigned value
+    private static final long LOW_BITS = 0x0101010101010101L;  // The lowest bit of each byte of a word
+    private static final long HIGH_BITS = 0x8080808080808080L; // The highest bit of each byte of a word
+
+    private final Path path; // The report file to be scanned
+
+    // Scanning state of one getTestCases call
+    private ByteBuffer buffer;                       // The mapped file
+    private int[] nameStarts = new int[64];          // The name offset of each open element, by depth
+    private int[] nameLengths = new int[64];         // The name length of each open element, by depth
+    private int[] attributeOffsets = new int[32];    // Name start, name end, value start, value end of each attribute
+    private int attributesCount;                     // The number of attributes of the current start tag
+    private byte[] textBytes = new byte[256];        // The bytes of the text being captured
+    private int textLength;                          // The number of captured text bytes
+    private byte[] valueBytes = new byte[64];        // The bytes of the attribute value being read
+    private CharsetDecoder decoder;                  // Decodes and validates non-ASCII values, created on first use
+
+    /**
+     * Constructor for MappedReportScanner.
+     *
+     * @param path The path to the report file, uncompressed and outside any archive.
+     */
+    public MappedReportScanner(String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Signals content the scanner does not handle. It carries no stack trace, as it is only ever caught.
+     */
+    private static class UnsupportedContentException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor for UnsupportedContentException.
+         */
+        UnsupportedContentException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Scans the report and retrieves all its test cases with their groups, as {@link XMLStreamFile} reads them.
+     *
+     * @return An ArrayList of TestCase objects, or null if the file holds anything the scanner does not handle
+     * and must be read by the standard parser.
+     * @throws IOException If the file cannot be read.
+     */
+    public ArrayList<TestCase> getTestCases() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            // Little-endian words put the first byte lowest, where the byte searches look for it
+            buffer = mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                return scanTestCases();
+            } catch (UnsupportedContentException | IndexOutOfBoundsException e) {
+                // A truncated document ends in the middle of a tag: the standard parser reports where
+                return null;
+            } finally {
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Scans the mapped document, following the same element and depth rules as
+     * {@link XMLStreamFile#streamTestCases}.
+     *
+     * @return The test cases, or null if the root element is not a native report.
+     * @throws UnsupportedContentException If the document holds anything the scanner does not handle.
+     */
+    private ArrayList<TestCase> scanTestCases() throws UnsupportedContentException {
+        ArrayList<TestCase> tcList = new ArrayList<>();
+        String[] fieldValues = null;   // The fields of the current test case, by field ordinal
+        int testCaseDepth = 0, testCaseElementDepth = 0, textDepth = 0, elementDepth = 0;
+        TestCaseField capturedField = null; // The field the text being read belongs to, null for a group title
+        ArrayDeque<TestGroup> groups = new ArrayDeque<>();  // Open groups, innermost first
+        ArrayDeque<Integer> groupDepths = new ArrayDeque<>(); // Element depth of each open group
+        boolean rootRead = false;
+
+        int limit = buffer.limit();
+        int position = skipProlog();
+        while (position < limit) {
+            int tagStart = indexOf((byte) '<', position, limit);
+            if (textDepth > 0) {
+                appendText(position, tagStart < 0 ? limit : tagStart);
+            }
+            if (tagStart < 0) {
+                break;
+            }
+            byte next = buffer.get(tagStart + 1);
+            boolean elementEnds = false; // Whether an end tag or an empty element tag was read
+            if (next == '?') {
+                position = skipPast((byte) '?', (byte) '>', tagStart + 2);
+                continue;
+            } else if (next == '!') {
+                // Only comments are handled, CDATA sections and a DOCTYPE are left to the standard parser
+                if (buffer.get(tagStart + 2) != '-' || buffer.get(tagStart + 3) != '-') {
+                    throw new UnsupportedContentException();
+                }
+                position = skipComment(tagStart + 4);
+                continue;
+            } else if (next == '/') {
+                if (elementDepth == 0) {
+                    throw new UnsupportedContentException();
+                }
+                int nameEnd = scanName(tagStart + 2);
+                if (!regionEquals(tagStart + 2, nameEnd - tagStart - 2, nameStarts[elementDepth], nameLengths[elementDepth])) {
+                    throw new UnsupportedContentException();
+                }
+                int tagEnd = skipWhitespace(nameEnd);
+                if (buffer.get(tagEnd) != '>') {
+                    throw new UnsupportedContentException();
+                }
+                position = tagEnd + 1;
+                elementEnds = true;
+            } else {
+                if (elementDepth == 0 && rootRead) {
+                    throw new UnsupportedContentException();
+                }
+                int nameEnd = scanName(tagStart + 1);
+                int tagEnd = scanAttributes(nameEnd);
+                boolean emptyElement = buffer.get(tagEnd - 1) == '/';
+                position = tagEnd + 1;
+
+                // Start element
+                if (++elementDepth >= nameStarts.length) {
+                    growNameStack();
+                }
+                nameStarts[elementDepth] = tagStart + 1;
+                nameLengths[elementDepth] = nameEnd - tagStart - 1;
+                if (!rootRead) {
+                    if (!nameEquals(elementDepth, ROOT_NAMES[0]) && !nameEquals(elementDepth, ROOT_NAMES[1])) {
+                        return null;
+                    }
+                    rootRead = true;
+                }
+                if (textDepth > 0) {
+                    // The text of a captured element includes the text of its children
+                    textDepth++;
+                } else if (testCaseDepth > 0) {
+                    if (nameEquals(elementDepth, TEST_CASE_NAME)) {
+                        testCaseDepth++;
+                    } else if (elementDepth == testCaseElementDepth + 1) {
+                        // A direct child: read the fields it holds, unless an earlier child held them
+                        List<TestCaseField> childFields = getChildFields(elementDepth);
+                        for (int i = 0; childFields != null && i < childFields.size(); i++) {
+                            TestCaseField field = childFields.get(i);
+                            if (fieldValues[field.ordinal()] != null) {
+                                continue;
+                            }
+                            if (field.getAttributeName() != null) {
+                                fieldValues[field.ordinal()] = getAttributeValue(field);
+                            } else {
+                                textLength = 0;
+                                textDepth = 1;
+                                capturedField = field;
+                            }
+                        }
+                    }
+                } else if (nameEquals(elementDepth, TEST_CASE_NAME)) {
+                    testCaseDepth = 1;
+                    testCaseElementDepth = elementDepth;
+                    fieldValues = new String[TestCaseField.FIELDS_COUNT];
+                    for (TestCaseField field : TestCaseField.getTestCaseAttributeFields()) {
+                        fieldValues[field.ordinal()] = getAttributeValue(field);
+                    }
+                } else if (indexOfName(elementDepth, GROUP_NAMES) >= 0) {
+                    groups.push(new TestGroup(groups.peek(), null));
+                    groupDepths.push(elementDepth);
+                } else if (nameEquals(elementDepth, TITLE_NAME) && !groups.isEmpty() && elementDepth == groupDepths.peek() + 1
+                        && groups.peek().getTitle() == null) {
+                    // The first title of the innermost open group
+                    textLength = 0;
+                    textDepth = 1;
+                    capturedField = null;
+                }
+
+                elementEnds = emptyElement;
+            }
+
+            if (elementEnds) {
+                if (textDepth > 0 && --textDepth == 0) {
+                    String text = decode(textBytes, textLength);
+                    if (capturedField == null) {
+                        groups.peek().editTitle(text);
+                    } else {
+                        fieldValues[capturedField.ordinal()] = text;
+                    }
+                } else if (testCaseDepth > 0 && nameEquals(elementDepth, TEST_CASE_NAME) && --testCaseDepth == 0) {
+                    tcList.add(TestCaseField.createTestCase(fieldValues, groups.peek()));
+                } else if (testCaseDepth == 0 && !groups.isEmpty() && elementDepth == groupDepths.peek()) {
+                    groups.pop();
+                    groupDepths.pop();
+                }
+                elementDepth--;
+            }
+        }
+        if (!rootRead || elementDepth != 0) {
+            throw new UnsupportedContentException();
+        }
+        return tcList;
+    }
+
+    /**
+     * Skips the byte order mark and checks the encoding of the XML declaration.
+     *
+     * @return The offset of the first byte after the byte order mark.
+     * @throws UnsupportedContentException If the document is not in UTF-8 or does not start with markup.
+     */
+    private int skipProlog() throws UnsupportedContentException {
+        int start = 0;
+        if (buffer.limit() >= UTF8_BOM.length && buffer.get(0) == UTF8_BOM[0] && buffer.get(1) == UTF8_BOM[1]
+                && buffer.get(2) == UTF8_BOM[2]) {
+            start = UTF8_BOM.length;
+        }
+        // A UTF-16 document, with or without its byte order mark, never starts with a '<' byte
+        if (start >= buffer.limit() || buffer.get(start) != '<') {
+            throw new UnsupportedContentException();
+        }
+        if (regionEquals(start, ascii("<?xml "))) {
+            int declarationEnd = skipPast((byte) '?', (byte) '>', start + 2);
+            byte[] encodingName = ascii("encoding");
+            for (int offset = start; offset < declarationEnd - encodingName.length; offset++) {
+                if (!regionEquals(offset, encodingName)) {
+                    continue;
+                }
+                int equalsSign = skipWhitespace(offset + encodingName.length);
+                int quote = skipWhitespace(equalsSign + 1);
+                if (buffer.get(equalsSign) != '=' || (buffer.get(quote) != '"' && buffer.get(quote) != '\'')) {
+                    throw new UnsupportedContentException();
+                }
+                int valueEnd = indexOf(buffer.get(quote), quote + 1, declarationEnd);
+                String encoding = new String(copyBytes(quote + 1, valueEnd), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+                if (!encoding.equals("UTF-8") && !encoding.equals("UTF8")) {
+                    throw new UnsupportedContentException();
+                }
+                break;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Scans an element name, which ends at whitespace, '/' or '>'.
+     *
+     * @param nameStart The offset of the name.
+     * @return The offset after the name.
+     * @throws UnsupportedContentException If the name is empty, has a namespace prefix or is followed by anything else.
+     */
+    private int scanName(int nameStart) throws UnsupportedContentException {
+        int offset = nameStart;
+        while (NAME_BYTES[buffer.get(offset) & 0xFF]) {
+            offset++;
+        }
+        byte b = buffer.get(offset);
+        if (offset == nameStart || (b != '>' && b != '/' && !isWhitespace(b))) {
+            throw new UnsupportedContentException();
+        }
+        return offset;
+    }
+
+    /**
+     * Scans the attributes of a start tag, recording their offsets, up to the closing '>'.
+     *
+     * @param offset The offset after the element name.
+     * @return The offset of the closing '>'.
+     * @throws UnsupportedContentException If the tag is malformed.
+     */
+    private int scanAttributes(int offset) throws UnsupportedContentException {
+        attributesCount = 0;
+        while (true) {
+            offset = skipWhitespace(offset);
+            byte b = buffer.get(offset);
+            if (b == '>') {
+                return offset;
+            }
+            if (b == '/') {
+                if (buffer.get(offset + 1) != '>') {
+                    throw new UnsupportedContentException();
+                }
+                return offset + 1;
+            }
+            int nameStart = offset;
+            while (NAME_BYTES[buffer.get(offset) & 0xFF] || buffer.get(offset) == ':') {
+                offset++;
+            }
+            int nameEnd = offset;
+            offset = skipWhitespace(offset);
+            if (nameEnd == nameStart || buffer.get(offset) != '=') {
+                throw new UnsupportedContentException();
+            }
+            offset = skipWhitespace(offset + 1);
+            byte quote = buffer.get(offset);
+            if (quote != '"' && quote != '\'') {
+                throw new UnsupportedContentException();
+            }
+            int valueStart = offset + 1;
+            int valueEnd = indexOf(quote, (byte) '<', valueStart, buffer.limit());
+            if (valueEnd < 0 || buffer.get(valueEnd) != quote) {
+                throw new UnsupportedContentException();
+            }
+            if (attributesCount * 4 == attributeOffsets.length) {
+                attributeOffsets = Arrays.copyOf(attributeOffsets, attributeOffsets.length * 2);
+            }
+            int index = attributesCount++ * 4;
+            attributeOffsets[index] = nameStart;
+            attributeOffsets[index + 1] = nameEnd;
+            attributeOffsets[index + 2] = valueStart;
+            attributeOffsets[index + 3] = valueEnd;
+            offset = valueEnd + 1;
+        }
+    }
+
+    /**
+     * Reads an attribute of the current start tag, returning an empty string when it is missing, as
+     * {@link XMLStreamFile} does.
+     *
+     * @param field The field held by the attribute.
+     * @return The attribute value, or an empty string if absent.
+     * @throws UnsupportedContentException If the value holds references, tabs or line breaks, which the standard
+     *                                     parser would replace, or the attribute has a namespace prefix.
+     */
+    private String getAttributeValue(TestCaseField field) throws UnsupportedContentException {
+        byte[] name = ATTRIBUTE_NAMES[field.ordinal()];
+        for (int index = 0; index < attributesCount * 4; index += 4) {
+            int nameStart = attributeOffsets[index], nameEnd = attributeOffsets[index + 1];
+            if (nameEnd - nameStart < name.length || !regionEquals(nameEnd - name.length, name)) {
+                continue;
+            }
+            if (nameEnd - nameStart > name.length) {
+                if (buffer.get(nameEnd - name.length - 1) == ':') {
+                    // The standard parser matches the local name of a prefixed attribute
+                    throw new UnsupportedContentException();
+                }
+                continue;
+            }
+            int valueStart = attributeOffsets[index + 2], valueEnd = attributeOffsets[index + 3];
+            for (int offset = valueStart; offset < valueEnd; offset++) {
+                byte b = buffer.get(offset);
+                if (b == '&' || b == '\t' || b == '\n' || b == '\r') {
+                    throw new UnsupportedContentException();
+                }
+            }
+            int length = valueEnd - valueStart;
+            if (length > valueBytes.length) {
+                valueBytes = new byte[Math.max(valueBytes.length * 2, length)];
+            }
+            buffer.get(valueStart, valueBytes, 0, length);
+            return decode(valueBytes, length);
+        }
+        return "";
+    }
+
+    /**
+     * Appends a text segment to the captured text.
+     *
+     * @param start The offset of the segment.
+     * @param end   The offset after the segment.
+     * @throws UnsupportedContentException If the text holds references or carriage returns, which the standard
+     *                                     parser would replace.
+     */
+    private void appendText(int start, int end) throws UnsupportedContentException {
+        int length = end - start;
+        if (textLength + length > textBytes.length) {
+            textBytes = Arrays.copyOf(textBytes, Math.max(textBytes.length * 2, textLength + length));
+        }
+        buffer.get(start, textBytes, textLength, length);
+        for (int index = textLength; index < textLength + length; index++) {
+            if (textBytes[index] == '&' || textBytes[index] == '\r') {
+                throw new UnsupportedContentException();
+            }
+        }
+        textLength += length;
+    }
+
+    /**
+     * Decodes UTF-8 bytes, validating them as the standard parser would.
+     *
+     * @param bytes  The bytes.
+     * @param length The number of bytes to decode.
+     * @return The decoded string.
+     * @throws UnsupportedContentException If the bytes are not valid UTF-8.
+     */
+    private String decode(byte[] bytes, int length) throws UnsupportedContentException {
+        boolean ascii = true;
+        for (int index = 0; index < length && ascii; index++) {
+            ascii = bytes[index] >= 0;
+        }
+        if (ascii) {
+            return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+        }
+        if (decoder == null) {
+            decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        try {
+            CharBuffer chars = decoder.decode(ByteBuffer.wrap(bytes, 0, length));
+            return chars.toString();
+        } catch (CharacterCodingException e) {
+            throw new UnsupportedContentException();
+        }
+    }
+
+    /**
+     * Skips a comment.
+     *
+     * @param offset The offset after "&lt;!--".
+     * @return The offset after "--&gt;".
+     * @throws UnsupportedContentException If the comment is not closed, or holds "--", which XML forbids.
+     */
+    private int skipComment(int offset) throws UnsupportedContentException {
+        offset = skipPast((byte) '-', (byte) '-', offset);
+        if (buffer.get(offset) != '>') {
+            throw new UnsupportedContentException();
+        }
+        return offset + 1;
+    }
+
+    /**
+     * Finds the end of a two-byte delimiter.
+     *
+     * @param first  The first byte of the delimiter.
+     * @param second The second byte of the delimiter.
+     * @param offset The offset to search from.
+     * @return The offset after the delimiter.
+     * @throws UnsupportedContentException If the delimiter is missing.
+     */
+    private int skipPast(byte first, byte second, int offset) throws UnsupportedContentException {
+        int limit = buffer.limit();
+        while (true) {
+            offset = indexOf(first, offset, limit - 1);
+            if (offset < 0) {
+                throw new UnsupportedContentException();
+            }
+            if (buffer.get(offset + 1) == second) {
+                return offset + 2;
+            }
+            offset++;
+        }
+    }
+
+    /**
+     * Finds the first occurrence of a byte.
+     *
+     * @param b      The byte.
+     * @param offset The offset to search from.
+     * @param limit  The offset to search up to, exclusive.
+     * @return The offset of the byte, or -1 if it does not occur.
+     */
+    private int indexOf(byte b, int offset, int limit) {
+        return indexOf(b, b, offset, limit);
+    }
+
+    /**
+     * Finds the first occurrence of either of two bytes. The bytes are compared eight at a time: a byte of a word
+     * XOR the pattern is zero where it matches, and a zero byte is the lowest one whose highest bit survives
+     * (word - LOW_BITS) &amp; ~word; the bits above it may be false matches and are ignored.
+     *
+     * @param first  The first byte.
+     * @param second The second byte.
+     * @param offset The offset to search from.
+     * @param limit  The offset to search up to, exclusive.
+     * @return The offset of the first match, or -1 if neither byte occurs.
+     */
+    private int indexOf(byte first, byte second, int offset, int limit) {
+        long firstPattern = LOW_BITS * (first & 0xFF), secondPattern = LOW_BITS * (second & 0xFF);
+        for (; offset <= limit - Long.BYTES; offset += Long.BYTES) {
+            long word = buffer.getLong(offset);
+            long firstBytes = word ^ firstPattern, secondBytes = word ^ secondPattern;
+            long matches = ((firstBytes - LOW_BITS) & ~firstBytes | (secondBytes - LOW_BITS) & ~secondBytes) & HIGH_BITS;
+            if (matches != 0) {
+                return offset + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+        for (; offset < limit; offset++) {
+            byte b = buffer.get(offset);
+            if (b == first || b == second) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips XML whitespace.
+     *
+     * @param offset The offset to skip from.
+     * @return The offset of the first other byte.
+     */
+    private int skipWhitespace(int offset) {
+        while (isWhitespace(buffer.get(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Checks whether a byte is XML whitespace.
+     *
+     * @param b The byte.
+     * @return True for a space, tab or line break.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Checks whether the name of an open element is a given name.
+     *
+     * @param depth The depth of the element.
+     * @param name  The ASCII name.
+     * @return True if the names are equal.
+     */
+    private boolean nameEquals(int depth, byte[] name) {
+        return nameLengths[depth] == name.length && regionEquals(nameStarts[depth], name);
+    }
+
+    /**
+     * Finds the name of an open element among given names.
+     *
+     * @param depth The depth of the element.
+     * @param names The ASCII names.
+     * @return The index of the name, or -1 if the element has none of them.
+     */
+    private int indexOfName(int depth, byte[][] names) {
+        for (int index = 0; index < names.length; index++) {
+            if (nameEquals(depth, names[index])) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the fields held by an open direct child element of a testcase.
+     *
+     * @param depth The depth of the element.
+     * @return The fields of the child, or null if the child holds none.
+     */
+    private List<TestCaseField> getChildFields(int depth) {
+        int index = indexOfName(depth, CHILD_NAMES);
+        return index >= 0 ? CHILD_FIELDS.get(index) : null;
+    }
+
+    /**
+     * Checks whether the mapped bytes at an offset are a given sequence.
+     *
+     * @param offset The offset.
+     * @param bytes  The sequence.
+     * @return True if the bytes are equal.
+     */
+    private boolean regionEquals(int offset, byte[] bytes) {
+        if (offset + bytes.length > buffer.limit()) {
+            return false;
+        }
+        for (int index = 0; index < bytes.length; index++) {
+            if (buffer.get(offset + index) != bytes[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether two regions of the mapped bytes are equal.
+     *
+     * @param offset       The offset of the first region.
+     * @param length       The length of the first region.
+     * @param otherOffset  The offset of the second region.
+     * @param otherLength  The length of the second region.
+     * @return True if the regions hold the same bytes.
+     */
+    private boolean regionEquals(int offset, int length, int otherOffset, int otherLength) {
+        if (length != otherLength) {
+            return false;
+        }
+        for (int index = 0; index < length; index++) {
+            if (buffer.get(offset + index) != buffer.get(otherOffset + index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a region of the mapped bytes.
+     *
+     * @param start The offset of the region.
+     * @param end   The offset after the region.
+     * @return The bytes.
+     */
+    private byte[] copyBytes(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+
+    /**
+     * Doubles the capacity of the stack of open element names.
+     *
+     * @throws UnsupportedContentException If the document is nested deeper than {@link #MAX_DEPTH}.
+     */
+    private void growNameStack() throws UnsupportedContentException {
+        if (nameStarts.length >= MAX_DEPTH) {
+            throw new UnsupportedContentException();
+        }
+        nameStarts = Arrays.copyOf(nameStarts, nameStarts.length * 2);
+        nameLengths = Arrays.copyOf(nameLengths, nameLengths.length * 2);
+    }
+
+    /**
+     * Lists the fields of each child element name, in the order of {@link #CHILD_NAMES}.
+     *
+     * @return The fields of each child element.
+     */
+    private static List<List<TestCaseField>> createChildFields() {
+        List<List<TestCaseField>> childFields = new ArrayList<>();
+        for (byte[] childName : CHILD_NAMES) {
+            childFields.add(TestCaseField.getChildElementFields(new String(childName, StandardCharsets.US_ASCII)));
+        }
+        return childFields;
+    }
+
+    /**
+     * Lists the bytes element and attribute names are made of, except ':', which only prefixed names hold.
+     * Every byte of a multi-byte UTF-8 character is accepted, as names may hold any letter.
+     *
+     * @return Whether each byte, by unsigned value, may be part of a name.
+     */
+    private static boolean[] createNameBytes() {
+        boolean[] nameBytes = new boolean[256];
+        for (int b = 0; b < nameBytes.length; b++) {
+            nameBytes[b] = b >= 0x80 || Character.isLetterOrDigit(b) || b == '-' || b == '_' || b == '.';
+        }
+        return nameBytes;
+    }
+
+    /**
+     * Encodes the attribute name of each field.
+     *
+     * @return The attribute names by field ordinal, null for the fields read from element text.
+     */
+    private static byte[][] createAttributeNames() {
+        byte[][] attributeNames = new byte[TestCaseField.FIELDS_COUNT][];
+        for (TestCaseField field : TestCaseField.values()) {
+            if (field.getAttributeName() != null) {
+                attributeNames[field.ordinal()] = ascii(field.getAttributeName());
+            }
+        }
+        return attributeNames;
+    }
+
+    /**
+     * Encodes an ASCII name.
+     *
+     * @param name The name.
+     * @return The bytes of the name.
+     */
+    private static byte[] ascii(String name) {
+        return name.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Encodes ASCII names.
+     *
+     * @param names The names.
+     * @return The bytes of each name.
+     */
+    private static byte[][] asciiArray(String[] names) {
+        byte[][] bytes = new byte[names.length][];
+        for (int index = 0; index < names.length; index++) {
+            bytes[index] = ascii(names[index]);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,103 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+import data_types.Verdict;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Represents the reader of NUnit reports, in the NUnit 3 format (test-run root) and the NUnit 2 format
+ * (test-results root, also written by NUnit 3 with --result:...;format=nunit2). Each test-suite element is a
+ * group named after the suite, each test-case element a test case whose ID is its full name.
+ * NUnit 2 only records durations, so its test cases are assumed to run one after the other from the run start.
+ */
+public class NUnitReportReader extends StreamingReportReader {
+    /**
+     * Constructor for NUnitReportReader.
+     */
+    public NUnitReportReader() {
+        super("nunit", "test-run", "test-results");
+    }
+
+    @Override
+    void read(XMLStreamReader reader, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        ArrayDeque<TestGroup> groups = new ArrayDeque<>(); // Open suites, innermost first
+        LocalDateTime runTime = null; // The start of the next NUnit 2 test case
+        int testCaseNumber = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "test-results":
+                        runTime = parseTime(getAttributeValue(reader, "date") + " " + getAttributeValue(reader, "time"));
+                        break;
+                    case "test-suite":
+                        groups.push(new TestGroup(groups.peek(), getAttributeValue(reader, "name")));
+                        break;
+                    case "test-case":
+                        String title = getAttributeValue(reader, "name"), fullName = getAttributeValue(reader, "fullname");
+                        String startTime = getAttributeValue(reader, "start-time"), endTime = getAttributeValue(reader, "end-time");
+                        if (startTime.isEmpty()) {
+                            // NUnit 2: the name is the full name, and there is a duration instead of times
+                            startTime = formatTime(runTime);
+                            runTime = plusSeconds(runTime, getAttributeValue(reader, "time"));
+                            endTime = formatTime(runTime);
+                        } else {
+                            startTime = formatTime(parseTime(startTime));
+                            endTime = formatTime(parseTime(endTime));
+                        }
+                        testCaseConsumer.accept(new TestCase(title, startTime, endTime,
+                                getResult(getAttributeValue(reader, "result"), getAttributeValue(reader, "label"), getAttributeValue(reader, "executed")),
+                                groups.peek(), fullName.isEmpty() ? title : fullName, String.valueOf(++testCaseNumber)));
+                        break;
+                    default:
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("test-suite")) {
+                groups.pop();
+            }
+        }
+    }
+
+    /**
+     * Maps an NUnit result to a verdict result.
+     *
+     * @param result   The result attribute, e.g. "Passed" (NUnit 3) or "Success" (NUnit 2).
+     * @param label    The NUnit 3 label refining the result, e.g. "Error", or an empty string.
+     * @param executed The NUnit 2 executed attribute, or an empty string.
+     * @return The result value of the matching verdict, or the lower-case result if there is none.
+     */
+    private static String getResult(String result, String label, String executed) {
+        if (executed.equalsIgnoreCase("false")) {
+            return Verdict.NONE.getResult();
+        }
+        switch (result) {
+            case "Passed":
+            case "Success":
+                return Verdict.PASS.getResult();
+            case "Failed":
+                return label.equals("Error") || label.equals("Invalid") || label.equals("Cancelled")
+                        ? Verdict.ERROR.getResult() : Verdict.FAIL.getResult();
+            case "Failure":
+                return Verdict.FAIL.getResult();
+            case "Error":
+            case "NotRunnable":
+            case "Cancelled":
+                return Verdict.ERROR.getResult();
+            case "Skipped":
+            case "Ignored":
+                return Verdict.NONE.getResult();
+            case "Inconclusive":
+                return Verdict.INCONCLUSIVE.getResult();
+            default:
+                return result.toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package file_handlers;
+
+import data_types.CacheStatistics;
+import data_types.TestCase;
+import data_types.TestGroup;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents an on-disk cache of the test cases extracted from XML reports, one compact binary entry per input file.
+ * An entry is valid while its input keeps the same path, size and modification time; if only the modification time
+ * changed (e.g., the report was copied again), the content hash decides. The least recently used entries are
+ * deleted once the cache grows beyond its size limit. The cache is safe to use from several parsing threads.
+ * Archive entries get one cache entry each, validated against the archive file, whose content is hashed once
+ * for all of its entries.
+ */
+public class ParsedResultsCache {
+    public static final String DEFAULT_CACHE_FOLDER = Paths.get(System.getProperty("user.home"),
+            ".test_summary_report_generator", "parsed_cache").toString(); // Shared by the GUI runs
+    public static final long DEFAULT_MAX_CACHE_BYTES = 512L * 1024 * 1024; // Default size limit of the cache folder
+
+    private static final int ENTRY_MAGIC = 0x54435243;  // "TCRC", marks a cache entry
+    private static final int FORMAT_VERSION = 4;        // Bumped whenever the extracted fields change
+    private static final int MTIME_OFFSET = 4 + 4 + 8;  // Offset of the modification time in an entry header
+    private static final String ENTRY_EXTENSION = ".tcc";
+    private static final int NULL_STRING_INDEX = -1;    // Marks a missing field in the string table
+    private static final int FIELDS_COUNT = 8;          // Title, times, result, group path, test case ID, number and fixture title
+
+    private final Path cacheFolder;   // The folder holding the entries
+    private final long maxCacheBytes; // The size limit of the entries
+    private final ConcurrentHashMap<Path, ContentHash> contentHashes = new ConcurrentHashMap<>(); // The latest known state of each input
+    private final AtomicLong hits = new AtomicLong();      // Lookups answered from the cache
+    private final AtomicLong misses = new AtomicLong();    // Lookups of new or changed files
+    private final AtomicLong stores = new AtomicLong();    // Entries written after a miss
+    private final AtomicLong evictions = new AtomicLong(); // Entries deleted to stay under the limit
+
+    /**
+     * Constructor for ParsedResultsCache using the default folder and size limit.
+     *
+     * @throws IOException If the cache folder cannot be created.
+     */
+    public ParsedResultsCache() throws IOException {
+        this(DEFAULT_CACHE_FOLDER, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    /**
+     * Constructor for ParsedResultsCache.
+     *
+     * @param cacheFolderPath The folder holding the entries, created if needed.
+     * @param maxCacheBytes   The size limit of the entries in bytes.
+     * @throws IOException If the cache folder cannot be created.
+     */
+    public ParsedResultsCache(String cacheFolderPath, long maxCacheBytes) throws IOException {
+        this.cacheFolder = Files.createDirectories(Paths.get(cacheFolderPath));
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Gets the test cases of an XML file from the cache, or parses and caches them if the file is new or changed.
+     * Failing to read or write an entry never fails the lookup; the file is simply parsed.
+     *
+     * @param xmlFilePath The path of the XML file.
+     * @param parser      Extracts the test cases of the file on a miss.
+     * @return The test cases of the file.
+     * @throws Exception If the file has to be parsed and the parser fails.
+     */
+    public ArrayList<TestCase> getTestCases(String xmlFilePath, Callable<ArrayList<TestCase>> parser) throws Exception {
+        // Archive entries are validated against their archive file
+        Path xmlPath = Paths.get(ReportInputs.getFilePath(xmlFilePath)).toAbsolutePath().normalize();
+        String sourceKey = xmlPath + xmlFilePath.substring(ReportInputs.getFilePath(xmlFilePath).length());
+        BasicFileAttributes attributesBefore = Files.readAttributes(xmlPath, BasicFileAttributes.class);
+        // The entries of an archive share the hash of the archive as long as its size and modification time hold
+        ContentHash contentHash = contentHashes.compute(xmlPath, (path, knownHash) ->
+                knownHash != null && knownHash.matches(attributesBefore) ? knownHash : new ContentHash(attributesBefore));
+        Path entryPath = getEntryPath(sourceKey);
+        try {
+            ArrayList<TestCase> cachedTCsList = readEntry(entryPath, sourceKey, xmlPath, attributesBefore, contentHash);
+            if (cachedTCsList != null) {
+                hits.incrementAndGet();
+                // The entry modification time is its last use, which orders the LRU eviction
+                entryPath.toFile().setLastModified(System.currentTimeMillis());
+                return cachedTCsList;
+            }
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupted entry is treated as a miss and overwritten
+            System.err.println("Ignoring unreadable cache entry for " + xmlFilePath + ": " + e);
+        }
+        misses.incrementAndGet();
+
+        ArrayList<TestCase> tcList = parser.call();
+        try {
+            // Only cache the result if the file did not change while it was parsed
+            BasicFileAttributes attributesAfter = Files.readAttributes(xmlPath, BasicFileAttributes.class);
+            if (attributesAfter.size() == attributesBefore.size()
+                    && attributesAfter.lastModifiedTime().equals(attributesBefore.lastModifiedTime())) {
+                writeEntry(entryPath, sourceKey, xmlPath, attributesAfter, contentHash, tcList);
+                stores.incrementAndGet();
+                evictLeastRecentlyUsed(entryPath);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot cache the test cases of " + xmlFilePath + ": " + e);
+        }
+        return tcList;
+    }
+
+    /**
+     * Gets the hit/miss figures of this cache instance and the current size of the cache folder.
+     *
+     * @return The CacheStatistics.
+     */
+    public CacheStatistics getStatistics() {
+        File[] entryFiles = listEntryFiles();
+        long cacheBytes = 0;
+        for (File entryFile : entryFiles) {
+            cacheBytes += entryFile.length();
+        }
+        return new CacheStatistics(hits.get(), misses.get(), stores.get(), evictions.get(), entryFiles.length, cacheBytes, maxCacheBytes);
+    }
+
+    /**
+     * Deletes every entry of the cache folder.
+     */
+    public synchronized void clear() {
+        for (File entryFile : listEntryFiles()) {
+            entryFile.delete();
+        }
+    }
+
+    /**
+     * Reads a cache entry if it matches the current state of its XML file.
+     *
+     * @param entryPath          The path of the entry.
+     * @param sourceKey          The absolute path of the XML file or archive entry.
+     * @param xmlPath            The absolute path of the XML file or archive.
+     * @param attributes         The current attributes of the XML file or archive.
+     * @param currentContentHash The content hash of the XML file or archive in its current state.
+     * @return The cached test cases, or null if there is no valid entry.
+     * @throws IOException If the entry exists but cannot be read.
+     */
+    private ArrayList<TestCase> readEntry(Path entryPath, String sourceKey, Path xmlPath, BasicFileAttributes attributes,
+                                          ContentHash currentContentHash) throws IOException {
+        if (!Files.isRegularFile(entryPath)) {
+            return null;
+        }
+        MappedByteBuffer entry;
+        try (FileChannel entryChannel = FileChannel.open(entryPath, StandardOpenOption.READ)) {
+            // Entries are read once from start to end, so mapping them avoids copying through stream buffers
+            entry = entryChannel.map(FileChannel.MapMode.READ_ONLY, 0, entryChannel.size());
+        }
+        if (entry.getInt() != ENTRY_MAGIC || entry.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        long size = entry.getLong();
+        long lastModifiedMillis = entry.getLong();
+        byte[] contentHash = new byte[32];
+        entry.get(contentHash);
+        if (size != attributes.size() || !sourceKey.equals(readString(entry))) {
+            return null;
+        }
+        if (lastModifiedMillis != attributes.lastModifiedTime().toMillis()) {
+            // Same size but touched: only the content decides
+            if (!Arrays.equals(contentHash, currentContentHash.get(xmlPath))) {
+                return null;
+            }
+            updateEntryModificationTime(entryPath, attributes.lastModifiedTime().toMillis());
+        }
+
+        String[] stringTable = new String[entry.getInt()];
+        for (int stringIndex = 0; stringIndex < stringTable.length; stringIndex++) {
+            stringTable[stringIndex] = readString(entry);
+        }
+        int testCasesCount = entry.getInt();
+        ArrayList<TestCase> tcList = new ArrayList<>(testCasesCount);
+        // Groups are restored as the fixture group under one top-level group holding the rest of the path
+        HashMap<String, TestGroup> groups = new HashMap<>();
+        for (int tcIndex = 0; tcIndex < testCasesCount; tcIndex++) {
+            String title = readTableString(entry, stringTable), startTime = readTableString(entry, stringTable);
+            String endTime = readTableString(entry, stringTable), result = readTableString(entry, stringTable);
+            String groupPath = readTableString(entry, stringTable), testCaseId = readTableString(entry, stringTable);
+            String tcNumber = readTableString(entry, stringTable), fixtureTitle = readTableString(entry, stringTable);
+            tcList.add(new TestCase(title, startTime, endTime, result,
+                    groupPath == null ? null : groups.computeIfAbsent(groupPath, path -> createGroup(path, fixtureTitle)), testCaseId, tcNumber));
+        }
+        return tcList;
+    }
+
+    /**
+     * Creates a restored group with the given path whose own title is the fixture title.
+     *
+     * @param groupPath    The path of the group.
+     * @param fixtureTitle The title of the group itself, or null if untitled.
+     * @return The TestGroup.
+     */
+    private static TestGroup createGroup(String groupPath, String fixtureTitle) {
+        if (fixtureTitle == null || fixtureTitle.isEmpty() || !groupPath.endsWith(fixtureTitle)) {
+            return new TestGroup(null, groupPath);
+        }
+        String parentPath = groupPath.substring(0, groupPath.length() - fixtureTitle.length());
+        if (parentPath.isEmpty()) {
+            return new TestGroup(null, fixtureTitle);
+        }
+        if (!parentPath.endsWith(TestGroup.PATH_SEPARATOR)) {
+            return new TestGroup(null, groupPath);
+        }
+        parentPath = parentPath.substring(0, parentPath.length() - TestGroup.PATH_SEPARATOR.length());
+        return new TestGroup(new TestGroup(null, parentPath), fixtureTitle);
+    }
+
+    /**
+     * Writes the cache entry of an XML file. The entry is written to a temporary file and moved into place,
+     * so concurrent readers never see a partial entry.
+     *
+     * @param entryPath   The path of the entry.
+     * @param sourceKey   The absolute path of the XML file or archive entry.
+     * @param xmlPath     The absolute path of the XML file or archive.
+     * @param attributes  The attributes of the XML file or archive when it was parsed.
+     * @param contentHash The content hash of the XML file or archive in that state.
+     * @param tcList      The extracted test cases.
+     * @throws IOException If the entry cannot be written.
+     */
+    private void writeEntry(Path entryPath, String sourceKey, Path xmlPath, BasicFileAttributes attributes,
+                            ContentHash contentHash, ArrayList<TestCase> tcList) throws IOException {
+        // Titles and times repeat a lot, so every distinct string is written once and referenced by index
+        HashMap<String, Integer> stringIndexes = new HashMap<>();
+        ArrayList<String> stringTable = new ArrayList<>();
+        int[] fieldIndexes = new int[tcList.size() * FIELDS_COUNT];
+        for (int tcIndex = 0; tcIndex < tcList.size(); tcIndex++) {
+            TestCase testCase = tcList.get(tcIndex);
+            String[] fields = {testCase.getTitle(), testCase.getStartTime(), testCase.getEndTime(), testCase.getResult(),
+                    testCase.getGroup() != null ? testCase.getGroupPath() : null, testCase.getTestCaseId(), testCase.getTcNumber(),
+                    testCase.getGroup() != null ? testCase.getGroup().getTitle() : null};
+            for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                fieldIndexes[tcIndex * FIELDS_COUNT + fieldIndex] = fields[fieldIndex] == null ? NULL_STRING_INDEX
+                        : stringIndexes.computeIfAbsent(fields[fieldIndex], field -> {
+                    stringTable.add(field);
+                    return stringTable.size() - 1;
+                });
+            }
+        }
+
+        Path temporaryPath = Files.createTempFile(cacheFolder, "entry", ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath), 1 << 16))) {
+                output.writeInt(ENTRY_MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(attributes.size());
+                output.writeLong(attributes.lastModifiedTime().toMillis());
+                output.write(contentHash.get(xmlPath));
+                writeString(output, sourceKey);
+                output.writeInt(stringTable.size());
+                for (String string : stringTable) {
+                    writeString(output, string);
+                }
+                output.writeInt(tcList.size());
+                for (int fieldIndex : fieldIndexes) {
+                    output.writeInt(fieldIndex);
+                }
+            }
+            Files.move(temporaryPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache is under its size limit.
+     *
+     * @param keptEntryPath The entry just written, which is never evicted.
+     */
+    private synchronized void evictLeastRecentlyUsed(Path keptEntryPath) {
+        File[] entryFiles = listEntryFiles();
+        long cacheBytes = 0;
+        for (File entryFile : entryFiles) {
+            cacheBytes += entryFile.length();
+        }
+        if (cacheBytes <= maxCacheBytes) {
+            return;
+        }
+        Arrays.sort(entryFiles, Comparator.comparingLong(File::lastModified));
+        for (File entryFile : entryFiles) {
+            if (cacheBytes <= maxCacheBytes) {
+                break;
+            }
+            if (entryFile.toPath().equals(keptEntryPath)) {
+                continue;
+            }
+            long entryBytes = entryFile.length();
+            if (entryFile.delete()) {
+                cacheBytes -= entryBytes;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Lists the entries of the cache folder.
+     *
+     * @return The entry files, empty if the folder cannot be listed.
+     */
+    private File[] listEntryFiles() {
+        File[] entryFiles = cacheFolder.toFile().listFiles((folder, name) -> name.endsWith(ENTRY_EXTENSION));
+        return entryFiles != null ? entryFiles : new File[0];
+    }
+
+    /**
+     * Gets the entry path of an XML file or archive entry, named after the hash of its absolute path.
+     *
+     * @param sourceKey The absolute path of the XML file or archive entry.
+     * @return The path of its cache entry.
+     */
+    private Path getEntryPath(String sourceKey) {
+        byte[] pathHash = createDigest().digest(sourceKey.getBytes(StandardCharsets.UTF_8));
+        StringBuilder entryName = new StringBuilder();
+        for (int byteIndex = 0; byteIndex < 16; byteIndex++) {
+            entryName.append(String.format("%02x", pathHash[byteIndex]));
+        }
+        return cacheFolder.resolve(entryName.append(ENTRY_EXTENSION).toString());
+    }
+
+    /**
+     * Stores the new modification time of an input whose content turned out to be unchanged,
+     * so the next lookup needs no hashing.
+     *
+     * @param entryPath          The path of the entry.
+     * @param lastModifiedMillis The new modification time of the XML file.
+     * @throws IOException If the entry cannot be updated.
+     */
+    private void updateEntryModificationTime(Path entryPath, long lastModifiedMillis) throws IOException {
+        try (RandomAccessFile entryFile = new RandomAccessFile(entryPath.toFile(), "rw")) {
+            entryFile.seek(MTIME_OFFSET);
+            entryFile.writeLong(lastModifiedMillis);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of a file content.
+     *
+     * @param filePath The path of the file.
+     * @return The 32 hash bytes.
+     * @throws IOException If the file cannot be read.
+     */
+    private static byte[] hashContent(Path filePath) throws IOException {
+        MessageDigest digest = createDigest();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream input = Files.newInputStream(filePath)) {
+            for (int readCount; (readCount = input.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, readCount);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Creates a SHA-256 digest.
+     *
+     * @return A new MessageDigest.
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes.
+     *
+     * @param output The entry output.
+     * @param string The string to write.
+     * @throws IOException If the entry cannot be written.
+     */
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(stringBytes.length);
+        output.write(stringBytes);
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param entry The mapped entry.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer entry) {
+        byte[] stringBytes = new byte[entry.getInt()];
+        entry.get(stringBytes);
+        return new String(stringBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a string table reference.
+     *
+     * @param entry       The mapped entry.
+     * @param stringTable The string table of the entry.
+     * @return The referenced string, or null for a missing field.
+     */
+    private static String readTableString(ByteBuffer entry, String[] stringTable) {
+        int stringIndex = entry.getInt();
+        return stringIndex == NULL_STRING_INDEX ? null : stringTable[stringIndex];
+    }
+
+    /**
+     * Represents the content hash of an XML file or archive in one state, computed on first use only and then
+     * shared by the lookups of every entry of the archive.
+     */
+    private static final class ContentHash {
+        private final long size;               // The size of the file in this state
+        private final long lastModifiedMillis; // The modification time of the file in this state
+        private byte[] hash;                   // The SHA-256 hash, null until first used, guarded by this
+
+        /**
+         * Constructor for ContentHash.
+         *
+         * @param attributes The attributes of the file in this state.
+         */
+        private ContentHash(BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+        }
+
+        /**
+         * Checks whether the file is still in this state.
+         *
+         * @param attributes The current attributes of the file.
+         * @return True if the size and modification time are unchanged.
+         */
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModifiedMillis == attributes.lastModifiedTime().toMillis();
+        }
+
+        /**
+         * Gets the hash, hashing the file on first use. Concurrent lookups of the same file wait for one hashing.
+         *
+         * @param filePath The path of the file.
+         * @return The 32 hash bytes.
+         * @throws IOException If the file cannot be read.
+         */
+        private synchronized byte[] get(Path filePath) throws IOException {
+            if (hash == null) {
+                hash = hashContent(filePath);
+            }
+            return hash;
+        }
+    }
+}
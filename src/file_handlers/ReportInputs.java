@@ -0,0 +1,242 @@
+package file_handlers;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Represents the ways report files are stored: plain, gzip-compressed (".xml.gz"), or as entries of zip and
+ * tar archives (".zip", ".tar", ".tar.gz", ".tgz"). Reports are always decompressed while they are parsed,
+ * never extracted to disk. An archive entry is addressed as "archive.zip!/folder/report.xml".
+ * Zip entries can be opened one by one, so they are parsed in parallel like files; tar archives can only
+ * be read from start to end, so their entries are read in one pass with {@link #forEachTarEntry}.
+ */
+public final class ReportInputs {
+    public static final String ENTRY_SEPARATOR = "!/"; // Separates an archive path from an entry name
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Consumes the entries of an archive.
+     */
+    public interface EntryConsumer {
+        /**
+         * Reads one entry. The stream supports mark/reset and is only valid during the call; closing it leaves the archive open.
+         *
+         * @param entryPath   The path of the entry, "archive!/entry name".
+         * @param inputStream The decompressed content of the entry.
+         * @throws Exception If the entry cannot be read.
+         */
+        void accept(String entryPath, InputStream inputStream) throws Exception;
+    }
+
+    private ReportInputs() {
+    }
+
+    /**
+     * Tells whether a file is a zip archive.
+     *
+     * @param path The path of the file.
+     * @return True for ".zip" files.
+     */
+    public static boolean isZipArchive(String path) {
+        return path.toLowerCase().endsWith(".zip") && !isEntryPath(path);
+    }
+
+    /**
+     * Tells whether a file is a tar archive, compressed or not.
+     *
+     * @param path The path of the file.
+     * @return True for ".tar", ".tar.gz" and ".tgz" files.
+     */
+    public static boolean isTarArchive(String path) {
+        String lowerCasePath = path.toLowerCase();
+        return (lowerCasePath.endsWith(".tar") || lowerCasePath.endsWith(".tar.gz") || lowerCasePath.endsWith(".tgz")) && !isEntryPath(path);
+    }
+
+    /**
+     * Tells whether a file or entry name is a report, plain or gzip-compressed.
+     *
+     * @param name The name of the file or entry.
+     * @return True for ".xml" and ".xml.gz" names.
+     */
+    public static boolean isReportName(String name) {
+        String lowerCaseName = name.toLowerCase();
+        return lowerCaseName.endsWith(".xml") || lowerCaseName.endsWith(".xml.gz");
+    }
+
+    /**
+     * Tells whether a path addresses an archive entry.
+     *
+     * @param path The path.
+     * @return True if the path has the form "archive!/entry name".
+     */
+    public static boolean isEntryPath(String path) {
+        return path.contains(ENTRY_SEPARATOR);
+    }
+
+    /**
+     * Gets the file on disk holding a report.
+     *
+     * @param path The path of a report file or archive entry.
+     * @return The path itself, or the path of the archive for an entry.
+     */
+    public static String getFilePath(String path) {
+        int separatorIndex = path.indexOf(ENTRY_SEPARATOR);
+        return separatorIndex < 0 ? path : path.substring(0, separatorIndex);
+    }
+
+    /**
+     * Lists the report entries of a zip archive, in the order they are stored.
+     *
+     * @param zipPath The path of the zip archive.
+     * @return The paths of the entries named ".xml" or ".xml.gz".
+     * @throws IOException If the archive cannot be read.
+     */
+    public static List<String> listZipEntries(String zipPath) throws IOException {
+        List<String> entryPaths = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(zipPath)) {
+            for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); ) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && isReportName(entry.getName())) {
+                    entryPaths.add(zipPath + ENTRY_SEPARATOR + entry.getName());
+                }
+            }
+        }
+        return entryPaths;
+    }
+
+    /**
+     * Reads the report entries of a tar archive in one pass, decompressing ".tar.gz" and ".tgz" archives and
+     * ".xml.gz" entries on the fly.
+     *
+     * @param tarPath       The path of the tar archive.
+     * @param entryConsumer The consumer reading each entry named ".xml" or ".xml.gz".
+     * @throws Exception If the archive cannot be read, or the consumer fails.
+     */
+    public static void forEachTarEntry(String tarPath, EntryConsumer entryConsumer) throws Exception {
+        InputStream fileStream = new BufferedInputStream(new FileInputStream(tarPath), BUFFER_SIZE);
+        String lowerCasePath = tarPath.toLowerCase();
+        if (lowerCasePath.endsWith(".gz") || lowerCasePath.endsWith(".tgz")) {
+            try {
+                fileStream = new GZIPInputStream(fileStream, BUFFER_SIZE);
+            } catch (IOException | RuntimeException e) {
+                // Not gzip data: the header check fails before the tar stream owns the file
+                fileStream.close();
+                throw e;
+            }
+        }
+        try (TarArchiveInputStream tarStream = new TarArchiveInputStream(fileStream)) {
+            for (TarArchiveEntry entry = tarStream.getNextTarEntry(); entry != null; entry = tarStream.getNextTarEntry()) {
+                if (entry.isFile() && isReportName(entry.getName())) {
+                    InputStream entryStream = new NonClosingInputStream(tarStream);
+                    if (entry.getName().toLowerCase().endsWith(".gz")) {
+                        entryStream = new GZIPInputStream(entryStream, BUFFER_SIZE);
+                    }
+                    // Archives made with "tar -C folder ." name their entries "./report.xml"
+                    String entryName = entry.getName().startsWith("./") ? entry.getName().substring(2) : entry.getName();
+                    entryConsumer.accept(tarPath + ENTRY_SEPARATOR + entryName, new BufferedInputStream(entryStream, BUFFER_SIZE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a report for reading, decompressing ".gz" files and entries. Zip entries are read straight from
+     * the archive; tar entries cannot be opened on their own and are read with {@link #forEachTarEntry}.
+     *
+     * @param path The path of a report file or zip archive entry.
+     * @return The buffered, decompressed content; closing it also closes the archive.
+     * @throws IOException If the file or entry cannot be opened.
+     */
+    public static InputStream open(String path) throws IOException {
+        InputStream inputStream;
+        int separatorIndex = path.indexOf(ENTRY_SEPARATOR);
+        if (separatorIndex < 0) {
+            inputStream = new FileInputStream(path);
+        } else {
+            String archivePath = path.substring(0, separatorIndex), entryName = path.substring(separatorIndex + ENTRY_SEPARATOR.length());
+            if (!isZipArchive(archivePath)) {
+                throw new IOException("Entries can only be opened in zip archives: " + path);
+            }
+            // Opening the zip file again per entry is cheap: the JDK shares the central directory of open zip files
+            ZipFile zipFile = new ZipFile(archivePath);
+            try {
+                ZipEntry entry = zipFile.getEntry(entryName);
+                if (entry == null) {
+                    throw new IOException("No such archive entry: " + path);
+                }
+                inputStream = new ZipEntryInputStream(zipFile, zipFile.getInputStream(entry));
+            } catch (IOException | RuntimeException e) {
+                zipFile.close();
+                throw e;
+            }
+        }
+        inputStream = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        if (path.toLowerCase().endsWith(".gz")) {
+            try {
+                inputStream = new BufferedInputStream(new GZIPInputStream(inputStream, BUFFER_SIZE), BUFFER_SIZE);
+            } catch (IOException | RuntimeException e) {
+                inputStream.close();
+                throw e;
+            }
+        }
+        return inputStream;
+    }
+
+    /**
+     * Represents a zip entry stream that closes its zip file when closed.
+     */
+    private static class ZipEntryInputStream extends FilterInputStream {
+        private final ZipFile zipFile; // The archive holding the entry
+
+        /**
+         * Constructor for ZipEntryInputStream.
+         *
+         * @param zipFile    The archive holding the entry.
+         * @param entryStream The stream of the entry.
+         */
+        ZipEntryInputStream(ZipFile zipFile, InputStream entryStream) {
+            super(entryStream);
+            this.zipFile = zipFile;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                zipFile.close();
+            }
+        }
+    }
+
+    /**
+     * Represents a view of an archive stream that leaves the archive open when closed, so the next entry can be read.
+     */
+    private static class NonClosingInputStream extends FilterInputStream {
+        /**
+         * Constructor for NonClosingInputStream.
+         *
+         * @param archiveStream The archive stream positioned on an entry.
+         */
+        NonClosingInputStream(InputStream archiveStream) {
+            super(archiveStream);
+        }
+
+        @Override
+        public void close() {
+            // The archive stream is closed by its owner
+        }
+    }
+}
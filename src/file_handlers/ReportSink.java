@@ -0,0 +1,80 @@
+package file_handlers;
+
+import data_types.HistoryReport;
+import data_types.ReportBreakdown;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Represents one output of a report generation run (e.g., the workbook or a CSV file).
+ * Several sinks are fed from the same pass over the test cases: every sink is begun with the tallies,
+ * which are complete once the files are parsed, then gets every test case row in order, and is finished last.
+ * A sink that fails or is cancelled is discarded, so it never leaves a partial file behind.
+ * <p>
+ * A sink whose layout depends on all the rows at once may read them from the store in finish instead: it says so
+ * through streamsTestCases and is then never given rows. The workbook does, since the row count decides its sheets
+ * and part workbooks, and the parts are written in parallel; the store keeps the rows compact, so reading them
+ * again costs no second parse.
+ */
+public interface ReportSink {
+    /**
+     * Starts the output and writes everything that precedes the test case rows.
+     *
+     * @param testCaseStore   The test cases, in the order their rows appear.
+     * @param verdictCounts   The verdict tally of all test cases.
+     * @param reportBreakdown The statistics per file and per group.
+     * @param historyReport   The regressed and flaky tests, or null if no history is recorded.
+     * @throws IOException If the output cannot be written.
+     */
+    void begin(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+               HistoryReport historyReport) throws IOException;
+
+    /**
+     * Checks whether the sink is given the test case rows one by one through writeTestCase.
+     *
+     * @return True if the sink streams the rows, false if it reads them from the store when finished.
+     */
+    default boolean streamsTestCases() {
+        return true;
+    }
+
+    /**
+     * Writes one test case row. Rows are written in store order, after begin, to sinks that stream them.
+     *
+     * @param tcIndex The index of the test case in the store.
+     * @throws IOException If the output cannot be written.
+     */
+    void writeTestCase(int tcIndex) throws IOException;
+
+    /**
+     * Writes everything that follows the test case rows and closes the output.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Closes the output without finishing it and deletes the partially written file.
+     */
+    void discard();
+
+    /**
+     * Gets the file the sink writes.
+     *
+     * @return The output file.
+     */
+    File getOutputFile();
+
+    /**
+     * Gets every file the sink writes, such as a workbook split into several files.
+     *
+     * @return The output files, the one of getOutputFile first.
+     */
+    default List<File> getOutputFiles() {
+        return List.of(getOutputFile());
+    }
+}
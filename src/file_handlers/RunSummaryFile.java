@@ -0,0 +1,131 @@
+package file_handlers;
+
+import data_types.CacheStatistics;
+import data_types.FileMetrics;
+import data_types.IngestionStatistics;
+import data_types.ReportStage;
+import data_types.RunSummary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Represents the machine-readable summary of a run, a JSON object written next to the outputs. The run figures
+ * come first, then one line per input file with its time, allocations and error, so the file can be read by
+ * tools as well as by people.
+ */
+public class RunSummaryFile {
+    public static final String FILE_EXTENSION = ".run.json";
+
+    /**
+     * Constructor for RunSummaryFile, not used: the class only has static methods.
+     */
+    private RunSummaryFile() {
+    }
+
+    /**
+     * Writes the summary of a run to the output folder as the report name with the ".run.json" extension.
+     * The file is written next to its final path and moved into place, so readers never see a partial summary.
+     *
+     * @param runSummary The measurements of the run.
+     * @param path       The folder path of the summary file, ending with a separator.
+     * @return The written file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static File write(RunSummary runSummary, String path) throws IOException {
+        Path summaryPath = Paths.get(path + runSummary.getReportName() + FILE_EXTENSION);
+        Path temporaryPath = summaryPath.resolveSibling("." + summaryPath.getFileName() + ".partial");
+        try {
+            Files.writeString(temporaryPath, toJson(runSummary), StandardCharsets.UTF_8);
+            Files.move(temporaryPath, summaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+        return summaryPath.toFile();
+    }
+
+    /**
+     * Converts the summary of a run to a JSON object. Durations are in milliseconds, sizes in bytes, and
+     * allocations are -1 when the JVM does not measure them.
+     *
+     * @param runSummary The measurements of the run.
+     * @return The JSON object, one member per line.
+     */
+    public static String toJson(RunSummary runSummary) {
+        IngestionStatistics ingestionStatistics = runSummary.getIngestionStatistics();
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("\"reportName\":").append(JsonText.toJson(runSummary.getReportName())).append(",\n");
+        json.append("\"startTime\":").append(JsonText.toJson(Instant.ofEpochMilli(runSummary.getStartMillis()).toString())).append(",\n");
+        json.append("\"elapsedMillis\":").append(toMillis(runSummary.getElapsedNanos())).append(",\n");
+        json.append("\"stagesMillis\":{");
+        String separator = "";
+        for (Map.Entry<ReportStage, Long> stageNanos : runSummary.getStagesNanos().entrySet()) {
+            json.append(separator).append(JsonText.toJson(stageNanos.getKey().name().toLowerCase(Locale.ROOT)))
+                    .append(':').append(toMillis(stageNanos.getValue()));
+            separator = ",";
+        }
+        json.append("},\n");
+        json.append("\"bytesRead\":").append(runSummary.getInputBytes()).append(",\n");
+        json.append("\"bytesWritten\":").append(runSummary.getOutputBytes()).append(",\n");
+        json.append("\"rows\":").append(runSummary.getRowsCount()).append(",\n");
+        json.append("\"files\":").append(ingestionStatistics.getFilesCount()).append(",\n");
+        json.append("\"failedFiles\":").append(ingestionStatistics.getFailedFilePaths().size()).append(",\n");
+        json.append("\"filesFromCache\":").append(ingestionStatistics.getFilesFromCacheCount()).append(",\n");
+        json.append("\"testCases\":").append(ingestionStatistics.getTestCasesCount()).append(",\n");
+        json.append("\"parallelism\":").append(ingestionStatistics.getParallelism()).append(",\n");
+        json.append("\"allocatedBytes\":").append(runSummary.getAllocatedBytes()).append(",\n");
+        json.append("\"counts\":").append(JsonText.toJson(runSummary.getVerdictCounts())).append(",\n");
+        CacheStatistics cacheStatistics = runSummary.getCacheStatistics();
+        json.append("\"cache\":").append(cacheStatistics == null ? "null" : "{\"hits\":" + cacheStatistics.getHits()
+                + ",\"misses\":" + cacheStatistics.getMisses() + ",\"stores\":" + cacheStatistics.getStores()
+                + ",\"evictions\":" + cacheStatistics.getEvictions() + ",\"entries\":" + cacheStatistics.getEntriesCount()
+                + ",\"bytes\":" + cacheStatistics.getCacheBytes() + "}").append(",\n");
+        json.append("\"outputs\":");
+        appendStrings(json, runSummary.getOutputFilePaths());
+        json.append(",\n\"fileMetrics\":[");
+        separator = "\n";
+        for (FileMetrics fileMetrics : ingestionStatistics.getFilesMetrics()) {
+            json.append(separator).append("{\"path\":").append(JsonText.toJson(fileMetrics.getFilePath()))
+                    .append(",\"testCases\":").append(fileMetrics.getTestCasesCount())
+                    .append(",\"elapsedMillis\":").append(toMillis(fileMetrics.getElapsedNanos()))
+                    .append(",\"allocatedBytes\":").append(fileMetrics.getAllocatedBytes())
+                    .append(",\"fromCache\":").append(fileMetrics.isFromCache())
+                    .append(",\"error\":").append(JsonText.toJson(fileMetrics.getErrorMessage())).append('}');
+            separator = ",\n";
+        }
+        return json.append("\n]\n}\n").toString();
+    }
+
+    /**
+     * Appends a JSON array of strings.
+     *
+     * @param json    The JSON being built.
+     * @param strings The strings.
+     */
+    private static void appendStrings(StringBuilder json, List<String> strings) {
+        json.append('[');
+        for (int stringIndex = 0; stringIndex < strings.size(); stringIndex++) {
+            json.append(stringIndex > 0 ? "," : "").append(JsonText.toJson(strings.get(stringIndex)));
+        }
+        json.append(']');
+    }
+
+    /**
+     * Converts nanoseconds to a JSON number of milliseconds with microsecond precision.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @return The milliseconds.
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
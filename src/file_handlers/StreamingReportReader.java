@@ -0,0 +1,132 @@
+package file_handlers;
+
+import data_types.TestCase;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents the base of the StAX readers of the foreign report formats: it recognizes the format by its root
+ * elements, parses the stream and converts the times and durations of the format to the "yyyy-MM-dd HH:mm:ss"
+ * times of the native reports. Times are kept as the local time written in the report; zones are dropped.
+ */
+abstract class StreamingReportReader implements TestReportReader {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
+
+    private final String formatName;            // The name of the format
+    private final Set<String> rootElementNames; // The root elements identifying the format
+
+    /**
+     * Constructor for StreamingReportReader.
+     *
+     * @param formatName       The name of the format.
+     * @param rootElementNames The root elements identifying the format.
+     */
+    StreamingReportReader(String formatName, String... rootElementNames) {
+        this.formatName = formatName;
+        this.rootElementNames = Set.of(rootElementNames);
+    }
+
+    @Override
+    public String getFormatName() {
+        return formatName;
+    }
+
+    @Override
+    public boolean canRead(String rootElementName, String header) {
+        return rootElementNames.contains(rootElementName);
+    }
+
+    @Override
+    public void forEachTestCase(InputStream inputStream, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        XMLStreamReader reader = XMLStreamFile.INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            read(reader, testCaseConsumer);
+        } finally {
+            // Does not close the input stream
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the test cases from the stream, passing each one to the consumer as soon as it is complete.
+     *
+     * @param reader           The reader positioned at the start of the document.
+     * @param testCaseConsumer The consumer receiving each extracted TestCase.
+     * @throws XMLStreamException If the file is not well-formed.
+     */
+    abstract void read(XMLStreamReader reader, Consumer<TestCase> testCaseConsumer) throws XMLStreamException;
+
+    /**
+     * Reads an attribute of the current element.
+     *
+     * @param reader        The reader positioned on a start element.
+     * @param attributeName The local name of the attribute.
+     * @return The attribute value, or an empty string if absent.
+     */
+    static String getAttributeValue(XMLStreamReader reader, String attributeName) {
+        String value = reader.getAttributeValue(null, attributeName);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Parses a date and time such as "2023-09-17T11:03:16", "2023-09-17 11:03:16.123Z" or "2023-09-17T11:03:16 CEST".
+     * Only the local date and time are kept.
+     *
+     * @param time The date and time as written in the report.
+     * @return The parsed time, or null if the value is not a date and time.
+     */
+    static LocalDateTime parseTime(String time) {
+        if (time == null || time.length() < 19) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(time.substring(0, 10) + "T" + time.substring(11, 19));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Formats a time like the native reports.
+     *
+     * @param time The time, or null.
+     * @return The formatted time, or an empty string if the time is null.
+     */
+    static String formatTime(LocalDateTime time) {
+        return time != null ? TIME_FORMATTER.format(time) : "";
+    }
+
+    /**
+     * Adds a duration in seconds, as written in the report, to a time.
+     *
+     * @param time    The time, or null.
+     * @param seconds The duration in (fractional) seconds, e.g. "0.153", "0,153" or "1,234.5"; ignored if empty or invalid.
+     * @return The later time, or null if the time is null.
+     */
+    static LocalDateTime plusSeconds(LocalDateTime time, String seconds) {
+        if (time == null || seconds.isEmpty()) {
+            return time;
+        }
+        String decimalSeconds;
+        if (seconds.indexOf('.') >= 0 || seconds.indexOf(',') != seconds.lastIndexOf(',')) {
+            // "1,234.5" or "1,234,567": the commas separate thousands
+            decimalSeconds = seconds.replace(",", "");
+        } else {
+            // "0,153": a lone comma is a decimal comma, as some writers emit in their locale
+            decimalSeconds = seconds.replace(',', '.');
+        }
+        try {
+            return time.plusNanos(new BigDecimal(decimalSeconds).movePointRight(9).longValue());
+        } catch (NumberFormatException e) {
+            return time;
+        }
+    }
+}
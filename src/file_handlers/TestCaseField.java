@@ -0,0 +1,125 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the mapping of the test case fields to the XML of a testcase element, shared by the streaming and
+ * the DOM readers. A field is read from the testcase element itself or from one of its direct children, never
+ * from deeper elements: test steps and patterns nested in a test case carry their own title and verdict elements.
+ * Each test case is visited once, each child looked up by name; when a child occurs twice, the first one wins.
+ * The parent fixture title is not a field: it is the title of the TestGroup the reader assigns.
+ */
+enum TestCaseField {
+    TITLE("title", null),
+    TEST_CASE_ID("testcaseid", null),
+    TIME("verdict", "time"),
+    END_TIME("verdict", "endtime"),
+    RESULT("verdict", "result"),
+    TC_NUMBER(null, "tcnumber");
+
+    static final String TEST_CASE_ELEMENT_NAME = "testcase"; // The element holding one test case
+    static final int FIELDS_COUNT = values().length;
+    // The fields read from each direct child element of a testcase, by element name
+    private static final Map<String, List<TestCaseField>> CHILD_ELEMENT_FIELDS = createChildElementFields();
+    // The fields read from the attributes of the testcase element itself
+    private static final List<TestCaseField> TEST_CASE_ATTRIBUTE_FIELDS = List.of(TC_NUMBER);
+
+    private final String elementName;   // The direct child element holding the field, null for the testcase element
+    private final String attributeName; // The attribute holding the field, null for the element text
+
+    /**
+     * Constructor for TestCaseField.
+     *
+     * @param elementName   The direct child element holding the field, null for the testcase element itself.
+     * @param attributeName The attribute holding the field, null for the element text.
+     */
+    TestCaseField(String elementName, String attributeName) {
+        this.elementName = elementName;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Gets the attribute holding the field.
+     *
+     * @return The attribute name, or null if the field is the text of its element.
+     */
+    String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Gets the fields read from a direct child element of a testcase.
+     *
+     * @param childElementName The local name of the child element.
+     * @return The fields of the child, or null if the child holds none.
+     */
+    static List<TestCaseField> getChildElementFields(String childElementName) {
+        return CHILD_ELEMENT_FIELDS.get(childElementName);
+    }
+
+    /**
+     * Gets the names of the direct child elements of a testcase that hold fields.
+     *
+     * @return The child element names.
+     */
+    static Set<String> getChildElementNames() {
+        return CHILD_ELEMENT_FIELDS.keySet();
+    }
+
+    /**
+     * Gets the fields read from the attributes of the testcase element itself.
+     *
+     * @return The attribute fields.
+     */
+    static List<TestCaseField> getTestCaseAttributeFields() {
+        return TEST_CASE_ATTRIBUTE_FIELDS;
+    }
+
+    /**
+     * Creates a test case from the extracted field values. Missing attributes and a missing title become
+     * empty strings (the value Element.getAttribute returns), a missing test case ID stays null.
+     *
+     * @param fieldValues The values indexed by field ordinal, null for fields not found.
+     * @param group       The group containing the test case, or null.
+     * @return The new TestCase.
+     */
+    static TestCase createTestCase(String[] fieldValues, TestGroup group) {
+        String testCaseId = fieldValues[TEST_CASE_ID.ordinal()];
+        return new TestCase(getValue(fieldValues, TITLE), getValue(fieldValues, TIME), getValue(fieldValues, END_TIME),
+                getValue(fieldValues, RESULT), group, testCaseId != null ? testCaseId.trim() : null, getValue(fieldValues, TC_NUMBER));
+    }
+
+    /**
+     * Gets an extracted value, or an empty string if the field was not found.
+     *
+     * @param fieldValues The values indexed by field ordinal.
+     * @param field       The field.
+     * @return The value.
+     */
+    private static String getValue(String[] fieldValues, TestCaseField field) {
+        String value = fieldValues[field.ordinal()];
+        return value != null ? value : "";
+    }
+
+    /**
+     * Groups the child element fields by element name.
+     *
+     * @return The fields of each child element name.
+     */
+    private static Map<String, List<TestCaseField>> createChildElementFields() {
+        Map<String, List<TestCaseField>> childElementFields = new HashMap<>();
+        for (TestCaseField field : values()) {
+            if (field.elementName != null) {
+                childElementFields.computeIfAbsent(field.elementName, name -> new ArrayList<>()).add(field);
+            }
+        }
+        return childElementFields;
+    }
+}
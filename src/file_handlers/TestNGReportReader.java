@@ -0,0 +1,72 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+import data_types.Verdict;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents the reader of TestNG reports (testng-results.xml). Suites, tests and classes are nested groups,
+ * each test-method element is a test case; configuration methods (before/after hooks) are skipped.
+ * PASS, FAIL and SKIP map to pass, fail and none. The test case ID is "class.method".
+ */
+public class TestNGReportReader extends StreamingReportReader {
+    private static final Set<String> GROUP_ELEMENT_NAMES = Set.of("suite", "test", "class");
+
+    /**
+     * Constructor for TestNGReportReader.
+     */
+    public TestNGReportReader() {
+        super("testng", "testng-results");
+    }
+
+    @Override
+    void read(XMLStreamReader reader, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        ArrayDeque<TestGroup> groups = new ArrayDeque<>(); // Open suites, tests and classes, innermost first
+        int testCaseNumber = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String elementName = reader.getLocalName();
+                if (GROUP_ELEMENT_NAMES.contains(elementName)) {
+                    groups.push(new TestGroup(groups.peek(), getAttributeValue(reader, "name")));
+                } else if (elementName.equals("test-method") && !getAttributeValue(reader, "is-config").equals("true")) {
+                    String title = getAttributeValue(reader, "name");
+                    TestGroup classGroup = groups.peek();
+                    String testCaseId = classGroup != null && !classGroup.getTitle().isEmpty() ? classGroup.getTitle() + "." + title : title;
+                    testCaseConsumer.accept(new TestCase(title, formatTime(parseTime(getAttributeValue(reader, "started-at"))),
+                            formatTime(parseTime(getAttributeValue(reader, "finished-at"))), getResult(getAttributeValue(reader, "status")),
+                            classGroup, testCaseId, String.valueOf(++testCaseNumber)));
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && GROUP_ELEMENT_NAMES.contains(reader.getLocalName())) {
+                groups.pop();
+            }
+        }
+    }
+
+    /**
+     * Maps a TestNG status to a verdict result.
+     *
+     * @param status The status attribute, e.g. "PASS".
+     * @return The result value of the matching verdict, or the lower-case status if there is none.
+     */
+    private static String getResult(String status) {
+        switch (status) {
+            case "PASS":
+                return Verdict.PASS.getResult();
+            case "FAIL":
+                return Verdict.FAIL.getResult();
+            case "SKIP":
+                return Verdict.NONE.getResult();
+            default:
+                return status.toLowerCase();
+        }
+    }
+}
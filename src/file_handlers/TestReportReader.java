@@ -0,0 +1,80 @@
+package file_handlers;
+
+import data_types.TestCase;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Represents a reader of one test report format, streaming the test cases of a file.
+ * The readers shipped with the tool are listed in {@link TestReportReaders}; further formats are added by
+ * implementing this interface and registering the class in
+ * {@code META-INF/services/file_handlers.TestReportReader} of a jar on the class path.
+ */
+public interface TestReportReader {
+    /**
+     * Gets the name of the format, as shown in messages and accepted by --format.
+     *
+     * @return The format name, e.g. "junit".
+     */
+    String getFormatName();
+
+    /**
+     * Tells whether a file is in the format of this reader, judging from its beginning only.
+     *
+     * @param rootElementName The local name of the root element, or null if it is not within the header.
+     * @param header          The first bytes of the file decoded as text; may end in the middle of an element.
+     * @return True if this reader can read the file.
+     */
+    boolean canRead(String rootElementName, String header);
+
+    /**
+     * Streams a report and passes every test case to the given consumer as soon as it is read.
+     *
+     * @param inputStream      The content of the report, left open.
+     * @param testCaseConsumer The consumer receiving each extracted TestCase.
+     * @throws Exception If the report cannot be read or is not a valid report of this format.
+     */
+    void forEachTestCase(InputStream inputStream, Consumer<TestCase> testCaseConsumer) throws Exception;
+
+    /**
+     * Streams a report file, which may be compressed or an archive entry (see {@link ReportInputs#open}),
+     * and passes every test case to the given consumer as soon as it is read.
+     *
+     * @param path             The path of the report file.
+     * @param testCaseConsumer The consumer receiving each extracted TestCase.
+     * @throws Exception If the file cannot be read or is not a valid report of this format.
+     */
+    default void forEachTestCase(String path, Consumer<TestCase> testCaseConsumer) throws Exception {
+        try (InputStream inputStream = ReportInputs.open(path)) {
+            forEachTestCase(inputStream, testCaseConsumer);
+        }
+    }
+
+    /**
+     * Retrieves all test cases of a report.
+     *
+     * @param inputStream The content of the report, left open.
+     * @return An ArrayList of TestCase objects containing extracted test case data.
+     * @throws Exception If the report cannot be read or is not a valid report of this format.
+     */
+    default ArrayList<TestCase> getTestCases(InputStream inputStream) throws Exception {
+        ArrayList<TestCase> tcList = new ArrayList<>();
+        forEachTestCase(inputStream, tcList::add);
+        return tcList;
+    }
+
+    /**
+     * Retrieves all test cases of a report file.
+     *
+     * @param path The path of the report file.
+     * @return An ArrayList of TestCase objects containing extracted test case data.
+     * @throws Exception If the file cannot be read or is not a valid report of this format.
+     */
+    default ArrayList<TestCase> getTestCases(String path) throws Exception {
+        ArrayList<TestCase> tcList = new ArrayList<>();
+        forEachTestCase(path, tcList::add);
+        return tcList;
+    }
+}
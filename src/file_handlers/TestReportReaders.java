@@ -0,0 +1,150 @@
+package file_handlers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Represents the registry of the test report readers and detects the format of report files.
+ * The format is detected from the root element and the beginning of each file, so a folder may mix formats.
+ * Readers registered through {@link ServiceLoader} are asked before the built-in ones, so they can take over a format.
+ */
+public final class TestReportReaders {
+    public static final int HEADER_BYTES = 8 * 1024; // The beginning of a file looked at by the format detection
+    private static final List<TestReportReader> READERS = loadReaders(); // Plug-in readers first, then the built-in ones
+
+    private TestReportReaders() {
+    }
+
+    /**
+     * Gets the available readers in the order they are asked.
+     *
+     * @return The unmodifiable list of readers.
+     */
+    public static List<TestReportReader> getReaders() {
+        return READERS;
+    }
+
+    /**
+     * Gets the reader of a format by name, ignoring case.
+     *
+     * @param formatName The name of the format, e.g. "junit".
+     * @return The matching TestReportReader.
+     * @throws IllegalArgumentException If no reader has that format name.
+     */
+    public static TestReportReader getReader(String formatName) {
+        List<String> formatNames = new ArrayList<>();
+        for (TestReportReader reader : READERS) {
+            if (reader.getFormatName().equalsIgnoreCase(formatName)) {
+                return reader;
+            }
+            formatNames.add(reader.getFormatName());
+        }
+        throw new IllegalArgumentException("Unknown report format: " + formatName + " (expected one of " + String.join(", ", formatNames) + ")");
+    }
+
+    /**
+     * Detects the format of a report file from its beginning.
+     *
+     * @param path The path of the report file, which may be compressed or a zip archive entry.
+     * @return The first TestReportReader that can read the file.
+     * @throws IOException If the file cannot be read or is in none of the known formats.
+     */
+    public static TestReportReader detect(String path) throws IOException {
+        try (InputStream inputStream = ReportInputs.open(path)) {
+            return detect(inputStream, path);
+        }
+    }
+
+    /**
+     * Detects the format of a report from its beginning, then rewinds the stream so the report can be read from it.
+     *
+     * @param inputStream The content of the report, supporting mark/reset like the streams of {@link ReportInputs}.
+     * @param path        The path of the report, used in messages.
+     * @return The first TestReportReader that can read the report.
+     * @throws IOException If the report cannot be read or is in none of the known formats.
+     */
+    public static TestReportReader detect(InputStream inputStream, String path) throws IOException {
+        inputStream.mark(HEADER_BYTES);
+        String header = decodeHeader(inputStream.readNBytes(HEADER_BYTES));
+        inputStream.reset();
+        String rootElementName = getRootElementName(header);
+        for (TestReportReader reader : READERS) {
+            if (reader.canRead(rootElementName, header)) {
+                return reader;
+            }
+        }
+        throw new IOException("Unknown test report format" + (rootElementName != null ? " (root element <" + rootElementName + ">)" : "") + ": " + path);
+    }
+
+    /**
+     * Decodes the beginning of a file, in UTF-16 if it starts with a UTF-16 byte order mark and
+     * in UTF-8 otherwise. The UTF-8 byte order mark is dropped.
+     *
+     * @param header The first bytes of the file.
+     * @return The decoded header.
+     */
+    static String decodeHeader(byte[] header) {
+        Charset charset = StandardCharsets.UTF_8;
+        int offset = 0;
+        if (header.length >= 2 && ((header[0] == (byte) 0xFE && header[1] == (byte) 0xFF) || (header[0] == (byte) 0xFF && header[1] == (byte) 0xFE))) {
+            charset = StandardCharsets.UTF_16;
+        } else if (header.length >= 3 && header[0] == (byte) 0xEF && header[1] == (byte) 0xBB && header[2] == (byte) 0xBF) {
+            offset = 3;
+        }
+        return new String(header, offset, header.length - offset, charset);
+    }
+
+    /**
+     * Finds the local name of the root element, skipping the XML declaration, processing instructions,
+     * comments and the document type declaration.
+     *
+     * @param header The beginning of the file.
+     * @return The local name of the root element, or null if the header holds no start tag.
+     */
+    static String getRootElementName(String header) {
+        int index = header.indexOf('<');
+        while (index >= 0 && index + 1 < header.length()) {
+            char next = header.charAt(index + 1);
+            if (header.startsWith("<!--", index)) {
+                int commentEnd = header.indexOf("-->", index + 4);
+                index = commentEnd < 0 ? -1 : header.indexOf('<', commentEnd + 3);
+            } else if (next == '?' || next == '!') {
+                int declarationEnd = header.indexOf('>', index);
+                index = declarationEnd < 0 ? -1 : header.indexOf('<', declarationEnd + 1);
+            } else {
+                int nameEnd = index + 1;
+                while (nameEnd < header.length() && !Character.isWhitespace(header.charAt(nameEnd))
+                        && header.charAt(nameEnd) != '>' && header.charAt(nameEnd) != '/') {
+                    nameEnd++;
+                }
+                String name = header.substring(index + 1, nameEnd);
+                // Drop the namespace prefix
+                return name.substring(name.indexOf(':') + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the plug-in readers, followed by the built-in ones.
+     *
+     * @return The unmodifiable list of readers.
+     */
+    private static List<TestReportReader> loadReaders() {
+        List<TestReportReader> readers = new ArrayList<>();
+        for (TestReportReader reader : ServiceLoader.load(TestReportReader.class)) {
+            readers.add(reader);
+        }
+        readers.add(new VectorReportReader());
+        readers.add(new JUnitReportReader());
+        readers.add(new TestNGReportReader());
+        readers.add(new NUnitReportReader());
+        return Collections.unmodifiableList(readers);
+    }
+}
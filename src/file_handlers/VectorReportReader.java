@@ -0,0 +1,32 @@
+package file_handlers;
+
+import data_types.TestCase;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents the reader of the native test report format (vTESTstudio/CANoe "testreport" and "testmodule"
+ * reports), streamed by {@link XMLStreamFile}.
+ */
+public class VectorReportReader implements TestReportReader {
+    public static final String FORMAT_NAME = "vector"; // The name of the native format
+    private static final Set<String> ROOT_ELEMENT_NAMES = Set.of("testreport", "testmodule");
+
+    @Override
+    public String getFormatName() {
+        return FORMAT_NAME;
+    }
+
+    @Override
+    public boolean canRead(String rootElementName, String header) {
+        return ROOT_ELEMENT_NAMES.contains(rootElementName);
+    }
+
+    @Override
+    public void forEachTestCase(InputStream inputStream, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        XMLStreamFile.streamTestCases(inputStream, testCaseConsumer);
+    }
+}
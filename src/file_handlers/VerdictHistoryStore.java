@@ -0,0 +1,653 @@
+package file_handlers;
+
+import data_types.FlakyTest;
+import data_types.HistoryRun;
+import data_types.HistoryVerdict;
+import data_types.RegressedTest;
+import data_types.TestCaseStore;
+import data_types.Verdict;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Represents an embedded, append-only history of test case verdicts keyed by test case ID, recorded one report
+ * generation run at a time. The history folder holds three files:
+ * <ul>
+ *     <li>runs.bin: one fixed-size record per run (start time, first verdict, verdicts count, tests count).</li>
+ *     <li>tests.bin: the test dictionary, the ID and first seen title of every test case in first-seen order.</li>
+ *     <li>verdicts.bin: one int per test case and run (test index and verdict), each run sorted by test index.</li>
+ * </ul>
+ * The run records are kept in memory and serve as the time index; the sorted verdicts of a run are the test index,
+ * searched by binary search in the memory-mapped file. A run only becomes visible once its record is written, after
+ * its verdicts and new tests, so an interrupted append is rolled back the next time the history is opened.
+ * Appends lock the history folder, so several generators can share it.
+ */
+public class VerdictHistoryStore implements Closeable {
+    public static final String DEFAULT_HISTORY_FOLDER = Paths.get(System.getProperty("user.home"),
+            ".test_summary_report_generator", "history").toString(); // Shared by the GUI and CLI runs
+
+    private static final int RUNS_MAGIC = 0x54435648;   // "TCVH", marks a verdict history
+    private static final int FORMAT_VERSION = 1;        // Bumped whenever the file layout changes
+    private static final int RUNS_HEADER_BYTES = 4 + 4; // Magic and format version
+    private static final int RUN_RECORD_BYTES = 8 + 8 + 4 + 4;
+    private static final int VERDICT_BITS = 3;          // Low bits of a verdict record holding the verdict ordinal
+    private static final int VERDICT_MASK = (1 << VERDICT_BITS) - 1;
+    private static final int SEGMENT_VERDICTS = 1 << 26; // Default verdict records per mapped segment of verdicts.bin (256 MiB)
+    private static final Verdict[] VERDICTS = Verdict.values();
+
+    private final Path historyFolder;          // The folder holding the history files
+    private final int segmentVerdicts;         // Verdict records per mapped segment of verdicts.bin
+    private final FileChannel runsChannel;     // runs.bin, also locked while appending
+    private final FileChannel testsChannel;    // tests.bin
+    private final FileChannel verdictsChannel; // verdicts.bin
+
+    private final ArrayList<HistoryRun> runs = new ArrayList<>(); // Every committed run, in append order
+    private long[] runFirstVerdicts = new long[64];               // Index of the first verdict record of each run
+    private final ArrayList<String> testCaseIds = new ArrayList<>(); // Test case ID per test index
+    private final ArrayList<String> titles = new ArrayList<>();      // First seen title per test index
+    private final HashMap<String, Integer> testIndexes = new HashMap<>(); // Test case ID to test index
+    private long testsBytes; // Bytes of tests.bin loaded into the dictionary
+    private IntBuffer[] verdictSegments = new IntBuffer[0]; // Mapped segments of verdicts.bin, mapped on first use
+
+    /**
+     * Constructor for VerdictHistoryStore using the default folder.
+     *
+     * @throws IOException If the history cannot be created or read.
+     */
+    public VerdictHistoryStore() throws IOException {
+        this(DEFAULT_HISTORY_FOLDER);
+    }
+
+    /**
+     * Constructor for VerdictHistoryStore. Opens the history of the folder, creating it if needed.
+     *
+     * @param historyFolderPath The folder holding the history files.
+     * @throws IOException If the history cannot be created or read.
+     */
+    public VerdictHistoryStore(String historyFolderPath) throws IOException {
+        this(historyFolderPath, SEGMENT_VERDICTS);
+    }
+
+    /**
+     * Constructor for VerdictHistoryStore with a given segment size, so runs across segment boundaries can be
+     * tested on small histories.
+     *
+     * @param historyFolderPath The folder holding the history files.
+     * @param segmentVerdicts   The verdict records per mapped segment of verdicts.bin.
+     * @throws IOException If the history cannot be created or read.
+     */
+    VerdictHistoryStore(String historyFolderPath, int segmentVerdicts) throws IOException {
+        this.segmentVerdicts = segmentVerdicts;
+        historyFolder = Files.createDirectories(Paths.get(historyFolderPath));
+        runsChannel = openChannel(historyFolder.resolve("runs.bin"));
+        testsChannel = openChannel(historyFolder.resolve("tests.bin"));
+        verdictsChannel = openChannel(historyFolder.resolve("verdicts.bin"));
+        try {
+            FileLock historyLock = runsChannel.lock();
+            try {
+                refresh();
+                // Nothing is mapped yet, so whatever an interrupted append left behind can be cut off
+                runsChannel.truncate(RUNS_HEADER_BYTES + (long) runs.size() * RUN_RECORD_BYTES);
+                testsChannel.truncate(testsBytes);
+                verdictsChannel.truncate(getVerdictsEnd() * Integer.BYTES);
+            } finally {
+                historyLock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records a run with the verdicts of every test case of the store that has a test case ID.
+     * The run starts at its earliest test case time, so reports imported later are filed at the time they ran.
+     * If a test case ID occurs more than once, the last occurrence counts.
+     *
+     * @param testCaseStore The test cases of the run.
+     * @return The recorded HistoryRun, or null if no test case has a test case ID.
+     * @throws IOException If the history cannot be written.
+     */
+    public synchronized HistoryRun appendRun(TestCaseStore testCaseStore) throws IOException {
+        FileLock historyLock = runsChannel.lock();
+        try {
+            // Pick up the runs other generators appended meanwhile
+            refresh();
+            int committedTestsCount = testCaseIds.size();
+            try {
+                return appendRun(testCaseStore, committedTestsCount);
+            } catch (IOException | RuntimeException e) {
+                // Forget the new tests, the files are rolled back at the next refresh
+                for (int testIndex = committedTestsCount; testIndex < testCaseIds.size(); testIndex++) {
+                    testIndexes.remove(testCaseIds.get(testIndex));
+                }
+                testCaseIds.subList(committedTestsCount, testCaseIds.size()).clear();
+                titles.subList(committedTestsCount, titles.size()).clear();
+                throw e;
+            }
+        } finally {
+            historyLock.release();
+        }
+    }
+
+    /**
+     * Gets every recorded run.
+     *
+     * @return The runs, oldest first.
+     */
+    public synchronized List<HistoryRun> getRuns() {
+        return new ArrayList<>(runs);
+    }
+
+    /**
+     * Gets the runs started within a time range.
+     *
+     * @param fromMillis The start of the range in epoch milliseconds, inclusive.
+     * @param toMillis   The end of the range in epoch milliseconds, exclusive.
+     * @return The runs of the range, in append order.
+     */
+    public synchronized List<HistoryRun> getRuns(long fromMillis, long toMillis) {
+        List<HistoryRun> rangeRuns = new ArrayList<>();
+        for (HistoryRun run : runs) {
+            if (run.getStartMillis() >= fromMillis && run.getStartMillis() < toMillis) {
+                rangeRuns.add(run);
+            }
+        }
+        return rangeRuns;
+    }
+
+    /**
+     * Gets the number of distinct test case IDs ever recorded.
+     *
+     * @return The tests count.
+     */
+    public synchronized int getTestsCount() {
+        return testCaseIds.size();
+    }
+
+    /**
+     * Gets the verdicts of a test case in the runs started within a time range.
+     *
+     * @param testCaseId The test case ID.
+     * @param fromMillis The start of the range in epoch milliseconds, inclusive.
+     * @param toMillis   The end of the range in epoch milliseconds, exclusive.
+     * @return The verdicts of the test case, in append order of the runs.
+     * @throws IOException If the history cannot be read.
+     */
+    public synchronized List<HistoryVerdict> getTestHistory(String testCaseId, long fromMillis, long toMillis) throws IOException {
+        List<HistoryVerdict> testHistory = new ArrayList<>();
+        Integer testIndex = testIndexes.get(testCaseId);
+        if (testIndex == null) {
+            return testHistory;
+        }
+        for (HistoryRun run : getRuns(fromMillis, toMillis)) {
+            IntBuffer runVerdicts = mapVerdicts(run);
+            int position = findTest(runVerdicts, testIndex);
+            if (position >= 0) {
+                testHistory.add(new HistoryVerdict(run, VERDICTS[runVerdicts.get(position) & VERDICT_MASK]));
+            }
+        }
+        return testHistory;
+    }
+
+    /**
+     * Finds the test cases failing in a run that passed the last time they ran before it.
+     * Earlier runs are searched newest first until every failing test case is found.
+     *
+     * @param run The run to check.
+     * @return The regressed tests, in order of their first recording.
+     * @throws IOException If the history cannot be read.
+     */
+    public synchronized List<RegressedTest> findRegressions(HistoryRun run) throws IOException {
+        IntBuffer runVerdicts = mapVerdicts(run);
+        int[] failingRecords = new int[runVerdicts.limit()];
+        int failingCount = 0;
+        for (int position = 0; position < runVerdicts.limit(); position++) {
+            if (isFailing(runVerdicts.get(position))) {
+                failingRecords[failingCount++] = runVerdicts.get(position);
+            }
+        }
+
+        // The latest earlier run of each failing test case, or null while not found yet
+        HistoryRun[] previousRuns = new HistoryRun[failingCount];
+        Verdict[] previousVerdicts = new Verdict[failingCount];
+        int unresolvedCount = failingCount;
+        for (int runIndex = run.getRunIndex() - 1; runIndex >= 0 && unresolvedCount > 0; runIndex--) {
+            IntBuffer earlierVerdicts = mapVerdicts(runs.get(runIndex));
+            for (int failingIndex = 0; failingIndex < failingCount; failingIndex++) {
+                if (previousRuns[failingIndex] == null) {
+                    int position = findTest(earlierVerdicts, failingRecords[failingIndex] >>> VERDICT_BITS);
+                    if (position >= 0) {
+                        previousRuns[failingIndex] = runs.get(runIndex);
+                        previousVerdicts[failingIndex] = VERDICTS[earlierVerdicts.get(position) & VERDICT_MASK];
+                        unresolvedCount--;
+                    }
+                }
+            }
+        }
+
+        List<RegressedTest> regressedTests = new ArrayList<>();
+        for (int failingIndex = 0; failingIndex < failingCount; failingIndex++) {
+            if (previousVerdicts[failingIndex] == Verdict.PASS) {
+                int testIndex = failingRecords[failingIndex] >>> VERDICT_BITS;
+                regressedTests.add(new RegressedTest(testCaseIds.get(testIndex), titles.get(testIndex), previousRuns[failingIndex],
+                        VERDICTS[failingRecords[failingIndex] & VERDICT_MASK]));
+            }
+        }
+        return regressedTests;
+    }
+
+    /**
+     * Finds the test cases that flipped most often between passing and failing over the latest runs.
+     * Runs in which a test case is inconclusive, has no verdict or does not run leave its streak unchanged.
+     *
+     * @param runsCount The number of latest runs to look at.
+     * @param maxTests  The maximum number of test cases returned.
+     * @return The flaky tests with at least one flip, most flips first, then most failures first.
+     * @throws IOException If the history cannot be read.
+     */
+    public synchronized List<FlakyTest> findFlakyTests(int runsCount, int maxTests) throws IOException {
+        int testsCount = testCaseIds.size();
+        int[] ranCounts = new int[testsCount];
+        int[] failureCounts = new int[testsCount];
+        int[] flipCounts = new int[testsCount];
+        byte[] lastStates = new byte[testsCount]; // 0 until the test passes or fails, then 1 for pass and 2 for failing
+        for (int runIndex = Math.max(0, runs.size() - runsCount); runIndex < runs.size(); runIndex++) {
+            IntBuffer runVerdicts = mapVerdicts(runs.get(runIndex));
+            for (int position = 0; position < runVerdicts.limit(); position++) {
+                int verdictRecord = runVerdicts.get(position);
+                int testIndex = verdictRecord >>> VERDICT_BITS;
+                ranCounts[testIndex]++;
+                byte state = 0;
+                if (isFailing(verdictRecord)) {
+                    failureCounts[testIndex]++;
+                    state = 2;
+                } else if ((verdictRecord & VERDICT_MASK) == Verdict.PASS.ordinal()) {
+                    state = 1;
+                }
+                if (state != 0) {
+                    if (lastStates[testIndex] != 0 && lastStates[testIndex] != state) {
+                        flipCounts[testIndex]++;
+                    }
+                    lastStates[testIndex] = state;
+                }
+            }
+        }
+
+        List<Integer> flakyTestIndexes = new ArrayList<>();
+        for (int testIndex = 0; testIndex < testsCount; testIndex++) {
+            if (flipCounts[testIndex] > 0) {
+                flakyTestIndexes.add(testIndex);
+            }
+        }
+        flakyTestIndexes.sort(Comparator.<Integer>comparingInt(testIndex -> -flipCounts[testIndex])
+                .thenComparingInt(testIndex -> -failureCounts[testIndex]));
+        List<FlakyTest> flakyTests = new ArrayList<>();
+        for (int testIndex : flakyTestIndexes.subList(0, Math.min(maxTests, flakyTestIndexes.size()))) {
+            flakyTests.add(new FlakyTest(testCaseIds.get(testIndex), titles.get(testIndex), ranCounts[testIndex],
+                    failureCounts[testIndex], flipCounts[testIndex]));
+        }
+        return flakyTests;
+    }
+
+    /**
+     * Closes the history files.
+     *
+     * @throws IOException If a file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : Arrays.asList(runsChannel, testsChannel, verdictsChannel)) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the new tests, the verdicts and finally the record of a run. Must be called with the history locked.
+     *
+     * @param testCaseStore       The test cases of the run.
+     * @param committedTestsCount The number of tests in the dictionary before the run.
+     * @return The recorded HistoryRun, or null if no test case has a test case ID.
+     * @throws IOException If the history cannot be written.
+     */
+    private HistoryRun appendRun(TestCaseStore testCaseStore, int committedTestsCount) throws IOException {
+        long startMillis = Long.MAX_VALUE;
+        int[] rowTestIndexes = new int[testCaseStore.size()];
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            String testCaseId = testCaseStore.getTestCaseId(tcIndex);
+            if (testCaseId == null || testCaseId.isEmpty()) {
+                rowTestIndexes[tcIndex] = -1;
+                continue;
+            }
+            Integer testIndex = testIndexes.get(testCaseId);
+            if (testIndex == null) {
+                testIndex = testCaseIds.size();
+                testCaseIds.add(testCaseId);
+                titles.add(testCaseStore.getTitle(tcIndex));
+                testIndexes.put(testCaseId, testIndex);
+            }
+            rowTestIndexes[tcIndex] = testIndex;
+            if (testCaseStore.getStartTimeMillis(tcIndex) != TestCaseStore.UNKNOWN_TIME) {
+                startMillis = Math.min(startMillis, testCaseStore.getStartTimeMillis(tcIndex));
+            }
+        }
+
+        // One verdict per test, the last occurrence wins; 0 marks a test absent from the run
+        byte[] verdictCodes = new byte[testCaseIds.size()];
+        int[] runTestIndexes = new int[testCaseStore.size()];
+        int verdictsCount = 0;
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            int testIndex = rowTestIndexes[tcIndex];
+            if (testIndex >= 0) {
+                if (verdictCodes[testIndex] == 0) {
+                    runTestIndexes[verdictsCount++] = testIndex;
+                }
+                verdictCodes[testIndex] = (byte) (testCaseStore.getVerdict(tcIndex).ordinal() + 1);
+            }
+        }
+        if (verdictsCount == 0) {
+            return null;
+        }
+        Arrays.sort(runTestIndexes, 0, verdictsCount);
+
+        ByteArrayOutputStream newTestsBytes = new ByteArrayOutputStream();
+        DataOutputStream newTestsOutput = new DataOutputStream(newTestsBytes);
+        for (int testIndex = committedTestsCount; testIndex < testCaseIds.size(); testIndex++) {
+            writeString(newTestsOutput, testCaseIds.get(testIndex));
+            writeString(newTestsOutput, titles.get(testIndex) != null ? titles.get(testIndex) : "");
+        }
+        writeFully(testsChannel, ByteBuffer.wrap(newTestsBytes.toByteArray()), testsBytes);
+
+        ByteBuffer verdictRecords = ByteBuffer.allocate(verdictsCount * Integer.BYTES);
+        for (int verdictIndex = 0; verdictIndex < verdictsCount; verdictIndex++) {
+            int testIndex = runTestIndexes[verdictIndex];
+            verdictRecords.putInt(testIndex << VERDICT_BITS | (verdictCodes[testIndex] - 1));
+        }
+        long firstVerdict = getVerdictsEnd();
+        writeFully(verdictsChannel, verdictRecords.flip(), firstVerdict * Integer.BYTES);
+        testsChannel.force(false);
+        verdictsChannel.force(false);
+
+        // Writing the run record commits the run
+        if (startMillis == Long.MAX_VALUE) {
+            startMillis = System.currentTimeMillis();
+        }
+        ByteBuffer runRecord = ByteBuffer.allocate(RUN_RECORD_BYTES)
+                .putLong(startMillis).putLong(firstVerdict).putInt(verdictsCount).putInt(testCaseIds.size());
+        writeFully(runsChannel, runRecord.flip(), RUNS_HEADER_BYTES + (long) runs.size() * RUN_RECORD_BYTES);
+        runsChannel.force(false);
+        testsBytes += newTestsBytes.size();
+        return addRun(startMillis, firstVerdict, verdictsCount);
+    }
+
+    /**
+     * Loads the runs and tests committed since the last refresh. Uncommitted bytes an interrupted append left
+     * behind are ignored, and overwritten by the next append. Must be called with the history locked.
+     *
+     * @throws IOException If the history cannot be read or is not a verdict history.
+     */
+    private void refresh() throws IOException {
+        long runsFileBytes = runsChannel.size();
+        if (runsFileBytes < RUNS_HEADER_BYTES) {
+            // A new history, or one interrupted before its header was written
+            runsChannel.truncate(0);
+            writeFully(runsChannel, ByteBuffer.allocate(RUNS_HEADER_BYTES).putInt(RUNS_MAGIC).putInt(FORMAT_VERSION).flip(), 0);
+            runsChannel.force(false);
+            runsFileBytes = RUNS_HEADER_BYTES;
+        } else if (runs.isEmpty()) {
+            ByteBuffer header = readFully(runsChannel, 0, RUNS_HEADER_BYTES);
+            if (header.getInt() != RUNS_MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a verdict history of this version: " + historyFolder);
+            }
+        }
+
+        int committedRunsCount = (int) ((runsFileBytes - RUNS_HEADER_BYTES) / RUN_RECORD_BYTES);
+        int committedTestsCount = testCaseIds.size();
+        if (committedRunsCount > runs.size()) {
+            ByteBuffer runRecords = readFully(runsChannel, RUNS_HEADER_BYTES + (long) runs.size() * RUN_RECORD_BYTES,
+                    (committedRunsCount - runs.size()) * RUN_RECORD_BYTES);
+            while (runRecords.hasRemaining()) {
+                long startMillis = runRecords.getLong(), firstVerdict = runRecords.getLong();
+                int verdictsCount = runRecords.getInt();
+                committedTestsCount = runRecords.getInt();
+                addRun(startMillis, firstVerdict, verdictsCount);
+            }
+        }
+        if (committedTestsCount > testCaseIds.size()) {
+            loadTests(committedTestsCount);
+        }
+    }
+
+    /**
+     * Reads the tests appended to the dictionary since the last refresh.
+     *
+     * @param committedTestsCount The number of tests the dictionary holds after the last committed run.
+     * @throws IOException If the dictionary is shorter than its committed runs say.
+     */
+    private void loadTests(int committedTestsCount) throws IOException {
+        ByteBuffer testEntries = testsChannel.map(FileChannel.MapMode.READ_ONLY, testsBytes, testsChannel.size() - testsBytes);
+        try {
+            while (testCaseIds.size() < committedTestsCount) {
+                String testCaseId = readString(testEntries);
+                titles.add(readString(testEntries));
+                testIndexes.put(testCaseId, testCaseIds.size());
+                testCaseIds.add(testCaseId);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Verdict history test dictionary is truncated", e);
+        }
+        testsBytes += testEntries.position();
+    }
+
+    /**
+     * Adds a committed run to the in-memory run table.
+     *
+     * @param startMillis   The start of the run in epoch milliseconds.
+     * @param firstVerdict  The index of the first verdict record of the run.
+     * @param verdictsCount The number of verdict records of the run.
+     * @return The added HistoryRun.
+     */
+    private HistoryRun addRun(long startMillis, long firstVerdict, int verdictsCount) {
+        HistoryRun run = new HistoryRun(runs.size(), startMillis, verdictsCount);
+        if (runs.size() == runFirstVerdicts.length) {
+            runFirstVerdicts = Arrays.copyOf(runFirstVerdicts, runFirstVerdicts.length * 2);
+        }
+        runFirstVerdicts[runs.size()] = firstVerdict;
+        runs.add(run);
+        return run;
+    }
+
+    /**
+     * Gets the index following the last committed verdict record.
+     *
+     * @return The number of committed verdict records.
+     */
+    private long getVerdictsEnd() {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        HistoryRun lastRun = runs.get(runs.size() - 1);
+        return runFirstVerdicts[lastRun.getRunIndex()] + lastRun.getVerdictsCount();
+    }
+
+    /**
+     * Gets the verdict records of a run as a view of the mapped verdicts file.
+     * Mappings are only released by the garbage collector, so the file is mapped in a few large segments
+     * that every query shares, instead of once per run and query.
+     *
+     * @param run The run.
+     * @return The verdict records of the run, sorted by test index.
+     * @throws IOException If the verdicts cannot be mapped.
+     */
+    private IntBuffer mapVerdicts(HistoryRun run) throws IOException {
+        if (run.getVerdictsCount() == 0) {
+            return IntBuffer.allocate(0);
+        }
+        long firstVerdict = runFirstVerdicts[run.getRunIndex()], endVerdict = firstVerdict + run.getVerdictsCount();
+        int firstSegmentIndex = (int) (firstVerdict / segmentVerdicts);
+        int lastSegmentIndex = (int) ((endVerdict - 1) / segmentVerdicts);
+        if (firstSegmentIndex == lastSegmentIndex) {
+            int segmentOffset = (int) (firstVerdict % segmentVerdicts);
+            return getVerdictSegment(firstSegmentIndex, endVerdict).duplicate()
+                    .position(segmentOffset).limit(segmentOffset + run.getVerdictsCount()).slice();
+        }
+        // A run across a segment boundary is copied
+        IntBuffer runVerdicts = IntBuffer.allocate(run.getVerdictsCount());
+        for (int segmentIndex = firstSegmentIndex; segmentIndex <= lastSegmentIndex; segmentIndex++) {
+            long segmentFirstVerdict = (long) segmentIndex * segmentVerdicts;
+            long segmentEndVerdict = Math.min(endVerdict, segmentFirstVerdict + segmentVerdicts);
+            IntBuffer segment = getVerdictSegment(segmentIndex, segmentEndVerdict).duplicate();
+            segment.position((int) (Math.max(firstVerdict, segmentFirstVerdict) - segmentFirstVerdict));
+            segment.limit((int) (segmentEndVerdict - segmentFirstVerdict));
+            runVerdicts.put(segment);
+        }
+        return runVerdicts.flip();
+    }
+
+    /**
+     * Gets a mapped segment of the verdicts file, mapping it again if it does not reach a verdict yet.
+     *
+     * @param segmentIndex The index of the segment.
+     * @param endVerdict   The index following the last verdict record that must be mapped.
+     * @return The verdict records of the segment.
+     * @throws IOException If the verdicts cannot be mapped.
+     */
+    private IntBuffer getVerdictSegment(int segmentIndex, long endVerdict) throws IOException {
+        if (segmentIndex >= verdictSegments.length) {
+            verdictSegments = Arrays.copyOf(verdictSegments, segmentIndex + 1);
+        }
+        long segmentFirstVerdict = (long) segmentIndex * segmentVerdicts;
+        IntBuffer segment = verdictSegments[segmentIndex];
+        if (segment == null || segmentFirstVerdict + segment.capacity() < endVerdict) {
+            // Only committed records are mapped, the last segment grows with the appended runs
+            long segmentEndVerdict = Math.min(segmentFirstVerdict + segmentVerdicts, getVerdictsEnd());
+            segment = verdictsChannel.map(FileChannel.MapMode.READ_ONLY, segmentFirstVerdict * Integer.BYTES,
+                    (segmentEndVerdict - segmentFirstVerdict) * Integer.BYTES).asIntBuffer();
+            verdictSegments[segmentIndex] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Finds the verdict record of a test in the records of a run by binary search.
+     *
+     * @param runVerdicts The verdict records of the run, sorted by test index.
+     * @param testIndex   The test index.
+     * @return The position of the record, or -1 if the test did not run.
+     */
+    private static int findTest(IntBuffer runVerdicts, int testIndex) {
+        int low = 0, high = runVerdicts.limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleTestIndex = runVerdicts.get(middle) >>> VERDICT_BITS;
+            if (middleTestIndex < testIndex) {
+                low = middle + 1;
+            } else if (middleTestIndex > testIndex) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tells whether a verdict record is a failure or an error.
+     *
+     * @param verdictRecord The verdict record.
+     * @return True if the test case failed.
+     */
+    private static boolean isFailing(int verdictRecord) {
+        int verdictOrdinal = verdictRecord & VERDICT_MASK;
+        return verdictOrdinal == Verdict.FAIL.ordinal() || verdictOrdinal == Verdict.ERROR.ordinal();
+    }
+
+    /**
+     * Opens a history file for reading and appending, creating it if needed.
+     *
+     * @param filePath The path of the file.
+     * @return The open FileChannel.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static FileChannel openChannel(Path filePath) throws IOException {
+        return FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes a whole buffer at a file position.
+     *
+     * @param channel  The file.
+     * @param buffer   The bytes to write.
+     * @param position The file position.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Reads a number of bytes at a file position.
+     *
+     * @param channel  The file.
+     * @param position The file position.
+     * @param length   The number of bytes to read.
+     * @return The bytes read, ready to be consumed.
+     * @throws IOException If the file is shorter or cannot be read.
+     */
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Verdict history file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes.
+     *
+     * @param output The dictionary output.
+     * @param string The string to write.
+     * @throws IOException If the string cannot be written.
+     */
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(stringBytes.length);
+        output.write(stringBytes);
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param input The mapped dictionary.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer input) {
+        byte[] stringBytes = new byte[input.getInt()];
+        input.get(stringBytes);
+        return new String(stringBytes, StandardCharsets.UTF_8);
+    }
+}
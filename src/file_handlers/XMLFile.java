@@ -0,0 +1,187 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a utility class for parsing and working with XML files.
+ */
+public class XMLFile {
+    private final String path; // The path to the parsed XML file
+    private Document parsedXMLSourceFile; // The parsed XML document
+
+    /**
+     * Constructor for XMLFile.
+     *
+     * @param path The path to the XML file to be parsed.
+     * @throws IOException If the file cannot be read or is not well-formed XML.
+     */
+    public XMLFile(String path) throws IOException {
+        this.path = path;
+        // The file may be gzip-compressed or a zip archive entry
+        try (InputStream inputStream = ReportInputs.open(path)) {
+            parse(inputStream);
+        }
+    }
+
+    /**
+     * Constructor for XMLFile reading an already opened report, e.g. a tar archive entry.
+     *
+     * @param path        The path of the report, used in messages.
+     * @param inputStream The content of the report, left open.
+     * @throws IOException If the report cannot be read or is not well-formed XML.
+     */
+    public XMLFile(String path, InputStream inputStream) throws IOException {
+        this.path = path;
+        parse(inputStream);
+    }
+
+    /**
+     * Parses the XML document.
+     *
+     * @param inputStream The content of the XML file.
+     * @throws IOException If the content cannot be read or is not well-formed XML.
+     */
+    private void parse(InputStream inputStream) throws IOException {
+        try {
+            // Parsing the XML file
+            parsedXMLSourceFile = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(inputStream, path);
+            // Normalizing the text within the parsed XML document
+            parsedXMLSourceFile.getDocumentElement().normalize();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Cannot parse " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves a list of XML elements with a specified tag name from the parsed XML document.
+     *
+     * @param tagName The name of the XML elements to retrieve.
+     * @return An ArrayList containing the retrieved XML elements.
+     */
+    public ArrayList<Element> getNodeElementsListByTagName(String tagName) {
+        ArrayList<Element> elementsList = new ArrayList<>();
+        NodeList nodeList = parsedXMLSourceFile.getElementsByTagName(tagName);
+
+        for (int nodeCounter = 0; nodeCounter < nodeList.getLength(); nodeCounter++) {
+            elementsList.add((Element) nodeList.item(nodeCounter));
+        }
+
+        return elementsList;
+    }
+
+    /**
+     * Retrieves test case data from the parsed XML document, visiting every element once.
+     * The fields are read as mapped by {@link TestCaseField}, from the testcase elements and their direct children
+     * only; as in {@link XMLStreamFile}, testcase elements nested in another test case are not test cases.
+     *
+     * @return An ArrayList of TestCase objects containing extracted test case data.
+     * @throws IOException If the XML file could not be parsed.
+     */
+    public ArrayList<TestCase> getTestCases() throws IOException {
+        if (parsedXMLSourceFile == null) {
+            throw new IOException("XML file could not be parsed: " + path);
+        }
+        ArrayList<TestCase> tcList = new ArrayList<>();
+        ArrayDeque<TestGroup> groups = new ArrayDeque<>();  // Open groups, innermost first
+        ArrayDeque<Node> groupElements = new ArrayDeque<>(); // The element of each open group
+        Node root = parsedXMLSourceFile.getDocumentElement();
+        Node node = root;
+        while (node != null) {
+            boolean descend = false;
+            if (node instanceof Element) {
+                if (node.getNodeName().equals(TestCaseField.TEST_CASE_ELEMENT_NAME)) {
+                    tcList.add(TestCaseField.createTestCase(getFieldValues((Element) node), groups.peek()));
+                } else {
+                    if (XMLStreamFile.GROUP_ELEMENT_NAMES.contains(node.getNodeName())) {
+                        groups.push(new TestGroup(groups.peek(), getChildText(node, "title")));
+                        groupElements.push(node);
+                    }
+                    descend = true;
+                }
+            }
+            if (descend && node.getFirstChild() != null) {
+                node = node.getFirstChild();
+                continue;
+            }
+            // Move to the next sibling, closing the groups of the elements left on the way up
+            while (node != root && node.getNextSibling() == null) {
+                closeGroup(node, groups, groupElements);
+                node = node.getParentNode();
+            }
+            if (node == root) {
+                break;
+            }
+            closeGroup(node, groups, groupElements);
+            node = node.getNextSibling();
+        }
+        return tcList;
+    }
+
+    /**
+     * Reads the fields of a test case from a testcase element and its direct children.
+     *
+     * @param testCaseElement The testcase element.
+     * @return The values indexed by field ordinal, null for fields not found.
+     */
+    private static String[] getFieldValues(Element testCaseElement) {
+        String[] fieldValues = new String[TestCaseField.FIELDS_COUNT];
+        for (TestCaseField field : TestCaseField.getTestCaseAttributeFields()) {
+            fieldValues[field.ordinal()] = testCaseElement.getAttribute(field.getAttributeName());
+        }
+        for (Node child = testCaseElement.getFirstChild(); child != null; child = child.getNextSibling()) {
+            List<TestCaseField> childFields = child instanceof Element ? TestCaseField.getChildElementFields(child.getNodeName()) : null;
+            for (int i = 0; childFields != null && i < childFields.size(); i++) {
+                TestCaseField field = childFields.get(i);
+                if (fieldValues[field.ordinal()] == null) {
+                    fieldValues[field.ordinal()] = field.getAttributeName() != null
+                            ? ((Element) child).getAttribute(field.getAttributeName()) : child.getTextContent();
+                }
+            }
+        }
+        return fieldValues;
+    }
+
+    /**
+     * Closes the innermost open group if the given node is its element.
+     *
+     * @param node          The node being left.
+     * @param groups        The open groups, innermost first.
+     * @param groupElements The element of each open group.
+     */
+    private static void closeGroup(Node node, ArrayDeque<TestGroup> groups, ArrayDeque<Node> groupElements) {
+        if (!groupElements.isEmpty() && groupElements.peek() == node) {
+            groups.pop();
+            groupElements.pop();
+        }
+    }
+
+    /**
+     * Gets the text of the first direct child element with the given name.
+     *
+     * @param node      The parent node.
+     * @param childName The name of the child element.
+     * @return The text of the child, or null if there is none.
+     */
+    private static String getChildText(Node node, String childName) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && child.getNodeName().equals(childName)) {
+                return child.getTextContent();
+            }
+        }
+        return null;
+    }
+}
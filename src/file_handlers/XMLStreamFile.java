@@ -0,0 +1,192 @@
+package file_handlers;
+
+import data_types.TestCase;
+import data_types.TestGroup;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents a streaming (StAX) reader for XML test reports.
+ * Unlike {@link XMLFile}, the document is never loaded into memory as a whole: each test case is emitted
+ * as soon as its closing tag is read, so heap use does not grow with the size of the report.
+ */
+public class XMLStreamFile {
+    static final XMLInputFactory INPUT_FACTORY = createInputFactory(); // Shared by the streaming report readers
+    // Elements grouping test cases, whose direct title child names the group
+    static final Set<String> GROUP_ELEMENT_NAMES = Set.of("testunit", "testgroup", "testfixture", "testcaselist");
+
+    private final String path; // The path to the XML file to be streamed
+
+    /**
+     * Constructor for XMLStreamFile.
+     *
+     * @param path The path to the XML file to be streamed.
+     */
+    public XMLStreamFile(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Creates the shared StAX factory with coalesced text and without DTD or external entity support.
+     *
+     * @return The configured XMLInputFactory.
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Streams the XML file and passes every test case to the given consumer as soon as its element closes.
+     * The file may be gzip-compressed or a zip archive entry, see {@link ReportInputs#open}.
+     *
+     * @param testCaseConsumer The consumer receiving each extracted TestCase.
+     * @throws IOException        If the XML file cannot be read.
+     * @throws XMLStreamException If the XML file is not well-formed.
+     */
+    public void forEachTestCase(Consumer<TestCase> testCaseConsumer) throws IOException, XMLStreamException {
+        try (InputStream inputStream = ReportInputs.open(path)) {
+            streamTestCases(inputStream, testCaseConsumer);
+        }
+    }
+
+    /**
+     * Streams an XML report and passes every test case to the given consumer as soon as its element closes.
+     * The fields are read as mapped by {@link TestCaseField}: from the attributes of the testcase element and
+     * of its direct children, and from the text of its direct children, so nested steps are never picked up.
+     * Only outermost testcase elements are test cases.
+     * Each test case also gets its enclosing TestGroup; as group titles follow their test cases,
+     * group paths are only complete once the whole file has been streamed.
+     *
+     * @param inputStream      The content of the report, left open.
+     * @param testCaseConsumer The consumer receiving each extracted TestCase.
+     * @throws XMLStreamException If the XML file is not well-formed.
+     */
+    public static void streamTestCases(InputStream inputStream, Consumer<TestCase> testCaseConsumer) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            StringBuilder textBuilder = new StringBuilder();
+            String[] fieldValues = null;   // The fields of the current test case, by field ordinal
+            int testCaseDepth = 0, testCaseElementDepth = 0, textDepth = 0, elementDepth = 0;
+            TestCaseField capturedField = null; // The field the text being read belongs to, null for a group title
+            ArrayDeque<TestGroup> groups = new ArrayDeque<>();  // Open groups, innermost first
+            ArrayDeque<Integer> groupDepths = new ArrayDeque<>(); // Element depth of each open group
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        elementDepth++;
+                        String elementName = reader.getLocalName();
+                        if (textDepth > 0) {
+                            // The text of a captured element includes the text of its children
+                            textDepth++;
+                        } else if (testCaseDepth > 0) {
+                            if (elementName.equals(TestCaseField.TEST_CASE_ELEMENT_NAME)) {
+                                testCaseDepth++;
+                            } else if (elementDepth == testCaseElementDepth + 1) {
+                                // A direct child: read the fields it holds, unless an earlier child held them
+                                List<TestCaseField> childFields = TestCaseField.getChildElementFields(elementName);
+                                for (int i = 0; childFields != null && i < childFields.size(); i++) {
+                                    TestCaseField field = childFields.get(i);
+                                    if (fieldValues[field.ordinal()] != null) {
+                                        continue;
+                                    }
+                                    if (field.getAttributeName() != null) {
+                                        fieldValues[field.ordinal()] = getAttributeValue(reader, field.getAttributeName());
+                                    } else {
+                                        textBuilder.setLength(0);
+                                        textDepth = 1;
+                                        capturedField = field;
+                                    }
+                                }
+                            }
+                        } else if (elementName.equals(TestCaseField.TEST_CASE_ELEMENT_NAME)) {
+                            testCaseDepth = 1;
+                            testCaseElementDepth = elementDepth;
+                            fieldValues = new String[TestCaseField.FIELDS_COUNT];
+                            for (TestCaseField field : TestCaseField.getTestCaseAttributeFields()) {
+                                fieldValues[field.ordinal()] = getAttributeValue(reader, field.getAttributeName());
+                            }
+                        } else if (GROUP_ELEMENT_NAMES.contains(elementName)) {
+                            groups.push(new TestGroup(groups.peek(), null));
+                            groupDepths.push(elementDepth);
+                        } else if (elementName.equals("title") && !groups.isEmpty() && elementDepth == groupDepths.peek() + 1
+                                && groups.peek().getTitle() == null) {
+                            // The first title of the innermost open group
+                            textBuilder.setLength(0);
+                            textDepth = 1;
+                            capturedField = null;
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (textDepth > 0) {
+                            textBuilder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (textDepth > 0 && --textDepth == 0) {
+                            if (capturedField == null) {
+                                groups.peek().editTitle(textBuilder.toString());
+                            } else {
+                                fieldValues[capturedField.ordinal()] = textBuilder.toString();
+                            }
+                        } else if (testCaseDepth > 0 && reader.getLocalName().equals(TestCaseField.TEST_CASE_ELEMENT_NAME)
+                                && --testCaseDepth == 0) {
+                            // Emit the test case as soon as it closes
+                            testCaseConsumer.accept(TestCaseField.createTestCase(fieldValues, groups.peek()));
+                        } else if (testCaseDepth == 0 && !groups.isEmpty() && elementDepth == groupDepths.peek()) {
+                            groups.pop();
+                            groupDepths.pop();
+                        }
+                        elementDepth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Retrieves all test cases of the XML file, streaming the file instead of building a DOM tree.
+     *
+     * @return An ArrayList of TestCase objects containing extracted test case data.
+     * @throws IOException        If the XML file cannot be read.
+     * @throws XMLStreamException If the XML file is not well-formed.
+     */
+    public ArrayList<TestCase> getTestCases() throws IOException, XMLStreamException {
+        ArrayList<TestCase> tcList = new ArrayList<>();
+        forEachTestCase(tcList::add);
+        return tcList;
+    }
+
+    /**
+     * Reads an attribute of the current element, returning an empty string when it is missing
+     * (the same value Element.getAttribute returns).
+     *
+     * @param reader        The reader positioned on a start element.
+     * @param attributeName The local name of the attribute.
+     * @return The attribute value, or an empty string if absent.
+     */
+    private static String getAttributeValue(XMLStreamReader reader, String attributeName) {
+        String value = reader.getAttributeValue(null, attributeName);
+        return value != null ? value : "";
+    }
+}
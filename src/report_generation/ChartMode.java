@@ -0,0 +1,10 @@
+package report_generation;
+
+/**
+ * Represents the ways the summary chart can be added to the workbook.
+ */
+public enum ChartMode {
+    NATIVE_PIE, // Excel pie chart bound to the summary table, rendered by Excel (default)
+    NATIVE_BAR, // Excel column chart bound to the summary table, rendered by Excel
+    IMAGE       // 3D pie chart rendered by JFreeChart and embedded as a PNG picture
+}
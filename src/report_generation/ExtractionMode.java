@@ -0,0 +1,10 @@
+package report_generation;
+
+/**
+ * Represents the ways test cases can be extracted from an XML report.
+ */
+public enum ExtractionMode {
+    STREAMING, // StAX cursor over the file, constant heap use (default)
+    DOM,       // Whole document parsed into a DOM tree first
+    MAPPED     // Plain files memory-mapped and scanned as raw bytes, streamed when the scanner gives up
+}
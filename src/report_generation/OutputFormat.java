@@ -0,0 +1,62 @@
+package report_generation;
+
+import file_handlers.CsvReportSink;
+import file_handlers.HtmlReportSink;
+import file_handlers.JsonLinesReportSink;
+
+/**
+ * Represents the files a report generation run can write, all from the same pass over the test cases.
+ */
+public enum OutputFormat {
+    XLSX(".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), // Workbook with tables and charts (default)
+    CSV(CsvReportSink.FILE_EXTENSION, "text/csv"),                                      // Test cases table as comma-separated values
+    JSONL(JsonLinesReportSink.FILE_EXTENSION, "application/x-ndjson"),                  // Summary, breakdown, history and test cases as JSON Lines
+    HTML(HtmlReportSink.FILE_EXTENSION, "text/html");                                   // Single self-contained page with an inline SVG pie chart
+
+    private final String fileExtension; // The extension of the written file, including the dot
+    private final String contentType;   // The media type of the written file
+
+    /**
+     * Constructor for OutputFormat.
+     *
+     * @param fileExtension The extension of the written file, including the dot.
+     * @param contentType   The media type of the written file.
+     */
+    OutputFormat(String fileExtension, String contentType) {
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the extension of the written file.
+     *
+     * @return The extension, including the dot (e.g., ".csv").
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Gets the media type of the written file, sent by the report service when it returns the file.
+     *
+     * @return The media type (e.g., "text/csv").
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets the format writing files with the given extension.
+     *
+     * @param fileName A file name or path.
+     * @return The matching OutputFormat, or null if the extension is not one of a format.
+     */
+    public static OutputFormat fromFileName(String fileName) {
+        for (OutputFormat outputFormat : values()) {
+            if (fileName.toLowerCase().endsWith(outputFormat.fileExtension)) {
+                return outputFormat;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,286 @@
+package report_generation;
+
+import data_types.IngestionStatistics;
+import data_types.ReportBreakdown;
+import data_types.TestCaseMerger;
+import data_types.TestCaseStore;
+import data_types.VerdictCounts;
+import file_handlers.ReportInputs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a long-running mode that watches a report folder and keeps the test summary workbook up to date.
+ * XML files and archives arriving in the folder are parsed once they stop changing for the debounce delay, their test cases
+ * are appended to the in-memory aggregates, and the workbook is rewritten at most once per rewrite interval.
+ * The workbook is replaced atomically, so readers always see either the previous or the new version.
+ */
+public class ReportFolderWatcher {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 2000;          // Quiet time before a new file is parsed
+    public static final long DEFAULT_REWRITE_INTERVAL_MILLIS = 30_000; // Minimum time between two workbook rewrites
+
+    private final ReportGenerator reportGenerator; // Provides the parsing configuration and writes the workbook
+    private final Path watchFolder;                // The folder receiving the XML reports
+    private final String outputFolderPath;         // The folder of the workbook, null for the default folder
+    private final String reportName;               // The workbook name without extension
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+    private long rewriteIntervalMillis = DEFAULT_REWRITE_INTERVAL_MILLIS;
+
+    private final LinkedHashMap<Path, Long> pendingFiles = new LinkedHashMap<>(); // Arrived files with their last event time
+    private final LinkedHashMap<Path, String> ingestedFiles = new LinkedHashMap<>(); // Parsed files with their size/mtime stamp
+    private TestCaseStore testCaseStore = new TestCaseStore(); // The test cases of all parsed files, in arrival order
+    private VerdictCounts verdictCounts = new VerdictCounts(); // The verdict tally feeding the summary
+    private ReportBreakdown reportBreakdown = new ReportBreakdown(); // The statistics per file and per group
+    private TestCaseMerger testCaseMerger; // Adds the test cases of each file to the above, merging repeated ones
+    private boolean reportOutdated;  // Whether test cases were added since the last rewrite
+    private long lastRewriteNanos;   // When the workbook was last rewritten
+    private volatile boolean stopped; // Set by stop() from any thread
+    private volatile WatchService watchService; // Closed by stop() to wake up the watching thread
+
+    /**
+     * Constructor for ReportFolderWatcher.
+     *
+     * @param reportGenerator  The configured generator used to parse the files and write the workbook.
+     * @param watchFolderPath  The folder receiving the XML reports.
+     * @param outputFolderPath The folder of the workbook, or null/empty for the default folder.
+     * @param reportName       The name of the workbook without the ".xlsx" extension.
+     */
+    public ReportFolderWatcher(ReportGenerator reportGenerator, String watchFolderPath, String outputFolderPath, String reportName) {
+        this.reportGenerator = reportGenerator;
+        this.watchFolder = Paths.get(watchFolderPath).toAbsolutePath().normalize();
+        this.outputFolderPath = outputFolderPath;
+        this.reportName = reportName;
+        testCaseMerger = reportGenerator.createTestCaseMerger(testCaseStore, verdictCounts, reportBreakdown);
+    }
+
+    /**
+     * Sets how long a file must stay unchanged before it is parsed, so bursts of arrivals and files still
+     * being copied are handled in one go.
+     *
+     * @param debounceMillis The quiet time in milliseconds.
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * Sets the minimum time between two rewrites of the workbook.
+     *
+     * @param rewriteIntervalMillis The rewrite interval in milliseconds.
+     */
+    public void setRewriteIntervalMillis(long rewriteIntervalMillis) {
+        this.rewriteIntervalMillis = Math.max(0, rewriteIntervalMillis);
+    }
+
+    /**
+     * Watches the folder until stop() is called or the thread is interrupted. The XML files already in the
+     * folder are parsed first. Pending test cases are written to the workbook before returning.
+     *
+     * @throws IOException If the folder cannot be watched.
+     */
+    public void run() throws IOException {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            this.watchService = watchService;
+            watchFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            // Write the first workbook as soon as the existing files are parsed
+            lastRewriteNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(rewriteIntervalMillis);
+            scanFolder(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(debounceMillis));
+            System.out.println("Watching " + watchFolder + " for XML reports");
+            long pollMillis = Math.max(50, Math.min(debounceMillis, rewriteIntervalMillis) / 2);
+            while (!stopped) {
+                WatchKey watchKey = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (watchKey != null) {
+                    long eventNanos = System.nanoTime();
+                    for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                        if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            // Events were lost: look at every file again
+                            scanFolder(eventNanos);
+                        } else {
+                            addPendingFile(watchFolder.resolve((Path) watchEvent.context()), eventNanos);
+                        }
+                    }
+                    if (!watchKey.reset()) {
+                        throw new IOException("Watched folder is no longer accessible: " + watchFolder);
+                    }
+                }
+                ingestSettledFiles();
+                rewriteReportIfDue(false);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Closed by stop()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            watchService = null;
+            rewriteReportIfDue(true);
+        }
+    }
+
+    /**
+     * Stops watching. The watching thread writes the pending test cases and returns from run().
+     */
+    public void stop() {
+        stopped = true;
+        WatchService activeWatchService = watchService;
+        if (activeWatchService != null) {
+            try {
+                activeWatchService.close();
+            } catch (IOException e) {
+                // The watching thread still sees the stopped flag at its next poll
+            }
+        }
+    }
+
+    /**
+     * Queues every XML file and archive of the watched folder.
+     *
+     * @param eventNanos The time the files are considered to have changed.
+     * @throws IOException If the folder cannot be listed.
+     */
+    private void scanFolder(long eventNanos) throws IOException {
+        try (DirectoryStream<Path> folderFiles = Files.newDirectoryStream(watchFolder)) {
+            for (Path folderFile : folderFiles) {
+                addPendingFile(folderFile, eventNanos);
+            }
+        }
+    }
+
+    /**
+     * Queues an arrived or changed report or archive, restarting its debounce delay. Other files are ignored.
+     *
+     * @param filePath   The path of the file.
+     * @param eventNanos The time of the event.
+     */
+    private void addPendingFile(Path filePath, long eventNanos) {
+        String fileName = filePath.getFileName().toString();
+        if (ReportInputs.isReportName(fileName) || ReportInputs.isZipArchive(fileName) || ReportInputs.isTarArchive(fileName)) {
+            // Re-inserting moves the file to the end, keeping the arrival order
+            pendingFiles.remove(filePath);
+            pendingFiles.put(filePath, eventNanos);
+        }
+    }
+
+    /**
+     * Parses the queued files that have not changed for the debounce delay and adds their test cases
+     * to the aggregates. If an already parsed file changed, the aggregates are rebuilt from all files.
+     */
+    private void ingestSettledFiles() {
+        long settledBeforeNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        List<String> newFilePaths = new ArrayList<>();
+        HashMap<Path, String> newFileStamps = new HashMap<>();
+        boolean rebuildNeeded = false;
+        for (Iterator<Map.Entry<Path, Long>> pendingIterator = pendingFiles.entrySet().iterator(); pendingIterator.hasNext(); ) {
+            Map.Entry<Path, Long> pendingFile = pendingIterator.next();
+            if (pendingFile.getValue() - settledBeforeNanos > 0) {
+                continue;
+            }
+            pendingIterator.remove();
+            String fileStamp = getFileStamp(pendingFile.getKey());
+            if (fileStamp == null || fileStamp.equals(ingestedFiles.get(pendingFile.getKey()))) {
+                // Deleted meanwhile, or an event without any content change
+                continue;
+            }
+            rebuildNeeded |= ingestedFiles.containsKey(pendingFile.getKey());
+            newFilePaths.add(pendingFile.getKey().toString());
+            newFileStamps.put(pendingFile.getKey(), fileStamp);
+        }
+        if (newFilePaths.isEmpty()) {
+            return;
+        }
+
+        List<String> parsedFilePaths = newFilePaths;
+        if (rebuildNeeded) {
+            // Rows cannot be removed from the store: start over with every file, unchanged ones come from the cache
+            parsedFilePaths = new ArrayList<>();
+            for (Path ingestedFile : ingestedFiles.keySet()) {
+                parsedFilePaths.add(ingestedFile.toString());
+            }
+            for (String newFilePath : newFilePaths) {
+                if (!ingestedFiles.containsKey(Paths.get(newFilePath))) {
+                    parsedFilePaths.add(newFilePath);
+                }
+            }
+            testCaseStore = new TestCaseStore();
+            verdictCounts = new VerdictCounts();
+            reportBreakdown = new ReportBreakdown();
+            testCaseMerger = reportGenerator.createTestCaseMerger(testCaseStore, verdictCounts, reportBreakdown);
+            ingestedFiles.clear();
+        }
+        IngestionStatistics ingestionStatistics = reportGenerator.createIngestionPipeline().ingest(parsedFilePaths, (xmlFilePath, tcList) -> {
+            testCaseMerger.addFile(xmlFilePath, tcList);
+            // Archive entries are tracked through their archive
+            Path xmlPath = Paths.get(ReportInputs.getFilePath(xmlFilePath));
+            ingestedFiles.put(xmlPath, newFileStamps.containsKey(xmlPath) ? newFileStamps.get(xmlPath) : getFileStamp(xmlPath));
+            System.out.println("XML File: " + xmlFilePath + " (" + tcList.size() + " test cases)");
+        });
+        System.out.println(ingestionStatistics + ", " + testCaseStore.size() + " test cases in total");
+        reportOutdated = true;
+    }
+
+    /**
+     * Rewrites the output files if test cases were added and the rewrite interval has passed.
+     * Each file is written next to the previous one and then moved over it.
+     *
+     * @param force True to ignore the rewrite interval.
+     */
+    private void rewriteReportIfDue(boolean force) {
+        long nowNanos = System.nanoTime();
+        if (!reportOutdated || (!force && nowNanos - lastRewriteNanos < TimeUnit.MILLISECONDS.toNanos(rewriteIntervalMillis))) {
+            return;
+        }
+        lastRewriteNanos = nowNanos;
+        String temporaryName = "." + reportName + ".partial";
+        List<File> temporaryFiles = new ArrayList<>();
+        try {
+            temporaryFiles.addAll(reportGenerator.writeReport(testCaseStore, verdictCounts, reportBreakdown, outputFolderPath, temporaryName));
+            for (File temporaryFile : temporaryFiles) {
+                // Keep the extension of each output format
+                Path reportPath = temporaryFile.toPath().resolveSibling(reportName + temporaryFile.getName().substring(temporaryName.length()));
+                Files.move(temporaryFile.toPath(), reportPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                System.out.println("Report updated: " + reportPath + " (" + testCaseStore.size() + " test cases)");
+            }
+            reportOutdated = false;
+        } catch (IOException | RuntimeException e) {
+            // E.g., the workbook is open in Excel on Windows: keep the changes for the next interval
+            System.err.println("Cannot update report, retrying later: " + e);
+            for (File temporaryFile : temporaryFiles) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Gets a stamp identifying the current version of a file.
+     *
+     * @param filePath The path of the file.
+     * @return The size and modification time of the file, or null if it no longer exists.
+     */
+    private static String getFileStamp(Path filePath) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            return attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
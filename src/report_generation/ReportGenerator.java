@@ -0,0 +1,1207 @@
+package report_generation;
+
+import data_types.BreakdownTableData;
+import data_types.FlakyTest;
+import data_types.GroupStatistics;
+import data_types.HistoryReport;
+import data_types.HistoryRun;
+import data_types.IngestionStatistics;
+import data_types.MergePolicy;
+import data_types.RegressedTest;
+import data_types.ReportBreakdown;
+import data_types.ReportResult;
+import data_types.TestCaseMerger;
+import data_types.TestCaseStore;
+import data_types.Verdict;
+import data_types.VerdictCounts;
+import data_types.ReportProgress;
+import data_types.ReportStage;
+import data_types.RunSummary;
+import file_handlers.ExcelFile;
+import file_handlers.ExcelProgressListener;
+import file_handlers.CsvReportSink;
+import file_handlers.HtmlReportSink;
+import file_handlers.JsonLinesReportSink;
+import file_handlers.ParsedResultsCache;
+import file_handlers.ReportInputs;
+import file_handlers.ReportSink;
+import file_handlers.RunSummaryFile;
+import file_handlers.TestReportReader;
+import file_handlers.VerdictHistoryStore;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the report generation API: parses a set of XML test reports and writes the
+ * test summary workbook, and optionally CSV, JSON Lines and HTML files from the same pass over the test cases.
+ * Every run is measured: its RunSummary is written next to the outputs and added to the JMX ReportMetrics.
+ * The test cases table continues on numbered sheets past the worksheet row limit, and may be split further
+ * over several workbooks written in parallel, summed up by an index workbook.
+ * It has no dependency on Swing, so it serves both the GUI and the command line.
+ */
+public class ReportGenerator {
+    public static final String DEFAULT_OUTPUT_FOLDER = "test_excel_reports/"; // Used when no output folder is given
+    public static final String DEFAULT_REPORT_NAME = "Test Summary Report";  // The workbook name without extension
+    public static final int AUTO_ROW_WINDOW_SIZE = -1; // Streams the workbook only for large tables
+    public static final int DEFAULT_FLAKY_RUNS_COUNT = 20; // Runs over which the flakiest tests are found
+
+    // Number of test cases above which the workbook is streamed instead of built in memory
+    private static final int STREAMING_ROWS_THRESHOLD = 50_000;
+    // Maximum number of files or groups shown in a breakdown chart, the table always lists all of them
+    private static final int MAX_CHART_CATEGORIES = 50;
+    // Maximum number of rows of the flaky tests table
+    private static final int MAX_FLAKY_TESTS = 100;
+    // Rows written to the streaming sinks between two progress updates
+    private static final int ROWS_PROGRESS_INTERVAL = 4096;
+    // Test cases printed per console write when printing is enabled
+    private static final int PRINTED_CHUNK_ROWS = 1024;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // Worker threads used for parsing
+    private ExtractionMode extractionMode = ExtractionMode.STREAMING;     // How test cases are extracted
+    private TestReportReader reportReader; // Reads every input file, null to detect the format of each file
+    private List<OutputFormat> outputFormats = List.of(OutputFormat.XLSX); // The files written by each run
+    private int rowWindowSize = AUTO_ROW_WINDOW_SIZE; // Rows kept in memory when streaming the workbook
+    private int maxRowsPerSheet = ExcelFile.MAX_SHEET_ROWS - 1; // Test case rows per sheet, the header row aside
+    private int maxRowsPerWorkbook; // Test case rows per workbook before they are split over several, 0 for no limit
+    private MergePolicy mergePolicy = MergePolicy.NONE; // How test cases read more than once are merged
+    private boolean useCountFormulas;  // Whether the summary table holds live COUNTIF formulas
+    private boolean includeChart = true; // Whether the summary sheet gets the chart
+    private ChartMode chartMode = ChartMode.NATIVE_PIE; // How the chart is added
+    private boolean includeBreakdown = true; // Whether the per-file and per-group sheets are added
+    private boolean printTestCases;    // Whether every parsed test case is printed to the console
+    private ParsedResultsCache parsedResultsCache; // Skips parsing unchanged files, may be null
+    private VerdictHistoryStore verdictHistoryStore; // Records every run and feeds the history sheets, may be null
+    private int flakyRunsCount = DEFAULT_FLAKY_RUNS_COUNT; // Runs over which the flakiest tests are found
+    private ReportProgressListener progressListener; // Notified as the generation advances, may be null
+    private ReportMessageListener messageListener;   // Receives the messages of each run, may be null
+    private boolean writeRunSummary = true; // Whether the run summary JSON is written next to the outputs
+    private volatile boolean cancelled; // Set by cancel() from any thread
+
+    /**
+     * Sets the number of worker threads used to parse the XML files.
+     *
+     * @param parallelism The number of worker threads.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets how test cases are extracted from the XML files.
+     *
+     * @param extractionMode The extraction mode.
+     */
+    public void setExtractionMode(ExtractionMode extractionMode) {
+        this.extractionMode = extractionMode;
+    }
+
+    /**
+     * Sets the reader of every input file. By default the format of each file is detected.
+     *
+     * @param reportReader The reader, or null to detect the format of each file.
+     */
+    public void setReportReader(TestReportReader reportReader) {
+        this.reportReader = reportReader;
+    }
+
+    /**
+     * Sets the files written by each run. They share the output folder and report name, each with the
+     * extension of its format.
+     *
+     * @param outputFormats The output formats, at least one.
+     */
+    public void setOutputFormats(List<OutputFormat> outputFormats) {
+        if (outputFormats.isEmpty()) {
+            throw new IllegalArgumentException("At least one output format is required");
+        }
+        this.outputFormats = List.copyOf(outputFormats);
+    }
+
+    /**
+     * Sets the number of rows kept in memory when streaming the workbook.
+     *
+     * @param rowWindowSize The row window size, 0 to build the workbook in memory, or AUTO_ROW_WINDOW_SIZE
+     *                      to stream only large tables.
+     */
+    public void setRowWindowSize(int rowWindowSize) {
+        this.rowWindowSize = rowWindowSize;
+    }
+
+    /**
+     * Sets the number of test case rows per sheet: the test cases table continues on a new, numbered sheet
+     * ("Test Cases Table 2", ...) after that many rows.
+     *
+     * @param maxRowsPerSheet The rows per sheet, at most the worksheet limit of ExcelFile.MAX_SHEET_ROWS - 1.
+     */
+    public void setMaxRowsPerSheet(int maxRowsPerSheet) {
+        if (maxRowsPerSheet < 1 || maxRowsPerSheet > ExcelFile.MAX_SHEET_ROWS - 1) {
+            throw new IllegalArgumentException("The rows per sheet must be between 1 and " + (ExcelFile.MAX_SHEET_ROWS - 1));
+        }
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    /**
+     * Sets the number of test case rows per workbook. Above it, the test cases are written to workbooks of
+     * that many rows ("&lt;name&gt; Part 1.xlsx", ...) in parallel, each with the summary of its own test cases,
+     * and the workbook of the report name becomes their index: the totals, the chart, one row per part
+     * and the breakdown and history sheets.
+     *
+     * @param maxRowsPerWorkbook The rows per workbook, or 0 to write every test case into one workbook.
+     */
+    public void setMaxRowsPerWorkbook(int maxRowsPerWorkbook) {
+        if (maxRowsPerWorkbook < 0) {
+            throw new IllegalArgumentException("The rows per workbook cannot be negative");
+        }
+        this.maxRowsPerWorkbook = maxRowsPerWorkbook;
+    }
+
+    /**
+     * Sets how test cases read more than once, e.g. retried in a later report, are merged while the files
+     * are ingested. The summary, the breakdown and the test cases table then count each test case once,
+     * or number its attempts.
+     *
+     * @param mergePolicy The merge policy, NONE to add every test case as read.
+     */
+    public void setMergePolicy(MergePolicy mergePolicy) {
+        this.mergePolicy = mergePolicy;
+    }
+
+    /**
+     * Sets whether the summary table holds live COUNTIF formulas instead of the tallied counts.
+     *
+     * @param useCountFormulas True to write COUNTIF formulas.
+     */
+    public void setUseCountFormulas(boolean useCountFormulas) {
+        this.useCountFormulas = useCountFormulas;
+    }
+
+    /**
+     * Sets whether the summary sheet gets the chart.
+     *
+     * @param includeChart True to add the chart.
+     */
+    public void setIncludeChart(boolean includeChart) {
+        this.includeChart = includeChart;
+    }
+
+    /**
+     * Sets how the chart is added: as a native Excel chart bound to the summary table, or as a picture
+     * rendered by JFreeChart.
+     *
+     * @param chartMode The chart mode.
+     */
+    public void setChartMode(ChartMode chartMode) {
+        this.chartMode = chartMode;
+    }
+
+    /**
+     * Sets whether the workbook gets the "Files" and "Groups" sheets, breaking the verdicts and durations
+     * down per report file and per test group path.
+     *
+     * @param includeBreakdown True to add the breakdown sheets.
+     */
+    public void setIncludeBreakdown(boolean includeBreakdown) {
+        this.includeBreakdown = includeBreakdown;
+    }
+
+    /**
+     * Sets whether every parsed test case is printed to the console.
+     *
+     * @param printTestCases True to print the test cases.
+     */
+    public void setPrintTestCases(boolean printTestCases) {
+        this.printTestCases = printTestCases;
+    }
+
+    /**
+     * Sets the cache of parsed results, so regenerating a report only parses new or changed files.
+     *
+     * @param parsedResultsCache The cache, or null to parse every file.
+     */
+    public void setParsedResultsCache(ParsedResultsCache parsedResultsCache) {
+        this.parsedResultsCache = parsedResultsCache;
+    }
+
+    /**
+     * Sets the verdict history. Every generation then records its verdicts as a new run, and the workbook gets
+     * the "Regressions" and "Flaky Tests" sheets.
+     *
+     * @param verdictHistoryStore The history, or null to record nothing.
+     */
+    public void setVerdictHistoryStore(VerdictHistoryStore verdictHistoryStore) {
+        this.verdictHistoryStore = verdictHistoryStore;
+    }
+
+    /**
+     * Sets the number of latest runs over which the flakiest tests are found.
+     *
+     * @param flakyRunsCount The number of runs, including the recorded one.
+     */
+    public void setFlakyRunsCount(int flakyRunsCount) {
+        this.flakyRunsCount = Math.max(2, flakyRunsCount);
+    }
+
+    /**
+     * Sets the listener notified as the generation advances.
+     *
+     * @param progressListener The listener, or null to remove it.
+     */
+    public void setProgressListener(ReportProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Sets the listener receiving the messages of each run, such as the parsed files and the run summary.
+     * Without one, the generator writes nothing to the console.
+     *
+     * @param messageListener The listener, or null to remove it.
+     */
+    public void setMessageListener(ReportMessageListener messageListener) {
+        this.messageListener = messageListener;
+    }
+
+    /**
+     * Sets whether each run writes its summary, the stage timings, sizes and per-file measurements, as
+     * a JSON file next to the outputs. The run is measured and recorded in the JMX metrics either way.
+     *
+     * @param writeRunSummary True to write the run summary file.
+     */
+    public void setWriteRunSummary(boolean writeRunSummary) {
+        this.writeRunSummary = writeRunSummary;
+    }
+
+    /**
+     * Requests the running generation to stop. It stops at the next checkpoint (after a file, a chunk of
+     * rows or a chunk of bytes) and deletes the partially written files. Interrupting the generating
+     * thread has the same effect.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Parses the given XML files and writes the test summary workbook and the other requested output files.
+     * Files that fail to parse are left out of the outputs and reported in the result.
+     *
+     * @param xmlFilePaths     The paths of the XML files, in the order their rows should appear.
+     * @param outputFolderPath The folder to write the outputs to, or null/empty for the default folder.
+     * @param reportName       The name of the outputs without extension.
+     * @return The ReportResult describing the written files.
+     * @throws IOException           If the output folder or an output file cannot be written.
+     * @throws CancellationException If the generation was cancelled.
+     */
+    public ReportResult generate(List<String> xmlFilePaths, String outputFolderPath, String reportName) throws IOException {
+        try {
+            return generateReport(xmlFilePaths, outputFolderPath, reportName);
+        } catch (IOException | RuntimeException e) {
+            ReportMetrics.getInstance().recordFailedRun();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs one generation for generate(), measuring it.
+     *
+     * @param xmlFilePaths     The paths of the XML files, in the order their rows should appear.
+     * @param outputFolderPath The folder to write the outputs to, or null/empty for the default folder.
+     * @param reportName       The name of the outputs without extension.
+     * @return The ReportResult describing the written files.
+     * @throws IOException If the output folder or an output file cannot be written.
+     */
+    private ReportResult generateReport(List<String> xmlFilePaths, String outputFolderPath, String reportName) throws IOException {
+        long startMillis = System.currentTimeMillis();
+        long startAllocatedBytes = AllocationMeter.getCurrentThreadAllocatedBytes();
+        ProgressTracker progressTracker = new ProgressTracker();
+        // Columnar store of all test cases, appended file by file without per-row copies
+        TestCaseStore testCaseStore = new TestCaseStore();
+        VerdictCounts verdictCounts = new VerdictCounts();
+        ReportBreakdown reportBreakdown = new ReportBreakdown();
+        TestCaseMerger testCaseMerger = createTestCaseMerger(testCaseStore, verdictCounts, reportBreakdown);
+        // Zip archives count as their entries; a tar archive counts as one file until its entries are read
+        List<String> inputPaths = XMLIngestionPipeline.expandZipArchives(xmlFilePaths);
+        progressTracker.startStage(ReportStage.PARSING_FILES, inputPaths.size());
+        // Parse the files concurrently, keeping the rows in the order the files were selected
+        IngestionStatistics ingestionStatistics = createIngestionPipeline().ingest(inputPaths, (xmlFilePath, tcList) -> {
+            // Tally the verdicts while the files are read, so the summary needs no formula evaluation
+            testCaseMerger.addFile(xmlFilePath, tcList);
+            sendMessage("XML File: " + xmlFilePath);
+            progressTracker.filesParsed++;
+            progressTracker.update(Math.min(progressTracker.filesParsed, inputPaths.size()));
+        });
+        // Files that failed to parse still count as processed
+        progressTracker.update(inputPaths.size());
+        sendMessage(ingestionStatistics.toString());
+        if (mergePolicy != MergePolicy.NONE) {
+            sendMessage("Merge (" + mergePolicy + "): " + testCaseMerger.getRepeatedCount() + " repeated attempts of "
+                    + testCaseMerger.getDistinctCount() + " test cases, " + testCaseStore.size() + " rows");
+        }
+        if (parsedResultsCache != null) {
+            sendMessage(parsedResultsCache.getStatistics().toString());
+        }
+
+        if (printTestCases) {
+            printTestCases(testCaseStore);
+        }
+
+        HistoryReport historyReport = null;
+        if (verdictHistoryStore != null) {
+            progressTracker.startStage(ReportStage.RECORDING_HISTORY, -1);
+            historyReport = recordHistory(testCaseStore);
+            sendMessage(historyReport != null ? historyReport.toString() : "History: no test case IDs, nothing recorded");
+        }
+
+        List<File> outputFiles = writeReport(testCaseStore, verdictCounts, reportBreakdown, historyReport, outputFolderPath,
+                reportName, progressTracker);
+        progressTracker.startStage(ReportStage.DONE, 0);
+        List<String> outputFilePaths = new ArrayList<>();
+        long outputBytes = 0;
+        for (File outputFile : outputFiles) {
+            outputFilePaths.add(outputFile.getPath());
+            outputBytes += outputFile.length();
+        }
+        // The generating thread's allocations plus those of the parsing threads
+        long allocatedBytes = AllocationMeter.getAllocatedBytesSince(startAllocatedBytes);
+        if (allocatedBytes >= 0 && ingestionStatistics.getAllocatedBytes() >= 0) {
+            allocatedBytes += ingestionStatistics.getAllocatedBytes();
+        }
+        RunSummary runSummary = new RunSummary(reportName, startMillis, System.nanoTime() - progressTracker.startNanos,
+                progressTracker.stagesNanos, getInputBytes(xmlFilePaths), outputBytes, testCaseStore.size(), allocatedBytes,
+                ingestionStatistics, parsedResultsCache != null ? parsedResultsCache.getStatistics() : null,
+                verdictCounts, outputFilePaths);
+        sendMessage(runSummary.toString());
+        ReportMetrics.getInstance().recordRun(runSummary);
+        String runSummaryFilePath = null;
+        if (writeRunSummary) {
+            runSummaryFilePath = RunSummaryFile.write(runSummary, getOutputFolder(outputFolderPath)).getPath();
+        }
+        return new ReportResult(outputFilePaths, runSummaryFilePath, testCaseStore, runSummary);
+    }
+
+    /**
+     * Hands a message of the run to the message listener, if any.
+     *
+     * @param message The message.
+     */
+    private void sendMessage(String message) {
+        if (messageListener != null) {
+            messageListener.onMessage(message);
+        }
+    }
+
+    /**
+     * Gets the size on disk of the input files and archives, each archive counted once.
+     *
+     * @param xmlFilePaths The paths of the XML files, archives and archive entries.
+     * @return The bytes read, leaving out the files that no longer exist.
+     */
+    private static long getInputBytes(List<String> xmlFilePaths) {
+        Set<String> filePaths = new LinkedHashSet<>();
+        for (String xmlFilePath : xmlFilePaths) {
+            filePaths.add(ReportInputs.getFilePath(xmlFilePath));
+        }
+        long inputBytes = 0;
+        for (String filePath : filePaths) {
+            inputBytes += new File(filePath).length();
+        }
+        return inputBytes;
+    }
+
+    /**
+     * Resolves the folder the outputs are written to.
+     *
+     * @param outputFolderPath The requested folder, or null/empty for the default folder.
+     * @return The folder path, ending with a separator.
+     */
+    private static String getOutputFolder(String outputFolderPath) {
+        return outputFolderPath == null || outputFolderPath.isEmpty() ? DEFAULT_OUTPUT_FOLDER : outputFolderPath + "/";
+    }
+
+    /**
+     * Creates an ingestion pipeline with the configured parallelism, extraction mode and cache.
+     *
+     * @return A new XMLIngestionPipeline.
+     */
+    XMLIngestionPipeline createIngestionPipeline() {
+        XMLIngestionPipeline ingestionPipeline = new XMLIngestionPipeline(parallelism, extractionMode);
+        ingestionPipeline.setParsedResultsCache(parsedResultsCache);
+        ingestionPipeline.setReportReader(reportReader);
+        return ingestionPipeline;
+    }
+
+    /**
+     * Creates the merge stage adding the test cases of each ingested file with the configured merge policy.
+     *
+     * @param testCaseStore   The store receiving the test cases.
+     * @param verdictCounts   The verdict tally to keep up to date.
+     * @param reportBreakdown The statistics per file and per group to keep up to date.
+     * @return A new TestCaseMerger.
+     */
+    TestCaseMerger createTestCaseMerger(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown) {
+        return new TestCaseMerger(mergePolicy, testCaseStore, verdictCounts, reportBreakdown);
+    }
+
+    /**
+     * Records the test cases as a new run of the verdict history and finds the regressed and flaky tests.
+     *
+     * @param testCaseStore The test cases of the run.
+     * @return The HistoryReport, or null if no test case has a test case ID.
+     * @throws IOException If the history cannot be written or read.
+     */
+    private HistoryReport recordHistory(TestCaseStore testCaseStore) throws IOException {
+        HistoryRun run = verdictHistoryStore.appendRun(testCaseStore);
+        if (run == null) {
+            return null;
+        }
+        return new HistoryReport(run, verdictHistoryStore.findRegressions(run),
+                verdictHistoryStore.findFlakyTests(flakyRunsCount, MAX_FLAKY_TESTS),
+                Math.min(flakyRunsCount, verdictHistoryStore.getRuns().size()));
+    }
+
+    /**
+     * Writes the output files of already ingested test cases, without history.
+     *
+     * @param testCaseStore    The test cases, in the order their rows should appear.
+     * @param verdictCounts    The verdict tally of the test cases.
+     * @param reportBreakdown  The statistics per file and per group.
+     * @param outputFolderPath The folder to write the outputs to, or null/empty for the default folder.
+     * @param reportName       The name of the outputs without extension.
+     * @return The written files, in output format order.
+     * @throws IOException If the output folder or an output file cannot be written.
+     */
+    List<File> writeReport(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                     String outputFolderPath, String reportName) throws IOException {
+        return writeReport(testCaseStore, verdictCounts, reportBreakdown, null, outputFolderPath, reportName, new ProgressTracker());
+    }
+
+    /**
+     * Writes every requested output file from one pass over the test cases, deleting all of them again if
+     * writing fails or is cancelled.
+     *
+     * @param testCaseStore    The test cases, in the order their rows should appear.
+     * @param verdictCounts    The verdict tally of the test cases.
+     * @param reportBreakdown  The statistics per file and per group.
+     * @param historyReport    The regressed and flaky tests, or null for no history.
+     * @param outputFolderPath The folder to write the outputs to, or null/empty for the default folder.
+     * @param reportName       The name of the outputs without extension.
+     * @param progressTracker  The tracker reporting progress and checking for cancellation.
+     * @return The written files, in output format order.
+     * @throws IOException If the output folder or an output file cannot be written.
+     */
+    private List<File> writeReport(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                                   HistoryReport historyReport, String outputFolderPath, String reportName,
+                                   ProgressTracker progressTracker) throws IOException {
+        String outputFolder = getOutputFolder(outputFolderPath);
+        Files.createDirectories(Paths.get(outputFolder));
+        List<ReportSink> reportSinks = new ArrayList<>();
+        // Creating the outputs, the workbook above all, is timed as part of writing the rows
+        progressTracker.startStage(ReportStage.WRITING_ROWS, testCaseStore.size());
+        try {
+            for (OutputFormat outputFormat : outputFormats) {
+                reportSinks.add(createReportSink(outputFormat, outputFolder, reportName, testCaseStore.size(), progressTracker));
+            }
+            for (ReportSink reportSink : reportSinks) {
+                reportSink.begin(testCaseStore, verdictCounts, reportBreakdown, historyReport);
+            }
+            writeTestCaseRows(reportSinks, testCaseStore, progressTracker);
+            for (ReportSink reportSink : reportSinks) {
+                reportSink.finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never leave a partially written file behind
+            for (ReportSink reportSink : reportSinks) {
+                reportSink.discard();
+            }
+            throw e;
+        }
+        List<File> outputFiles = new ArrayList<>();
+        for (ReportSink reportSink : reportSinks) {
+            outputFiles.addAll(reportSink.getOutputFiles());
+        }
+        return outputFiles;
+    }
+
+    /**
+     * Creates the sink writing one output format.
+     *
+     * @param outputFormat    The output format.
+     * @param outputFolder    The folder to write the output to, ending with a separator.
+     * @param reportName      The name of the output without extension.
+     * @param rowsCount       The number of test case rows.
+     * @param progressTracker The tracker reporting progress and checking for cancellation.
+     * @return The new ReportSink.
+     * @throws IOException If the output file cannot be created.
+     */
+    private ReportSink createReportSink(OutputFormat outputFormat, String outputFolder, String reportName, int rowsCount,
+                                        ProgressTracker progressTracker) throws IOException {
+        switch (outputFormat) {
+            case CSV:
+                return new CsvReportSink(outputFolder, reportName);
+            case JSONL:
+                return new JsonLinesReportSink(outputFolder, reportName);
+            case HTML:
+                return new HtmlReportSink(outputFolder, reportName);
+            default:
+                // An index workbook holds no test case rows
+                int workbookRowsCount = isSplitIntoWorkbooks(rowsCount) ? 0 : rowsCount;
+                return new WorkbookReportSink(new ExcelFile(outputFolder, reportName, getEffectiveRowWindowSize(workbookRowsCount)),
+                        outputFolder, reportName, progressTracker);
+        }
+    }
+
+    /**
+     * Checks whether the test cases are split over several workbooks.
+     *
+     * @param rowsCount The number of test case rows.
+     * @return True if there are more rows than one workbook may hold.
+     */
+    private boolean isSplitIntoWorkbooks(int rowsCount) {
+        return maxRowsPerWorkbook > 0 && rowsCount > maxRowsPerWorkbook;
+    }
+
+    /**
+     * Feeds every test case row to the sinks that stream them. The workbook sink does not: POI writes its
+     * table straight from the store when the workbook is finished.
+     *
+     * @param reportSinks     The sinks of the run.
+     * @param testCaseStore   The test cases, in the order their rows should appear.
+     * @param progressTracker The tracker reporting progress and checking for cancellation.
+     * @throws IOException If an output file cannot be written.
+     */
+    private void writeTestCaseRows(List<ReportSink> reportSinks, TestCaseStore testCaseStore,
+                                   ProgressTracker progressTracker) throws IOException {
+        List<ReportSink> rowSinks = new ArrayList<>();
+        for (ReportSink reportSink : reportSinks) {
+            if (reportSink.streamsTestCases()) {
+                rowSinks.add(reportSink);
+            }
+        }
+        if (rowSinks.isEmpty()) {
+            return;
+        }
+        progressTracker.startStage(ReportStage.WRITING_ROWS, testCaseStore.size());
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            for (ReportSink rowSink : rowSinks) {
+                rowSink.writeTestCase(tcIndex);
+            }
+            if ((tcIndex + 1) % ROWS_PROGRESS_INTERVAL == 0) {
+                progressTracker.rowsWritten = tcIndex + 1;
+                progressTracker.update(tcIndex + 1);
+            }
+        }
+        progressTracker.rowsWritten = testCaseStore.size();
+        progressTracker.update(testCaseStore.size());
+    }
+
+    /**
+     * Fills the workbook with the test cases table, the summary table and the chart, and writes it. The index
+     * workbook of a split report gets a table of the part workbooks instead of the test cases.
+     *
+     * @param reportExcelFile  The ExcelFile to fill.
+     * @param testCaseStore    The test cases of every parsed file.
+     * @param verdictCounts    The verdict tally of all test cases.
+     * @param reportBreakdown  The statistics per file and per group.
+     * @param historyReport    The regressed and flaky tests, or null for no history sheets.
+     * @param partsStatistics  The statistics of each part workbook, or null to write the test cases table.
+     * @param progressTracker  The tracker reporting progress and checking for cancellation.
+     * @throws IOException If the workbook cannot be written.
+     */
+    private void writeWorkbook(ExcelFile reportExcelFile, TestCaseStore testCaseStore, VerdictCounts verdictCounts,
+                               ReportBreakdown reportBreakdown, HistoryReport historyReport,
+                               List<GroupStatistics> partsStatistics, ProgressTracker progressTracker) throws IOException {
+        reportExcelFile.setProgressListener(new ExcelProgressListener() {
+            @Override
+            public void onRowsWritten(int rowsWritten, int rowsCount) {
+                if (progressTracker.stage == ReportStage.WRITING_ROWS) {
+                    progressTracker.rowsWritten = rowsWritten;
+                    progressTracker.update(rowsWritten);
+                }
+            }
+
+            @Override
+            public void onBytesWritten(long bytesWritten) {
+                progressTracker.bytesWritten = bytesWritten;
+                progressTracker.update(bytesWritten);
+            }
+        });
+
+        List<String> testCasesSheetNames = new ArrayList<>();
+        if (partsStatistics == null) {
+            progressTracker.startStage(ReportStage.WRITING_ROWS, testCaseStore.size());
+            testCasesSheetNames = createTestCasesSheets(reportExcelFile, testCaseStore, 0, testCaseStore.size());
+        }
+
+        progressTracker.startStage(ReportStage.WRITING_SUMMARY, -1);
+        List<Verdict> summaryVerdicts = getSummaryVerdicts(verdictCounts);
+        Sheet chartSheet = createSummarySheet(reportExcelFile, summaryVerdicts, verdictCounts, testCasesSheetNames);
+        if (partsStatistics != null) {
+            createBreakdownSheet(reportExcelFile, "Workbooks", "*Workbooks Table*", "Workbook", partsStatistics, summaryVerdicts);
+        }
+
+        Sheet filesSheet = null, groupsSheet = null;
+        if (includeBreakdown && !reportBreakdown.getFilesStatistics().isEmpty()) {
+            filesSheet = createBreakdownSheet(reportExcelFile, "Files", "*Files Table*", "File",
+                    reportBreakdown.getFilesStatistics(), summaryVerdicts);
+            groupsSheet = createBreakdownSheet(reportExcelFile, "Groups", "*Groups Table*", "Group",
+                    reportBreakdown.getGroupsStatistics(), summaryVerdicts);
+        }
+        if (historyReport != null) {
+            createRegressionsSheet(reportExcelFile, historyReport);
+            createFlakyTestsSheet(reportExcelFile, historyReport);
+        }
+
+        if (includeChart) {
+            progressTracker.startStage(ReportStage.RENDERING_CHART, -1);
+            if (chartMode == ChartMode.IMAGE) {
+                reportExcelFile.createTCsChart(chartSheet, verdictCounts);
+            } else {
+                // Bound to the Result/Count cells below the table header
+                reportExcelFile.createNativeTCsChart(chartSheet, chartMode == ChartMode.NATIVE_BAR ? ChartTypes.BAR : ChartTypes.PIE,
+                        summaryVerdicts, verdictCounts, "A2");
+            }
+            if (filesSheet != null) {
+                createBreakdownChart(reportExcelFile, filesSheet, "Test Cases per File", reportBreakdown.getFilesStatistics(), summaryVerdicts);
+                createBreakdownChart(reportExcelFile, groupsSheet, "Test Cases per Group", reportBreakdown.getGroupsStatistics(), summaryVerdicts);
+            }
+        }
+        progressTracker.startStage(ReportStage.WRITING_FILE, -1);
+        reportExcelFile.createFile();
+    }
+
+    /**
+     * Creates the test cases table, continued on numbered sheets after maxRowsPerSheet rows.
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param testCaseStore   The test cases of every parsed file.
+     * @param fromIndex       The store index of the first test case written, inclusive.
+     * @param toIndex         The store index of the last test case written, exclusive.
+     * @return The names of the created sheets.
+     */
+    private List<String> createTestCasesSheets(ExcelFile reportExcelFile, TestCaseStore testCaseStore, int fromIndex, int toIndex) {
+        List<Sheet> testCasesSheets = reportExcelFile.createSplitTable("Test Cases Table", "*Test Cases Table*", new ArrayList<>() {{
+            //Columns Data
+            add("Title");
+            add("Time");
+            add("Result");
+            if (testCaseStore.hasAttempts()) {
+                // The attempt number of each row when all are kept, else how many were merged into it
+                add(testCaseStore.getAttemptsColumnName());
+            }
+        }}, testCaseStore, fromIndex, toIndex, maxRowsPerSheet);
+        List<String> testCasesSheetNames = new ArrayList<>();
+        for (Sheet testCasesSheet : testCasesSheets) {
+            testCasesSheetNames.add(testCasesSheet.getSheetName());
+        }
+        return testCasesSheetNames;
+    }
+
+    /**
+     * Creates the summary sheet holding the count of each verdict.
+     *
+     * @param reportExcelFile     The ExcelFile to fill.
+     * @param summaryVerdicts     The verdicts listed in the summary table.
+     * @param verdictCounts       The verdict tally of the test cases of the workbook.
+     * @param testCasesSheetNames The names of the sheets holding the test cases table, empty if the workbook has none.
+     * @return The created Sheet.
+     */
+    private Sheet createSummarySheet(ExcelFile reportExcelFile, List<Verdict> summaryVerdicts, VerdictCounts verdictCounts,
+                                     List<String> testCasesSheetNames) {
+        ArrayList<ArrayList<String>> chartTableData = createSummaryTableData(summaryVerdicts, verdictCounts,
+                testCasesSheetNames, useCountFormulas);
+        Sheet chartSheet = reportExcelFile.createSheet("Summary");
+        reportExcelFile.createTable(chartSheet, "*Test Summary Table*", "A1", "B" + (chartTableData.size() + 1), 2, new ArrayList<>() {{
+            add("Result");
+            add("Count");
+        }}, chartTableData.size(), chartTableData);
+        return chartSheet;
+    }
+
+    /**
+     * Creates a breakdown sheet holding one table row per file or group.
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param sheetName       The name of the sheet.
+     * @param tableName       The display name of the table.
+     * @param nameColumn      The name of the first column.
+     * @param rowsStatistics  The statistics of each row.
+     * @param verdicts        The verdicts with a count column.
+     * @return The created Sheet.
+     */
+    private Sheet createBreakdownSheet(ExcelFile reportExcelFile, String sheetName, String tableName, String nameColumn,
+                                      List<GroupStatistics> rowsStatistics, List<Verdict> verdicts) {
+        BreakdownTableData breakdownTableData = new BreakdownTableData(rowsStatistics, verdicts);
+        Sheet breakdownSheet = reportExcelFile.createSheet(sheetName);
+        reportExcelFile.createTable(breakdownSheet, tableName, "A1",
+                CellReference.convertNumToColString(breakdownTableData.getColumnsCount() - 1) + (rowsStatistics.size() + 1),
+                breakdownTableData.getColumnNames(nameColumn), breakdownTableData);
+        // Group paths are long, the counts and durations are short
+        breakdownSheet.setColumnWidth(0, 20000);
+        for (int columnIndex = 1; columnIndex < breakdownTableData.getColumnsCount(); columnIndex++) {
+            breakdownSheet.setColumnWidth(columnIndex, 4000);
+        }
+        return breakdownSheet;
+    }
+
+    /**
+     * Creates the sheet listing the tests that passed the last time they ran and fail in the recorded run.
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param historyReport   The regressed and flaky tests.
+     */
+    private void createRegressionsSheet(ExcelFile reportExcelFile, HistoryReport historyReport) {
+        ArrayList<ArrayList<String>> regressionsTableData = new ArrayList<>();
+        for (RegressedTest regressedTest : historyReport.getRegressedTests()) {
+            ArrayList<String> regressionRow = new ArrayList<>();
+            regressionRow.add(regressedTest.getTestCaseId());
+            regressionRow.add(regressedTest.getTitle());
+            regressionRow.add(regressedTest.getPassedRun().getStartTime());
+            regressionRow.add(regressedTest.getVerdict().getDisplayName());
+            regressionsTableData.add(regressionRow);
+        }
+        createHistorySheet(reportExcelFile, "Regressions", "*Regressions Table*", new ArrayList<>() {{
+            add("Test Case ID");
+            add("Title");
+            add("Last Passed Run");
+            add("Result");
+        }}, regressionsTableData, "No test regressed since its previous run");
+    }
+
+    /**
+     * Creates the sheet listing the tests that flipped most often between passing and failing over the latest runs.
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param historyReport   The regressed and flaky tests.
+     */
+    private void createFlakyTestsSheet(ExcelFile reportExcelFile, HistoryReport historyReport) {
+        ArrayList<ArrayList<String>> flakyTestsTableData = new ArrayList<>();
+        for (FlakyTest flakyTest : historyReport.getFlakyTests()) {
+            ArrayList<String> flakyTestRow = new ArrayList<>();
+            flakyTestRow.add(flakyTest.getTestCaseId());
+            flakyTestRow.add(flakyTest.getTitle());
+            flakyTestRow.add("number=" + flakyTest.getRunsCount());
+            flakyTestRow.add("number=" + flakyTest.getFailuresCount());
+            flakyTestRow.add("number=" + flakyTest.getFlipsCount());
+            flakyTestRow.add("number=" + flakyTest.getFlipRate());
+            flakyTestsTableData.add(flakyTestRow);
+        }
+        createHistorySheet(reportExcelFile, "Flaky Tests", "*Flaky Tests Table*", new ArrayList<>() {{
+            add("Test Case ID");
+            add("Title");
+            add("Runs");
+            add("Failures");
+            add("Flips");
+            add("Flip Rate");
+        }}, flakyTestsTableData, "No test flipped between pass and fail over the last "
+                + historyReport.getFlakyRunsCount() + " runs");
+    }
+
+    /**
+     * Creates a history sheet holding a table, or only a message if the table would be empty
+     * (a table needs at least one data row).
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param sheetName       The name of the sheet.
+     * @param tableName       The display name of the table.
+     * @param columnNames     The names of the table columns.
+     * @param tableData       The table rows.
+     * @param emptyMessage    The message written instead of an empty table.
+     */
+    private void createHistorySheet(ExcelFile reportExcelFile, String sheetName, String tableName, ArrayList<String> columnNames,
+                                    ArrayList<ArrayList<String>> tableData, String emptyMessage) {
+        Sheet historySheet = reportExcelFile.createSheet(sheetName);
+        if (tableData.isEmpty()) {
+            reportExcelFile.createRow(historySheet).createCell(0).setCellValue(emptyMessage);
+            historySheet.setColumnWidth(0, 20000);
+            return;
+        }
+        reportExcelFile.createTable(historySheet, tableName, "A1",
+                CellReference.convertNumToColString(columnNames.size() - 1) + (tableData.size() + 1),
+                columnNames.size(), columnNames, tableData.size(), tableData);
+        // Test case IDs are GUIDs, titles are long, the figures are short
+        historySheet.setColumnWidth(0, 10000);
+        historySheet.setColumnWidth(1, 20000);
+        for (int columnIndex = 2; columnIndex < columnNames.size(); columnIndex++) {
+            historySheet.setColumnWidth(columnIndex, 5000);
+        }
+    }
+
+    /**
+     * Creates the stacked bar chart of a breakdown sheet, next to its table. Only the first rows are charted
+     * when there are more than MAX_CHART_CATEGORIES.
+     *
+     * @param reportExcelFile The ExcelFile to fill.
+     * @param breakdownSheet  The breakdown sheet.
+     * @param chartTitle      The title of the chart.
+     * @param rowsStatistics  The statistics of each table row.
+     * @param verdicts        The verdicts with a count column.
+     */
+    private void createBreakdownChart(ExcelFile reportExcelFile, Sheet breakdownSheet, String chartTitle,
+                                      List<GroupStatistics> rowsStatistics, List<Verdict> verdicts) {
+        int categoriesCount = Math.min(rowsStatistics.size(), MAX_CHART_CATEGORIES);
+        if (categoriesCount < rowsStatistics.size()) {
+            chartTitle += " (first " + categoriesCount + " of " + rowsStatistics.size() + ")";
+        }
+        String[] categories = new String[categoriesCount];
+        long[][] counts = new long[verdicts.size()][categoriesCount];
+        for (int categoryIndex = 0; categoryIndex < categoriesCount; categoryIndex++) {
+            GroupStatistics rowStatistics = rowsStatistics.get(categoryIndex);
+            categories[categoryIndex] = rowStatistics.getName();
+            for (int verdictIndex = 0; verdictIndex < verdicts.size(); verdictIndex++) {
+                counts[verdictIndex][categoryIndex] = rowStatistics.getVerdictCounts().getCount(verdicts.get(verdictIndex));
+            }
+        }
+        BreakdownTableData breakdownTableData = new BreakdownTableData(rowsStatistics, verdicts);
+        int anchorColumn = breakdownTableData.getColumnsCount() + 1;
+        if (chartMode == ChartMode.IMAGE) {
+            reportExcelFile.createStackedBarChartImage(breakdownSheet, chartTitle, categories, verdicts, counts, anchorColumn);
+        } else {
+            reportExcelFile.createNativeStackedBarChart(breakdownSheet, chartTitle, categories, verdicts, counts, "A2",
+                    CellReference.convertNumToColString(breakdownTableData.getFirstVerdictColumn()) + "2", anchorColumn);
+        }
+    }
+
+    /**
+     * Throws if the generation was cancelled or the generating thread was interrupted.
+     */
+    private void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Report generation cancelled");
+        }
+    }
+
+    /**
+     * Resolves the row window size for a table of the given size.
+     *
+     * @param rowsCount The number of test case rows.
+     * @return The row window size to pass to ExcelFile.
+     */
+    private int getEffectiveRowWindowSize(int rowsCount) {
+        if (rowWindowSize != AUTO_ROW_WINDOW_SIZE) {
+            return rowWindowSize;
+        }
+        // Stream large tables through a row window instead of holding every row in memory
+        return rowsCount > STREAMING_ROWS_THRESHOLD ? ExcelFile.DEFAULT_ROW_WINDOW_SIZE : 0;
+    }
+
+    /**
+     * Prints the details of the stored test cases to the console, one print call per chunk of test cases
+     * instead of one synchronized println each.
+     *
+     * @param testCaseStore The TestCaseStore to be printed.
+     */
+    private void printTestCases(TestCaseStore testCaseStore) {
+        StringBuilder printedChunk = new StringBuilder();
+        // What println added after the details ending with "\n\n" when each test case was printed on its own
+        String testCaseEnd = "\n\n" + System.lineSeparator();
+        for (int tcIndex = 0; tcIndex < testCaseStore.size(); tcIndex++) {
+            // Print test case details
+            printedChunk.append("Title: ").append(testCaseStore.getTitle(tcIndex)).append("\nTime: ").append(testCaseStore.getStartTime(tcIndex))
+                    .append("\nResult: ").append(testCaseStore.getResult(tcIndex)).append(testCaseEnd);
+            if ((tcIndex + 1) % PRINTED_CHUNK_ROWS == 0) {
+                System.out.print(printedChunk);
+                printedChunk.setLength(0);
+            }
+        }
+        System.out.print(printedChunk);
+    }
+
+    /**
+     * Gets the verdicts listed in the summary table.
+     * The five verdicts of the "5_extended" set are always listed, any other result only when it occurs.
+     *
+     * @param verdictCounts The verdict tally of all test cases.
+     * @return The listed verdicts, in table order.
+     */
+    private List<Verdict> getSummaryVerdicts(VerdictCounts verdictCounts) {
+        List<Verdict> summaryVerdicts = new ArrayList<>();
+        for (Verdict verdict : Verdict.values()) {
+            if (verdict != Verdict.OTHER || verdictCounts.getCount(verdict) > 0) {
+                summaryVerdicts.add(verdict);
+            }
+        }
+        return summaryVerdicts;
+    }
+
+    /**
+     * Builds the summary table rows from a verdict tally.
+     *
+     * @param summaryVerdicts    The verdicts listed in the summary table.
+     * @param verdictCounts      The verdict tally of all test cases.
+     * @param testCasesSheetNames The names of the sheets holding the test cases table, empty if the workbook has none.
+     * @param useCountFormulas   True to write live COUNTIF formulas instead of the tallied counts.
+     * @return An ArrayList of ArrayLists of String, one (Result, Count) row per verdict.
+     */
+    private ArrayList<ArrayList<String>> createSummaryTableData(List<Verdict> summaryVerdicts, VerdictCounts verdictCounts,
+                                                                List<String> testCasesSheetNames, boolean useCountFormulas) {
+        ArrayList<ArrayList<String>> summaryTableData = new ArrayList<>();
+        for (Verdict verdict : summaryVerdicts) {
+            ArrayList<String> summaryRow = new ArrayList<>();
+            summaryRow.add(verdict.getDisplayName());
+            if (useCountFormulas && verdict != Verdict.OTHER && !testCasesSheetNames.isEmpty()) {
+                // One COUNTIF per sheet of the split table
+                StringBuilder countFormula = new StringBuilder("formula=");
+                for (String testCasesSheetName : testCasesSheetNames) {
+                    if (countFormula.length() > "formula=".length()) {
+                        countFormula.append('+');
+                    }
+                    countFormula.append("COUNTIF('").append(testCasesSheetName).append("'!C:C, \"").append(verdict.getResult()).append("\")");
+                }
+                summaryRow.add(countFormula.toString());
+            } else {
+                summaryRow.add("number=" + verdictCounts.getCount(verdict));
+            }
+            summaryTableData.add(summaryRow);
+        }
+        return summaryTableData;
+    }
+
+    /**
+     * Represents the workbook as a report sink: the whole workbook is built and written when the sink is finished,
+     * reading the rows from the store rather than streaming them, since the row count decides its sheets and parts.
+     * When the test cases are split over part workbooks, the parts are written first, then the index workbook.
+     */
+    private class WorkbookReportSink implements ReportSink {
+        private final ExcelFile reportExcelFile;         // The workbook being written, the index of the parts if split
+        private final String outputFolder;               // The folder of the workbooks, ending with a separator
+        private final String reportName;                 // The name of the workbook without extension
+        private final ProgressTracker progressTracker;   // Reports the workbook progress
+        private final List<ExcelFile> partExcelFiles = new ArrayList<>(); // The part workbooks, in row order
+        private TestCaseStore testCaseStore;             // The test cases of the run
+        private VerdictCounts verdictCounts;             // The verdict tally of the test cases
+        private ReportBreakdown reportBreakdown;         // The statistics per file and per group
+        private HistoryReport historyReport;             // The regressed and flaky tests, or null
+
+        /**
+         * Constructor for WorkbookReportSink.
+         *
+         * @param reportExcelFile The workbook to write.
+         * @param outputFolder    The folder of the workbooks, ending with a separator.
+         * @param reportName      The name of the workbook without extension.
+         * @param progressTracker The tracker reporting progress and checking for cancellation.
+         */
+        private WorkbookReportSink(ExcelFile reportExcelFile, String outputFolder, String reportName, ProgressTracker progressTracker) {
+            this.reportExcelFile = reportExcelFile;
+            this.outputFolder = outputFolder;
+            this.reportName = reportName;
+            this.progressTracker = progressTracker;
+        }
+
+        @Override
+        public void begin(TestCaseStore testCaseStore, VerdictCounts verdictCounts, ReportBreakdown reportBreakdown,
+                          HistoryReport historyReport) {
+            this.testCaseStore = testCaseStore;
+            this.verdictCounts = verdictCounts;
+            this.reportBreakdown = reportBreakdown;
+            this.historyReport = historyReport;
+        }
+
+        @Override
+        public boolean streamsTestCases() {
+            return false;
+        }
+
+        @Override
+        public void writeTestCase(int tcIndex) {
+            throw new UnsupportedOperationException("The workbook reads the test cases from the store when finished");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            List<GroupStatistics> partsStatistics = isSplitIntoWorkbooks(testCaseStore.size()) ? writePartWorkbooks() : null;
+            writeWorkbook(reportExcelFile, testCaseStore, verdictCounts, reportBreakdown, historyReport, partsStatistics,
+                    progressTracker);
+        }
+
+        /**
+         * Writes the test cases to part workbooks of maxRowsPerWorkbook rows, on up to parallelism threads.
+         * Each part holds its test cases table and the summary of its own test cases. The progress advances
+         * as parts complete; a failed or cancelled part stops the others.
+         *
+         * @return The statistics of each part, named after its file.
+         * @throws IOException If a part workbook cannot be written.
+         */
+        private List<GroupStatistics> writePartWorkbooks() throws IOException {
+            int rowsCount = testCaseStore.size();
+            int partsCount = (int) (((long) rowsCount + maxRowsPerWorkbook - 1) / maxRowsPerWorkbook);
+            List<GroupStatistics> partsStatistics = new ArrayList<>();
+            for (int partIndex = 0; partIndex < partsCount; partIndex++) {
+                int fromIndex = partIndex * maxRowsPerWorkbook, toIndex = (int) Math.min((long) fromIndex + maxRowsPerWorkbook, rowsCount);
+                // Streamed as the whole table would be, so the parts written at once stay within their row windows
+                ExcelFile partExcelFile = new ExcelFile(outputFolder, reportName + " Part " + (partIndex + 1),
+                        getEffectiveRowWindowSize(rowsCount));
+                partExcelFiles.add(partExcelFile);
+                GroupStatistics partStatistics = new GroupStatistics(partExcelFile.getOutputFile().getName());
+                for (int tcIndex = fromIndex; tcIndex < toIndex; tcIndex++) {
+                    partStatistics.add(testCaseStore.getVerdict(tcIndex), testCaseStore.getStartTimeMillis(tcIndex),
+                            testCaseStore.getEndTimeMillis(tcIndex));
+                }
+                partsStatistics.add(partStatistics);
+            }
+
+            progressTracker.startStage(ReportStage.WRITING_ROWS, rowsCount);
+            progressTracker.rowsWritten = 0;
+            List<Verdict> summaryVerdicts = getSummaryVerdicts(verdictCounts);
+            AtomicInteger threadCounter = new AtomicInteger();
+            ExecutorService partExecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, partsCount)), runnable -> {
+                Thread thread = new Thread(runnable, "workbook-part-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                CompletionService<Integer> partCompletions = new ExecutorCompletionService<>(partExecutor);
+                for (int partIndex = 0; partIndex < partsCount; partIndex++) {
+                    ExcelFile partExcelFile = partExcelFiles.get(partIndex);
+                    VerdictCounts partVerdictCounts = partsStatistics.get(partIndex).getVerdictCounts();
+                    int fromIndex = partIndex * maxRowsPerWorkbook, toIndex = (int) Math.min((long) fromIndex + maxRowsPerWorkbook, rowsCount);
+                    partCompletions.submit(() -> {
+                        writePartWorkbook(partExcelFile, fromIndex, toIndex, summaryVerdicts, partVerdictCounts);
+                        return toIndex - fromIndex;
+                    });
+                }
+                for (int partIndex = 0; partIndex < partsCount; partIndex++) {
+                    progressTracker.rowsWritten += partCompletions.take().get();
+                    progressTracker.update(progressTracker.rowsWritten);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Report generation cancelled");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (RuntimeException) e.getCause();
+            } finally {
+                // Stop the remaining parts before the caller discards their files
+                partExecutor.shutdownNow();
+                try {
+                    partExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return partsStatistics;
+        }
+
+        /**
+         * Fills and writes one part workbook. Runs on a part thread: it reads the store, which is no longer
+         * appended to, and only checks for cancellation.
+         *
+         * @param partExcelFile     The part workbook.
+         * @param fromIndex         The store index of the first test case of the part, inclusive.
+         * @param toIndex           The store index of the last test case of the part, exclusive.
+         * @param summaryVerdicts   The verdicts listed in the summary table, the same in every part.
+         * @param partVerdictCounts The verdict tally of the test cases of the part.
+         * @throws IOException If the workbook cannot be written.
+         */
+        private void writePartWorkbook(ExcelFile partExcelFile, int fromIndex, int toIndex, List<Verdict> summaryVerdicts,
+                                       VerdictCounts partVerdictCounts) throws IOException {
+            partExcelFile.setProgressListener(new ExcelProgressListener() {
+                @Override
+                public void onRowsWritten(int rowsWritten, int rowsCount) {
+                    checkCancelled();
+                }
+
+                @Override
+                public void onBytesWritten(long bytesWritten) {
+                    checkCancelled();
+                }
+            });
+            List<String> testCasesSheetNames = createTestCasesSheets(partExcelFile, testCaseStore, fromIndex, toIndex);
+            createSummarySheet(partExcelFile, summaryVerdicts, partVerdictCounts, testCasesSheetNames);
+            partExcelFile.createFile();
+        }
+
+        @Override
+        public void discard() {
+            reportExcelFile.discard();
+            for (ExcelFile partExcelFile : partExcelFiles) {
+                partExcelFile.discard();
+            }
+        }
+
+        @Override
+        public File getOutputFile() {
+            return reportExcelFile.getOutputFile();
+        }
+
+        @Override
+        public List<File> getOutputFiles() {
+            List<File> outputFiles = new ArrayList<>();
+            outputFiles.add(reportExcelFile.getOutputFile());
+            for (ExcelFile partExcelFile : partExcelFiles) {
+                outputFiles.add(partExcelFile.getOutputFile());
+            }
+            return outputFiles;
+        }
+    }
+
+    /**
+     * Tracks the counters and stage timings of one generation run, notifies the progress listener and checks
+     * for cancellation at every update.
+     */
+    private class ProgressTracker {
+        private final long startNanos = System.nanoTime(); // When the run started
+        private final Map<ReportStage, Long> stagesNanos = new EnumMap<>(ReportStage.class); // Time spent in each finished stage
+        private ReportStage stage;       // The current stage
+        private long stageTotal;         // Work items of the current stage, or -1 if unknown
+        private long stageStartNanos;    // When the current stage started
+        private int filesParsed;         // Files parsed so far
+        private long rowsWritten;        // Test case rows written so far
+        private long bytesWritten;       // Workbook bytes written so far
+
+        /**
+         * Ends the current stage, adding its time to the stage timings, and starts and reports a new stage.
+         * A stage entered again, such as the rows written to the streaming outputs and then to the workbook,
+         * adds up.
+         *
+         * @param stage      The stage being started.
+         * @param stageTotal The work items of the stage, or -1 if unknown.
+         */
+        private void startStage(ReportStage stage, long stageTotal) {
+            long nowNanos = System.nanoTime();
+            if (this.stage != null) {
+                stagesNanos.merge(this.stage, nowNanos - stageStartNanos, Long::sum);
+            }
+            this.stage = stage;
+            this.stageTotal = stageTotal;
+            this.stageStartNanos = nowNanos;
+            update(0);
+        }
+
+        /**
+         * Reports the progress of the current stage.
+         *
+         * @param stageDone The work items of the current stage done so far.
+         */
+        private void update(long stageDone) {
+            if (stage != ReportStage.DONE) {
+                checkCancelled();
+            }
+            if (progressListener != null) {
+                progressListener.onProgress(new ReportProgress(stage, stageDone, stageTotal,
+                        System.nanoTime() - stageStartNanos, filesParsed, rowsWritten, bytesWritten));
+            }
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package report_generation;
+
+import data_types.MergePolicy;
+import data_types.ReportResult;
+import file_handlers.ExcelFile;
+import file_handlers.ParsedResultsCache;
+import file_handlers.TestReportReader;
+import file_handlers.TestReportReaders;
+import file_handlers.VerdictHistoryStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Represents the headless command-line entry point of the report generator.
+ * It never touches Swing, so it runs on CI agents without a display.
+ */
+public class ReportGeneratorCLI {
+    public static final int EXIT_SUCCESS = 0;      // Workbook written, every input parsed
+    public static final int EXIT_PARSE_ERRORS = 1; // Workbook written, but some inputs failed to parse
+    public static final int EXIT_USAGE_ERROR = 2;  // Invalid arguments or no input file matched
+    public static final int EXIT_WRITE_ERROR = 3;  // An output file could not be written
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ReportGeneratorCLI [options] <input glob>...",
+            "       ReportGeneratorCLI [options] --watch <folder>",
+            "       ReportGeneratorCLI --serve <port> [service options]",
+            "Generates the test summary workbook, and optionally CSV, JSON Lines and HTML reports, from XML test reports.",
+            "The format of each report is detected: " + getFormatNames() + ".",
+            "Reports may be gzip-compressed (.xml.gz) or inside .zip, .tar, .tar.gz and .tgz archives.",
+            "",
+            "Options:",
+            "  -o, --output <path>  Output .xlsx, .csv, .jsonl or .html file, or folder (default: "
+                    + ReportGenerator.DEFAULT_OUTPUT_FOLDER + ReportGenerator.DEFAULT_REPORT_NAME + ".xlsx)",
+            "  --outputs <list>     Comma-separated files written in one pass: xlsx, csv, jsonl, html",
+            "                       (default: the extension of --output, else xlsx)",
+            "  --threads <n>        Number of parser threads (default: available processors)",
+            "  --row-window <n>     Rows kept in memory while writing, 0 for in-memory (default: automatic)",
+            "  --sheet-rows <n>     Test case rows per sheet, the table continues on numbered sheets (default: "
+                    + (ExcelFile.MAX_SHEET_ROWS - 1) + ", the Excel limit)",
+            "  --workbook-rows <n>  Split the test cases over workbooks of n rows written in parallel, with an index",
+            "                       workbook of their totals (default: one workbook)",
+            "  --format <name>      Read every report in this format instead of detecting it",
+            "  --dom                Extract test cases of native reports through a DOM tree instead of streaming",
+            "  --mapped             Scan plain native reports as memory-mapped bytes, streaming the ones it cannot read",
+            "  --merge <policy>     Merge test cases read more than once, keyed by test case ID, else title and group path:",
+            "                       latest (latest start time wins), worst (worst verdict wins) or all (keep every",
+            "                       attempt, numbered) (default: every test case is a row of its own)",
+            "  --cache <folder>     Cache parsed files in this folder and only parse new or changed files",
+            "  --cache-size <MiB>   Size limit of the cache, least recently used entries are evicted (default: "
+                    + ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES / (1024 * 1024) + ")",
+            "  --formulas           Write live COUNTIF formulas into the summary table",
+            "  --chart <type>       Summary chart: pie or bar (native Excel charts), or image (JFreeChart picture) (default: pie)",
+            "  --no-chart           Skip the summary chart",
+            "  --no-breakdown       Skip the per-file and per-group sheets",
+            "  --history <folder>   Record the verdicts in this history folder and add the regressed and flaky tests sheets",
+            "  --flaky-runs <n>     Number of latest runs searched for flaky tests (default: "
+                    + ReportGenerator.DEFAULT_FLAKY_RUNS_COUNT + ")",
+            "  --no-run-summary     Skip the <name>.run.json file with the stage timings, sizes and per-file measurements",
+            "  --verbose            Print every parsed test case",
+            "  --watch <folder>     Keep running and update the workbook as XML reports or archives arrive in the folder",
+            "  --debounce <ms>      Quiet time before an arrived file is parsed in watch mode (default: "
+                    + ReportFolderWatcher.DEFAULT_DEBOUNCE_MILLIS + ")",
+            "  --interval <s>       Minimum time between two workbook updates in watch mode (default: "
+                    + ReportFolderWatcher.DEFAULT_REWRITE_INTERVAL_MILLIS / 1000 + ")",
+            "  --serve <port>       Run a report service on this loopback port (0 picks a free one): each POST to /generate",
+            "                       carries the options and inputs of one run, one argument per line",
+            "  --jobs <n>           Large jobs the service runs at once (default: "
+                    + ReportService.DEFAULT_JOBS_COUNT + ")",
+            "  --job-memory <MiB>   Largest heap a service job may reserve, larger jobs are refused (default: "
+                    + ReportService.getDefaultMaxJobMemoryBytes() / (1024 * 1024) + ")",
+            "  --small-jobs <KiB>   Jobs with fewer input bytes are batched on one single-threaded worker (default: "
+                    + ReportService.DEFAULT_SMALL_JOB_BYTES / 1024 + ")",
+            "  --token-file <path>  File the service writes its token to, readable by its owner only; requests carry the",
+            "                       token in the " + ReportService.TOKEN_HEADER + " header and the arguments as "
+                    + ReportService.ARGUMENTS_CONTENT_TYPE,
+            "                       (default: ~/.report-service-<port>.token)",
+            "  -h, --help           Show this help",
+            "",
+            "Exit codes: 0 success, 1 parse errors, 2 usage error, 3 write error.");
+
+    /**
+     * Runs the command line and exits with its status code.
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the command line without exiting the JVM.
+     *
+     * @param args The command-line arguments.
+     * @return The exit code.
+     */
+    public static int run(String[] args) {
+        Invocation invocation;
+        try {
+            invocation = parseInvocation(args);
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            if (e.isUsageShown()) {
+                System.err.println(USAGE);
+            }
+            return EXIT_USAGE_ERROR;
+        }
+        if (invocation.helpRequested) {
+            System.out.println(USAGE);
+            return EXIT_SUCCESS;
+        }
+        if (invocation.watchFolderPath != null) {
+            return watch(invocation.reportGenerator, invocation.watchFolderPath, invocation.outputFolderPath,
+                    invocation.reportName, invocation.debounceMillis, invocation.rewriteIntervalMillis);
+        }
+        if (invocation.servePort >= 0) {
+            return serve(invocation);
+        }
+
+        try {
+            invocation.reportGenerator.setMessageListener(System.out::println);
+            ReportResult reportResult = generate(invocation);
+            for (String outputFilePath : reportResult.getOutputFilePaths()) {
+                System.out.println("Report written to " + outputFilePath);
+            }
+            if (reportResult.getRunSummaryFilePath() != null) {
+                System.out.println("Run summary written to " + reportResult.getRunSummaryFilePath());
+            }
+            if (reportResult.hasParseErrors()) {
+                System.err.println("Failed to parse: " + reportResult.getIngestionStatistics().getFailedFilePaths());
+                return EXIT_PARSE_ERRORS;
+            }
+            return EXIT_SUCCESS;
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE_ERROR;
+        } catch (IOException e) {
+            System.err.println("Cannot write report: " + e.getMessage());
+            return EXIT_WRITE_ERROR;
+        }
+    }
+
+    /**
+     * Parses the command-line arguments into a configured generator and what it should do, expanding the
+     * input globs. Nothing is generated or printed, so the report service parses its requests the same way.
+     *
+     * @param args The command-line arguments.
+     * @return The parsed Invocation.
+     * @throws UsageException If the arguments are invalid, the cache folder cannot be created or no input matched.
+     */
+    static Invocation parseInvocation(String[] args) throws UsageException {
+        Invocation invocation = new Invocation();
+        ReportGenerator reportGenerator = invocation.reportGenerator;
+        String outputPath = null, cacheFolderPath = null;
+        long maxCacheBytes = ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES;
+        List<OutputFormat> outputFormats = null;
+        List<String> inputPatterns = new ArrayList<>();
+        try {
+            for (int argIndex = 0; argIndex < args.length; argIndex++) {
+                String arg = args[argIndex];
+                switch (arg) {
+                    case "-o":
+                    case "--output":
+                        outputPath = requireValue(args, ++argIndex, arg);
+                        break;
+                    case "--outputs":
+                        outputFormats = parseOutputFormats(requireValue(args, ++argIndex, arg));
+                        break;
+                    case "--threads":
+                        reportGenerator.setParallelism(Integer.parseInt(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--row-window":
+                        reportGenerator.setRowWindowSize(Integer.parseInt(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--sheet-rows":
+                        reportGenerator.setMaxRowsPerSheet(Integer.parseInt(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--workbook-rows":
+                        reportGenerator.setMaxRowsPerWorkbook(Integer.parseInt(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--format":
+                        reportGenerator.setReportReader(TestReportReaders.getReader(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--dom":
+                        reportGenerator.setExtractionMode(ExtractionMode.DOM);
+                        break;
+                    case "--mapped":
+                        reportGenerator.setExtractionMode(ExtractionMode.MAPPED);
+                        break;
+                    case "--merge":
+                        reportGenerator.setMergePolicy(parseMergePolicy(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--cache":
+                        cacheFolderPath = requireValue(args, ++argIndex, arg);
+                        break;
+                    case "--cache-size":
+                        maxCacheBytes = Long.parseLong(requireValue(args, ++argIndex, arg)) * 1024 * 1024;
+                        break;
+                    case "--formulas":
+                        reportGenerator.setUseCountFormulas(true);
+                        break;
+                    case "--chart":
+                        reportGenerator.setChartMode(parseChartMode(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--no-chart":
+                        reportGenerator.setIncludeChart(false);
+                        break;
+                    case "--no-breakdown":
+                        reportGenerator.setIncludeBreakdown(false);
+                        break;
+                    case "--history":
+                        invocation.historyFolderPath = requireValue(args, ++argIndex, arg);
+                        break;
+                    case "--flaky-runs":
+                        reportGenerator.setFlakyRunsCount(Integer.parseInt(requireValue(args, ++argIndex, arg)));
+                        break;
+                    case "--no-run-summary":
+                        reportGenerator.setWriteRunSummary(false);
+                        break;
+                    case "--verbose":
+                        reportGenerator.setPrintTestCases(true);
+                        break;
+                    case "--watch":
+                        invocation.watchFolderPath = requireValue(args, ++argIndex, arg);
+                        break;
+                    case "--debounce":
+                        invocation.debounceMillis = Long.parseLong(requireValue(args, ++argIndex, arg));
+                        break;
+                    case "--interval":
+                        invocation.rewriteIntervalMillis = Long.parseLong(requireValue(args, ++argIndex, arg)) * 1000;
+                        break;
+                    case "--serve":
+                        invocation.servePort = Integer.parseInt(requireValue(args, ++argIndex, arg));
+                        break;
+                    case "--jobs":
+                        invocation.serviceJobsCount = Integer.parseInt(requireValue(args, ++argIndex, arg));
+                        break;
+                    case "--job-memory":
+                        invocation.maxJobMemoryBytes = Long.parseLong(requireValue(args, ++argIndex, arg)) * 1024 * 1024;
+                        break;
+                    case "--small-jobs":
+                        invocation.smallJobBytes = Long.parseLong(requireValue(args, ++argIndex, arg)) * 1024;
+                        break;
+                    case "--token-file":
+                        invocation.tokenFilePath = requireValue(args, ++argIndex, arg);
+                        break;
+                    case "-h":
+                    case "--help":
+                        invocation.helpRequested = true;
+                        return invocation;
+                    default:
+                        if (arg.startsWith("-")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        inputPatterns.add(arg);
+                }
+            }
+            if (invocation.watchFolderPath != null && invocation.historyFolderPath != null) {
+                // Every workbook update would be recorded as a run
+                throw new IllegalArgumentException("--history cannot be combined with --watch");
+            }
+            if (invocation.servePort >= 0 && (invocation.watchFolderPath != null || !inputPatterns.isEmpty())) {
+                // The inputs of a service come with each request
+                throw new IllegalArgumentException("--serve cannot be combined with --watch or input files");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage(), true);
+        }
+
+        if (cacheFolderPath != null) {
+            try {
+                reportGenerator.setParsedResultsCache(new ParsedResultsCache(cacheFolderPath, maxCacheBytes));
+            } catch (IOException e) {
+                throw new UsageException("Cannot create cache folder: " + e.getMessage(), false);
+            }
+        }
+
+        // Split the output path into folder and report name
+        if (outputPath != null) {
+            File outputFile = new File(outputPath);
+            OutputFormat outputFileFormat = OutputFormat.fromFileName(outputPath);
+            if (outputFileFormat != null) {
+                invocation.outputFolderPath = outputFile.getAbsoluteFile().getParent();
+                invocation.reportName = outputFile.getName().substring(0, outputFile.getName().length() - outputFileFormat.getFileExtension().length());
+                if (outputFormats == null) {
+                    outputFormats = List.of(outputFileFormat);
+                }
+            } else {
+                invocation.outputFolderPath = outputFile.getPath();
+            }
+        }
+        if (outputFormats != null) {
+            reportGenerator.setOutputFormats(outputFormats);
+        }
+
+        if (invocation.watchFolderPath != null || invocation.servePort >= 0) {
+            return invocation;
+        }
+        try {
+            for (String inputPattern : inputPatterns) {
+                invocation.xmlFilePaths.addAll(expandInputPattern(inputPattern));
+            }
+        } catch (IOException e) {
+            throw new UsageException("Cannot list input files: " + e.getMessage(), false);
+        }
+        if (invocation.xmlFilePaths.isEmpty()) {
+            throw new UsageException("No input XML file matched " + inputPatterns, true);
+        }
+        return invocation;
+    }
+
+    /**
+     * Generates the reports of a parsed invocation, recording the run in its history folder if one is given.
+     *
+     * @param invocation The parsed invocation, with its input files.
+     * @return The ReportResult describing the written files.
+     * @throws UsageException If the history folder cannot be opened.
+     * @throws IOException    If an output file cannot be written.
+     */
+    static ReportResult generate(Invocation invocation) throws UsageException, IOException {
+        VerdictHistoryStore verdictHistoryStore = null;
+        if (invocation.historyFolderPath != null) {
+            try {
+                verdictHistoryStore = new VerdictHistoryStore(invocation.historyFolderPath);
+            } catch (IOException e) {
+                throw new UsageException("Cannot open history: " + e.getMessage(), false);
+            }
+        }
+        try (VerdictHistoryStore closedHistoryStore = verdictHistoryStore) {
+            invocation.reportGenerator.setVerdictHistoryStore(closedHistoryStore);
+            return invocation.reportGenerator.generate(invocation.xmlFilePaths, invocation.outputFolderPath, invocation.reportName);
+        }
+    }
+
+    /**
+     * Runs the report service until the JVM is shut down (e.g., Ctrl+C). The jobs already accepted are
+     * finished before the JVM exits.
+     *
+     * @param invocation The parsed invocation, with the service options.
+     * @return The exit code.
+     */
+    private static int serve(Invocation invocation) {
+        ReportService reportService = new ReportService(invocation.servePort);
+        try {
+            if (invocation.serviceJobsCount >= 0) {
+                reportService.setJobsCount(invocation.serviceJobsCount);
+            }
+            if (invocation.maxJobMemoryBytes >= 0) {
+                reportService.setMaxJobMemoryBytes(invocation.maxJobMemoryBytes);
+            }
+            if (invocation.smallJobBytes >= 0) {
+                reportService.setSmallJobBytes(invocation.smallJobBytes);
+            }
+            reportService.setTokenFilePath(invocation.tokenFilePath);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE_ERROR;
+        }
+        CountDownLatch serviceStopped = new CountDownLatch(1);
+        Thread shutdownHook = new Thread(() -> {
+            reportService.stop();
+            try {
+                // Let the accepted jobs write their reports
+                serviceStopped.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            reportService.start();
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+            System.out.println("Report service listening on " + reportService.getUrl() + ", token in " + reportService.getTokenFilePath());
+            reportService.awaitStop();
+            return EXIT_SUCCESS;
+        } catch (IOException e) {
+            System.err.println("Cannot start report service: " + e.getMessage());
+            return EXIT_WRITE_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_SUCCESS;
+        } finally {
+            serviceStopped.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down, or never added
+            }
+        }
+    }
+
+    /**
+     * Runs the watch mode until the JVM is shut down (e.g., Ctrl+C). The pending test cases are written
+     * to the workbook before the JVM exits.
+     *
+     * @param reportGenerator       The configured generator.
+     * @param watchFolderPath       The folder receiving the XML reports.
+     * @param outputFolderPath      The folder of the workbook, or null for the default folder.
+     * @param reportName            The name of the workbook without the ".xlsx" extension.
+     * @param debounceMillis        Quiet time before an arrived file is parsed.
+     * @param rewriteIntervalMillis Minimum time between two workbook updates.
+     * @return The exit code.
+     */
+    private static int watch(ReportGenerator reportGenerator, String watchFolderPath, String outputFolderPath, String reportName,
+                             long debounceMillis, long rewriteIntervalMillis) {
+        if (!Files.isDirectory(Paths.get(watchFolderPath))) {
+            System.err.println("Not a folder: " + watchFolderPath);
+            return EXIT_USAGE_ERROR;
+        }
+        ReportFolderWatcher reportFolderWatcher = new ReportFolderWatcher(reportGenerator, watchFolderPath, outputFolderPath, reportName);
+        reportFolderWatcher.setDebounceMillis(debounceMillis);
+        reportFolderWatcher.setRewriteIntervalMillis(rewriteIntervalMillis);
+        CountDownLatch watchFinished = new CountDownLatch(1);
+        Thread shutdownHook = new Thread(() -> {
+            reportFolderWatcher.stop();
+            try {
+                // Let the watching thread write the last update
+                watchFinished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        try {
+            reportFolderWatcher.run();
+            return EXIT_SUCCESS;
+        } catch (IOException e) {
+            System.err.println("Cannot watch folder: " + e.getMessage());
+            return EXIT_WRITE_ERROR;
+        } finally {
+            watchFinished.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+    }
+
+    /**
+     * Gets the names of the report formats that can be read.
+     *
+     * @return The format names separated by commas.
+     */
+    private static String getFormatNames() {
+        List<String> formatNames = new ArrayList<>();
+        for (TestReportReader reader : TestReportReaders.getReaders()) {
+            formatNames.add(reader.getFormatName());
+        }
+        return String.join(", ", formatNames);
+    }
+
+    /**
+     * Gets the value following an option.
+     *
+     * @param args     The command-line arguments.
+     * @param argIndex The index of the expected value.
+     * @param option   The option expecting the value.
+     * @return The option value.
+     */
+    private static String requireValue(String[] args, int argIndex, String option) {
+        if (argIndex >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[argIndex];
+    }
+
+    /**
+     * Parses the value of the --chart option.
+     *
+     * @param chartType The chart type: pie, bar or image.
+     * @return The chart mode.
+     */
+    private static ChartMode parseChartMode(String chartType) {
+        switch (chartType.toLowerCase()) {
+            case "pie":
+                return ChartMode.NATIVE_PIE;
+            case "bar":
+                return ChartMode.NATIVE_BAR;
+            case "image":
+                return ChartMode.IMAGE;
+            default:
+                throw new IllegalArgumentException("Unknown chart type: " + chartType);
+        }
+    }
+
+    /**
+     * Parses the value of the --merge option.
+     *
+     * @param policyName The merge policy name: latest, worst or all.
+     * @return The merge policy.
+     */
+    private static MergePolicy parseMergePolicy(String policyName) {
+        switch (policyName.toLowerCase()) {
+            case "latest":
+                return MergePolicy.LATEST;
+            case "worst":
+                return MergePolicy.WORST;
+            case "all":
+                return MergePolicy.KEEP_ALL;
+            default:
+                throw new IllegalArgumentException("Unknown merge policy: " + policyName);
+        }
+    }
+
+    /**
+     * Parses the value of the --outputs option.
+     *
+     * @param outputNames The comma-separated output format names (e.g., "xlsx,html").
+     * @return The output formats, without duplicates.
+     */
+    private static List<OutputFormat> parseOutputFormats(String outputNames) {
+        List<OutputFormat> outputFormats = new ArrayList<>();
+        for (String outputName : outputNames.split(",")) {
+            OutputFormat outputFormat;
+            try {
+                outputFormat = OutputFormat.valueOf(outputName.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown output format: " + outputName);
+            }
+            if (!outputFormats.contains(outputFormat)) {
+                outputFormats.add(outputFormat);
+            }
+        }
+        return outputFormats;
+    }
+
+    /**
+     * Expands an input argument into file paths. Plain paths are taken as they are, and glob patterns
+     * (e.g., "reports/*.xml") are matched below their longest wildcard-free folder, in sorted order.
+     *
+     * @param inputPattern A file path or glob pattern.
+     * @return The matching file paths.
+     * @throws IOException If a folder cannot be listed.
+     */
+    static List<String> expandInputPattern(String inputPattern) throws IOException {
+        if (!containsGlobCharacters(inputPattern)) {
+            return List.of(inputPattern);
+        }
+        String normalizedPattern = inputPattern.replace('\\', '/');
+        int firstWildcardIndex = 0;
+        while (!"*?[{".contains(String.valueOf(normalizedPattern.charAt(firstWildcardIndex)))) {
+            firstWildcardIndex++;
+        }
+        int baseFolderEnd = normalizedPattern.lastIndexOf('/', firstWildcardIndex);
+        Path baseFolder = Paths.get(baseFolderEnd < 0 ? "." : normalizedPattern.substring(0, baseFolderEnd + 1));
+        PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + normalizedPattern.substring(baseFolderEnd + 1));
+        if (!Files.isDirectory(baseFolder)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(baseFolder)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> pathMatcher.matches(baseFolder.relativize(path)))
+                    .map(Path::toString)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Checks whether an input argument is a glob pattern.
+     *
+     * @param inputPattern The input argument.
+     * @return True if it contains glob wildcard characters.
+     */
+    private static boolean containsGlobCharacters(String inputPattern) {
+        for (char character : inputPattern.toCharArray()) {
+            if ("*?[{".indexOf(character) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents a parsed command line: the configured generator, the inputs and outputs of the run, and the
+     * options of the watch and service modes.
+     */
+    static final class Invocation {
+        final ReportGenerator reportGenerator = new ReportGenerator(); // Configured by the generation options
+        final List<String> xmlFilePaths = new ArrayList<>(); // The expanded inputs, empty in watch and service modes
+        String outputFolderPath;                              // The folder of the outputs, or null for the default folder
+        String reportName = ReportGenerator.DEFAULT_REPORT_NAME; // The name of the outputs without extension
+        String historyFolderPath;                             // The verdict history folder, or null
+        String watchFolderPath;                               // The watched folder, or null
+        long debounceMillis = ReportFolderWatcher.DEFAULT_DEBOUNCE_MILLIS;               // Quiet time before an arrived file is parsed
+        long rewriteIntervalMillis = ReportFolderWatcher.DEFAULT_REWRITE_INTERVAL_MILLIS; // Minimum time between two workbook updates
+        int servePort = -1;                                   // The port of the report service, or -1
+        int serviceJobsCount = -1;                            // Large jobs run at once by the service, -1 for the default
+        long maxJobMemoryBytes = -1;                          // The heap limit of a service job, -1 for the default
+        long smallJobBytes = -1;                              // Input size below which jobs are batched, -1 for the default
+        String tokenFilePath;                                 // The token file of the service, or null for the default
+        boolean helpRequested;                                // Whether only the usage should be shown
+    }
+
+    /**
+     * Signals invalid command-line arguments, or inputs and folders that cannot be used.
+     */
+    static class UsageException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean usageShown; // Whether the usage should follow the message
+
+        /**
+         * Constructor for UsageException.
+         *
+         * @param message    The problem with the arguments.
+         * @param usageShown Whether the usage should follow the message.
+         */
+        UsageException(String message, boolean usageShown) {
+            super(message);
+            this.usageShown = usageShown;
+        }
+
+        /**
+         * Checks whether the usage should follow the message.
+         *
+         * @return True if the usage should be shown.
+         */
+        boolean isUsageShown() {
+            return usageShown;
+        }
+    }
+}
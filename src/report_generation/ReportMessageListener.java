@@ -0,0 +1,15 @@
+package report_generation;
+
+/**
+ * Represents a listener receiving the messages of a report generation run: the parsed files, the ingestion,
+ * merge, cache and history figures, and the run summary. The generator prints none of them itself, so the
+ * command line and the GUI decide where they go, and library callers get no console output.
+ */
+public interface ReportMessageListener {
+    /**
+     * Called on the generating thread for every message of the run.
+     *
+     * @param message The message.
+     */
+    void onMessage(String message);
+}
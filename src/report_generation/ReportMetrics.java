@@ -0,0 +1,180 @@
+package report_generation;
+
+import data_types.IngestionStatistics;
+import data_types.ReportStage;
+import data_types.RunSummary;
+import file_handlers.RunSummaryFile;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the report generation metrics of the JVM, accumulated from the summary of every run and exposed
+ * through JMX. Recording a run only adds up a few counters, so the metrics stay on in production.
+ */
+public class ReportMetrics implements ReportMetricsMXBean {
+    public static final String OBJECT_NAME = "report_generation:type=ReportMetrics";
+
+    private static ReportMetrics instance; // The metrics of the JVM, created and registered on first use
+
+    private final long[] stagesNanos = new long[ReportStage.values().length]; // The time spent in each stage
+    private long runsCount;            // Completed runs
+    private long failedRunsCount;      // Runs that failed or were cancelled
+    private long filesCount;           // Files parsed or loaded from the cache
+    private long failedFilesCount;     // Files that could not be parsed
+    private long filesFromCacheCount;  // Files loaded from the parsed results cache
+    private long testCasesCount;       // Extracted test cases
+    private long rowsCount;            // Written test case rows
+    private long bytesRead;            // Size of the read input files
+    private long bytesWritten;         // Size of the written output files
+    private long allocatedBytes;       // Bytes allocated by the measured runs
+    private long warmUpNanos;          // Time spent warming up the report service, 0 if it was not started
+    private RunSummary lastRunSummary; // The summary of the last completed run, or null
+
+    /**
+     * Constructor for ReportMetrics, use getInstance() for the metrics registered in JMX.
+     */
+    ReportMetrics() {
+    }
+
+    /**
+     * Gets the metrics of the JVM, registering them in the platform MBean server on first use. The metrics
+     * are still recorded if the registration fails.
+     *
+     * @return The ReportMetrics instance.
+     */
+    public static synchronized ReportMetrics getInstance() {
+        if (instance == null) {
+            instance = new ReportMetrics();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Cannot register " + OBJECT_NAME + ": " + e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Adds the measurements of a completed run.
+     *
+     * @param runSummary The summary of the run.
+     */
+    public synchronized void recordRun(RunSummary runSummary) {
+        IngestionStatistics ingestionStatistics = runSummary.getIngestionStatistics();
+        runsCount++;
+        filesCount += ingestionStatistics.getFilesCount();
+        failedFilesCount += ingestionStatistics.getFailedFilePaths().size();
+        filesFromCacheCount += ingestionStatistics.getFilesFromCacheCount();
+        testCasesCount += ingestionStatistics.getTestCasesCount();
+        rowsCount += runSummary.getRowsCount();
+        bytesRead += runSummary.getInputBytes();
+        bytesWritten += runSummary.getOutputBytes();
+        allocatedBytes += Math.max(0, runSummary.getAllocatedBytes());
+        for (Map.Entry<ReportStage, Long> stageNanos : runSummary.getStagesNanos().entrySet()) {
+            stagesNanos[stageNanos.getKey().ordinal()] += stageNanos.getValue();
+        }
+        lastRunSummary = runSummary;
+    }
+
+    /**
+     * Counts a run that failed or was cancelled.
+     */
+    public synchronized void recordFailedRun() {
+        failedRunsCount++;
+    }
+
+    /**
+     * Records the time the report service spent generating its warm-up reports.
+     *
+     * @param warmUpNanos The warm-up time in nanoseconds.
+     */
+    public synchronized void recordWarmUp(long warmUpNanos) {
+        this.warmUpNanos = warmUpNanos;
+    }
+
+    @Override
+    public synchronized long getRunsCount() {
+        return runsCount;
+    }
+
+    @Override
+    public synchronized long getFailedRunsCount() {
+        return failedRunsCount;
+    }
+
+    @Override
+    public synchronized long getFilesCount() {
+        return filesCount;
+    }
+
+    @Override
+    public synchronized long getFailedFilesCount() {
+        return failedFilesCount;
+    }
+
+    @Override
+    public synchronized long getFilesFromCacheCount() {
+        return filesFromCacheCount;
+    }
+
+    @Override
+    public synchronized long getTestCasesCount() {
+        return testCasesCount;
+    }
+
+    @Override
+    public synchronized long getRowsCount() {
+        return rowsCount;
+    }
+
+    @Override
+    public synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getStagesMillis() {
+        Map<String, Long> stagesMillis = new LinkedHashMap<>();
+        for (ReportStage stage : ReportStage.values()) {
+            if (stage != ReportStage.DONE) {
+                stagesMillis.put(stage.getDisplayName(), TimeUnit.NANOSECONDS.toMillis(stagesNanos[stage.ordinal()]));
+            }
+        }
+        return stagesMillis;
+    }
+
+    @Override
+    public synchronized long getWarmUpMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(warmUpNanos);
+    }
+
+    @Override
+    public synchronized long getLastRunMillis() {
+        return lastRunSummary == null ? 0 : TimeUnit.NANOSECONDS.toMillis(lastRunSummary.getElapsedNanos());
+    }
+
+    @Override
+    public String getLastRunSummary() {
+        RunSummary runSummary;
+        synchronized (this) {
+            runSummary = lastRunSummary;
+        }
+        // Converted on request only, so recording a run stays cheap
+        return runSummary == null ? "" : RunSummaryFile.toJson(runSummary);
+    }
+}
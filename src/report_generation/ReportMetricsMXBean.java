@@ -0,0 +1,108 @@
+package report_generation;
+
+import java.util.Map;
+
+/**
+ * Represents the management interface of the report generation metrics, registered as
+ * "report_generation:type=ReportMetrics" in the platform MBean server. The figures accumulate over every run
+ * of the JVM; the last run is also available as its run summary JSON.
+ */
+public interface ReportMetricsMXBean {
+    /**
+     * Gets the number of completed runs.
+     *
+     * @return The runs count.
+     */
+    long getRunsCount();
+
+    /**
+     * Gets the number of runs that failed or were cancelled.
+     *
+     * @return The failed runs count.
+     */
+    long getFailedRunsCount();
+
+    /**
+     * Gets the number of files parsed or loaded from the cache over all runs.
+     *
+     * @return The files count.
+     */
+    long getFilesCount();
+
+    /**
+     * Gets the number of files that could not be parsed over all runs.
+     *
+     * @return The failed files count.
+     */
+    long getFailedFilesCount();
+
+    /**
+     * Gets the number of files loaded from the parsed results cache over all runs.
+     *
+     * @return The cached files count.
+     */
+    long getFilesFromCacheCount();
+
+    /**
+     * Gets the number of test cases extracted over all runs.
+     *
+     * @return The test cases count.
+     */
+    long getTestCasesCount();
+
+    /**
+     * Gets the number of test case rows written over all runs.
+     *
+     * @return The rows count.
+     */
+    long getRowsCount();
+
+    /**
+     * Gets the size of the input files read over all runs.
+     *
+     * @return The bytes read.
+     */
+    long getBytesRead();
+
+    /**
+     * Gets the size of the output files written over all runs.
+     *
+     * @return The bytes written.
+     */
+    long getBytesWritten();
+
+    /**
+     * Gets the bytes allocated by the measured runs.
+     *
+     * @return The allocated bytes, 0 if the JVM does not measure allocations.
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Gets the time spent in each stage over all runs.
+     *
+     * @return The milliseconds by stage name.
+     */
+    Map<String, Long> getStagesMillis();
+
+    /**
+     * Gets the time the report service spent generating its warm-up reports.
+     *
+     * @return The milliseconds, or 0 if the report service was not started.
+     */
+    long getWarmUpMillis();
+
+    /**
+     * Gets the wall time of the last completed run.
+     *
+     * @return The milliseconds, or 0 if no run completed.
+     */
+    long getLastRunMillis();
+
+    /**
+     * Gets the run summary of the last completed run.
+     *
+     * @return The JSON object, or an empty string if no run completed.
+     */
+    String getLastRunSummary();
+}
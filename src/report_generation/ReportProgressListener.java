@@ -0,0 +1,16 @@
+package report_generation;
+
+import data_types.ReportProgress;
+
+/**
+ * Represents a listener notified about the progress of a report generation run.
+ * It is called on the generating thread, so it should hand the snapshot over rather than do slow work.
+ */
+public interface ReportProgressListener {
+    /**
+     * Called whenever the generation advances.
+     *
+     * @param progress The progress snapshot.
+     */
+    void onProgress(ReportProgress progress);
+}
@@ -0,0 +1,831 @@
+package report_generation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data_types.ReportResult;
+import file_handlers.JsonText;
+import file_handlers.ReportInputs;
+import file_handlers.RunSummaryFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Represents a long-running report service on the loopback interface, so that callers generating many reports
+ * (e.g., CI jobs) pay the JVM start, the loading of the POI and XMLBeans classes and the JIT compilation once
+ * instead of on every run. The service generates a small report in every output format before it listens.
+ * <p>
+ * A POST to /generate carries the command-line arguments of one run, one per line, and is answered when the
+ * outputs are written: with a JSON description of the run, or with the main output file itself when the query
+ * is "return=file". GET /status describes the queues. Jobs whose inputs are smaller than the small job size are
+ * queued for one worker that drains them in batches, parsing each on a single thread, while larger jobs run
+ * on a pool of their own. Before a job or a batch starts, it reserves an estimate of its heap from a budget
+ * shared by all jobs, so concurrent jobs wait instead of exhausting the heap; a job estimated above the
+ * per-job limit is refused. Jobs writing the same outputs or history folder run one after another.
+ * <p>
+ * Every start creates a random token, written to a token file only its owner can read. Requests must carry it
+ * in the X-Report-Token header, and a POST to /generate must have the application/x-report-arguments content
+ * type. Requests with an Origin header are refused, so a web page cannot make the browser post a run.
+ */
+public class ReportService {
+    public static final int DEFAULT_JOBS_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); // Large jobs run at once
+    public static final long DEFAULT_SMALL_JOB_BYTES = 4L * 1024 * 1024; // Input size below which jobs are batched
+    public static final String TOKEN_HEADER = "X-Report-Token";             // The request header carrying the token
+    public static final String ARGUMENTS_CONTENT_TYPE = "application/x-report-arguments"; // The content type of a POST to /generate
+
+    private static final int MIB = 1024 * 1024;
+    private static final int MAX_BATCH_JOBS = 32;        // Small jobs run by one batch
+    private static final int MAX_PENDING_JOBS = 256;     // Unfinished jobs beyond which requests are refused
+    private static final int MAX_REQUEST_BYTES = 1024 * 1024; // Size limit of the arguments of a request
+    private static final long BASE_JOB_BYTES = 16L * MIB; // Heap of a job besides its test cases: row window, chart, buffers
+    private static final int COMPRESSION_RATIO = 16;     // Assumed expansion of gzip and zip compressed reports
+    private static final int WARM_UP_TEST_CASES = 500;   // Test cases of the report generated before listening
+    private static final String[] WARM_UP_RESULTS = {"pass", "pass", "fail", "pass", "error", "inconclusive", "pass", "none"};
+    private static final int TOKEN_BYTES = 32;           // Random bytes of the token
+
+    private final int port;                       // The requested port, 0 for a free one
+    private final long heapBudgetBytes = getDefaultMaxJobMemoryBytes(); // The heap shared by the running jobs
+    private final Semaphore heapBudget = new Semaphore((int) (heapBudgetBytes / MIB)); // One permit per MiB of the budget
+    private int jobsCount = DEFAULT_JOBS_COUNT;   // Large jobs run at once
+    private long maxJobMemoryBytes = heapBudgetBytes; // The largest reservation of a job
+    private long smallJobBytes = DEFAULT_SMALL_JOB_BYTES; // Input size below which jobs are batched
+    private Path tokenFilePath;                   // The token file, or null for the default one of the port
+    private byte[] token;                         // The token of this start, as sent in the header
+
+    private final LinkedBlockingQueue<ServiceJob> smallJobs = new LinkedBlockingQueue<>(); // Drained by the batch worker
+    private final Set<String> busyPaths = new HashSet<>(); // Outputs and history folders of the running jobs
+    private final AtomicInteger runningJobsCount = new AtomicInteger();
+    private final AtomicLong completedJobsCount = new AtomicLong();
+    private final AtomicLong refusedJobsCount = new AtomicLong();
+    private final AtomicLong batchesCount = new AtomicLong();
+    private final AtomicLong batchedJobsCount = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1); // Released once stop() has finished
+    private int pendingJobsCount;  // Accepted jobs whose response is not sent yet, guarded by this
+    private boolean stopping;      // Set by stop(), guarded by this
+    private long warmUpNanos;      // Time spent generating the warm-up report
+    private HttpServer httpServer;
+    private ExecutorService jobExecutor;
+    private Thread batchThread;
+
+    /**
+     * Constructor for ReportService.
+     *
+     * @param port The loopback port to listen on, 0 for a free one.
+     */
+    public ReportService(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Gets the heap the running jobs may reserve together, three quarters of the maximum heap, which is
+     * also the default limit of a single job.
+     *
+     * @return The heap budget in bytes.
+     */
+    public static long getDefaultMaxJobMemoryBytes() {
+        return Runtime.getRuntime().maxMemory() / 4 * 3;
+    }
+
+    /**
+     * Sets the number of large jobs run at once; small jobs run besides them on the batch worker.
+     *
+     * @param jobsCount The number of large jobs, at least 1.
+     */
+    public void setJobsCount(int jobsCount) {
+        if (jobsCount < 1) {
+            throw new IllegalArgumentException("The jobs count must be at least 1: " + jobsCount);
+        }
+        this.jobsCount = jobsCount;
+    }
+
+    /**
+     * Sets the largest heap a job may reserve. Jobs estimated above it are refused.
+     *
+     * @param maxJobMemoryBytes The limit in bytes, at most the heap budget.
+     */
+    public void setMaxJobMemoryBytes(long maxJobMemoryBytes) {
+        if (maxJobMemoryBytes < MIB || maxJobMemoryBytes > heapBudgetBytes) {
+            throw new IllegalArgumentException("The job memory must be between 1 and " + heapBudgetBytes / MIB
+                    + " MiB, three quarters of the maximum heap (-Xmx)");
+        }
+        this.maxJobMemoryBytes = maxJobMemoryBytes;
+    }
+
+    /**
+     * Sets the input size below which jobs are batched on the single-threaded worker.
+     *
+     * @param smallJobBytes The size in bytes, 0 to run every job on the pool.
+     */
+    public void setSmallJobBytes(long smallJobBytes) {
+        if (smallJobBytes < 0) {
+            throw new IllegalArgumentException("The small jobs size cannot be negative: " + smallJobBytes);
+        }
+        this.smallJobBytes = smallJobBytes;
+    }
+
+    /**
+     * Sets the file the token is written to at start.
+     *
+     * @param tokenFilePath The path of the token file, or null for ".report-service-&lt;port&gt;.token" in the
+     *                      home folder.
+     */
+    public void setTokenFilePath(String tokenFilePath) {
+        this.tokenFilePath = tokenFilePath == null ? null : Paths.get(tokenFilePath);
+    }
+
+    /**
+     * Gets the file holding the token requests must carry.
+     *
+     * @return The path of the token file, null before start unless one was set.
+     */
+    public String getTokenFilePath() {
+        return tokenFilePath == null ? null : tokenFilePath.toString();
+    }
+
+    /**
+     * Warms the JVM up by generating a small report, writes a new token file, then starts listening.
+     *
+     * @throws IOException If the warm-up report or the token file cannot be written or the port cannot be bound.
+     */
+    public void start() throws IOException {
+        warmUp();
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        if (tokenFilePath == null) {
+            tokenFilePath = Paths.get(System.getProperty("user.home"), ".report-service-" + httpServer.getAddress().getPort() + ".token");
+        }
+        try {
+            writeTokenFile();
+        } catch (IOException e) {
+            httpServer.stop(0);
+            httpServer = null;
+            throw new IOException("Cannot write token file " + tokenFilePath + ": " + e.getMessage(), e);
+        }
+        httpServer.createContext("/generate", this::handleGenerate);
+        httpServer.createContext("/status", this::handleStatus);
+        httpServer.setExecutor(Executors.newCachedThreadPool(new ServiceThreadFactory("report-request-")));
+        jobExecutor = Executors.newFixedThreadPool(jobsCount, new ServiceThreadFactory("report-job-"));
+        batchThread = new ServiceThreadFactory("report-batch-").newThread(this::runBatches);
+        batchThread.start();
+        httpServer.start();
+    }
+
+    /**
+     * Stops the service: new requests are refused, the accepted jobs are finished and answered, then the
+     * port is released. Does nothing if the service is already stopping.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (stopping) {
+                return;
+            }
+            stopping = true;
+            while (pendingJobsCount > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (httpServer != null) {
+            httpServer.stop(0);
+            jobExecutor.shutdown();
+            batchThread.interrupt();
+            try {
+                Files.deleteIfExists(tokenFilePath);
+            } catch (IOException e) {
+                // The token is useless once the port is released
+            }
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Waits until the service is stopped.
+     *
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Gets the URL the service listens on.
+     *
+     * @return The URL, ending with a slash.
+     */
+    public String getUrl() {
+        InetSocketAddress address = httpServer.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + "/";
+    }
+
+    /**
+     * Generates a small report in every output format, once with a native chart and streaming extraction and
+     * once with a picture chart and mapped extraction, so the first request finds the classes loaded.
+     *
+     * @throws IOException If the warm-up report cannot be written.
+     */
+    private void warmUp() throws IOException {
+        long startNanos = System.nanoTime();
+        Path warmUpFolder = Files.createTempDirectory("report-service-warm-up");
+        try {
+            Path reportPath = warmUpFolder.resolve("Warm_Up_Report.xml");
+            writeWarmUpReport(reportPath);
+            ChartMode[] chartModes = {ChartMode.NATIVE_PIE, ChartMode.IMAGE};
+            ExtractionMode[] extractionModes = {ExtractionMode.STREAMING, ExtractionMode.MAPPED};
+            for (int runIndex = 0; runIndex < chartModes.length; runIndex++) {
+                ReportGenerator reportGenerator = new ReportGenerator();
+                reportGenerator.setOutputFormats(List.of(OutputFormat.values()));
+                reportGenerator.setChartMode(chartModes[runIndex]);
+                reportGenerator.setExtractionMode(extractionModes[runIndex]);
+                reportGenerator.setParallelism(1);
+                reportGenerator.generate(List.of(reportPath.toString()), warmUpFolder.toString(), "Warm Up " + runIndex);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(warmUpFolder)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        warmUpNanos = System.nanoTime() - startNanos;
+        ReportMetrics.getInstance().recordWarmUp(warmUpNanos);
+    }
+
+    /**
+     * Creates a random token and writes it to a new token file that only its owner can read or write. A file
+     * left by an earlier start is replaced.
+     *
+     * @throws IOException If the token file cannot be written.
+     */
+    private void writeTokenFile() throws IOException {
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(tokenBytes);
+        token = Base64.getUrlEncoder().withoutPadding().encode(tokenBytes);
+        Path tokenFolder = tokenFilePath.toAbsolutePath().getParent();
+        if (tokenFolder != null) {
+            Files.createDirectories(tokenFolder);
+        }
+        Files.deleteIfExists(tokenFilePath);
+        // Created with its permissions, so the token is never readable by others, not even briefly
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tokenFilePath, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tokenFilePath);
+            File tokenFile = tokenFilePath.toFile();
+            if (!tokenFile.setReadable(false, false) || !tokenFile.setReadable(true, true)
+                    || !tokenFile.setWritable(false, false) || !tokenFile.setWritable(true, true)) {
+                Files.delete(tokenFilePath);
+                throw new IOException("Cannot restrict the token file to its owner");
+            }
+        }
+        Files.write(tokenFilePath, token);
+    }
+
+    /**
+     * Checks that a request comes from a local program holding the token rather than from a web page, and
+     * answers it with an error if not.
+     *
+     * @param exchange The HTTP exchange.
+     * @return True if the request may be handled.
+     * @throws IOException If the error response cannot be sent.
+     */
+    private boolean authorize(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestHeaders().containsKey("Origin")) {
+            // Browsers add it to requests made by web pages, which must never reach the service
+            refusedJobsCount.incrementAndGet();
+            sendJson(exchange, 403, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "Requests from web pages are refused"));
+            return false;
+        }
+        String requestToken = exchange.getRequestHeaders().getFirst(TOKEN_HEADER);
+        if (requestToken == null || !MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8))) {
+            refusedJobsCount.incrementAndGet();
+            sendJson(exchange, 401, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR,
+                    "Send the token of " + tokenFilePath + " in the " + TOKEN_HEADER + " header"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a request body has the content type of the arguments of a run. Browsers only send a
+     * custom content type after a CORS preflight, which the service never answers.
+     *
+     * @param exchange The HTTP exchange.
+     * @return True for application/x-report-arguments, with or without parameters.
+     */
+    private static boolean hasArgumentsContentType(HttpExchange exchange) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null) {
+            return false;
+        }
+        int parametersIndex = contentType.indexOf(';');
+        String mediaType = parametersIndex < 0 ? contentType : contentType.substring(0, parametersIndex);
+        return mediaType.strip().equalsIgnoreCase(ARGUMENTS_CONTENT_TYPE);
+    }
+
+    /**
+     * Writes the native report generated by the warm-up.
+     *
+     * @param reportPath The path of the report.
+     * @throws IOException If the report cannot be written.
+     */
+    private static void writeWarmUpReport(Path reportPath) throws IOException {
+        StringBuilder report = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n")
+                .append("<testreport starttime=\"2023-09-17 11:03:16\" verdicts=\"5_extended\">\n")
+                .append("<testunit starttime=\"2023-09-17 11:03:16\">\n<testfixture>\n");
+        for (int testCaseIndex = 0; testCaseIndex < WARM_UP_TEST_CASES; testCaseIndex++) {
+            String time = String.format(Locale.ROOT, "2023-09-17 11:%02d:%02d", testCaseIndex / 60 % 60, testCaseIndex % 60);
+            report.append("<testcase starttime=\"").append(time).append("\">\n")
+                    .append("<verdict time=\"").append(time).append("\" endtime=\"").append(time).append("\" result=\"")
+                    .append(WARM_UP_RESULTS[testCaseIndex % WARM_UP_RESULTS.length]).append("\"/>\n")
+                    .append("<title>Warm-up test case ").append(testCaseIndex).append("</title>\n")
+                    .append("<testcaseid>warm-up-").append(testCaseIndex).append("</testcaseid>\n")
+                    .append("</testcase>\n");
+        }
+        report.append("<title>Warm-up fixture</title>\n</testfixture>\n<title>Warm-up unit</title>\n</testunit>\n")
+                .append("<title>Warm-up report</title>\n</testreport>\n");
+        Files.writeString(reportPath, report, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handles a request to /generate carrying the token: parses its arguments into a job, queues the job and answers once
+     * it is finished.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        try {
+            if (!authorize(exchange)) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "Use POST with one argument per line"));
+                return;
+            }
+            if (!hasArgumentsContentType(exchange)) {
+                refusedJobsCount.incrementAndGet();
+                sendJson(exchange, 415, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "Send the arguments as " + ARGUMENTS_CONTENT_TYPE));
+                return;
+            }
+            if (!acceptJob()) {
+                refusedJobsCount.incrementAndGet();
+                sendJson(exchange, 503, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "The service is stopping or busy"));
+                return;
+            }
+            try {
+                respond(exchange);
+            } finally {
+                finishJob();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Runs an accepted request to /generate and sends its response.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void respond(HttpExchange exchange) throws IOException {
+        byte[] requestBody = exchange.getRequestBody().readNBytes(MAX_REQUEST_BYTES + 1);
+        if (requestBody.length > MAX_REQUEST_BYTES) {
+            refusedJobsCount.incrementAndGet();
+            sendJson(exchange, 413, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "The arguments exceed " + MAX_REQUEST_BYTES + " bytes"));
+            return;
+        }
+        ServiceJob job;
+        try {
+            job = createJob(new String(requestBody, StandardCharsets.UTF_8));
+        } catch (ReportGeneratorCLI.UsageException e) {
+            refusedJobsCount.incrementAndGet();
+            sendJson(exchange, 400, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, e.getMessage()));
+            return;
+        }
+        if ((long) job.reservedMiB * MIB > maxJobMemoryBytes) {
+            refusedJobsCount.incrementAndGet();
+            sendJson(exchange, 413, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, "The inputs need an estimated "
+                    + job.reservedMiB + " MiB of heap, more than the " + maxJobMemoryBytes / MIB + " MiB a job may use"));
+            return;
+        }
+
+        if (job.small) {
+            smallJobs.add(job);
+        } else {
+            jobExecutor.execute(() -> runLargeJob(job));
+        }
+        ReportResult reportResult;
+        try {
+            reportResult = job.completion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendJson(exchange, 503, toErrorJson(ReportGeneratorCLI.EXIT_WRITE_ERROR, "The service is stopping"));
+            return;
+        } catch (ExecutionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof ReportGeneratorCLI.UsageException) {
+                sendJson(exchange, 400, toErrorJson(ReportGeneratorCLI.EXIT_USAGE_ERROR, failure.getMessage()));
+            } else {
+                sendJson(exchange, 500, toErrorJson(ReportGeneratorCLI.EXIT_WRITE_ERROR, "Cannot write report: " + failure));
+            }
+            return;
+        }
+
+        int exitCode = reportResult.hasParseErrors() ? ReportGeneratorCLI.EXIT_PARSE_ERRORS : ReportGeneratorCLI.EXIT_SUCCESS;
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && List.of(query.split("&")).contains("return=file") && reportResult.getOutputFilePath() != null) {
+            sendFile(exchange, exitCode, reportResult.getOutputFilePath());
+        } else {
+            sendJson(exchange, 200, toResultJson(exitCode, job, reportResult));
+        }
+    }
+
+    /**
+     * Handles a request to /status carrying the token, describing the queues and the counts of jobs.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try {
+            if (!authorize(exchange)) {
+                return;
+            }
+            int pendingJobs;
+            synchronized (this) {
+                pendingJobs = pendingJobsCount;
+            }
+            String json = "{\n"
+                    + "\"jobs\":" + jobsCount + ",\n"
+                    + "\"smallJobBytes\":" + smallJobBytes + ",\n"
+                    + "\"maxJobMemoryMiB\":" + maxJobMemoryBytes / MIB + ",\n"
+                    + "\"heapBudgetMiB\":" + heapBudgetBytes / MIB + ",\n"
+                    + "\"freeHeapBudgetMiB\":" + heapBudget.availablePermits() + ",\n"
+                    + "\"pendingJobs\":" + pendingJobs + ",\n"
+                    + "\"runningJobs\":" + runningJobsCount.get() + ",\n"
+                    + "\"queuedSmallJobs\":" + smallJobs.size() + ",\n"
+                    + "\"completedJobs\":" + completedJobsCount.get() + ",\n"
+                    + "\"refusedJobs\":" + refusedJobsCount.get() + ",\n"
+                    + "\"batches\":" + batchesCount.get() + ",\n"
+                    + "\"batchedJobs\":" + batchedJobsCount.get() + ",\n"
+                    + "\"warmUpMillis\":" + warmUpNanos / 1_000_000 + "\n"
+                    + "}\n";
+            sendJson(exchange, 200, json);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Parses the arguments of a request into a job, estimating the heap it needs from the size of its inputs.
+     *
+     * @param arguments The command-line arguments, one per line; blank lines are skipped.
+     * @return The ServiceJob.
+     * @throws ReportGeneratorCLI.UsageException If the arguments are invalid or name no input.
+     */
+    private ServiceJob createJob(String arguments) throws ReportGeneratorCLI.UsageException {
+        List<String> args = new ArrayList<>();
+        for (String argument : arguments.split("\\R")) {
+            if (!argument.isBlank()) {
+                args.add(argument.strip());
+            }
+        }
+        ReportGeneratorCLI.Invocation invocation = ReportGeneratorCLI.parseInvocation(args.toArray(new String[0]));
+        if (invocation.helpRequested || invocation.watchFolderPath != null || invocation.servePort >= 0) {
+            throw new ReportGeneratorCLI.UsageException("--help, --watch and --serve cannot be used in a service request", false);
+        }
+
+        Set<String> filePaths = new HashSet<>();
+        long inputBytes = 0, expandedBytes = 0;
+        for (String xmlFilePath : invocation.xmlFilePaths) {
+            String filePath = ReportInputs.getFilePath(xmlFilePath);
+            if (filePaths.add(filePath)) {
+                long fileBytes = new File(filePath).length();
+                inputBytes += fileBytes;
+                expandedBytes += isCompressed(filePath) ? fileBytes * COMPRESSION_RATIO : fileBytes;
+            }
+        }
+        boolean small = inputBytes < smallJobBytes;
+        if (small) {
+            // Parallel parsing does not pay off for small inputs, and the batch runs its jobs one by one
+            invocation.reportGenerator.setParallelism(1);
+        }
+        // Streaming extraction keeps some half of the input size per test case; a quarter more is kept in reserve
+        long estimatedBytes = BASE_JOB_BYTES + expandedBytes / 4 * 3;
+        int reservedMiB = (int) Math.min(Integer.MAX_VALUE, (estimatedBytes + MIB - 1) / MIB);
+
+        List<String> lockedPaths = new ArrayList<>();
+        String outputFolderPath = invocation.outputFolderPath == null || invocation.outputFolderPath.isEmpty()
+                ? ReportGenerator.DEFAULT_OUTPUT_FOLDER : invocation.outputFolderPath;
+        lockedPaths.add(new File(outputFolderPath, invocation.reportName).getAbsolutePath());
+        if (invocation.historyFolderPath != null) {
+            // The history file locks are held by the JVM, so jobs sharing a history must not overlap
+            lockedPaths.add(new File(invocation.historyFolderPath).getAbsolutePath());
+        }
+        return new ServiceJob(invocation, small, reservedMiB, lockedPaths);
+    }
+
+    /**
+     * Checks whether an input file is compressed, so its test cases take more heap than its size suggests.
+     *
+     * @param filePath The path of the input file or archive.
+     * @return True for gzip files and zip archives.
+     */
+    private static boolean isCompressed(String filePath) {
+        String lowerCasePath = filePath.toLowerCase(Locale.ROOT);
+        return ReportInputs.isZipArchive(filePath) || lowerCasePath.endsWith(".gz") || lowerCasePath.endsWith(".tgz");
+    }
+
+    /**
+     * Counts a job as pending unless the service is stopping or has too many pending jobs.
+     *
+     * @return True if the job is accepted.
+     */
+    private synchronized boolean acceptJob() {
+        if (stopping || pendingJobsCount >= MAX_PENDING_JOBS) {
+            return false;
+        }
+        pendingJobsCount++;
+        return true;
+    }
+
+    /**
+     * Counts a pending job as answered, waking up stop().
+     */
+    private synchronized void finishJob() {
+        pendingJobsCount--;
+        notifyAll();
+    }
+
+    /**
+     * Runs a large job on the pool once its heap estimate is reserved.
+     *
+     * @param job The job.
+     */
+    private void runLargeJob(ServiceJob job) {
+        try {
+            heapBudget.acquire(job.reservedMiB);
+        } catch (InterruptedException e) {
+            job.completion.completeExceptionally(e);
+            return;
+        }
+        try {
+            runJob(job);
+        } finally {
+            heapBudget.release(job.reservedMiB);
+        }
+    }
+
+    /**
+     * Drains the small jobs in batches until the service stops. A batch runs its jobs one after another
+     * on this thread, reserving the heap of its largest job once.
+     */
+    private void runBatches() {
+        List<ServiceJob> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(smallJobs.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            smallJobs.drainTo(batch, MAX_BATCH_JOBS - 1);
+            int reservedMiB = 0;
+            for (ServiceJob job : batch) {
+                reservedMiB = Math.max(reservedMiB, job.reservedMiB);
+            }
+            heapBudget.acquireUninterruptibly(reservedMiB);
+            batchesCount.incrementAndGet();
+            batchedJobsCount.addAndGet(batch.size());
+            try {
+                for (ServiceJob job : batch) {
+                    job.batchSize = batch.size();
+                    runJob(job);
+                }
+            } finally {
+                heapBudget.release(reservedMiB);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Generates the outputs of a job once no running job writes the same outputs or history, and completes it.
+     *
+     * @param job The job.
+     */
+    private void runJob(ServiceJob job) {
+        try {
+            lockPaths(job.lockedPaths);
+        } catch (InterruptedException e) {
+            job.completion.completeExceptionally(e);
+            return;
+        }
+        job.queuedNanos = System.nanoTime() - job.createdNanos;
+        runningJobsCount.incrementAndGet();
+        try {
+            job.completion.complete(ReportGeneratorCLI.generate(job.invocation));
+        } catch (Exception | OutOfMemoryError e) {
+            job.completion.completeExceptionally(e);
+        } finally {
+            runningJobsCount.decrementAndGet();
+            completedJobsCount.incrementAndGet();
+            unlockPaths(job.lockedPaths);
+        }
+    }
+
+    /**
+     * Waits until none of the given paths is used by a running job, then marks them used.
+     *
+     * @param paths The absolute output and history paths of a job.
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    private void lockPaths(List<String> paths) throws InterruptedException {
+        synchronized (busyPaths) {
+            while (paths.stream().anyMatch(busyPaths::contains)) {
+                busyPaths.wait();
+            }
+            busyPaths.addAll(paths);
+        }
+    }
+
+    /**
+     * Marks the given paths as no longer used, waking up the jobs waiting for them.
+     *
+     * @param paths The absolute output and history paths of a job.
+     */
+    private void unlockPaths(List<String> paths) {
+        synchronized (busyPaths) {
+            paths.forEach(busyPaths::remove);
+            busyPaths.notifyAll();
+        }
+    }
+
+    /**
+     * Converts the result of a job to the JSON response, embedding its run summary.
+     *
+     * @param exitCode     The exit code the command line would return.
+     * @param job          The job.
+     * @param reportResult The result of the job.
+     * @return The JSON object.
+     */
+    private static String toResultJson(int exitCode, ServiceJob job, ReportResult reportResult) {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("\"exitCode\":").append(exitCode).append(",\n");
+        json.append("\"outputFiles\":").append(toJsonArray(reportResult.getOutputFilePaths())).append(",\n");
+        json.append("\"runSummaryFile\":").append(JsonText.toJson(reportResult.getRunSummaryFilePath())).append(",\n");
+        json.append("\"failedFiles\":").append(toJsonArray(reportResult.getIngestionStatistics().getFailedFilePaths())).append(",\n");
+        json.append("\"batchSize\":").append(job.batchSize).append(",\n");
+        json.append("\"reservedMiB\":").append(job.reservedMiB).append(",\n");
+        json.append("\"queuedMillis\":").append(job.queuedNanos / 1_000_000).append(",\n");
+        json.append("\"runSummary\":").append(RunSummaryFile.toJson(reportResult.getRunSummary()).trim()).append('\n');
+        return json.append("}\n").toString();
+    }
+
+    /**
+     * Converts a refused or failed job to the JSON response.
+     *
+     * @param exitCode The exit code the command line would return.
+     * @param message  The reason.
+     * @return The JSON object.
+     */
+    private static String toErrorJson(int exitCode, String message) {
+        return "{\"exitCode\":" + exitCode + ",\"error\":" + JsonText.toJson(message) + "}\n";
+    }
+
+    /**
+     * Converts strings to a JSON array.
+     *
+     * @param values The strings.
+     * @return The JSON array.
+     */
+    private static String toJsonArray(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (String value : values) {
+            json.append(json.length() > 1 ? "," : "").append(JsonText.toJson(value));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Sends a JSON response.
+     *
+     * @param exchange   The HTTP exchange.
+     * @param statusCode The HTTP status code.
+     * @param json       The JSON document.
+     * @throws IOException If the response cannot be sent.
+     */
+    private static void sendJson(HttpExchange exchange, int statusCode, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    /**
+     * Sends an output file as the response, with the exit code in the X-Exit-Code header.
+     *
+     * @param exchange       The HTTP exchange.
+     * @param exitCode       The exit code the command line would return.
+     * @param outputFilePath The path of the output file.
+     * @throws IOException If the file cannot be read or the response cannot be sent.
+     */
+    private static void sendFile(HttpExchange exchange, int exitCode, String outputFilePath) throws IOException {
+        File outputFile = new File(outputFilePath);
+        OutputFormat outputFormat = OutputFormat.fromFileName(outputFilePath);
+        exchange.getResponseHeaders().set("Content-Type", outputFormat != null ? outputFormat.getContentType() : "application/octet-stream");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + outputFile.getName() + "\"");
+        exchange.getResponseHeaders().set("X-Exit-Code", String.valueOf(exitCode));
+        exchange.sendResponseHeaders(200, outputFile.length());
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            Files.copy(outputFile.toPath(), responseBody);
+        }
+    }
+
+    /**
+     * Represents a parsed request waiting for or running its generation.
+     */
+    private static class ServiceJob {
+        private final ReportGeneratorCLI.Invocation invocation; // The configured generator and its inputs
+        private final boolean small;              // Whether the job runs on the batch worker
+        private final int reservedMiB;            // The heap estimate reserved while the job runs
+        private final List<String> lockedPaths;   // Outputs and history folder no other job may use meanwhile
+        private final CompletableFuture<ReportResult> completion = new CompletableFuture<>(); // Awaited by the request thread
+        private final long createdNanos = System.nanoTime();
+        private long queuedNanos;                 // Time from the request to the start of the generation
+        private int batchSize = 1;                // The jobs of the batch that ran this job
+
+        /**
+         * Constructor for ServiceJob.
+         *
+         * @param invocation  The configured generator and its inputs.
+         * @param small       Whether the job runs on the batch worker.
+         * @param reservedMiB The heap estimate in MiB.
+         * @param lockedPaths The absolute output and history paths of the job.
+         */
+        private ServiceJob(ReportGeneratorCLI.Invocation invocation, boolean small, int reservedMiB, List<String> lockedPaths) {
+            this.invocation = invocation;
+            this.small = small;
+            this.reservedMiB = reservedMiB;
+            this.lockedPaths = lockedPaths;
+        }
+    }
+
+    /**
+     * Creates named daemon threads, so the service threads never keep the JVM alive on their own.
+     */
+    private static class ServiceThreadFactory implements ThreadFactory {
+        private final String namePrefix; // The name of the threads before their number
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        /**
+         * Constructor for ServiceThreadFactory.
+         *
+         * @param namePrefix The name of the threads before their number.
+         */
+        private ServiceThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
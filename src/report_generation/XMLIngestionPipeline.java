@@ -0,0 +1,333 @@
+package report_generation;
+
+import data_types.FileMetrics;
+import data_types.IngestionStatistics;
+import data_types.TestCase;
+import file_handlers.MappedReportScanner;
+import file_handlers.ParsedResultsCache;
+import file_handlers.ReportInputs;
+import file_handlers.TestReportReader;
+import file_handlers.TestReportReaders;
+import file_handlers.VectorReportReader;
+import file_handlers.XMLFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents a concurrent ingestion stage that parses many XML reports on a bounded thread pool.
+ * The format of each file is detected by {@link TestReportReaders} unless a reader is set, so a run may mix formats.
+ * Results are handed over in the order the files were given, and at most a fixed number of files
+ * are parsed or waiting to be consumed at any time, so a slow consumer throttles the parsers.
+ */
+public class XMLIngestionPipeline {
+    private final int parallelism; // The number of worker threads
+    private final int maxInFlight; // The maximum number of files parsed or buffered at the same time
+    private final ExtractionMode extractionMode; // How test cases are extracted from each file
+    private ParsedResultsCache parsedResultsCache; // Answers unchanged files without parsing, may be null
+    private TestReportReader reportReader; // Reads every file, null to detect the format of each file
+    private IngestionStatistics lastStatistics; // The throughput figures of the last run
+
+    /**
+     * Constructor for XMLIngestionPipeline using one worker thread per available processor.
+     */
+    public XMLIngestionPipeline() {
+        this(Runtime.getRuntime().availableProcessors(), ExtractionMode.STREAMING);
+    }
+
+    /**
+     * Constructor for XMLIngestionPipeline.
+     *
+     * @param parallelism    The number of worker threads parsing files concurrently.
+     * @param extractionMode How test cases are extracted from each file.
+     */
+    public XMLIngestionPipeline(int parallelism, ExtractionMode extractionMode) {
+        this.parallelism = Math.max(1, parallelism);
+        this.maxInFlight = this.parallelism * 2;
+        this.extractionMode = extractionMode;
+    }
+
+    /**
+     * Sets the cache of parsed results. Unchanged files are then loaded from the cache, and only new
+     * or changed files are parsed.
+     *
+     * @param parsedResultsCache The cache, or null to always parse.
+     */
+    public void setParsedResultsCache(ParsedResultsCache parsedResultsCache) {
+        this.parsedResultsCache = parsedResultsCache;
+    }
+
+    /**
+     * Sets the reader of every file, skipping the format detection.
+     *
+     * @param reportReader The reader, or null to detect the format of each file.
+     */
+    public void setReportReader(TestReportReader reportReader) {
+        this.reportReader = reportReader;
+    }
+
+    /**
+     * Parses the given XML files concurrently and passes each file's test cases to the consumer,
+     * in the same order as the given paths. Files that fail to parse are reported on the error stream,
+     * skipped, and listed in the returned statistics along with the time and allocations of every file.
+     * Zip archives are replaced by their report entries, which are parsed concurrently like files; the entries of
+     * a tar archive are read in one pass by a single worker. Each entry is passed to the consumer as a file.
+     *
+     * @param xmlFilePaths    The paths of the XML files and archives to parse.
+     * @param fileTCsConsumer The consumer receiving each file path with its extracted test cases.
+     * @return The throughput figures of this run.
+     */
+    public IngestionStatistics ingest(List<String> xmlFilePaths, BiConsumer<String, ArrayList<TestCase>> fileTCsConsumer) {
+        long startNanos = System.nanoTime();
+        long testCasesCount = 0;
+        List<String> inputPaths = expandZipArchives(xmlFilePaths);
+        int workersCount = Math.min(parallelism, Math.max(1, inputPaths.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workersCount, new IngestionThreadFactory());
+        ArrayDeque<Future<LinkedHashMap<String, ArrayList<TestCase>>>> pendingInputs = new ArrayDeque<>();
+        ArrayList<String> failedFilePaths = new ArrayList<>();
+        // The measurements of each in-flight input, filled by its worker and read once its future is done
+        ArrayDeque<ArrayList<FileMetrics>> pendingMetrics = new ArrayDeque<>();
+        ArrayList<FileMetrics> filesMetrics = new ArrayList<>(inputPaths.size());
+        int nextInputIndex = 0, consumedInputIndex = 0, parsedFilesCount = 0;
+        try {
+            while (consumedInputIndex < inputPaths.size()) {
+                // Keep the window of in-flight inputs full
+                while (nextInputIndex < inputPaths.size() && pendingInputs.size() < maxInFlight) {
+                    String inputPath = inputPaths.get(nextInputIndex++);
+                    ArrayList<FileMetrics> inputMetrics = new ArrayList<>();
+                    pendingMetrics.add(inputMetrics);
+                    pendingInputs.add(executor.submit(() -> extractInput(inputPath, inputMetrics)));
+                }
+                // Wait for the oldest input so the results keep the selection order
+                String inputPath = inputPaths.get(consumedInputIndex++);
+                ArrayList<FileMetrics> inputMetrics = pendingMetrics.poll();
+                LinkedHashMap<String, ArrayList<TestCase>> fileTCsLists = awaitTestCases(inputPath, pendingInputs.poll(), inputMetrics);
+                // One measurement per file or entry, in the order of the test cases lists
+                filesMetrics.addAll(inputMetrics);
+                if (fileTCsLists == null) {
+                    failedFilePaths.add(inputPath);
+                    continue;
+                }
+                for (Map.Entry<String, ArrayList<TestCase>> fileTCsList : fileTCsLists.entrySet()) {
+                    if (fileTCsList.getValue() == null) {
+                        failedFilePaths.add(fileTCsList.getKey());
+                        continue;
+                    }
+                    parsedFilesCount++;
+                    testCasesCount += fileTCsList.getValue().size();
+                    fileTCsConsumer.accept(fileTCsList.getKey(), fileTCsList.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<LinkedHashMap<String, ArrayList<TestCase>>> pendingInput : pendingInputs) {
+                pendingInput.cancel(true);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        lastStatistics = new IngestionStatistics(parsedFilesCount, testCasesCount,
+                System.nanoTime() - startNanos, workersCount, failedFilePaths, filesMetrics);
+        return lastStatistics;
+    }
+
+    /**
+     * Parses the given XML files concurrently and collects their test cases, one list per file,
+     * in the same order as the given paths.
+     *
+     * @param xmlFilePaths The paths of the XML files to parse.
+     * @return An ArrayList of ArrayLists of TestCase objects, one inner list per file.
+     */
+    public ArrayList<ArrayList<TestCase>> ingest(List<String> xmlFilePaths) {
+        ArrayList<ArrayList<TestCase>> allTCsLists = new ArrayList<>(xmlFilePaths.size());
+        ingest(xmlFilePaths, (xmlFilePath, tcList) -> allTCsLists.add(tcList));
+        return allTCsLists;
+    }
+
+    /**
+     * Gets the throughput figures of the last ingestion run.
+     *
+     * @return The IngestionStatistics of the last run, or null if nothing was ingested yet.
+     */
+    public IngestionStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+
+    /**
+     * Replaces the zip archives among the given paths by the paths of their report entries, see
+     * {@link ReportInputs#listZipEntries}. Archives that cannot be listed are kept, so they fail when parsed.
+     *
+     * @param inputPaths The paths of the XML files and archives.
+     * @return The paths with the zip archives expanded, in the same order.
+     */
+    public static List<String> expandZipArchives(List<String> inputPaths) {
+        List<String> expandedPaths = new ArrayList<>(inputPaths.size());
+        for (String inputPath : inputPaths) {
+            if (!ReportInputs.isZipArchive(inputPath)) {
+                expandedPaths.add(inputPath);
+                continue;
+            }
+            try {
+                expandedPaths.addAll(ReportInputs.listZipEntries(inputPath));
+            } catch (IOException e) {
+                expandedPaths.add(inputPath);
+            }
+        }
+        return expandedPaths;
+    }
+
+    /**
+     * Gets the test cases of one input: an XML file, a zip archive entry or every report entry of a tar archive.
+     *
+     * @param inputPath    The path of the input.
+     * @param inputMetrics Receives the measurements of each file or entry, in reading order.
+     * @return The extracted test cases by file or entry path, null for the entries that failed to parse.
+     * @throws Exception If the input cannot be read or parsed.
+     */
+    private LinkedHashMap<String, ArrayList<TestCase>> extractInput(String inputPath, List<FileMetrics> inputMetrics)
+            throws Exception {
+        LinkedHashMap<String, ArrayList<TestCase>> fileTCsLists = new LinkedHashMap<>();
+        if (ReportInputs.isZipArchive(inputPath)) {
+            // Only left by expandZipArchives when it could not be listed: fails with the cause unless it can be now
+            for (String entryPath : ReportInputs.listZipEntries(inputPath)) {
+                fileTCsLists.put(entryPath, extractTestCases(entryPath, () -> parseTestCases(entryPath), inputMetrics));
+            }
+        } else if (ReportInputs.isTarArchive(inputPath)) {
+            ReportInputs.forEachTarEntry(inputPath, (entryPath, inputStream) -> {
+                try {
+                    fileTCsLists.put(entryPath, extractTestCases(entryPath, () -> parseTestCases(entryPath, inputStream), inputMetrics));
+                } catch (Exception e) {
+                    // A broken entry does not fail the rest of the archive
+                    System.err.println("Failed to parse " + entryPath + ": " + e);
+                    fileTCsLists.put(entryPath, null);
+                }
+            });
+        } else {
+            fileTCsLists.put(inputPath, extractTestCases(inputPath, () -> parseTestCases(inputPath), inputMetrics));
+        }
+        return fileTCsLists;
+    }
+
+    /**
+     * Gets the test cases of one XML file from the cache if there is one, parsing the file otherwise, and
+     * measures the time and the allocations it took. Parsing and extraction are one streaming pass, so they
+     * are measured together.
+     *
+     * @param xmlFilePath  The path of the XML file or archive entry.
+     * @param parser       Extracts the test cases of the file.
+     * @param inputMetrics Receives the measurements of the file, including the error if it fails.
+     * @return The extracted test cases.
+     * @throws Exception If the file cannot be read or parsed.
+     */
+    private ArrayList<TestCase> extractTestCases(String xmlFilePath, Callable<ArrayList<TestCase>> parser,
+                                                 List<FileMetrics> inputMetrics) throws Exception {
+        long startNanos = System.nanoTime();
+        long startAllocatedBytes = AllocationMeter.getCurrentThreadAllocatedBytes();
+        AtomicBoolean parsed = new AtomicBoolean(parsedResultsCache == null);
+        try {
+            ArrayList<TestCase> tcList = parsedResultsCache == null ? parser.call()
+                    : parsedResultsCache.getTestCases(xmlFilePath, () -> {
+                        parsed.set(true);
+                        return parser.call();
+                    });
+            inputMetrics.add(new FileMetrics(xmlFilePath, tcList.size(), System.nanoTime() - startNanos,
+                    AllocationMeter.getAllocatedBytesSince(startAllocatedBytes), !parsed.get(), null));
+            return tcList;
+        } catch (Exception e) {
+            inputMetrics.add(new FileMetrics(xmlFilePath, 0, System.nanoTime() - startNanos,
+                    AllocationMeter.getAllocatedBytesSince(startAllocatedBytes), false, e.toString()));
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an XML file or zip archive entry and extracts its test cases. In MAPPED mode, plain files are
+     * scanned by {@link MappedReportScanner} first.
+     *
+     * @param xmlFilePath The path of the XML file or zip archive entry.
+     * @return The extracted test cases.
+     * @throws Exception If the file cannot be read or parsed, or its format is unknown.
+     */
+    private ArrayList<TestCase> parseTestCases(String xmlFilePath) throws Exception {
+        if (extractionMode == ExtractionMode.MAPPED && !ReportInputs.isEntryPath(xmlFilePath)
+                && !xmlFilePath.toLowerCase().endsWith(".gz") && (reportReader == null || reportReader instanceof VectorReportReader)) {
+            // Null for other formats and for anything the scanner does not handle: read again as usual below
+            ArrayList<TestCase> tcList = new MappedReportScanner(xmlFilePath).getTestCases();
+            if (tcList != null) {
+                return tcList;
+            }
+        }
+        try (InputStream inputStream = ReportInputs.open(xmlFilePath)) {
+            return parseTestCases(xmlFilePath, inputStream);
+        }
+    }
+
+    /**
+     * Extracts the test cases of one report with the reader of its format. Native reports are read
+     * with the configured extraction mode; the other formats are always streamed.
+     *
+     * @param xmlFilePath The path of the report, used to report errors.
+     * @param inputStream The decompressed content of the report, supporting mark/reset.
+     * @return The extracted test cases.
+     * @throws Exception If the report cannot be read or parsed, or its format is unknown.
+     */
+    private ArrayList<TestCase> parseTestCases(String xmlFilePath, InputStream inputStream) throws Exception {
+        TestReportReader fileReader = reportReader != null ? reportReader : TestReportReaders.detect(inputStream, xmlFilePath);
+        if (extractionMode == ExtractionMode.DOM && fileReader instanceof VectorReportReader) {
+            return new XMLFile(xmlFilePath, inputStream).getTestCases();
+        }
+        return fileReader.getTestCases(inputStream);
+    }
+
+    /**
+     * Waits for a parsing task and returns its test cases.
+     *
+     * @param inputPath    The path of the input being parsed.
+     * @param pendingInput The future of the parsing task.
+     * @param inputMetrics The measurements of the input, receiving its error if it failed before any file was measured.
+     * @return The extracted test cases by file or entry path, or null if the input failed to parse.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    private LinkedHashMap<String, ArrayList<TestCase>> awaitTestCases(String inputPath, Future<LinkedHashMap<String, ArrayList<TestCase>>> pendingInput,
+                                                                      List<FileMetrics> inputMetrics)
+            throws InterruptedException {
+        try {
+            return pendingInput.get();
+        } catch (ExecutionException e) {
+            System.err.println("Failed to parse " + inputPath + ": " + e.getCause());
+            // A tar archive that cannot be opened fails before any entry is measured
+            if (inputMetrics.isEmpty()) {
+                inputMetrics.add(new FileMetrics(inputPath, 0, 0, -1, false, String.valueOf(e.getCause())));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Creates named daemon worker threads so an abandoned pool never keeps the JVM alive.
+     */
+    private static class IngestionThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "xml-ingestion-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package data_types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the merge key index finds every key after growing, with test case ID keys and title keys mixed.
+ */
+class MergeKeyIndexTest {
+    private static final int KEYS_COUNT = 5000; // Well past the 768 keys that trigger the first resize
+
+    @Test
+    void findsAllKeysAfterResizing() {
+        MergeKeyIndex keyIndex = new MergeKeyIndex();
+        for (int id = 0; id < KEYS_COUNT; id++) {
+            keyIndex.put(idKey(id), id);
+            keyIndex.put(titleKey(id % 7, id), KEYS_COUNT + id);
+        }
+
+        assertEquals(2 * KEYS_COUNT, keyIndex.size());
+        for (int id = 0; id < KEYS_COUNT; id++) {
+            assertEquals(id, keyIndex.get(idKey(id)), "ID key " + id);
+            assertEquals(KEYS_COUNT + id, keyIndex.get(titleKey(id % 7, id)), "Title key " + id);
+        }
+        assertEquals(MergeKeyIndex.NO_VALUE, keyIndex.get(idKey(KEYS_COUNT)));
+        assertEquals(MergeKeyIndex.NO_VALUE, keyIndex.get(titleKey(7, 0)));
+    }
+
+    @Test
+    void keepsIdKeysApartFromTitleKeysWithTheSamePoolIds() {
+        MergeKeyIndex keyIndex = new MergeKeyIndex();
+        for (int poolId = 0; poolId < 100; poolId++) {
+            keyIndex.put(idKey(poolId), 1);
+            keyIndex.put(titleKey(0, poolId), 2);
+            keyIndex.put(titleKey(1, poolId), 3);
+        }
+
+        assertEquals(300, keyIndex.size());
+        for (int poolId = 0; poolId < 100; poolId++) {
+            assertEquals(1, keyIndex.get(idKey(poolId)));
+            assertEquals(2, keyIndex.get(titleKey(0, poolId)));
+            assertEquals(3, keyIndex.get(titleKey(1, poolId)));
+        }
+    }
+
+    @Test
+    void replacesValuesWithoutGrowing() {
+        MergeKeyIndex keyIndex = new MergeKeyIndex();
+        for (int id = 0; id < KEYS_COUNT; id++) {
+            keyIndex.put(idKey(id), id);
+        }
+        for (int id = 0; id < KEYS_COUNT; id++) {
+            keyIndex.put(idKey(id), -id - 2);
+        }
+
+        assertEquals(KEYS_COUNT, keyIndex.size());
+        for (int id = 0; id < KEYS_COUNT; id++) {
+            assertEquals(-id - 2, keyIndex.get(idKey(id)));
+        }
+    }
+
+    /**
+     * Builds the key TestCaseMerger uses for a test case ID.
+     *
+     * @param testCaseIdPoolId The pool id of the test case ID.
+     * @return The negative key.
+     */
+    private static long idKey(int testCaseIdPoolId) {
+        return -1L - testCaseIdPoolId;
+    }
+
+    /**
+     * Builds the key TestCaseMerger uses for a test case without a test case ID.
+     *
+     * @param groupPathId The id of the group path.
+     * @param titleId     The pool id of the title.
+     * @return The non-negative key.
+     */
+    private static long titleKey(int groupPathId, int titleId) {
+        return ((long) groupPathId << 32) | titleId;
+    }
+}
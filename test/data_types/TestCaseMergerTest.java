@@ -0,0 +1,184 @@
+package data_types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which attempt each merge policy keeps for a repeated test case, and that the verdict tally and the
+ * statistics per file and per group follow the kept attempt.
+ */
+class TestCaseMergerTest {
+    private final TestCaseStore testCaseStore = new TestCaseStore();
+    private final VerdictCounts verdictCounts = new VerdictCounts();
+    private final ReportBreakdown reportBreakdown = new ReportBreakdown();
+
+    @Test
+    void latestKeepsTheLatestStartTime() {
+        TestCaseMerger merger = createMerger(MergePolicy.LATEST);
+        merger.addFile("a.xml", List.of(
+                createTestCase("X", "2023-09-17 10:00:00", "fail"),
+                createTestCase("Y", "2023-09-17 10:00:00", "pass")));
+        merger.addFile("b.xml", List.of(
+                createTestCase("X", "2023-09-17 09:00:00", "pass"),
+                createTestCase("Y", "2023-09-17 11:00:00", "fail")));
+
+        assertEquals(2, testCaseStore.size());
+        assertRow(0, "X", "2023-09-17 10:00:00", "fail", 2);
+        assertRow(1, "Y", "2023-09-17 11:00:00", "fail", 2);
+        assertEquals(2, merger.getRepeatedCount());
+        assertEquals(2, merger.getDistinctCount());
+        assertEquals("Attempts", testCaseStore.getAttemptsColumnName());
+    }
+
+    @Test
+    void latestKeepsTheLastReadAttemptWhenAStartTimeIsUnknown() {
+        TestCaseMerger merger = createMerger(MergePolicy.LATEST);
+        merger.addFile("a.xml", List.of(
+                createTestCase("X", "", "pass"),
+                createTestCase("X", "2023-09-17 10:00:00", "fail"),
+                createTestCase("X", "not a time", "error")));
+
+        assertEquals(1, testCaseStore.size());
+        assertRow(0, "X", "not a time", "error", 3);
+        assertEquals(TestCaseStore.UNKNOWN_TIME, testCaseStore.getStartTimeMillis(0));
+    }
+
+    @Test
+    void worstKeepsTheWorstVerdictThenTheLatest() {
+        TestCaseMerger merger = createMerger(MergePolicy.WORST);
+        merger.addFile("a.xml", List.of(
+                createTestCase("X", "2023-09-17 11:00:00", "pass"),
+                createTestCase("X", "2023-09-17 10:00:00", "fail")));
+        assertRow(0, "X", "2023-09-17 10:00:00", "fail", 2);
+
+        merger.addFile("b.xml", List.of(
+                createTestCase("X", "2023-09-17 09:00:00", "error"),
+                createTestCase("X", "2023-09-17 12:00:00", "fail"),
+                createTestCase("X", "2023-09-17 08:00:00", "error")));
+        assertRow(0, "X", "2023-09-17 09:00:00", "error", 5);
+
+        merger.addFile("c.xml", List.of(
+                createTestCase("X", "2023-09-17 13:00:00", "error"),
+                createTestCase("X", "", "error")));
+        assertRow(0, "X", "", "error", 7);
+        assertEquals(1, testCaseStore.size());
+        assertEquals(1, verdictCounts.getTotal());
+        assertEquals(1, verdictCounts.getCount(Verdict.ERROR));
+    }
+
+    @Test
+    void keepAllNumbersEveryAttempt() {
+        TestCaseMerger merger = createMerger(MergePolicy.KEEP_ALL);
+        merger.addFile("a.xml", List.of(
+                createTestCase("X", "2023-09-17 10:00:00", "fail"),
+                createTestCase("X", "2023-09-17 09:00:00", "pass"),
+                createTestCase("Y", "2023-09-17 10:00:00", "pass")));
+        merger.addFile("b.xml", List.of(
+                createTestCase("X", "", "error")));
+
+        assertEquals(4, testCaseStore.size());
+        assertRow(0, "X", "2023-09-17 10:00:00", "fail", 1);
+        assertRow(1, "X", "2023-09-17 09:00:00", "pass", 2);
+        assertRow(2, "Y", "2023-09-17 10:00:00", "pass", 1);
+        assertRow(3, "X", "", "error", 3);
+        assertEquals(2, merger.getRepeatedCount());
+        assertEquals(2, merger.getDistinctCount());
+        assertEquals(4, verdictCounts.getTotal());
+        assertEquals("Attempt", testCaseStore.getAttemptsColumnName());
+    }
+
+    @Test
+    void mergesTestCasesWithoutIdByTitleAndGroupPath() {
+        TestCaseMerger merger = createMerger(MergePolicy.LATEST);
+        TestGroup suite = new TestGroup(null, "Suite");
+        merger.addFile("a.xml", List.of(
+                new TestCase("T", "2023-09-17 10:00:00", "2023-09-17 10:00:01", "pass", new TestGroup(suite, "G1")),
+                new TestCase("T", "2023-09-17 10:00:00", "2023-09-17 10:00:01", "pass", new TestGroup(suite, "G2")),
+                new TestCase("T", "2023-09-17 10:00:00", "2023-09-17 10:00:01", "pass", null)));
+        // Other group objects with the same paths, as a second report file builds them
+        TestGroup otherSuite = new TestGroup(null, "Suite");
+        merger.addFile("b.xml", List.of(
+                new TestCase("T", "2023-09-17 11:00:00", "2023-09-17 11:00:01", "fail", new TestGroup(otherSuite, "G1")),
+                new TestCase("T", "2023-09-17 11:00:00", "2023-09-17 11:00:01", "fail", null)));
+
+        assertEquals(3, testCaseStore.size());
+        assertEquals(3, merger.getDistinctCount());
+        assertEquals("fail", testCaseStore.getResult(0));
+        assertEquals("pass", testCaseStore.getResult(1));
+        assertEquals("fail", testCaseStore.getResult(2));
+    }
+
+    @Test
+    void movesCountsToTheFileAndGroupOfTheKeptAttempt() {
+        TestCaseMerger merger = createMerger(MergePolicy.LATEST);
+        TestGroup firstGroup = new TestGroup(null, "G1");
+        TestGroup secondGroup = new TestGroup(null, "G2");
+        merger.addFile("a.xml", List.of(
+                new TestCase("X", "2023-09-17 10:00:00", "2023-09-17 10:00:05", "fail", firstGroup, "X"),
+                new TestCase("Z", "2023-09-17 10:00:00", "2023-09-17 10:00:01", "pass", firstGroup, "Z")));
+        merger.addFile("b.xml", List.of(
+                new TestCase("X", "2023-09-17 11:00:00", "2023-09-17 11:00:02", "pass", secondGroup, "X")));
+
+        assertEquals(2, verdictCounts.getTotal());
+        assertEquals(2, verdictCounts.getCount(Verdict.PASS));
+        assertEquals(0, verdictCounts.getCount(Verdict.FAIL));
+        assertStatistics(reportBreakdown.getFileStatistics("a.xml"), 1, 1000);
+        assertStatistics(reportBreakdown.getFileStatistics("b.xml"), 1, 2000);
+        assertStatistics(reportBreakdown.getGroupStatistics(firstGroup), 1, 1000);
+        assertStatistics(reportBreakdown.getGroupStatistics(secondGroup), 1, 2000);
+    }
+
+    /**
+     * Creates a merger feeding the store, the tally and the breakdown of the test.
+     *
+     * @param mergePolicy The merge policy.
+     * @return The TestCaseMerger.
+     */
+    private TestCaseMerger createMerger(MergePolicy mergePolicy) {
+        return new TestCaseMerger(mergePolicy, testCaseStore, verdictCounts, reportBreakdown);
+    }
+
+    /**
+     * Creates a test case outside any group, titled after its test case ID.
+     *
+     * @param testCaseId The test case ID.
+     * @param startTime  The start time, also used as end time.
+     * @param result     The result.
+     * @return The TestCase.
+     */
+    private static TestCase createTestCase(String testCaseId, String startTime, String result) {
+        return new TestCase(testCaseId, startTime, startTime, result, null, testCaseId);
+    }
+
+    /**
+     * Checks the values kept in a store row.
+     *
+     * @param index      The store index.
+     * @param testCaseId The expected test case ID.
+     * @param startTime  The expected start time.
+     * @param result     The expected result.
+     * @param attempts   The expected attempts.
+     */
+    private void assertRow(int index, String testCaseId, String startTime, String result, int attempts) {
+        assertEquals(testCaseId, testCaseStore.getTestCaseId(index), "Test case ID of row " + index);
+        assertEquals(startTime, testCaseStore.getStartTime(index), "Start time of row " + index);
+        assertEquals(result, testCaseStore.getResult(index), "Result of row " + index);
+        assertEquals(attempts, testCaseStore.getAttempts(index), "Attempts of row " + index);
+    }
+
+    /**
+     * Checks the statistics of a file or group holding only passed test cases.
+     *
+     * @param statistics          The statistics.
+     * @param passCount           The expected passed test cases.
+     * @param totalDurationMillis The expected summed durations.
+     */
+    private static void assertStatistics(GroupStatistics statistics, long passCount, long totalDurationMillis) {
+        assertEquals(passCount, statistics.getVerdictCounts().getTotal(), "Test cases of " + statistics.getName());
+        assertEquals(passCount, statistics.getVerdictCounts().getCount(Verdict.PASS), "Passed of " + statistics.getName());
+        assertEquals(totalDurationMillis, statistics.getTotalDurationMillis(), "Duration of " + statistics.getName());
+    }
+}
@@ -0,0 +1,61 @@
+package data_types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the store gives back the times as written in the report, parsed ones, empty ones and others alike,
+ * and that only the parsed ones have a time in milliseconds.
+ */
+class TestCaseStoreTest {
+    private static final String TIME = "2023-09-17 11:03:17";
+
+    @Test
+    void readsBackEveryKindOfTime() {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        testCaseStore.add("Parsed", TIME, TIME, "pass");
+        testCaseStore.add("Empty", "", "", "pass");
+        testCaseStore.add("Other", "17/09/2023", "2023-09-17 25:00:00", "pass");
+        testCaseStore.add("Missing", null, null, "pass");
+
+        assertTimes(testCaseStore, 0, TIME, TestCaseStore.parseTimeMillis(TIME));
+        assertTimes(testCaseStore, 1, "", TestCaseStore.UNKNOWN_TIME);
+        assertEquals("17/09/2023", testCaseStore.getStartTime(2));
+        assertEquals("2023-09-17 25:00:00", testCaseStore.getEndTime(2));
+        assertEquals(TestCaseStore.UNKNOWN_TIME, testCaseStore.getStartTimeMillis(2));
+        assertEquals(TestCaseStore.UNKNOWN_TIME, testCaseStore.getEndTimeMillis(2));
+        assertNull(testCaseStore.getStartTime(3));
+        assertNull(testCaseStore.getEndTime(3));
+    }
+
+    @Test
+    void replacesTimesOfAnotherKind() {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        testCaseStore.add("A", "17/09/2023", "", "pass");
+        testCaseStore.add("B", "", TIME, "pass");
+
+        testCaseStore.set(0, new TestCase("A", "", "17/09/2023", "fail"), TestCaseStore.toTimeMillis(""));
+        testCaseStore.set(1, new TestCase("B", TIME, "", "fail"), TestCaseStore.toTimeMillis(TIME));
+
+        assertEquals("", testCaseStore.getStartTime(0));
+        assertEquals("17/09/2023", testCaseStore.getEndTime(0));
+        assertTimes(testCaseStore, 1, TIME, TestCaseStore.parseTimeMillis(TIME));
+        assertEquals("", testCaseStore.getEndTime(1));
+        assertEquals(TestCaseStore.UNKNOWN_TIME, testCaseStore.getEndTimeMillis(1));
+    }
+
+    /**
+     * Checks the start time of a test case, as text and in milliseconds.
+     *
+     * @param testCaseStore The store.
+     * @param index         The test case index.
+     * @param startTime     The expected text.
+     * @param startMillis   The expected milliseconds.
+     */
+    private static void assertTimes(TestCaseStore testCaseStore, int index, String startTime, long startMillis) {
+        assertEquals(startTime, testCaseStore.getStartTime(index), "Start time of row " + index);
+        assertEquals(startMillis, testCaseStore.getStartTimeMillis(index), "Start milliseconds of row " + index);
+    }
+}
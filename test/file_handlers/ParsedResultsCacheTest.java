@@ -0,0 +1,320 @@
+package file_handlers;
+
+import data_types.CacheStatistics;
+import data_types.TestCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks that cached test cases read back like parsed ones, that an entry outlives a changed modification time
+ * only while the content is the same, and that the least recently used entries are evicted first.
+ */
+class ParsedResultsCacheTest {
+    // Groups nested two deep, a fixture title repeated under two groups, and test cases outside any fixture
+    private static final String REPORT = String.join("\n",
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>",
+            "<testreport>",
+            "    <testunit>",
+            "        <testgroup>",
+            "            <testfixture>",
+            "                <testcase tcnumber=\"1\">",
+            "                    <verdict time=\"2023-09-17 11:00:00\" endtime=\"2023-09-17 11:00:02\" result=\"pass\"/>",
+            "                    <title>Open door</title>",
+            "                    <testcaseid>id-1</testcaseid>",
+            "                </testcase>",
+            "                <testcase tcnumber=\"2\">",
+            "                    <verdict time=\"2023-09-17 11:00:03\" endtime=\"2023-09-17 11:00:04\" result=\"fail\"/>",
+            "                    <title>Close door &amp; lock</title>",
+            "                </testcase>",
+            "                <title>Fixture</title>",
+            "            </testfixture>",
+            "            <title>Group A</title>",
+            "        </testgroup>",
+            "        <testgroup>",
+            "            <testfixture>",
+            "                <testcase tcnumber=\"3\">",
+            "                    <verdict time=\"2023-09-17 11:00:05\" result=\"error\"/>",
+            "                    <title>Unlock door äöü</title>",
+            "                    <testcaseid>id-3</testcaseid>",
+            "                </testcase>",
+            "                <title>Fixture</title>",
+            "            </testfixture>",
+            "            <title>Group B</title>",
+            "        </testgroup>",
+            "        <testcase tcnumber=\"4\">",
+            "            <verdict time=\"2023-09-17 11:00:06\" endtime=\"2023-09-17 11:00:07\" result=\"inconclusive\"/>",
+            "            <title>Unit level</title>",
+            "        </testcase>",
+            "        <title>Unit</title>",
+            "    </testunit>",
+            "    <title>Report</title>",
+            "</testreport>",
+            "");
+
+    @TempDir
+    Path tempFolder;
+
+    @Test
+    void readsCachedTestCasesLikeParsedOnes() throws Exception {
+        Path reportPath = writeReport("Report.xml", REPORT);
+        List<String> xmlFilePaths = List.of(reportPath.toString(), "test_reports/Report_Door_Control_Unit_Tests.xml",
+                "test_reports/Report_SUT_Tester.xml");
+        ParsedResultsCache cache = createCache(ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES);
+        for (String xmlFilePath : xmlFilePaths) {
+            ArrayList<TestCase> parsedTCsList = cache.getTestCases(xmlFilePath, () -> new XMLStreamFile(xmlFilePath).getTestCases());
+            ArrayList<TestCase> cachedTCsList = cache.getTestCases(xmlFilePath, ParsedResultsCacheTest::failParsing);
+            assertEquals(describe(parsedTCsList), describe(cachedTCsList), xmlFilePath);
+        }
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(3, statistics.getHits());
+        assertEquals(3, statistics.getMisses());
+
+        // The restored groups keep the path and the fixture title of the parsed ones
+        ArrayList<TestCase> cachedTCsList = cache.getTestCases(reportPath.toString(), ParsedResultsCacheTest::failParsing);
+        assertEquals("Unit / Group A / Fixture", cachedTCsList.get(0).getGroupPath());
+        assertEquals("Fixture", cachedTCsList.get(0).getFixtureTitle());
+        assertEquals("Unit / Group B / Fixture", cachedTCsList.get(2).getGroupPath());
+        assertEquals("Unit", cachedTCsList.get(3).getGroupPath());
+        assertEquals("Unit", cachedTCsList.get(3).getFixtureTitle());
+    }
+
+    @Test
+    void hitsAfterTouchOnlyWithTheSameContent() throws Exception {
+        Path reportPath = writeReport("Report.xml", REPORT);
+        ParsedResultsCache cache = createCache(ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES);
+        AtomicInteger parsedCount = new AtomicInteger();
+        Callable<ArrayList<TestCase>> parser = () -> {
+            parsedCount.incrementAndGet();
+            return new XMLStreamFile(reportPath.toString()).getTestCases();
+        };
+        cache.getTestCases(reportPath.toString(), parser);
+
+        // Copied again: a new modification time, the same bytes
+        shiftModificationTime(reportPath, 10_000);
+        cache.getTestCases(reportPath.toString(), parser);
+        cache.getTestCases(reportPath.toString(), parser);
+        assertEquals(1, parsedCount.get());
+
+        // The same size with other bytes
+        writeReport("Report.xml", REPORT.replace("result=\"pass\"", "result=\"fail\""));
+        shiftModificationTime(reportPath, 20_000);
+        ArrayList<TestCase> tcList = cache.getTestCases(reportPath.toString(), parser);
+        assertEquals(2, parsedCount.get());
+        assertEquals("fail", tcList.get(0).getResult());
+        assertEquals(2, cache.getStatistics().getHits());
+        assertEquals(2, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    void hitsArchiveEntriesAfterTouch() throws Exception {
+        Path archivePath = tempFolder.resolve("Reports.zip");
+        try (ZipOutputStream archive = new ZipOutputStream(Files.newOutputStream(archivePath))) {
+            for (String entryName : List.of("a.xml", "b.xml")) {
+                archive.putNextEntry(new ZipEntry(entryName));
+                archive.write(REPORT.getBytes(StandardCharsets.UTF_8));
+                archive.closeEntry();
+            }
+        }
+        ParsedResultsCache cache = createCache(ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES);
+        List<String> entryPaths = ReportInputs.listZipEntries(archivePath.toString());
+        assertEquals(2, entryPaths.size());
+        for (String entryPath : entryPaths) {
+            cache.getTestCases(entryPath, () -> new ArrayList<>(List.of(new TestCase(entryPath, "2023-09-17 11:00:00", "pass"))));
+        }
+
+        shiftModificationTime(archivePath, 10_000);
+        for (String entryPath : entryPaths) {
+            // Each entry keeps its own test cases
+            assertEquals(entryPath, cache.getTestCases(entryPath, ParsedResultsCacheTest::failParsing).get(0).getTitle());
+        }
+        assertEquals(2, cache.getStatistics().getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() throws Exception {
+        // Reports of the same size and name length get entries of the same size
+        List<Path> reportPaths = List.of(writeReport("R1.xml", REPORT), writeReport("R2.xml", REPORT), writeReport("R3.xml", REPORT));
+        long entryBytes = measureEntryBytes(reportPaths.get(0));
+        ParsedResultsCache cache = createCache(entryBytes * 5 / 2);
+
+        cache.getTestCases(reportPaths.get(0).toString(), () -> parse(reportPaths.get(0)));
+        setEntriesModificationTime(System.currentTimeMillis() - 60_000);
+        cache.getTestCases(reportPaths.get(1).toString(), () -> parse(reportPaths.get(1)));
+        File secondEntry = getNewestEntry();
+        secondEntry.setLastModified(System.currentTimeMillis() - 30_000);
+        // A hit makes the first entry the most recently used
+        cache.getTestCases(reportPaths.get(0).toString(), ParsedResultsCacheTest::failParsing);
+
+        cache.getTestCases(reportPaths.get(2).toString(), () -> parse(reportPaths.get(2)));
+        assertEquals(1, cache.getStatistics().getEvictions());
+        assertEquals(2, cache.getStatistics().getEntriesCount());
+        cache.getTestCases(reportPaths.get(0).toString(), ParsedResultsCacheTest::failParsing);
+        cache.getTestCases(reportPaths.get(2).toString(), ParsedResultsCacheTest::failParsing);
+        AtomicInteger parsedCount = new AtomicInteger();
+        cache.getTestCases(reportPaths.get(1).toString(), () -> {
+            parsedCount.incrementAndGet();
+            return parse(reportPaths.get(1));
+        });
+        assertEquals(1, parsedCount.get());
+    }
+
+    @Test
+    void keepsJustWrittenEntryOverTheLimit() throws Exception {
+        Path firstReportPath = writeReport("R1.xml", REPORT);
+        Path secondReportPath = writeReport("R2.xml", REPORT);
+        ParsedResultsCache cache = createCache(1);
+
+        cache.getTestCases(firstReportPath.toString(), () -> parse(firstReportPath));
+        assertEquals(1, cache.getStatistics().getEntriesCount());
+        assertEquals(0, cache.getStatistics().getEvictions());
+        cache.getTestCases(secondReportPath.toString(), () -> parse(secondReportPath));
+        assertEquals(1, cache.getStatistics().getEntriesCount());
+        assertEquals(1, cache.getStatistics().getEvictions());
+        cache.getTestCases(secondReportPath.toString(), ParsedResultsCacheTest::failParsing);
+        assertEquals(1, cache.getStatistics().getHits());
+    }
+
+    /**
+     * Creates a cache in its own folder.
+     *
+     * @param maxCacheBytes The size limit of the entries.
+     * @return The ParsedResultsCache.
+     * @throws IOException If the cache folder cannot be created.
+     */
+    private ParsedResultsCache createCache(long maxCacheBytes) throws IOException {
+        return new ParsedResultsCache(tempFolder.resolve("cache").toString(), maxCacheBytes);
+    }
+
+    /**
+     * Measures the entry size of a report in a separate cache folder.
+     *
+     * @param reportPath The path of the report.
+     * @return The size of its entry in bytes.
+     * @throws Exception If the report cannot be parsed or cached.
+     */
+    private long measureEntryBytes(Path reportPath) throws Exception {
+        ParsedResultsCache cache = new ParsedResultsCache(tempFolder.resolve("measured_cache").toString(),
+                ParsedResultsCache.DEFAULT_MAX_CACHE_BYTES);
+        cache.getTestCases(reportPath.toString(), () -> parse(reportPath));
+        return cache.getStatistics().getCacheBytes();
+    }
+
+    /**
+     * Sets the modification time of every entry of the cache folder, which orders the eviction.
+     *
+     * @param lastModifiedMillis The modification time.
+     */
+    private void setEntriesModificationTime(long lastModifiedMillis) {
+        for (File entryFile : listEntries()) {
+            entryFile.setLastModified(lastModifiedMillis);
+        }
+    }
+
+    /**
+     * Gets the most recently used entry of the cache folder.
+     *
+     * @return The entry file.
+     */
+    private File getNewestEntry() {
+        File newestEntry = null;
+        for (File entryFile : listEntries()) {
+            if (newestEntry == null || entryFile.lastModified() > newestEntry.lastModified()) {
+                newestEntry = entryFile;
+            }
+        }
+        return newestEntry;
+    }
+
+    /**
+     * Lists the entries of the cache folder.
+     *
+     * @return The entry files.
+     */
+    private File[] listEntries() {
+        File[] entryFiles = tempFolder.resolve("cache").toFile().listFiles((folder, name) -> name.endsWith(".tcc"));
+        assertNotNull(entryFiles);
+        return entryFiles;
+    }
+
+    /**
+     * Writes a report into the temporary folder.
+     *
+     * @param fileName The name of the report.
+     * @param report   The report content.
+     * @return The path of the report.
+     * @throws IOException If the report cannot be written.
+     */
+    private Path writeReport(String fileName, String report) throws IOException {
+        Path reportPath = tempFolder.resolve(fileName);
+        try (OutputStream output = Files.newOutputStream(reportPath)) {
+            output.write(report.getBytes(StandardCharsets.UTF_8));
+        }
+        return reportPath;
+    }
+
+    /**
+     * Moves the modification time of a file forward, as copying it again does.
+     *
+     * @param filePath    The path of the file.
+     * @param shiftMillis The time to add.
+     * @throws IOException If the modification time cannot be changed.
+     */
+    private static void shiftModificationTime(Path filePath, long shiftMillis) throws IOException {
+        FileTime lastModifiedTime = Files.getLastModifiedTime(filePath);
+        Files.setLastModifiedTime(filePath, FileTime.fromMillis(lastModifiedTime.toMillis() + shiftMillis));
+    }
+
+    /**
+     * Parses a report with the streaming reader.
+     *
+     * @param reportPath The path of the report.
+     * @return The test cases.
+     * @throws Exception If the report cannot be parsed.
+     */
+    private static ArrayList<TestCase> parse(Path reportPath) throws Exception {
+        return new XMLStreamFile(reportPath.toString()).getTestCases();
+    }
+
+    /**
+     * Stands in for the parser where the cache must answer.
+     *
+     * @return Never returns.
+     */
+    private static ArrayList<TestCase> failParsing() {
+        return fail("The file was parsed instead of read from the cache");
+    }
+
+    /**
+     * Describes every field of test cases, including their group path and fixture title.
+     *
+     * @param tcList The test cases.
+     * @return One line per test case.
+     */
+    private static List<String> describe(List<TestCase> tcList) {
+        List<String> descriptions = new ArrayList<>();
+        for (TestCase testCase : tcList) {
+            descriptions.add(String.join("|", testCase.getTitle(), testCase.getStartTime(), testCase.getEndTime(),
+                    testCase.getResult(), testCase.getGroupPath(), testCase.getFixtureTitle(),
+                    String.valueOf(testCase.getTestCaseId()), testCase.getTcNumber()));
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,40 @@
+package file_handlers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the conversion of the durations written by the foreign report formats.
+ */
+class StreamingReportReaderTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2023, 9, 17, 11, 0, 0);
+
+    @Test
+    void addsDecimalPointDurations() {
+        assertEquals(START_TIME.plusNanos(153_000_000), StreamingReportReader.plusSeconds(START_TIME, "0.153"));
+        assertEquals(START_TIME.plusSeconds(12), StreamingReportReader.plusSeconds(START_TIME, "12"));
+    }
+
+    @Test
+    void readsLoneCommaAsDecimalComma() {
+        assertEquals(START_TIME.plusNanos(153_000_000), StreamingReportReader.plusSeconds(START_TIME, "0,153"));
+        assertEquals(START_TIME.plusSeconds(1).plusNanos(500_000_000), StreamingReportReader.plusSeconds(START_TIME, "1,5"));
+    }
+
+    @Test
+    void readsCommasAsThousandsSeparators() {
+        assertEquals(START_TIME.plusSeconds(1234).plusNanos(500_000_000), StreamingReportReader.plusSeconds(START_TIME, "1,234.5"));
+        assertEquals(START_TIME.plusSeconds(1_234_567), StreamingReportReader.plusSeconds(START_TIME, "1,234,567"));
+    }
+
+    @Test
+    void ignoresMissingOrInvalidDurations() {
+        assertEquals(START_TIME, StreamingReportReader.plusSeconds(START_TIME, ""));
+        assertEquals(START_TIME, StreamingReportReader.plusSeconds(START_TIME, "n/a"));
+        assertNull(StreamingReportReader.plusSeconds(null, "0.153"));
+    }
+}
@@ -0,0 +1,123 @@
+package file_handlers;
+
+import data_types.TestCase;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the streaming, DOM and memory-mapped readers pick the test case fields the TestCaseField mapping
+ * describes: direct children only, the first of duplicate children, and nothing from the title, verdict and
+ * test case ID elements of nested steps, patterns and test cases.
+ */
+class TestCaseFieldTest {
+    // The first test case hides its fields behind decoys that a descendant search would find first
+    private static final String REPORT = String.join("\n",
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>",
+            "<testreport>",
+            "    <testunit>",
+            "        <testfixture>",
+            "            <testcase starttime=\"2023-09-17 11:00:00\" tcnumber=\"1\">",
+            "                <testpattern>",
+            "                    <title>Decoy pattern title</title>",
+            "                    <verdict time=\"2023-09-17 10:00:00\" endtime=\"2023-09-17 10:00:09\" result=\"error\"/>",
+            "                    <testcaseid>decoy-pattern-id</testcaseid>",
+            "                </testpattern>",
+            "                <verdict time=\"2023-09-17 11:00:01\" endtime=\"2023-09-17 11:00:02\" result=\"pass\"/>",
+            "                <verdict time=\"2023-09-17 12:00:00\" endtime=\"2023-09-17 12:00:01\" result=\"fail\"/>",
+            "                <title>Direct title</title>",
+            "                <title>Duplicate title</title>",
+            "                <teststep>",
+            "                    <title>Decoy step title</title>",
+            "                    <testcaseid>decoy-step-id</testcaseid>",
+            "                </teststep>",
+            "                <testcaseid> direct-id </testcaseid>",
+            "                <testcaseid>duplicate-id</testcaseid>",
+            "                <testcase tcnumber=\"99\">",
+            "                    <verdict time=\"2023-09-17 11:30:00\" endtime=\"2023-09-17 11:30:01\" result=\"inconclusive\"/>",
+            "                    <title>Nested test case</title>",
+            "                </testcase>",
+            "            </testcase>",
+            "            <testcase tcnumber=\"2\">",
+            "                <teststep>",
+            "                    <verdict time=\"2023-09-17 13:00:00\" endtime=\"2023-09-17 13:00:01\" result=\"error\"/>",
+            "                    <title>Decoy step title</title>",
+            "                </teststep>",
+            "                <title>Second test case</title>",
+            "            </testcase>",
+            "            <title>Fixture A</title>",
+            "        </testfixture>",
+            "        <title>Unit</title>",
+            "    </testunit>",
+            "    <title>Report</title>",
+            "</testreport>",
+            "");
+
+    @TempDir
+    Path tempFolder;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"stream", "dom", "mapped"})
+    void readsDirectChildrenOnly(String extractionMode) throws Exception {
+        ArrayList<TestCase> tcList = extractTestCases(extractionMode);
+
+        // The test case nested in the first one is not a test case of its own
+        assertEquals(2, tcList.size());
+
+        TestCase firstTestCase = tcList.get(0);
+        assertEquals("Direct title", firstTestCase.getTitle());
+        assertEquals("2023-09-17 11:00:01", firstTestCase.getStartTime());
+        assertEquals("2023-09-17 11:00:02", firstTestCase.getEndTime());
+        assertEquals("pass", firstTestCase.getResult());
+        assertEquals("direct-id", firstTestCase.getTestCaseId());
+        assertEquals("1", firstTestCase.getTcNumber());
+        assertEquals("Fixture A", firstTestCase.getFixtureTitle());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"stream", "dom", "mapped"})
+    void ignoresFieldsOfNestedSteps(String extractionMode) throws Exception {
+        TestCase secondTestCase = extractTestCases(extractionMode).get(1);
+
+        assertEquals("Second test case", secondTestCase.getTitle());
+        // The only verdict is the one of a step, so the test case has none
+        assertEquals("", secondTestCase.getStartTime());
+        assertEquals("", secondTestCase.getEndTime());
+        assertEquals("", secondTestCase.getResult());
+        assertNull(secondTestCase.getTestCaseId());
+        assertEquals("2", secondTestCase.getTcNumber());
+        assertEquals("Fixture A", secondTestCase.getFixtureTitle());
+    }
+
+    /**
+     * Writes the report and extracts its test cases.
+     *
+     * @param extractionMode The reader: stream (XMLStreamFile), dom (XMLFile) or mapped (MappedReportScanner).
+     * @return The extracted test cases.
+     * @throws Exception If the report cannot be written or read.
+     */
+    private ArrayList<TestCase> extractTestCases(String extractionMode) throws Exception {
+        Path reportPath = tempFolder.resolve("Report.xml");
+        Files.writeString(reportPath, REPORT, StandardCharsets.UTF_8);
+        switch (extractionMode) {
+            case "stream":
+                return new XMLStreamFile(reportPath.toString()).getTestCases();
+            case "dom":
+                return new XMLFile(reportPath.toString()).getTestCases();
+            default:
+                ArrayList<TestCase> tcList = new MappedReportScanner(reportPath.toString()).getTestCases();
+                // Null would mean the scanner left the report to the streaming reader
+                assertNotNull(tcList);
+                return tcList;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package file_handlers;
+
+import data_types.FlakyTest;
+import data_types.HistoryRun;
+import data_types.HistoryVerdict;
+import data_types.RegressedTest;
+import data_types.TestCaseStore;
+import data_types.Verdict;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the verdict history reads back what it recorded: after reopening, after an interrupted append,
+ * with runs appended through another instance, and with runs whose verdicts span mapped segments.
+ */
+class VerdictHistoryStoreTest {
+    private static final String[] RESULTS = {"pass", "fail", "error", "inconclusive", "none"};
+    private static final int[] SEGMENT_RUN_SIZES = {5, 6, 7, 20, 3}; // Runs across one, then two boundaries of 8 records
+    private static final int SMALL_SEGMENT_VERDICTS = 8;
+
+    @TempDir
+    Path historyFolder;
+
+    @Test
+    void readsRecordedRunsAfterReopening() throws IOException {
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString())) {
+            // The last occurrence of A counts
+            historyStore.appendRun(createRun("2023-09-17 10:00:00", "A", "fail", "A", "pass", "B", "pass", "C", "fail"));
+            historyStore.appendRun(createRun("2023-09-17 11:00:00", "A", "fail", "B", "pass", "C", "pass", "D", "error"));
+            historyStore.appendRun(createRun("2023-09-17 12:00:00", "A", "pass", "B", "fail"));
+            assertNull(historyStore.appendRun(createRun("2023-09-17 13:00:00", null, "pass")));
+        }
+
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString())) {
+            List<HistoryRun> runs = historyStore.getRuns();
+            assertEquals(3, runs.size());
+            assertEquals("2023-09-17 11:00:00", runs.get(1).getStartTime());
+            assertEquals(4, runs.get(1).getVerdictsCount());
+            assertEquals(4, historyStore.getTestsCount());
+
+            // D failed on its first run and C failed before, so only A regressed
+            List<RegressedTest> regressedTests = historyStore.findRegressions(runs.get(1));
+            assertEquals(1, regressedTests.size());
+            assertEquals("A", regressedTests.get(0).getTestCaseId());
+            assertEquals("Title A", regressedTests.get(0).getTitle());
+            assertEquals(0, regressedTests.get(0).getPassedRun().getRunIndex());
+            assertEquals(Verdict.FAIL, regressedTests.get(0).getVerdict());
+            assertEquals(List.of("B"), getTestCaseIds(historyStore.findRegressions(runs.get(2))));
+
+            assertEquals(List.of(Verdict.PASS, Verdict.FAIL, Verdict.PASS),
+                    getVerdicts(historyStore.getTestHistory("A", Long.MIN_VALUE, Long.MAX_VALUE)));
+            assertEquals(List.of(Verdict.FAIL),
+                    getVerdicts(historyStore.getTestHistory("A", runs.get(1).getStartMillis(), runs.get(2).getStartMillis())));
+            assertEquals(List.of(Verdict.ERROR), getVerdicts(historyStore.getTestHistory("D", Long.MIN_VALUE, Long.MAX_VALUE)));
+            assertEquals(List.of(), historyStore.getTestHistory("E", Long.MIN_VALUE, Long.MAX_VALUE));
+
+            // A flipped twice; B and C once each, kept in order of their first recording
+            List<FlakyTest> flakyTests = historyStore.findFlakyTests(3, 10);
+            assertEquals(List.of("A", "B", "C"), getFlakyTestCaseIds(flakyTests));
+            assertEquals(3, flakyTests.get(0).getRunsCount());
+            assertEquals(1, flakyTests.get(0).getFailuresCount());
+            assertEquals(2, flakyTests.get(0).getFlipsCount());
+            assertEquals(List.of("A"), getFlakyTestCaseIds(historyStore.findFlakyTests(3, 1)));
+            // Over the last two runs, A went from fail to pass and B from pass to fail
+            assertEquals(List.of("A", "B"), getFlakyTestCaseIds(historyStore.findFlakyTests(2, 10)));
+        }
+    }
+
+    @Test
+    void rollsBackTornAppendOnOpen() throws IOException {
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString())) {
+            historyStore.appendRun(createRun("2023-09-17 10:00:00", "A", "pass", "B", "pass"));
+        }
+        long runsBytes = Files.size(historyFolder.resolve("runs.bin"));
+        long testsBytes = Files.size(historyFolder.resolve("tests.bin"));
+        long verdictsBytes = Files.size(historyFolder.resolve("verdicts.bin"));
+
+        // An append interrupted after its new tests and verdicts, in the middle of its run record
+        appendBytes("tests.bin", new byte[]{0, 0, 0, 1, 'C', 0, 0, 0, 1, 'c'});
+        appendBytes("verdicts.bin", new byte[12]);
+        appendBytes("runs.bin", new byte[7]);
+
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString())) {
+            assertEquals(1, historyStore.getRuns().size());
+            assertEquals(2, historyStore.getTestsCount());
+            assertEquals(runsBytes, Files.size(historyFolder.resolve("runs.bin")));
+            assertEquals(testsBytes, Files.size(historyFolder.resolve("tests.bin")));
+            assertEquals(verdictsBytes, Files.size(historyFolder.resolve("verdicts.bin")));
+
+            historyStore.appendRun(createRun("2023-09-17 11:00:00", "B", "fail", "C", "pass"));
+        }
+
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString())) {
+            List<HistoryRun> runs = historyStore.getRuns();
+            assertEquals(2, runs.size());
+            assertEquals(3, historyStore.getTestsCount());
+            assertEquals(List.of("B"), getTestCaseIds(historyStore.findRegressions(runs.get(1))));
+            assertEquals(List.of(Verdict.PASS), getVerdicts(historyStore.getTestHistory("C", Long.MIN_VALUE, Long.MAX_VALUE)));
+            assertEquals(List.of(Verdict.PASS, Verdict.FAIL),
+                    getVerdicts(historyStore.getTestHistory("B", Long.MIN_VALUE, Long.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void picksUpRunsAppendedByOtherInstances() throws IOException {
+        try (VerdictHistoryStore firstStore = new VerdictHistoryStore(historyFolder.toString());
+             VerdictHistoryStore secondStore = new VerdictHistoryStore(historyFolder.toString())) {
+            firstStore.appendRun(createRun("2023-09-17 10:00:00", "A", "pass", "B", "pass"));
+            // The other run and its tests are loaded before the new run is appended
+            HistoryRun secondRun = secondStore.appendRun(createRun("2023-09-17 11:00:00", "B", "fail", "C", "pass"));
+            assertEquals(1, secondRun.getRunIndex());
+            assertEquals(3, secondStore.getTestsCount());
+            assertEquals(List.of("B"), getTestCaseIds(secondStore.findRegressions(secondRun)));
+
+            HistoryRun thirdRun = firstStore.appendRun(createRun("2023-09-17 12:00:00", "C", "error"));
+            assertEquals(2, thirdRun.getRunIndex());
+            assertEquals(List.of("C"), getTestCaseIds(firstStore.findRegressions(thirdRun)));
+        }
+    }
+
+    @Test
+    void readsRunsAcrossSegmentBoundaries() throws IOException {
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString(), SMALL_SEGMENT_VERDICTS)) {
+            for (int runIndex = 0; runIndex < SEGMENT_RUN_SIZES.length; runIndex++) {
+                historyStore.appendRun(createSegmentRun(runIndex));
+                // The mapped segments grow with the appended runs
+                assertSegmentRunsRead(historyStore, runIndex + 1);
+            }
+        }
+
+        try (VerdictHistoryStore historyStore = new VerdictHistoryStore(historyFolder.toString(), SMALL_SEGMENT_VERDICTS);
+             VerdictHistoryStore referenceStore = new VerdictHistoryStore(historyFolder.toString())) {
+            assertSegmentRunsRead(historyStore, SEGMENT_RUN_SIZES.length);
+            for (HistoryRun run : historyStore.getRuns()) {
+                assertEquals(getTestCaseIds(referenceStore.findRegressions(run)), getTestCaseIds(historyStore.findRegressions(run)));
+            }
+            assertEquals(getFlakyTestCaseIds(referenceStore.findFlakyTests(SEGMENT_RUN_SIZES.length, 100)),
+                    getFlakyTestCaseIds(historyStore.findFlakyTests(SEGMENT_RUN_SIZES.length, 100)));
+        }
+    }
+
+    /**
+     * Checks the history of every test of the segment runs.
+     *
+     * @param historyStore The history holding the segment runs.
+     * @param runsCount    The number of segment runs recorded so far.
+     * @throws IOException If the history cannot be read.
+     */
+    private static void assertSegmentRunsRead(VerdictHistoryStore historyStore, int runsCount) throws IOException {
+        for (int testIndex = 0; testIndex < SEGMENT_RUN_SIZES[3]; testIndex++) {
+            List<Verdict> expectedVerdicts = new ArrayList<>();
+            for (int runIndex = 0; runIndex < runsCount; runIndex++) {
+                if (testIndex < SEGMENT_RUN_SIZES[runIndex]) {
+                    expectedVerdicts.add(Verdict.fromResult(getSegmentResult(runIndex, testIndex)));
+                }
+            }
+            assertEquals(expectedVerdicts, getVerdicts(historyStore.getTestHistory("T" + testIndex, Long.MIN_VALUE, Long.MAX_VALUE)),
+                    "History of T" + testIndex);
+        }
+    }
+
+    /**
+     * Creates a run of the segment test, holding the first tests in a result pattern that varies per run.
+     *
+     * @param runIndex The index of the run.
+     * @return The test cases of the run.
+     */
+    private static TestCaseStore createSegmentRun(int runIndex) {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        String startTime = String.format("2023-09-17 1%d:00:00", runIndex);
+        for (int testIndex = 0; testIndex < SEGMENT_RUN_SIZES[runIndex]; testIndex++) {
+            testCaseStore.add("Title T" + testIndex, startTime, startTime, getSegmentResult(runIndex, testIndex), "T" + testIndex);
+        }
+        return testCaseStore;
+    }
+
+    /**
+     * Gets the result of a test in a run of the segment test.
+     *
+     * @param runIndex  The index of the run.
+     * @param testIndex The index of the test.
+     * @return The result.
+     */
+    private static String getSegmentResult(int runIndex, int testIndex) {
+        return RESULTS[(testIndex * 3 + runIndex) % RESULTS.length];
+    }
+
+    /**
+     * Creates the test cases of a run, all starting at the same time.
+     *
+     * @param startTime      The start time of the test cases.
+     * @param idResultPairs The test case ID and result of each test case; the title is derived from the ID.
+     * @return The test cases of the run.
+     */
+    private static TestCaseStore createRun(String startTime, String... idResultPairs) {
+        TestCaseStore testCaseStore = new TestCaseStore();
+        for (int pairIndex = 0; pairIndex < idResultPairs.length; pairIndex += 2) {
+            String testCaseId = idResultPairs[pairIndex];
+            testCaseStore.add("Title " + testCaseId, startTime, startTime, idResultPairs[pairIndex + 1], testCaseId);
+        }
+        return testCaseStore;
+    }
+
+    /**
+     * Appends bytes to a history file, as an interrupted append leaves them.
+     *
+     * @param fileName The name of the history file.
+     * @param bytes    The bytes to append.
+     * @throws IOException If the file cannot be written.
+     */
+    private void appendBytes(String fileName, byte[] bytes) throws IOException {
+        Files.write(historyFolder.resolve(fileName), bytes, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Gets the verdicts of a test history.
+     *
+     * @param testHistory The verdicts of a test in its runs.
+     * @return The verdicts, in run order.
+     */
+    private static List<Verdict> getVerdicts(List<HistoryVerdict> testHistory) {
+        List<Verdict> verdicts = new ArrayList<>();
+        for (HistoryVerdict historyVerdict : testHistory) {
+            verdicts.add(historyVerdict.getVerdict());
+        }
+        return verdicts;
+    }
+
+    /**
+     * Gets the test case IDs of regressed tests.
+     *
+     * @param regressedTests The regressed tests.
+     * @return The test case IDs, in order.
+     */
+    private static List<String> getTestCaseIds(List<RegressedTest> regressedTests) {
+        List<String> testCaseIds = new ArrayList<>();
+        for (RegressedTest regressedTest : regressedTests) {
+            testCaseIds.add(regressedTest.getTestCaseId());
+        }
+        return testCaseIds;
+    }
+
+    /**
+     * Gets the test case IDs of flaky tests.
+     *
+     * @param flakyTests The flaky tests.
+     * @return The test case IDs, in order.
+     */
+    private static List<String> getFlakyTestCaseIds(List<FlakyTest> flakyTests) {
+        List<String> testCaseIds = new ArrayList<>();
+        for (FlakyTest flakyTest : flakyTests) {
+            testCaseIds.add(flakyTest.getTestCaseId());
+        }
+        return testCaseIds;
+    }
+}